@@ -3,9 +3,11 @@ package com.hospital.appointmentsystem;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @ComponentScan(basePackages = "com.hospital.appointmentsystem")
+@EnableScheduling
 public class HospitalAppointmentSystemApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,124 @@
+package com.hospital.appointmentsystem.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Versioned schema migrations: {@code db/migration/V<n>__<description>.sql}, applied in version
+ * order, each once, in its own transaction together with its row in {@code schema_history}.
+ * Runs before the EntityManagerFactory, which then only validates the mappings against the result.
+ * <p>
+ * An applied script must not be edited; its checksum is compared on every start and a mismatch
+ * stops the application. Nodes starting together serialize on an advisory lock. Each script runs
+ * as a single statement, so DO blocks need no special separator.
+ */
+@Slf4j
+@Component
+public class SchemaMigrator {
+
+    static final String LOCATION = "classpath:db/migration/V*__*.sql";
+    private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+    // Arbitrary, shared by all nodes: "migr" in ASCII
+    private static final long LOCK_KEY = 0x6d696772L;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${app.migrations.enabled:true}")
+    private boolean enabled;
+
+    record Migration(int version, String description, String sql, long checksum) {
+    }
+
+    // The JPA layer validates the schema, so it must wait for the migrations
+    @Bean
+    static EntityManagerFactoryDependsOnPostProcessor migrationsBeforeJpa() {
+        return new EntityManagerFactoryDependsOnPostProcessor(SchemaMigrator.class);
+    }
+
+    @PostConstruct
+    void migrate() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        // Not the JPA transaction manager: that one needs the EntityManagerFactory, which waits for us
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS schema_history (version INTEGER PRIMARY KEY, " +
+                "description VARCHAR(200) NOT NULL, checksum BIGINT NOT NULL, installed_on TIMESTAMP NOT NULL)");
+
+        int applied = 0;
+        for (Migration migration : load(new PathMatchingResourcePatternResolver())) {
+            Boolean ran = transactionTemplate.execute(status -> {
+                jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(?)", LOCK_KEY);
+                List<Long> recorded = jdbcTemplate.queryForList(
+                        "SELECT checksum FROM schema_history WHERE version = ?", Long.class, migration.version());
+                if (!recorded.isEmpty()) {
+                    if (recorded.get(0) != migration.checksum()) {
+                        throw new IllegalStateException("Migration V" + migration.version() +
+                                " was changed after it was applied; add a new migration instead");
+                    }
+                    return false;
+                }
+                jdbcTemplate.execute(migration.sql());
+                jdbcTemplate.update("INSERT INTO schema_history (version, description, checksum, installed_on) " +
+                                "VALUES (?, ?, ?, ?)", migration.version(), migration.description(),
+                        migration.checksum(), Timestamp.valueOf(LocalDateTime.now()));
+                return true;
+            });
+            if (Boolean.TRUE.equals(ran)) {
+                log.info("Applied schema migration V{} ({})", migration.version(), migration.description());
+                applied++;
+            }
+        }
+        log.info("Schema is up to date ({} migrations applied now)", applied);
+    }
+
+    // All migrations on the classpath, by version
+    static List<Migration> load(ResourcePatternResolver resolver) throws IOException {
+        List<Migration> migrations = new ArrayList<>();
+        for (Resource resource : resolver.getResources(LOCATION)) {
+            Matcher name = FILE_NAME.matcher(resource.getFilename());
+            if (!name.matches()) {
+                throw new IllegalStateException("Migration file name must be V<n>__<description>.sql: " +
+                        resource.getFilename());
+            }
+            // Line endings do not count as a change
+            String sql = resource.getContentAsString(StandardCharsets.UTF_8).replace("\r\n", "\n");
+            CRC32 checksum = new CRC32();
+            checksum.update(sql.getBytes(StandardCharsets.UTF_8));
+            migrations.add(new Migration(Integer.parseInt(name.group(1)), name.group(2).replace('_', ' '),
+                    sql, checksum.getValue()));
+        }
+        migrations.sort(Comparator.comparingInt(Migration::version));
+        for (int i = 1; i < migrations.size(); i++) {
+            if (migrations.get(i).version() == migrations.get(i - 1).version()) {
+                throw new IllegalStateException("Two migrations with version " + migrations.get(i).version());
+            }
+        }
+        return migrations;
+    }
+}
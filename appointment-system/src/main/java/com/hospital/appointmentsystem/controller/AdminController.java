@@ -0,0 +1,129 @@
+package com.hospital.appointmentsystem.controller;
+
+import com.hospital.appointmentsystem.model.ScheduleException;
+import com.hospital.appointmentsystem.model.User;
+import com.hospital.appointmentsystem.security.JwtKeyring;
+import com.hospital.appointmentsystem.service.DoctorScheduleService;
+import com.hospital.appointmentsystem.service.UserAccountService;
+import model.Role;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin")
+@CrossOrigin(origins = "*")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminController {
+
+    @Autowired
+    private UserAccountService userAccountService;
+
+    @Autowired
+    private JwtKeyring jwtKeyring;
+
+    @Autowired
+    private DoctorScheduleService scheduleService;
+
+    // UPDATE - Deactivate user account
+    @PatchMapping("/users/{id}/deactivate")
+    public ResponseEntity<User> deactivateUser(@PathVariable Long id) {
+        try {
+            User updated = userAccountService.deactivateUser(id);
+            return new ResponseEntity<>(updated, HttpStatus.OK);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(null, HttpStatus.NOT_FOUND);
+        }
+    }
+
+    // UPDATE - Reactivate user account
+    @PatchMapping("/users/{id}/activate")
+    public ResponseEntity<User> activateUser(@PathVariable Long id) {
+        try {
+            User updated = userAccountService.activateUser(id);
+            return new ResponseEntity<>(updated, HttpStatus.OK);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(null, HttpStatus.NOT_FOUND);
+        }
+    }
+
+    // UPDATE - Change user role
+    @PatchMapping("/users/{id}/role")
+    public ResponseEntity<User> changeRole(@PathVariable Long id, @RequestParam String role) {
+        Role newRole;
+        try {
+            newRole = Role.valueOf(role.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
+        }
+        try {
+            User updated = userAccountService.changeRole(id, newRole);
+            return new ResponseEntity<>(updated, HttpStatus.OK);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(null, HttpStatus.NOT_FOUND);
+        }
+    }
+
+    // READ - List signing key ids (never the secrets)
+    @GetMapping("/keys")
+    public ResponseEntity<List<Map<String, Object>>> listSigningKeys() {
+        String activeKid = jwtKeyring.active().kid();
+        List<Map<String, Object>> keys = jwtKeyring.keys().stream()
+                .map(key -> Map.<String, Object>of(
+                        "kid", key.kid(),
+                        "active", key.kid().equals(activeKid),
+                        "retireAt", key.retireAt() != null ? key.retireAt() : "never"))
+                .toList();
+        return new ResponseEntity<>(keys, HttpStatus.OK);
+    }
+
+    // UPDATE - Rotate the JWT signing key; tokens signed with the old key stay valid until they expire
+    @PostMapping("/keys/rotate")
+    public ResponseEntity<Map<String, String>> rotateSigningKey() {
+        try {
+            JwtKeyring.SigningKey active = jwtKeyring.rotate();
+            return new ResponseEntity<>(Map.of("activeKid", active.kid()), HttpStatus.OK);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // READ - Public holidays in a date range
+    @GetMapping("/holidays")
+    public ResponseEntity<List<ScheduleException>> getHolidays(@RequestParam String from, @RequestParam String to) {
+        try {
+            return new ResponseEntity<>(scheduleService.getHolidays(LocalDate.parse(from), LocalDate.parse(to)),
+                    HttpStatus.OK);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(null);
+        }
+    }
+
+    // CREATE - Public holiday for every doctor (times optional for a partial closure)
+    @PostMapping("/holidays")
+    public ResponseEntity<ScheduleException> addHoliday(@RequestBody ScheduleException holiday) {
+        try {
+            return new ResponseEntity<>(scheduleService.addHoliday(holiday), HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
+        }
+    }
+
+    // DELETE - Remove a public holiday
+    @DeleteMapping("/holidays/{id}")
+    public ResponseEntity<HttpStatus> deleteHoliday(@PathVariable Long id) {
+        try {
+            scheduleService.deleteHoliday(id);
+            return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+}
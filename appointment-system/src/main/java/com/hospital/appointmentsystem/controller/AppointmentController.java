@@ -1,13 +1,31 @@
 package com.hospital.appointmentsystem.controller;
 
+import com.hospital.appointmentsystem.dto.AppointmentView;
+import com.hospital.appointmentsystem.dto.AvailableSlot;
+import com.hospital.appointmentsystem.dto.BookingResult;
+import com.hospital.appointmentsystem.dto.BulkMutationResult;
+import com.hospital.appointmentsystem.dto.CursorPage;
+import com.hospital.appointmentsystem.dto.RecurringBookingRequest;
+import com.hospital.appointmentsystem.exception.SlotConflictException;
 import com.hospital.appointmentsystem.model.Appointment;
+import com.hospital.appointmentsystem.security.JwtPrincipal;
 import com.hospital.appointmentsystem.service.AppointmentService;
+import com.hospital.appointmentsystem.service.ExportService;
+import model.AppointmentStatus;
+import model.Role;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 @RestController
@@ -18,12 +36,17 @@ public class AppointmentController {
     @Autowired
     private AppointmentService appointmentService;
 
+    @Autowired
+    private ExportService exportService;
+
     // CREATE - Book new appointment
     @PostMapping
     public ResponseEntity<Appointment> createAppointment(@RequestBody Appointment appointment) {
         try {
             Appointment created = appointmentService.createAppointment(appointment);
             return new ResponseEntity<>(created, HttpStatus.CREATED);
+        } catch (SlotConflictException e) {
+            return new ResponseEntity<>(null, HttpStatus.CONFLICT);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(null);
         } catch (Exception e) {
@@ -31,20 +54,94 @@ public class AppointmentController {
         }
     }
 
-    // READ - Get all appointments
+    // CREATE - Book many appointments; 200 with one result per item (CREATED, CONFLICT or INVALID)
+    @PostMapping("/bulk")
+    public ResponseEntity<List<BookingResult>> createAppointments(@RequestBody List<Appointment> appointments) {
+        try {
+            List<BookingResult> results = appointmentService.createAppointments(appointments);
+            return new ResponseEntity<>(results, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // CREATE - Book a recurring series, e.g. {"frequency": "WEEKLY", "count": 10, ...}
+    @PostMapping("/recurring")
+    public ResponseEntity<List<BookingResult>> createRecurringAppointments(
+            @RequestBody RecurringBookingRequest request) {
+        try {
+            List<BookingResult> results = appointmentService.createRecurringAppointments(request);
+            return new ResponseEntity<>(results, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // READ - Get all appointments, a page at a time: pass nextCursor back as ?cursor= until hasMore is false
     @GetMapping
-    public ResponseEntity<List<Appointment>> getAllAppointments() {
+    public ResponseEntity<CursorPage<AppointmentView>> getAllAppointments(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
         try {
-            List<Appointment> appointments = appointmentService.getAllAppointments();
-            if (appointments.isEmpty()) {
+            CursorPage<AppointmentView> page = appointmentService.getAllAppointments(cursor, size);
+            if (page.getItems().isEmpty()) {
                 return new ResponseEntity<>(HttpStatus.NO_CONTENT);
             }
-            return new ResponseEntity<>(appointments, HttpStatus.OK);
+            return new ResponseEntity<>(page, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
         } catch (Exception e) {
             return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
+    // READ - Get appointments by status, paged the same way
+    @GetMapping("/status/{status}")
+    public ResponseEntity<CursorPage<AppointmentView>> getAppointmentsByStatus(
+            @PathVariable AppointmentStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        try {
+            return new ResponseEntity<>(appointmentService.getAppointmentsByStatus(status, cursor, size), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // EXPORT - NDJSON stream for bulk pulls, e.g. /export?from=2024-01-01&to=2024-12-31&status=COMPLETED;
+    // gzipped when the client sends Accept-Encoding: gzip
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportAppointments(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) Long doctorId,
+            @RequestParam(required = false) List<AppointmentStatus> status,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        try {
+            boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+            StreamingResponseBody body = exportService.exportAppointments(from != null ? LocalDate.parse(from) : null,
+                    to != null ? LocalDate.parse(to) : null, doctorId, status, gzip);
+            return ndjson(body, gzip);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    static ResponseEntity<StreamingResponseBody> ndjson(StreamingResponseBody body, boolean gzip) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
     // READ - Get appointment by ID
     @GetMapping("/{id}")
     public ResponseEntity<Appointment> getAppointmentById(@PathVariable Long id) {
@@ -58,9 +155,9 @@ public class AppointmentController {
 
     // READ - Get patient's appointments
     @GetMapping("/patient/{patientId}")
-    public ResponseEntity<List<Appointment>> getPatientAppointments(@PathVariable Long patientId) {
+    public ResponseEntity<List<AppointmentView>> getPatientAppointments(@PathVariable Long patientId) {
         try {
-            List<Appointment> appointments = appointmentService.getPatientAppointments(patientId);
+            List<AppointmentView> appointments = appointmentService.getPatientAppointments(patientId);
             return new ResponseEntity<>(appointments, HttpStatus.OK);
         } catch (Exception e) {
             return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
@@ -69,9 +166,9 @@ public class AppointmentController {
 
     // READ - Get doctor's appointments
     @GetMapping("/doctor/{doctorId}")
-    public ResponseEntity<List<Appointment>> getDoctorAppointments(@PathVariable Long doctorId) {
+    public ResponseEntity<List<AppointmentView>> getDoctorAppointments(@PathVariable Long doctorId) {
         try {
-            List<Appointment> appointments = appointmentService.getDoctorAppointments(doctorId);
+            List<AppointmentView> appointments = appointmentService.getDoctorAppointments(doctorId);
             return new ResponseEntity<>(appointments, HttpStatus.OK);
         } catch (Exception e) {
             return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
@@ -80,40 +177,81 @@ public class AppointmentController {
 
     // READ - Get upcoming appointments for patient
     @GetMapping("/patient/{patientId}/upcoming")
-    public ResponseEntity<List<Appointment>> getUpcomingPatientAppointments(@PathVariable Long patientId) {
+    public ResponseEntity<List<AppointmentView>> getUpcomingPatientAppointments(@PathVariable Long patientId) {
         try {
-            List<Appointment> appointments = appointmentService.getUpcomingPatientAppointments(patientId);
+            List<AppointmentView> appointments = appointmentService.getUpcomingPatientAppointments(patientId);
             return new ResponseEntity<>(appointments, HttpStatus.OK);
         } catch (Exception e) {
             return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
-    // READ - Get upcoming appointments for doctor
+    // READ - Get upcoming appointments for doctor (cached, already serialized)
     @GetMapping("/doctor/{doctorId}/upcoming")
-    public ResponseEntity<List<Appointment>> getUpcomingDoctorAppointments(@PathVariable Long doctorId) {
+    public ResponseEntity<byte[]> getUpcomingDoctorAppointments(@PathVariable Long doctorId) {
         try {
-            List<Appointment> appointments = appointmentService.getUpcomingDoctorAppointments(doctorId);
-            return new ResponseEntity<>(appointments, HttpStatus.OK);
+            byte[] appointments = appointmentService.getUpcomingDoctorSheet(doctorId);
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(appointments);
         } catch (Exception e) {
             return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
-    // READ - Get doctor's appointments by date
+    // READ - Get doctor's appointments by date (cached, already serialized)
     @GetMapping("/doctor/{doctorId}/date/{date}")
-    public ResponseEntity<List<Appointment>> getDoctorAppointmentsByDate(
+    public ResponseEntity<byte[]> getDoctorAppointmentsByDate(
             @PathVariable Long doctorId,
             @PathVariable String date) {
         try {
             LocalDate appointmentDate = LocalDate.parse(date);
-            List<Appointment> appointments = appointmentService.getDoctorAppointmentsByDate(doctorId, appointmentDate);
-            return new ResponseEntity<>(appointments, HttpStatus.OK);
+            byte[] appointments = appointmentService.getDoctorDaySheet(doctorId, appointmentDate);
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(appointments);
         } catch (Exception e) {
             return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
         }
     }
 
+    // READ - Get doctor's free slots on a date for a given duration (working hours, in-memory)
+    @GetMapping("/doctor/{doctorId}/date/{date}/free-slots")
+    public ResponseEntity<List<LocalTime>> getFreeSlots(
+            @PathVariable Long doctorId,
+            @PathVariable String date,
+            @RequestParam(defaultValue = "30") int duration) {
+        try {
+            if (duration < 1) {
+                return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+            }
+            LocalDate appointmentDate = LocalDate.parse(date);
+            List<LocalTime> slots = appointmentService.getFreeSlots(doctorId, appointmentDate, duration);
+            return new ResponseEntity<>(slots, HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // READ - Earliest free slots for a specialization or doctor, e.g.
+    // /available-slots?specialization=Cardiology&from=2025-03-01&to=2025-03-14&limit=10
+    @GetMapping("/available-slots")
+    public ResponseEntity<List<AvailableSlot>> findAvailableSlots(
+            @RequestParam(required = false) String specialization,
+            @RequestParam(required = false) Long doctorId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(defaultValue = "30") int duration,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            LocalDate fromDate = from != null ? LocalDate.parse(from) : LocalDate.now();
+            LocalDate toDate = to != null ? LocalDate.parse(to) : fromDate.plusDays(13);
+            List<AvailableSlot> slots = appointmentService.findAvailableSlots(
+                    specialization, doctorId, fromDate, toDate, duration, limit);
+            return new ResponseEntity<>(slots, HttpStatus.OK);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     // UPDATE
     @PutMapping("/{id}")
     public ResponseEntity<Appointment> updateAppointment(
@@ -122,13 +260,15 @@ public class AppointmentController {
         try {
             Appointment updated = appointmentService.updateAppointment(id, appointment);
             return new ResponseEntity<>(updated, HttpStatus.OK);
+        } catch (SlotConflictException e) {
+            return new ResponseEntity<>(null, HttpStatus.CONFLICT);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(null);
         }
     }
 
     // UPDATE - Cancel appointment
-    @PatchMapping("/{id}/cancel")
+    @PatchMapping("/{id:\\d+}/cancel")
     public ResponseEntity<Appointment> cancelAppointment(@PathVariable Long id) {
         try {
             Appointment cancelled = appointmentService.cancelAppointment(id);
@@ -139,7 +279,7 @@ public class AppointmentController {
     }
 
     // UPDATE - Complete appointment
-    @PatchMapping("/{id}/complete")
+    @PatchMapping("/{id:\\d+}/complete")
     public ResponseEntity<Appointment> completeAppointment(@PathVariable Long id) {
         try {
             Appointment completed = appointmentService.completeAppointment(id);
@@ -159,4 +299,60 @@ public class AppointmentController {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
-}
\ No newline at end of file
+
+    // BULK - Cancel, complete or mark no-show by criteria, e.g.
+    // PATCH /bulk/cancel?doctorId=3&from=2025-03-10&to=2025-03-10 (only SCHEDULED unless status= is given).
+    // Doctors must pass their own doctorId; only admins may leave it out or name another doctor.
+    // /{id}/cancel and /{id}/complete only match numeric ids, so /bulk/cancel and /bulk/complete land here.
+    @PatchMapping("/bulk/{action}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR')")
+    public ResponseEntity<BulkMutationResult> bulkUpdateStatus(
+            @PathVariable String action,
+            @RequestParam(required = false) Long doctorId,
+            @RequestParam String from,
+            @RequestParam String to,
+            @RequestParam(required = false) List<AppointmentStatus> status,
+            @AuthenticationPrincipal JwtPrincipal principal) {
+        if (principal == null || (principal.role() != Role.ADMIN
+                && (doctorId == null || !doctorId.equals(principal.doctorId())))) {
+            return new ResponseEntity<>(null, HttpStatus.FORBIDDEN);
+        }
+        AppointmentStatus target = switch (action) {
+            case "cancel" -> AppointmentStatus.CANCELLED;
+            case "complete" -> AppointmentStatus.COMPLETED;
+            case "no-show" -> AppointmentStatus.NO_SHOW;
+            default -> null;
+        };
+        if (target == null) {
+            return new ResponseEntity<>(null, HttpStatus.NOT_FOUND);
+        }
+        try {
+            BulkMutationResult result = appointmentService.bulkUpdateStatus(
+                    doctorId, LocalDate.parse(from), LocalDate.parse(to), status, target);
+            return new ResponseEntity<>(result, HttpStatus.OK);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(null);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // BULK - Delete by criteria, e.g. DELETE /bulk?from=2025-01-01&to=2025-01-31&status=CANCELLED
+    @DeleteMapping("/bulk")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkMutationResult> bulkDelete(
+            @RequestParam(required = false) Long doctorId,
+            @RequestParam String from,
+            @RequestParam String to,
+            @RequestParam(required = false) List<AppointmentStatus> status) {
+        try {
+            BulkMutationResult result = appointmentService.bulkDelete(
+                    doctorId, LocalDate.parse(from), LocalDate.parse(to), status);
+            return new ResponseEntity<>(result, HttpStatus.OK);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(null);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+}
@@ -1,21 +1,37 @@
 package com.hospital.appointmentsystem.controller;
 
+import com.hospital.appointmentsystem.dto.CurrentUserResponse;
 import com.hospital.appointmentsystem.dto.LoginRequest;
 import com.hospital.appointmentsystem.dto.LoginResponse;
 import com.hospital.appointmentsystem.dto.RegisterRequest;
+import com.hospital.appointmentsystem.exception.DuplicateAccountException;
+import com.hospital.appointmentsystem.exception.OverloadedException;
 import com.hospital.appointmentsystem.model.User;
 import com.hospital.appointmentsystem.repository.UserRepository;
+import com.hospital.appointmentsystem.security.CustomUserDetailsService;
+import com.hospital.appointmentsystem.security.JwtAuthenticationToken;
 import com.hospital.appointmentsystem.security.JwtUtil;
-import model.Role;
+import com.hospital.appointmentsystem.security.PasswordHashingExecutor;
+import com.hospital.appointmentsystem.security.TokenRevocationService;
+import com.hospital.appointmentsystem.security.VerifiedToken;
+import com.hospital.appointmentsystem.service.RegistrationService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 @RestController
 @RequestMapping("/api/auth")
 @CrossOrigin(origins = "*")
@@ -31,42 +47,58 @@ public class AuthController {
     private JwtUtil jwtUtil;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private TokenRevocationService revocationService;
+
+    @Autowired
+    private PasswordHashingExecutor hashingExecutor;
+
+    @Autowired
+    private RegistrationService registrationService;
 
-    // REGISTER
+    // REGISTER - Duplicates are caught by the unique constraints (409); hashing runs on the BCrypt pool
     @PostMapping("/register")
-    public ResponseEntity<?> register(@RequestBody RegisterRequest request) {
+    public CompletableFuture<ResponseEntity<?>> register(@RequestBody RegisterRequest request) {
         try {
-            // Check if username already exists
-            if (userRepository.existsByUsername(request.getUsername())) {
-                return ResponseEntity.badRequest().body("Username already exists");
-            }
-
-            // Check if email already exists
-            if (userRepository.existsByEmail(request.getEmail())) {
-                return ResponseEntity.badRequest().body("Email already exists");
-            }
-
-            // Create new user
-            User user = new User();
-            user.setUsername(request.getUsername());
-            user.setPassword(passwordEncoder.encode(request.getPassword()));
-            user.setEmail(request.getEmail());
-            user.setRole(Role.valueOf(request.getRole().toUpperCase()));
-            user.setActive(true);
-
-            userRepository.save(user);
-
-            return ResponseEntity.ok("User registered successfully");
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body("Error during registration: " + e.getMessage());
+            return registrationService.register(request)
+                    .<ResponseEntity<?>>thenApply(user -> ResponseEntity.ok("User registered successfully"))
+                    .exceptionally(e -> failure(e, "Error during registration: "));
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(e.getMessage()));
+        } catch (OverloadedException e) {
+            return CompletableFuture.completedFuture(overloaded(e));
+        }
+    }
+
+    // REGISTER - Batch onboarding (admin only); one result per account, in request order
+    @PostMapping("/register/batch")
+    @PreAuthorize("hasRole('ADMIN')")
+    public CompletableFuture<ResponseEntity<?>> registerBatch(@RequestBody List<RegisterRequest> requests) {
+        try {
+            return registrationService.registerBatch(requests)
+                    .<ResponseEntity<?>>thenApply(ResponseEntity::ok)
+                    .exceptionally(e -> failure(e, "Error during batch registration: "));
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(e.getMessage()));
+        } catch (OverloadedException e) {
+            return CompletableFuture.completedFuture(overloaded(e));
         }
     }
 
-    // LOGIN
+    // LOGIN - BCrypt verification runs on the bounded pool; the request thread is released meanwhile
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest request) {
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody LoginRequest request) {
+        try {
+            return hashingExecutor.<ResponseEntity<?>>submit(() -> authenticate(request))
+                    .exceptionally(e -> failure(e, "Error during login: "));
+        } catch (OverloadedException e) {
+            return CompletableFuture.completedFuture(overloaded(e));
+        }
+    }
+
+    private ResponseEntity<?> authenticate(LoginRequest request) {
         try {
             // Authenticate user
             authenticationManager.authenticate(
@@ -77,8 +109,8 @@ public class AuthController {
             User user = userRepository.findByUsername(request.getUsername())
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
-            // Generate JWT token
-            String token = jwtUtil.generateToken(user.getUsername());
+            // Generate JWT token carrying role and linked profile ids
+            String token = jwtUtil.generateToken(userDetailsService.loadPrincipal(user));
 
             // Return response
             LoginResponse response = new LoginResponse(
@@ -93,9 +125,59 @@ public class AuthController {
         } catch (BadCredentialsException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body("Invalid username or password");
+        } catch (DisabledException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body("Account is deactivated");
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error during login: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    private ResponseEntity<?> failure(Throwable e, String prefix) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof OverloadedException overloaded) {
+            return overloaded(overloaded);
+        }
+        if (cause instanceof DuplicateAccountException) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(cause.getMessage());
+        }
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(prefix + cause.getMessage());
+    }
+
+    private ResponseEntity<?> overloaded(OverloadedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfterSeconds()))
+                .body(e.getMessage());
+    }
+
+    // LOGOUT - Revoke the presented token on every node
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(Authentication authentication) {
+        if (!(authentication instanceof JwtAuthenticationToken jwtAuthentication)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Not authenticated");
+        }
+        try {
+            revocationService.revokeToken(jwtAuthentication.getToken());
+            return ResponseEntity.ok("Logged out");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // CURRENT USER - Read from the token verified by JwtRequestFilter, no re-parsing
+    @GetMapping("/me")
+    public ResponseEntity<?> currentUser(Authentication authentication) {
+        if (!(authentication instanceof JwtAuthenticationToken jwtAuthentication)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Not authenticated");
+        }
+        VerifiedToken token = jwtAuthentication.getToken();
+        CurrentUserResponse response = new CurrentUserResponse(
+                jwtAuthentication.getName(),
+                jwtAuthentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList(),
+                token.issuedAt(),
+                token.expiresAt()
+        );
+        return ResponseEntity.ok(response);
+    }
+}
@@ -1,12 +1,22 @@
 package com.hospital.appointmentsystem.controller;
 
+import com.hospital.appointmentsystem.dto.DoctorView;
 import com.hospital.appointmentsystem.model.Doctor;
+import com.hospital.appointmentsystem.dto.ImportReport;
+import com.hospital.appointmentsystem.security.JwtPrincipal;
 import com.hospital.appointmentsystem.service.DoctorService;
+import com.hospital.appointmentsystem.service.ImportService;
+import model.Role;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -17,6 +27,9 @@ public class DoctorController {
     @Autowired
     private DoctorService doctorService;
 
+    @Autowired
+    private ImportService importService;
+
     // CREATE
     @PostMapping
     public ResponseEntity<Doctor> createDoctor(@RequestBody Doctor doctor) {
@@ -28,11 +41,31 @@ public class DoctorController {
         }
     }
 
+    // CREATE - Bulk import doctors with their accounts from CSV (header row) or NDJSON, e.g.
+    // /import?jobId=onboarding-2025; rerun with the same jobId and file to resume after a failure
+    @PostMapping("/import")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ImportReport> importDoctors(
+            @RequestParam String jobId,
+            @RequestParam(required = false) String format,
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            InputStream body) {
+        try {
+            ImportReport report = importService.importProfiles(Role.DOCTOR, jobId,
+                    ImportService.format(format, contentType), body);
+            return new ResponseEntity<>(report, HttpStatus.OK);
+        } catch (IllegalArgumentException | IOException e) {
+            return ResponseEntity.badRequest().body(null);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     // READ - Get all doctors
     @GetMapping
-    public ResponseEntity<List<Doctor>> getAllDoctors() {
+    public ResponseEntity<List<DoctorView>> getAllDoctors() {
         try {
-            List<Doctor> doctors = doctorService.getAllDoctors();
+            List<DoctorView> doctors = doctorService.getAllDoctors();
             if (doctors.isEmpty()) {
                 return new ResponseEntity<>(HttpStatus.NO_CONTENT);
             }
@@ -42,6 +75,17 @@ public class DoctorController {
         }
     }
 
+    // READ - Get the logged-in doctor's own profile
+    @GetMapping("/me")
+    public ResponseEntity<Doctor> getCurrentDoctor(@AuthenticationPrincipal JwtPrincipal principal) {
+        try {
+            Doctor doctor = doctorService.getDoctorForPrincipal(principal);
+            return new ResponseEntity<>(doctor, HttpStatus.OK);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(null, HttpStatus.NOT_FOUND);
+        }
+    }
+
     // READ - Get doctor by ID
     @GetMapping("/{id}")
     public ResponseEntity<Doctor> getDoctorById(@PathVariable Long id) {
@@ -55,9 +99,9 @@ public class DoctorController {
 
     // READ - Get available doctors
     @GetMapping("/available")
-    public ResponseEntity<List<Doctor>> getAvailableDoctors() {
+    public ResponseEntity<List<DoctorView>> getAvailableDoctors() {
         try {
-            List<Doctor> doctors = doctorService.getAvailableDoctors();
+            List<DoctorView> doctors = doctorService.getAvailableDoctors();
             return new ResponseEntity<>(doctors, HttpStatus.OK);
         } catch (Exception e) {
             return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
@@ -66,9 +110,9 @@ public class DoctorController {
 
     // READ - Get doctors by specialization
     @GetMapping("/specialization/{specialization}")
-    public ResponseEntity<List<Doctor>> getDoctorsBySpecialization(@PathVariable String specialization) {
+    public ResponseEntity<List<DoctorView>> getDoctorsBySpecialization(@PathVariable String specialization) {
         try {
-            List<Doctor> doctors = doctorService.getDoctorsBySpecialization(specialization);
+            List<DoctorView> doctors = doctorService.getDoctorsBySpecialization(specialization);
             return new ResponseEntity<>(doctors, HttpStatus.OK);
         } catch (Exception e) {
             return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
@@ -77,9 +121,9 @@ public class DoctorController {
 
     // READ - Search doctors by name
     @GetMapping("/search")
-    public ResponseEntity<List<Doctor>> searchDoctors(@RequestParam String name) {
+    public ResponseEntity<List<DoctorView>> searchDoctors(@RequestParam String name) {
         try {
-            List<Doctor> doctors = doctorService.searchDoctorsByName(name);
+            List<DoctorView> doctors = doctorService.searchDoctorsByName(name);
             return new ResponseEntity<>(doctors, HttpStatus.OK);
         } catch (Exception e) {
             return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
@@ -1,12 +1,20 @@
 package com.hospital.appointmentsystem.controller;
 
+import com.hospital.appointmentsystem.dto.CursorPage;
+import com.hospital.appointmentsystem.dto.MedicalRecordView;
 import com.hospital.appointmentsystem.model.MedicalRecord;
+import com.hospital.appointmentsystem.service.ExportService;
 import com.hospital.appointmentsystem.service.MedicalRecordService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 @RestController
@@ -17,6 +25,9 @@ public class MedicalRecordController {
     @Autowired
     private MedicalRecordService medicalRecordService;
 
+    @Autowired
+    private ExportService exportService;
+
     // CREATE
     @PostMapping
     public ResponseEntity<MedicalRecord> createMedicalRecord(@RequestBody MedicalRecord record) {
@@ -28,20 +39,43 @@ public class MedicalRecordController {
         }
     }
 
-    // READ - Get all medical records
+    // READ - Get all medical records, newest first, a page at a time (pass nextCursor back as ?cursor=)
     @GetMapping
-    public ResponseEntity<List<MedicalRecord>> getAllMedicalRecords() {
+    public ResponseEntity<CursorPage<MedicalRecordView>> getAllMedicalRecords(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
         try {
-            List<MedicalRecord> records = medicalRecordService.getAllMedicalRecords();
-            if (records.isEmpty()) {
+            CursorPage<MedicalRecordView> page = medicalRecordService.getAllMedicalRecords(cursor, size);
+            if (page.getItems().isEmpty()) {
                 return new ResponseEntity<>(HttpStatus.NO_CONTENT);
             }
-            return new ResponseEntity<>(records, HttpStatus.OK);
+            return new ResponseEntity<>(page, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
         } catch (Exception e) {
             return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
+    // EXPORT - NDJSON stream for bulk pulls, e.g. /export?from=2024-01-01&doctorId=3;
+    // gzipped when the client sends Accept-Encoding: gzip
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportMedicalRecords(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) Long doctorId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        try {
+            boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+            StreamingResponseBody body = exportService.exportMedicalRecords(from != null ? LocalDate.parse(from) : null,
+                    to != null ? LocalDate.parse(to) : null, doctorId, gzip);
+            return AppointmentController.ndjson(body, gzip);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     // READ - Get medical record by ID
     @GetMapping("/{id}")
     public ResponseEntity<MedicalRecord> getMedicalRecordById(@PathVariable Long id) {
@@ -55,9 +89,9 @@ public class MedicalRecordController {
 
     // READ - Get patient's medical records
     @GetMapping("/patient/{patientId}")
-    public ResponseEntity<List<MedicalRecord>> getPatientMedicalRecords(@PathVariable Long patientId) {
+    public ResponseEntity<List<MedicalRecordView>> getPatientMedicalRecords(@PathVariable Long patientId) {
         try {
-            List<MedicalRecord> records = medicalRecordService.getPatientMedicalRecords(patientId);
+            List<MedicalRecordView> records = medicalRecordService.getPatientMedicalRecords(patientId);
             return new ResponseEntity<>(records, HttpStatus.OK);
         } catch (Exception e) {
             return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
@@ -66,10 +100,15 @@ public class MedicalRecordController {
 
     // READ - Get doctor's medical records
     @GetMapping("/doctor/{doctorId}")
-    public ResponseEntity<List<MedicalRecord>> getDoctorMedicalRecords(@PathVariable Long doctorId) {
+    public ResponseEntity<CursorPage<MedicalRecordView>> getDoctorMedicalRecords(
+            @PathVariable Long doctorId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
         try {
-            List<MedicalRecord> records = medicalRecordService.getDoctorMedicalRecords(doctorId);
-            return new ResponseEntity<>(records, HttpStatus.OK);
+            CursorPage<MedicalRecordView> page = medicalRecordService.getDoctorMedicalRecords(doctorId, cursor, size);
+            return new ResponseEntity<>(page, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
         } catch (Exception e) {
             return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
         }
@@ -77,9 +116,9 @@ public class MedicalRecordController {
 
     // READ - Search by diagnosis
     @GetMapping("/search")
-    public ResponseEntity<List<MedicalRecord>> searchByDiagnosis(@RequestParam String keyword) {
+    public ResponseEntity<List<MedicalRecordView>> searchByDiagnosis(@RequestParam String keyword) {
         try {
-            List<MedicalRecord> records = medicalRecordService.searchByDiagnosis(keyword);
+            List<MedicalRecordView> records = medicalRecordService.searchByDiagnosis(keyword);
             return new ResponseEntity<>(records, HttpStatus.OK);
         } catch (Exception e) {
             return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
@@ -88,10 +127,14 @@ public class MedicalRecordController {
 
     // READ - Get records with upcoming follow-ups
     @GetMapping("/follow-ups")
-    public ResponseEntity<List<MedicalRecord>> getUpcomingFollowUps() {
+    public ResponseEntity<CursorPage<MedicalRecordView>> getUpcomingFollowUps(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
         try {
-            List<MedicalRecord> records = medicalRecordService.getRecordsWithUpcomingFollowUp();
-            return new ResponseEntity<>(records, HttpStatus.OK);
+            CursorPage<MedicalRecordView> page = medicalRecordService.getRecordsWithUpcomingFollowUp(cursor, size);
+            return new ResponseEntity<>(page, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
         } catch (Exception e) {
             return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
         }
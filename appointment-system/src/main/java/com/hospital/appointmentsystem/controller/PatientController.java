@@ -1,12 +1,23 @@
 package com.hospital.appointmentsystem.controller;
 
+import com.hospital.appointmentsystem.dto.CursorPage;
+import com.hospital.appointmentsystem.dto.PatientView;
 import com.hospital.appointmentsystem.model.Patient;
+import com.hospital.appointmentsystem.dto.ImportReport;
+import com.hospital.appointmentsystem.security.JwtPrincipal;
 import com.hospital.appointmentsystem.service.PatientService;
+import com.hospital.appointmentsystem.service.ImportService;
+import model.Role;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -17,27 +28,65 @@ public class PatientController {
     @Autowired
     private PatientService patientService;
 
+    @Autowired
+    private ImportService importService;
+
     // Simple test endpoint first
     @GetMapping("/test")
     public String test() {
         return "Patient controller loaded!";
     }
 
-    // READ - Get all patients
+    // READ - Get all patients by name, a page at a time (pass nextCursor back as ?cursor=)
     @GetMapping
-    public ResponseEntity<List<Patient>> getAllPatients() {
+    public ResponseEntity<CursorPage<PatientView>> getAllPatients(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
         try {
-            List<Patient> patients = patientService.getAllPatients();
-            if (patients.isEmpty()) {
+            CursorPage<PatientView> page = patientService.getAllPatients(cursor, size);
+            if (page.getItems().isEmpty()) {
                 return new ResponseEntity<>(HttpStatus.NO_CONTENT);
             }
-            return new ResponseEntity<>(patients, HttpStatus.OK);
+            return new ResponseEntity<>(page, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
         } catch (Exception e) {
             e.printStackTrace();
             return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
+    // CREATE - Bulk import patients with their accounts from CSV (header row) or NDJSON, e.g.
+    // /import?jobId=onboarding-2025; rerun with the same jobId and file to resume after a failure
+    @PostMapping("/import")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ImportReport> importPatients(
+            @RequestParam String jobId,
+            @RequestParam(required = false) String format,
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            InputStream body) {
+        try {
+            ImportReport report = importService.importProfiles(Role.PATIENT, jobId,
+                    ImportService.format(format, contentType), body);
+            return new ResponseEntity<>(report, HttpStatus.OK);
+        } catch (IllegalArgumentException | IOException e) {
+            return ResponseEntity.badRequest().body(null);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // READ - Get the logged-in patient's own profile
+    @GetMapping("/me")
+    public ResponseEntity<Patient> getCurrentPatient(@AuthenticationPrincipal JwtPrincipal principal) {
+        try {
+            Patient patient = patientService.getPatientForPrincipal(principal);
+            return new ResponseEntity<>(patient, HttpStatus.OK);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(null, HttpStatus.NOT_FOUND);
+        }
+    }
+
     // READ - Get patient by ID
     @GetMapping("/{id}")
     public ResponseEntity<Patient> getPatientById(@PathVariable Long id) {
@@ -0,0 +1,133 @@
+package com.hospital.appointmentsystem.controller;
+
+import com.hospital.appointmentsystem.dto.ResourceBookingRequest;
+import com.hospital.appointmentsystem.dto.ResourceSlot;
+import com.hospital.appointmentsystem.exception.SlotConflictException;
+import com.hospital.appointmentsystem.model.Appointment;
+import com.hospital.appointmentsystem.model.ClinicResource;
+import com.hospital.appointmentsystem.model.ResourceBooking;
+import com.hospital.appointmentsystem.service.ResourceService;
+import com.hospital.appointmentsystem.service.ResourceSlotFinder;
+import model.ResourceType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/resources")
+@CrossOrigin(origins = "*")
+public class ResourceController {
+
+    @Autowired
+    private ResourceService resourceService;
+
+    @Autowired
+    private ResourceSlotFinder slotFinder;
+
+    // CREATE
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ClinicResource> createResource(@RequestBody ClinicResource resource) {
+        try {
+            return new ResponseEntity<>(resourceService.createResource(resource), HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
+        }
+    }
+
+    // READ - All resources, optionally filtered by type or category
+    @GetMapping
+    public ResponseEntity<List<ClinicResource>> getResources(@RequestParam(required = false) ResourceType type,
+                                                             @RequestParam(required = false) String category) {
+        try {
+            return new ResponseEntity<>(resourceService.getResources(type, category), HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // READ - Get resource by ID
+    @GetMapping("/{id}")
+    public ResponseEntity<ClinicResource> getResourceById(@PathVariable Long id) {
+        try {
+            return new ResponseEntity<>(resourceService.getResourceById(id), HttpStatus.OK);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(null, HttpStatus.NOT_FOUND);
+        }
+    }
+
+    // READ - Slots where the doctor and one resource of each category are free, e.g.
+    // /slots?doctorId=3&requires=ULTRASOUND_ROOM,ULTRASOUND_PROBE&from=2025-03-10&to=2025-03-16&duration=45
+    @GetMapping("/slots")
+    public ResponseEntity<List<ResourceSlot>> findSlots(@RequestParam Long doctorId,
+                                                        @RequestParam(required = false) List<String> requires,
+                                                        @RequestParam(required = false) String from,
+                                                        @RequestParam(required = false) String to,
+                                                        @RequestParam(defaultValue = "30") int duration,
+                                                        @RequestParam(defaultValue = "10") int limit) {
+        try {
+            LocalDate fromDate = from != null ? LocalDate.parse(from) : LocalDate.now();
+            LocalDate toDate = to != null ? LocalDate.parse(to) : fromDate.plusDays(6);
+            return new ResponseEntity<>(slotFinder.findSlots(doctorId, requires, fromDate, toDate, duration, limit),
+                    HttpStatus.OK);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(null);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // CREATE - Book an appointment holding the given resources; 409 if the doctor or any resource is taken
+    @PostMapping("/bookings")
+    public ResponseEntity<Appointment> bookWithResources(@RequestBody ResourceBookingRequest request) {
+        try {
+            Appointment created = resourceService.bookWithResources(request.getAppointment(), request.getResourceIds());
+            return new ResponseEntity<>(created, HttpStatus.CREATED);
+        } catch (SlotConflictException e) {
+            return new ResponseEntity<>(null, HttpStatus.CONFLICT);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(null);
+        }
+    }
+
+    // READ - Resources held by an appointment
+    @GetMapping("/bookings/appointment/{appointmentId}")
+    public ResponseEntity<List<ResourceBooking>> getAppointmentResources(@PathVariable Long appointmentId) {
+        try {
+            return new ResponseEntity<>(resourceService.getAppointmentResources(appointmentId), HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // UPDATE
+    @PutMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ClinicResource> updateResource(@PathVariable Long id, @RequestBody ClinicResource resource) {
+        try {
+            return new ResponseEntity<>(resourceService.updateResource(id, resource), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(null, HttpStatus.NOT_FOUND);
+        }
+    }
+
+    // DELETE - Retire (kept on past bookings, no longer offered)
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<HttpStatus> retireResource(@PathVariable Long id) {
+        try {
+            resourceService.retireResource(id);
+            return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+}
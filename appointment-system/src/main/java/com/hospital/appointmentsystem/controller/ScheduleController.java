@@ -0,0 +1,144 @@
+package com.hospital.appointmentsystem.controller;
+
+import com.hospital.appointmentsystem.dto.RescheduleReport;
+import com.hospital.appointmentsystem.dto.WorkingDay;
+import com.hospital.appointmentsystem.model.DoctorSchedule;
+import com.hospital.appointmentsystem.model.ScheduleException;
+import com.hospital.appointmentsystem.security.JwtPrincipal;
+import com.hospital.appointmentsystem.service.DoctorScheduleService;
+import com.hospital.appointmentsystem.service.RescheduleService;
+import model.Role;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/doctors/{doctorId}/schedule")
+@CrossOrigin(origins = "*")
+public class ScheduleController {
+
+    @Autowired
+    private DoctorScheduleService scheduleService;
+
+    @Autowired
+    private RescheduleService rescheduleService;
+
+    // READ - Weekly working-hours template
+    @GetMapping
+    public ResponseEntity<List<DoctorSchedule>> getSchedule(@PathVariable Long doctorId) {
+        try {
+            return new ResponseEntity<>(scheduleService.getSchedule(doctorId), HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // UPDATE - Replace the weekly template (doctors only their own)
+    @PutMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR')")
+    public ResponseEntity<List<DoctorSchedule>> replaceSchedule(@PathVariable Long doctorId,
+                                                                @RequestBody List<DoctorSchedule> blocks,
+                                                                @AuthenticationPrincipal JwtPrincipal principal) {
+        if (!canManage(doctorId, principal)) {
+            return new ResponseEntity<>(null, HttpStatus.FORBIDDEN);
+        }
+        try {
+            return new ResponseEntity<>(scheduleService.replaceSchedule(doctorId, blocks), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(null, HttpStatus.NOT_FOUND);
+        }
+    }
+
+    // READ - Leave and extra hours in a date range
+    @GetMapping("/exceptions")
+    public ResponseEntity<List<ScheduleException>> getExceptions(@PathVariable Long doctorId,
+                                                                 @RequestParam String from,
+                                                                 @RequestParam String to) {
+        try {
+            return new ResponseEntity<>(scheduleService.getExceptions(doctorId,
+                    LocalDate.parse(from), LocalDate.parse(to)), HttpStatus.OK);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(null);
+        }
+    }
+
+    // CREATE - Add leave or extra hours (doctors only their own)
+    @PostMapping("/exceptions")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR')")
+    public ResponseEntity<ScheduleException> addException(@PathVariable Long doctorId,
+                                                          @RequestBody ScheduleException exception,
+                                                          @AuthenticationPrincipal JwtPrincipal principal) {
+        if (!canManage(doctorId, principal)) {
+            return new ResponseEntity<>(null, HttpStatus.FORBIDDEN);
+        }
+        try {
+            return new ResponseEntity<>(scheduleService.addException(doctorId, exception), HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(null, HttpStatus.NOT_FOUND);
+        }
+    }
+
+    // CREATE - Put the doctor on leave and move their appointments to same-specialization colleagues, e.g.
+    // POST /unavailable?from=2025-03-10&to=2025-03-14; the report lists every appointment as MOVED or UNRESOLVED
+    @PostMapping("/unavailable")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RescheduleReport> markUnavailable(@PathVariable Long doctorId,
+                                                            @RequestParam String from,
+                                                            @RequestParam String to,
+                                                            @RequestParam(required = false) String reason) {
+        try {
+            return new ResponseEntity<>(rescheduleService.rescheduleAway(doctorId,
+                    LocalDate.parse(from), LocalDate.parse(to), reason), HttpStatus.OK);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(null);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(null, HttpStatus.NOT_FOUND);
+        }
+    }
+
+    // DELETE - Remove an exception (doctors only their own)
+    @DeleteMapping("/exceptions/{exceptionId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR')")
+    public ResponseEntity<HttpStatus> deleteException(@PathVariable Long doctorId, @PathVariable Long exceptionId,
+                                                      @AuthenticationPrincipal JwtPrincipal principal) {
+        if (!canManage(doctorId, principal)) {
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        try {
+            scheduleService.deleteException(doctorId, exceptionId);
+            return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    // READ - Materialized working hours per day (defaults to the next two weeks)
+    @GetMapping("/calendar")
+    public ResponseEntity<List<WorkingDay>> getCalendar(@PathVariable Long doctorId,
+                                                        @RequestParam(required = false) String from,
+                                                        @RequestParam(required = false) String to) {
+        try {
+            LocalDate fromDate = from != null ? LocalDate.parse(from) : LocalDate.now();
+            LocalDate toDate = to != null ? LocalDate.parse(to) : fromDate.plusDays(13);
+            return new ResponseEntity<>(scheduleService.getCalendar(doctorId, fromDate, toDate), HttpStatus.OK);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(null);
+        }
+    }
+
+    // Admins manage every doctor's calendar; a doctor only their own
+    private static boolean canManage(Long doctorId, JwtPrincipal principal) {
+        return principal != null && (principal.role() == Role.ADMIN || doctorId.equals(principal.doctorId()));
+    }
+}
@@ -0,0 +1,79 @@
+package com.hospital.appointmentsystem.controller;
+
+import com.hospital.appointmentsystem.dto.WaitlistRequest;
+import com.hospital.appointmentsystem.model.WaitlistEntry;
+import com.hospital.appointmentsystem.service.WaitlistService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/waitlist")
+@CrossOrigin(origins = "*")
+public class WaitlistController {
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    // CREATE - Join a doctor's waitlist; booked automatically when a fitting slot is freed
+    @PostMapping
+    public ResponseEntity<WaitlistEntry> join(@RequestBody WaitlistRequest request) {
+        try {
+            return new ResponseEntity<>(waitlistService.join(request), HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(null, HttpStatus.NOT_FOUND);
+        }
+    }
+
+    // READ - One entry (status, and the appointment once booked)
+    @GetMapping("/{id}")
+    public ResponseEntity<WaitlistEntry> getEntry(@PathVariable Long id) {
+        try {
+            return new ResponseEntity<>(waitlistService.getEntry(id), HttpStatus.OK);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(null, HttpStatus.NOT_FOUND);
+        }
+    }
+
+    // READ - Waiting patients for a doctor on a date, in serve order
+    @GetMapping("/doctor/{doctorId}/date/{date}")
+    public ResponseEntity<List<WaitlistEntry>> getWaitlist(@PathVariable Long doctorId, @PathVariable String date) {
+        try {
+            return new ResponseEntity<>(waitlistService.getWaitlist(doctorId, LocalDate.parse(date)), HttpStatus.OK);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(null);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // READ - A patient's waitlist entries
+    @GetMapping("/patient/{patientId}")
+    public ResponseEntity<List<WaitlistEntry>> getPatientEntries(@PathVariable Long patientId) {
+        try {
+            return new ResponseEntity<>(waitlistService.getPatientEntries(patientId), HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // DELETE - Leave the waitlist
+    @DeleteMapping("/{id}")
+    public ResponseEntity<HttpStatus> leave(@PathVariable Long id) {
+        try {
+            waitlistService.leave(id);
+            return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+}
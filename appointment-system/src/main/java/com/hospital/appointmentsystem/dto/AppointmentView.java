@@ -0,0 +1,30 @@
+package com.hospital.appointmentsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import model.AppointmentStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentView {
+    private Long id;
+    private Long patientId;
+    private String patientName;
+    private Long doctorId;
+    private String doctorName;
+    private String specialization;
+    private LocalDate appointmentDate;
+    private LocalTime appointmentTime;
+    private Integer durationMinutes;
+    private AppointmentStatus status;
+    private String reason;
+    private String notes;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,19 @@
+package com.hospital.appointmentsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailableSlot {
+    private Long doctorId;
+    private String doctorName;
+    private String specialization;
+    private LocalDate date;
+    private LocalTime time;
+}
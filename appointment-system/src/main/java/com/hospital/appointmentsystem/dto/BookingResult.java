@@ -0,0 +1,20 @@
+package com.hospital.appointmentsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingResult {
+    private int index;
+    private String status; // CREATED, CONFLICT, INVALID
+    private Long appointmentId;
+    private LocalDate date;
+    private LocalTime time;
+    private String message;
+}
@@ -0,0 +1,13 @@
+package com.hospital.appointmentsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkMutationResult {
+    private String action; // CANCELLED, COMPLETED, NO_SHOW, DELETED
+    private int affected;
+}
@@ -0,0 +1,17 @@
+package com.hospital.appointmentsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CurrentUserResponse {
+    private String username;
+    private List<String> authorities;
+    private long issuedAt;
+    private long expiresAt;
+}
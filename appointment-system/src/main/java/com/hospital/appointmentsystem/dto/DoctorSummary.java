@@ -0,0 +1,19 @@
+package com.hospital.appointmentsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DoctorSummary {
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private String specialization;
+
+    public String getFullName() {
+        return "Dr. " + firstName + " " + lastName;
+    }
+}
@@ -0,0 +1,21 @@
+package com.hospital.appointmentsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DoctorView {
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private String specialization;
+    private String phone;
+    private Double consultationFee;
+    private String qualifications;
+    private Integer yearsOfExperience;
+    private Boolean available;
+    private String email;
+}
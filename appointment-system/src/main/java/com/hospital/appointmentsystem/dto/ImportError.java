@@ -0,0 +1,14 @@
+package com.hospital.appointmentsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportError {
+    private long record; // 1-based, header and blank lines not counted
+    private String username;
+    private String message;
+}
@@ -0,0 +1,21 @@
+package com.hospital.appointmentsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportReport {
+    private String jobId;
+    private String role; // PATIENT or DOCTOR
+    private long resumedAfter; // records committed by earlier runs and skipped this time
+    private long read;
+    private long imported;
+    private long failed;
+    private long elapsedMs;
+    private List<ImportError> errors; // the first app.import.max-reported-errors of them
+}
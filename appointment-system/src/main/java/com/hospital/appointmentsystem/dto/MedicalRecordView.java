@@ -0,0 +1,27 @@
+package com.hospital.appointmentsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MedicalRecordView {
+    private Long id;
+    private Long patientId;
+    private String patientName;
+    private Long doctorId;
+    private String doctorName;
+    private String diagnosis;
+    private String prescription;
+    private LocalDate recordDate;
+    private String notes;
+    private String symptoms;
+    private String testResults;
+    private LocalDate followUpDate;
+    private LocalDateTime createdAt;
+}
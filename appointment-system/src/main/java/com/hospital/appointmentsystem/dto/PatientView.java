@@ -0,0 +1,23 @@
+package com.hospital.appointmentsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientView {
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private LocalDate dateOfBirth;
+    private String phone;
+    private String address;
+    private String bloodGroup;
+    private String emergencyContact;
+    private String emergencyPhone;
+    private String email;
+}
@@ -0,0 +1,24 @@
+package com.hospital.appointmentsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringBookingRequest {
+    private Long doctorId;
+    private Long patientId;
+    private LocalDate startDate;
+    private LocalTime time;
+    private Integer durationMinutes;
+    private String frequency; // DAILY, WEEKLY, MONTHLY
+    private Integer interval; // every n days/weeks/months, default 1
+    private Integer count; // number of occurrences
+    private LocalDate until; // alternative to count, inclusive
+    private String reason;
+}
@@ -0,0 +1,15 @@
+package com.hospital.appointmentsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RegistrationResult {
+    private String username;
+    private String status; // CREATED, DUPLICATE_USERNAME, DUPLICATE_EMAIL, INVALID
+    private Long userId;
+    private String message;
+}
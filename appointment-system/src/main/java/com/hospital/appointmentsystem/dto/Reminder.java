@@ -0,0 +1,23 @@
+package com.hospital.appointmentsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import model.ReminderKind;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Reminder {
+    private Long appointmentId;
+    private ReminderKind kind;
+    private Long patientId;
+    private Long doctorId;
+    private LocalDate appointmentDate;
+    private LocalTime appointmentTime;
+    // Same for every attempt of this reminder; lets the channel drop duplicates
+    private String idempotencyKey;
+}
@@ -0,0 +1,22 @@
+package com.hospital.appointmentsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RescheduleItem {
+    private Long appointmentId;
+    private Long patientId;
+    private LocalDate date;
+    private LocalTime originalTime;
+    private String status; // MOVED, UNRESOLVED
+    private Long newDoctorId;
+    private LocalTime newTime;
+    private String reason; // why it could not be moved
+}
@@ -0,0 +1,22 @@
+package com.hospital.appointmentsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RescheduleReport {
+    private Long doctorId;
+    private LocalDate from;
+    private LocalDate to;
+    private int affected;
+    private int moved;
+    private int unresolved;
+    private long elapsedMs;
+    private List<RescheduleItem> items;
+}
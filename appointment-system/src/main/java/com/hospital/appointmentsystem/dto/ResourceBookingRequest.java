@@ -0,0 +1,16 @@
+package com.hospital.appointmentsystem.dto;
+
+import com.hospital.appointmentsystem.model.Appointment;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResourceBookingRequest {
+    private Appointment appointment;
+    private List<Long> resourceIds;
+}
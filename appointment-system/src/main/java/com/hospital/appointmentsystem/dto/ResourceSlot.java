@@ -0,0 +1,20 @@
+package com.hospital.appointmentsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResourceSlot {
+    private Long doctorId;
+    private LocalDate date;
+    private LocalTime time;
+    // One free resource per required category, in the order the categories were requested
+    private List<Long> resourceIds;
+}
@@ -0,0 +1,18 @@
+package com.hospital.appointmentsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitlistRequest {
+    private Long doctorId;
+    private Long patientId;
+    private LocalDate date;
+    private Integer durationMinutes; // default 30
+    private Integer priority; // higher is served first, default 0
+}
@@ -0,0 +1,16 @@
+package com.hospital.appointmentsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkingHours {
+    private LocalTime start;
+    private LocalTime end;
+    private Integer slotMinutes;
+}
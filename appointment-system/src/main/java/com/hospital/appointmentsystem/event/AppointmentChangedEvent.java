@@ -0,0 +1,28 @@
+package com.hospital.appointmentsystem.event;
+
+import com.hospital.appointmentsystem.model.Appointment;
+import model.AppointmentStatus;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Published whenever an appointment is created, moved, changes status or is deleted.
+ * {@code before} and {@code after} are the slots it occupied; null means it occupied none
+ * (not yet created, deleted, or cancelled).
+ */
+public record AppointmentChangedEvent(Long appointmentId, Slot before, Slot after) {
+
+    public record Slot(Long doctorId, LocalDate date, LocalTime time, int durationMinutes) {
+
+        // Slot held by the appointment, or null if it holds none
+        public static Slot of(Appointment appointment) {
+            if (appointment == null || appointment.getStatus() == AppointmentStatus.CANCELLED
+                    || appointment.getDoctor() == null) {
+                return null;
+            }
+            return new Slot(appointment.getDoctor().getId(), appointment.getAppointmentDate(),
+                    appointment.getAppointmentTime(), appointment.getEffectiveDurationMinutes());
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.hospital.appointmentsystem.event;
+
+import java.time.LocalDate;
+
+/**
+ * Published after a set-based update or delete touched an unknown set of appointments of a
+ * doctor (or of every doctor when {@code doctorId} is null) between {@code from} and {@code to}.
+ * Listeners drop what they hold for that range instead of applying per-row changes.
+ */
+public record AppointmentsBulkChangedEvent(Long doctorId, LocalDate from, LocalDate to, int affected) {
+}
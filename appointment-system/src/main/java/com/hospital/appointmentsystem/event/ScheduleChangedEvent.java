@@ -0,0 +1,8 @@
+package com.hospital.appointmentsystem.event;
+
+/**
+ * Published when a doctor's weekly template or exceptions change; doctorId is null when the
+ * change applies to everyone (a public holiday).
+ */
+public record ScheduleChangedEvent(Long doctorId) {
+}
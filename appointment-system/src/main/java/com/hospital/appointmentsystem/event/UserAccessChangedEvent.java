@@ -0,0 +1,11 @@
+package com.hospital.appointmentsystem.event;
+
+import model.Role;
+
+/**
+ * Published whenever something that affects a user's authorization changes
+ * (account deactivated/reactivated or role changed). Anything that caches
+ * authentication state for the user must drop it on this event.
+ */
+public record UserAccessChangedEvent(Long userId, String username, Role role, boolean active) {
+}
@@ -0,0 +1,21 @@
+package com.hospital.appointmentsystem.exception;
+
+/**
+ * Thrown when a registration collides with an existing username or email.
+ * Controllers translate it into 409 Conflict.
+ */
+public class DuplicateAccountException extends RuntimeException {
+
+    public enum Field { USERNAME, EMAIL }
+
+    private final Field field;
+
+    public DuplicateAccountException(Field field) {
+        super(field == Field.USERNAME ? "Username already exists" : "Email already exists");
+        this.field = field;
+    }
+
+    public Field getField() {
+        return field;
+    }
+}
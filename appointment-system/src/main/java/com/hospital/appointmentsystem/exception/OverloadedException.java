@@ -0,0 +1,19 @@
+package com.hospital.appointmentsystem.exception;
+
+/**
+ * Thrown when work is refused up front because a bounded resource is saturated.
+ * Controllers translate it into 503 Service Unavailable with a Retry-After header.
+ */
+public class OverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public OverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,12 @@
+package com.hospital.appointmentsystem.exception;
+
+/**
+ * Thrown when a doctor's time slot is already taken by another live appointment.
+ * Controllers translate it into 409 Conflict.
+ */
+public class SlotConflictException extends RuntimeException {
+
+    public SlotConflictException(String message) {
+        super(message);
+    }
+}
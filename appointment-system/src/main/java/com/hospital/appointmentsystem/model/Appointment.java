@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import org.hibernate.annotations.ColumnDefault;
 import model.AppointmentStatus;
 
 import java.time.LocalDate;
@@ -18,16 +20,20 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class Appointment {
 
+    public static final int DEFAULT_DURATION_MINUTES = 30;
+
+    // Pooled sequence: Hibernate reserves 50 ids per round trip, so bulk inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "appointments_seq")
+    @SequenceGenerator(name = "appointments_seq", sequenceName = "appointments_seq", allocationSize = 50)
     private Long id;
 
-    @JsonIgnoreProperties({"appointments", "medicalRecords"})
+    @JsonIgnoreProperties({"appointments", "medicalRecords", "hibernateLazyInitializer", "handler"})
     @ManyToOne
     @JoinColumn(name = "patient_id", nullable = false)
     private com.hospital.appointmentsystem.model.Patient patient;
 
-    @JsonIgnoreProperties({"appointments", "medicalRecords"})
+    @JsonIgnoreProperties({"appointments", "medicalRecords", "hibernateLazyInitializer", "handler"})
     @ManyToOne
     @JoinColumn(name = "doctor_id", nullable = false)
     private Doctor doctor;
@@ -38,6 +44,10 @@ public class Appointment {
     @Column(name = "appointment_time", nullable = false)
     private LocalTime appointmentTime;
 
+    @ColumnDefault("30")
+    @Column(name = "duration_minutes", nullable = false)
+    private Integer durationMinutes = DEFAULT_DURATION_MINUTES;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private AppointmentStatus status = AppointmentStatus.SCHEDULED;
@@ -54,8 +64,17 @@ public class Appointment {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Duration to book, falling back to the default when a client sent none
+    @JsonIgnore
+    public int getEffectiveDurationMinutes() {
+        return durationMinutes != null && durationMinutes > 0 ? durationMinutes : DEFAULT_DURATION_MINUTES;
+    }
+
     @PrePersist
     protected void onCreate() {
+        if (durationMinutes == null) {
+            durationMinutes = DEFAULT_DURATION_MINUTES;
+        }
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
     }
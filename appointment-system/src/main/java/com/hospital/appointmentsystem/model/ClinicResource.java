@@ -0,0 +1,40 @@
+package com.hospital.appointmentsystem.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import model.ResourceType;
+
+/**
+ * A room or piece of equipment that appointments occupy alongside the doctor. Interchangeable
+ * resources share a category ("ULTRASOUND_ROOM", "ECG"); an appointment needing a category may
+ * take any active resource in it.
+ */
+@Entity
+@Table(name = "clinic_resources", indexes = @Index(name = "ix_clinic_resources_category", columnList = "category"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClinicResource {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 100)
+    private String name;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 15)
+    private ResourceType type;
+
+    @Column(nullable = false, length = 50)
+    private String category;
+
+    @Column(length = 255)
+    private String location;
+
+    @Column(nullable = false)
+    private Boolean active = true;
+}
@@ -0,0 +1,64 @@
+package com.hospital.appointmentsystem.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * One block of a doctor's weekly working hours, e.g. MONDAY 08:00-12:00 in 20-minute slots.
+ * A doctor may have several blocks per day; validFrom/validUntil bound a template in time.
+ */
+@Entity
+@Table(name = "doctor_schedules", indexes = @Index(name = "ix_doctor_schedules_doctor", columnList = "doctor_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DoctorSchedule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "doctor_id", nullable = false)
+    private Doctor doctor;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "day_of_week", nullable = false, length = 10)
+    private DayOfWeek dayOfWeek;
+
+    @Column(name = "start_time", nullable = false)
+    private LocalTime startTime;
+
+    @Column(name = "end_time", nullable = false)
+    private LocalTime endTime;
+
+    // Slot grid for this block; null means app.scheduling.slot-minutes
+    @Column(name = "slot_minutes")
+    private Integer slotMinutes;
+
+    @Column(name = "valid_from")
+    private LocalDate validFrom;
+
+    @Column(name = "valid_until")
+    private LocalDate validUntil;
+
+    @JsonProperty("doctorId")
+    public Long getDoctorId() {
+        return doctor != null ? doctor.getId() : null;
+    }
+
+    public boolean appliesTo(LocalDate date) {
+        return date.getDayOfWeek() == dayOfWeek
+                && (validFrom == null || !date.isBefore(validFrom))
+                && (validUntil == null || !date.isAfter(validUntil));
+    }
+}
@@ -0,0 +1,35 @@
+package com.hospital.appointmentsystem.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a resumable background job, one row per job. {@code position} is the job's own
+ * keyset cursor (null when no run is in progress); it is written in the same transaction as
+ * the chunk it covers, so after a crash the job resumes exactly after the last committed chunk.
+ */
+@Entity
+@Table(name = "job_checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobCheckpoint {
+
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @Column(length = 500)
+    private String position;
+
+    // Rows handled by the current (or last) run
+    @Column(nullable = false)
+    private Long processed;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,50 @@
+package com.hospital.appointmentsystem.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import model.ReminderKind;
+
+import java.time.LocalDateTime;
+
+/**
+ * Bookkeeping for one reminder of one appointment time. The row is claimed (inserted) before the
+ * reminder is handed to the sender and marked sent afterwards; the unique key makes the claim
+ * succeed on exactly one node. A claim left unsent (crash, sender failure) is retried after a
+ * timeout, with the same idempotency key, so downstream can drop the rare duplicate.
+ */
+@Entity
+@Table(name = "reminder_deliveries", uniqueConstraints = @UniqueConstraint(
+        name = ReminderDelivery.UK_REMINDER, columnNames = {"appointment_id", "kind", "appointment_start"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReminderDelivery {
+
+    public static final String UK_REMINDER = "uk_reminder_deliveries";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "appointment_id", nullable = false)
+    private Long appointmentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ReminderKind kind;
+
+    // A rescheduled appointment gets its reminders again
+    @Column(name = "appointment_start", nullable = false)
+    private LocalDateTime appointmentStart;
+
+    @Column(name = "claimed_at", nullable = false)
+    private LocalDateTime claimedAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @Column(nullable = false)
+    private Integer attempts;
+}
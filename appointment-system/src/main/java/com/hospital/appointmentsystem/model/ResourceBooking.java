@@ -0,0 +1,49 @@
+package com.hospital.appointmentsystem.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+/**
+ * A resource held by an appointment. The time comes from the appointment itself, so moving or
+ * cancelling the appointment moves or frees the resource with it, and deleting it deletes the row.
+ */
+@Entity
+@Table(name = "resource_bookings",
+        uniqueConstraints = @UniqueConstraint(name = "uk_resource_bookings", columnNames = {"appointment_id", "resource_id"}),
+        indexes = @Index(name = "ix_resource_bookings_resource", columnList = "resource_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResourceBooking {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "appointment_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Appointment appointment;
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "resource_id", nullable = false)
+    private ClinicResource resource;
+
+    @JsonProperty("appointmentId")
+    public Long getAppointmentId() {
+        return appointment != null ? appointment.getId() : null;
+    }
+
+    @JsonProperty("resourceId")
+    public Long getResourceId() {
+        return resource != null ? resource.getId() : null;
+    }
+}
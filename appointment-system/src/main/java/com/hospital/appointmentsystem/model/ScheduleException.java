@@ -0,0 +1,59 @@
+package com.hospital.appointmentsystem.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import model.ScheduleExceptionKind;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * A dated deviation from the weekly template. LEAVE and HOLIDAY remove working time (the whole
+ * day when no times are given); EXTRA_HOURS adds some. Without a doctor it applies to everyone,
+ * which is how public holidays are recorded.
+ */
+@Entity
+@Table(name = "schedule_exceptions", indexes = @Index(name = "ix_schedule_exceptions_date", columnList = "exception_date"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduleException {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "doctor_id")
+    private Doctor doctor;
+
+    @Column(name = "exception_date", nullable = false)
+    private LocalDate date;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 15)
+    private ScheduleExceptionKind kind;
+
+    @Column(name = "start_time")
+    private LocalTime startTime;
+
+    @Column(name = "end_time")
+    private LocalTime endTime;
+
+    @Column(length = 255)
+    private String reason;
+
+    @JsonProperty("doctorId")
+    public Long getDoctorId() {
+        return doctor != null ? doctor.getId() : null;
+    }
+
+    public boolean isWholeDay() {
+        return startTime == null || endTime == null;
+    }
+}
@@ -0,0 +1,39 @@
+package com.hospital.appointmentsystem.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import model.RevocationKind;
+
+import java.time.LocalDateTime;
+
+/**
+ * A revoked token (subject = jti) or a revoked user (subject = username; every token
+ * issued before revokedAt is rejected). Rows are pruned once expiresAt has passed,
+ * because by then every affected token has expired on its own.
+ */
+@Entity
+@Table(name = "token_revocations")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenRevocation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private RevocationKind kind;
+
+    @Column(nullable = false, length = 100)
+    private String subject;
+
+    @Column(name = "revoked_at", nullable = false)
+    private LocalDateTime revokedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
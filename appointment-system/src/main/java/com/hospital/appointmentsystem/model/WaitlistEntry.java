@@ -0,0 +1,77 @@
+package com.hospital.appointmentsystem.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import model.WaitlistStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A patient waiting for any opening of a given length with a doctor on a day. Higher priority
+ * is served first, then earlier sign-up. Once booked, appointmentId points at the appointment.
+ */
+@Entity
+@Table(name = "waitlist_entries", indexes = {
+        @Index(name = "ix_waitlist_doctor_date", columnList = "doctor_id, waitlist_date"),
+        @Index(name = "ix_waitlist_patient", columnList = "patient_id")})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "doctor_id", nullable = false)
+    private Doctor doctor;
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "patient_id", nullable = false)
+    private Patient patient;
+
+    @Column(name = "waitlist_date", nullable = false)
+    private LocalDate date;
+
+    @Column(name = "duration_minutes", nullable = false)
+    private Integer durationMinutes;
+
+    @Column(nullable = false)
+    private Integer priority;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private WaitlistStatus status;
+
+    @Column(name = "appointment_id")
+    private Long appointmentId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @JsonProperty("doctorId")
+    public Long getDoctorId() {
+        return doctor != null ? doctor.getId() : null;
+    }
+
+    @JsonProperty("patientId")
+    public Long getPatientId() {
+        return patient != null ? patient.getId() : null;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (status == null) {
+            status = WaitlistStatus.WAITING;
+        }
+    }
+}
@@ -1,14 +1,23 @@
 package com.hospital.appointmentsystem.repository;
 
+import com.hospital.appointmentsystem.dto.AppointmentView;
 import com.hospital.appointmentsystem.model.Appointment;
+import jakarta.persistence.QueryHint;
 import model.AppointmentStatus;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
@@ -19,9 +28,6 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     // Find all appointments for a specific doctor
     List<Appointment> findByDoctorId(Long doctorId);
 
-    // Find appointments by status
-    List<Appointment> findByStatus(AppointmentStatus status);
-
     // Find appointments for a patient by status
     List<Appointment> findByPatientIdAndStatus(Long patientId, AppointmentStatus status);
 
@@ -43,15 +49,143 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
                                 @Param("date") LocalDate date,
                                 @Param("time") LocalTime time);
 
+    // Booked (non-cancelled) intervals of a doctor's day for the slot index: [time, duration] rows
+    @Query("SELECT a.appointmentTime, a.durationMinutes FROM Appointment a WHERE a.doctor.id = :doctorId " +
+            "AND a.appointmentDate = :date AND a.status != 'CANCELLED'")
+    List<Object[]> findBookedIntervals(@Param("doctorId") Long doctorId,
+                                       @Param("date") LocalDate date);
+
+    // Booked intervals for several doctors over a date range: [doctorId, date, time, duration] rows
+    @Query("SELECT a.doctor.id, a.appointmentDate, a.appointmentTime, a.durationMinutes FROM Appointment a " +
+            "WHERE a.doctor.id IN :doctorIds AND a.appointmentDate BETWEEN :from AND :to " +
+            "AND a.status != 'CANCELLED'")
+    List<Object[]> findBookedIntervalsInRange(@Param("doctorIds") Collection<Long> doctorIds,
+                                              @Param("from") LocalDate from,
+                                              @Param("to") LocalDate to);
+
+    // Set-based status change by doctor (null = all), date range and current status; one UPDATE.
+    // Clears the persistence context so no stale copy of an updated row survives in this transaction
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Appointment a SET a.status = :status, a.updatedAt = :now " +
+            "WHERE (:doctorId IS NULL OR a.doctor.id = :doctorId) " +
+            "AND a.appointmentDate BETWEEN :from AND :to " +
+            "AND a.status IN :currentStatuses AND a.status <> :status")
+    int bulkUpdateStatus(@Param("doctorId") Long doctorId,
+                         @Param("from") LocalDate from,
+                         @Param("to") LocalDate to,
+                         @Param("currentStatuses") Collection<AppointmentStatus> currentStatuses,
+                         @Param("status") AppointmentStatus status,
+                         @Param("now") LocalDateTime now);
+
+    // Set-based delete by the same criteria; one DELETE
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Appointment a WHERE (:doctorId IS NULL OR a.doctor.id = :doctorId) " +
+            "AND a.appointmentDate BETWEEN :from AND :to AND a.status IN :statuses")
+    int bulkDelete(@Param("doctorId") Long doctorId,
+                   @Param("from") LocalDate from,
+                   @Param("to") LocalDate to,
+                   @Param("statuses") Collection<AppointmentStatus> statuses);
+
+    // Keyset page of SCHEDULED appointments starting after (date, time, id), up to lastDate:
+    // [id, doctorId, date, time, duration] rows in (date, time, id) order
+    @Query("SELECT a.id, a.doctor.id, a.appointmentDate, a.appointmentTime, a.durationMinutes FROM Appointment a " +
+            "WHERE a.status = model.AppointmentStatus.SCHEDULED AND a.appointmentDate <= :lastDate " +
+            "AND (a.appointmentDate > :afterDate OR (a.appointmentDate = :afterDate " +
+            "AND (a.appointmentTime > :afterTime OR (a.appointmentTime = :afterTime AND a.id > :afterId)))) " +
+            "ORDER BY a.appointmentDate, a.appointmentTime, a.id")
+    List<Object[]> findScheduledAfter(@Param("afterDate") LocalDate afterDate,
+                                      @Param("afterTime") LocalTime afterTime,
+                                      @Param("afterId") Long afterId,
+                                      @Param("lastDate") LocalDate lastDate,
+                                      Pageable page);
+
+    // Status change for known rows, skipping any that left the expected status meanwhile
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Appointment a SET a.status = :status, a.updatedAt = :now " +
+            "WHERE a.id IN :ids AND a.status = :expected")
+    int updateStatusByIds(@Param("ids") Collection<Long> ids,
+                          @Param("expected") AppointmentStatus expected,
+                          @Param("status") AppointmentStatus status,
+                          @Param("now") LocalDateTime now);
+
+    // SCHEDULED appointments between two dates, streamed for the reminder loader: [id, doctorId, date, time]
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT a.id, a.doctor.id, a.appointmentDate, a.appointmentTime FROM Appointment a " +
+            "WHERE a.status = model.AppointmentStatus.SCHEDULED AND a.appointmentDate BETWEEN :from AND :to")
+    Stream<Object[]> streamScheduledBetween(@Param("from") LocalDate from,
+                                            @Param("to") LocalDate to);
+
+    // Current state of appointments about to be reminded: [id, patientId, doctorId, date, time, status]
+    @Query("SELECT a.id, a.patient.id, a.doctor.id, a.appointmentDate, a.appointmentTime, a.status " +
+            "FROM Appointment a WHERE a.id IN :ids")
+    List<Object[]> findReminderDetails(@Param("ids") Collection<Long> ids);
+
+    // A doctor's SCHEDULED appointments in a date range, for mass rescheduling:
+    // [id, patientId, date, time, duration] rows in (date, time) order
+    @Query("SELECT a.id, a.patient.id, a.appointmentDate, a.appointmentTime, a.durationMinutes FROM Appointment a " +
+            "WHERE a.doctor.id = :doctorId AND a.appointmentDate BETWEEN :from AND :to " +
+            "AND a.status = model.AppointmentStatus.SCHEDULED ORDER BY a.appointmentDate, a.appointmentTime")
+    List<Object[]> findScheduledForDoctor(@Param("doctorId") Long doctorId,
+                                          @Param("from") LocalDate from,
+                                          @Param("to") LocalDate to);
+
     // Find upcoming appointments for a patient
     @Query("SELECT a FROM Appointment a WHERE a.patient.id = :patientId " +
             "AND a.appointmentDate >= :today ORDER BY a.appointmentDate, a.appointmentTime")
     List<Appointment> findUpcomingAppointmentsByPatient(@Param("patientId") Long patientId,
                                                         @Param("today") LocalDate today);
 
-    // Find upcoming appointments for a doctor
-    @Query("SELECT a FROM Appointment a WHERE a.doctor.id = :doctorId " +
-            "AND a.appointmentDate >= :today ORDER BY a.appointmentDate, a.appointmentTime")
-    List<Appointment> findUpcomingAppointmentsByDoctor(@Param("doctorId") Long doctorId,
-                                                       @Param("today") LocalDate today);
-}
\ No newline at end of file
+    // List read models: one statement, no entity or user rows loaded
+    String VIEW = "SELECT new com.hospital.appointmentsystem.dto.AppointmentView(a.id, p.id, " +
+            "CONCAT(p.firstName, ' ', p.lastName), d.id, CONCAT('Dr. ', d.firstName, ' ', d.lastName), " +
+            "d.specialization, a.appointmentDate, a.appointmentTime, a.durationMinutes, a.status, a.reason, a.notes, " +
+            "a.createdAt, a.updatedAt) FROM Appointment a JOIN a.patient p JOIN a.doctor d ";
+
+    // Keyset pages in (date, time, id) order: first page, then the rows after a cursor
+    String START_ORDER = "ORDER BY a.appointmentDate, a.appointmentTime, a.id";
+    String AFTER_START = "(a.appointmentDate, a.appointmentTime, a.id) > (:afterDate, :afterTime, :afterId) ";
+
+    @Query(VIEW + START_ORDER)
+    List<AppointmentView> findViewPage(Pageable page);
+
+    @Query(VIEW + "WHERE " + AFTER_START + START_ORDER)
+    List<AppointmentView> findViewPageAfter(@Param("afterDate") LocalDate afterDate,
+                                            @Param("afterTime") LocalTime afterTime,
+                                            @Param("afterId") Long afterId,
+                                            Pageable page);
+
+    @Query(VIEW + "WHERE a.status = :status " + START_ORDER)
+    List<AppointmentView> findViewPageByStatus(@Param("status") AppointmentStatus status, Pageable page);
+
+    @Query(VIEW + "WHERE a.status = :status AND " + AFTER_START + START_ORDER)
+    List<AppointmentView> findViewPageByStatusAfter(@Param("status") AppointmentStatus status,
+                                                    @Param("afterDate") LocalDate afterDate,
+                                                    @Param("afterTime") LocalTime afterTime,
+                                                    @Param("afterId") Long afterId,
+                                                    Pageable page);
+
+    @Query(VIEW + "WHERE p.id = :patientId ORDER BY a.appointmentDate, a.appointmentTime")
+    List<AppointmentView> findViewsByPatientId(@Param("patientId") Long patientId);
+
+    @Query(VIEW + "WHERE d.id = :doctorId ORDER BY a.appointmentDate, a.appointmentTime")
+    List<AppointmentView> findViewsByDoctorId(@Param("doctorId") Long doctorId);
+
+    @Query(VIEW + "WHERE p.id = :patientId AND a.appointmentDate >= :today ORDER BY a.appointmentDate, a.appointmentTime")
+    List<AppointmentView> findUpcomingViewsByPatient(@Param("patientId") Long patientId, @Param("today") LocalDate today);
+
+    // Day sheets for DaySheetCache: flat view rows, so no entity graph (or user row) ends up cached
+    @Query(VIEW + "WHERE d.id = :doctorId AND a.appointmentDate = :date ORDER BY a.appointmentTime")
+    List<AppointmentView> findDaySheet(@Param("doctorId") Long doctorId, @Param("date") LocalDate date);
+
+    @Query(VIEW + "WHERE d.id = :doctorId AND a.appointmentDate >= :today ORDER BY a.appointmentDate, a.appointmentTime")
+    List<AppointmentView> findUpcomingSheet(@Param("doctorId") Long doctorId, @Param("today") LocalDate today);
+
+    // Export: views streamed through a server-side cursor; a null bound or doctor means unfiltered
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(VIEW + "WHERE (:from IS NULL OR a.appointmentDate >= :from) AND (:to IS NULL OR a.appointmentDate <= :to) " +
+            "AND (:doctorId IS NULL OR d.id = :doctorId) AND a.status IN :statuses " + START_ORDER)
+    Stream<AppointmentView> streamViews(@Param("from") LocalDate from,
+                                        @Param("to") LocalDate to,
+                                        @Param("doctorId") Long doctorId,
+                                        @Param("statuses") Collection<AppointmentStatus> statuses);
+}
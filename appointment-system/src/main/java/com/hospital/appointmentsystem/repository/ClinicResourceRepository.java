@@ -0,0 +1,30 @@
+package com.hospital.appointmentsystem.repository;
+
+import com.hospital.appointmentsystem.model.ClinicResource;
+import jakarta.persistence.LockModeType;
+import model.ResourceType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ClinicResourceRepository extends JpaRepository<ClinicResource, Long> {
+
+    List<ClinicResource> findByType(ResourceType type);
+
+    List<ClinicResource> findByCategory(String category);
+
+    List<ClinicResource> findByActiveTrueAndCategoryIn(Collection<String> categories);
+
+    boolean existsByName(String name);
+
+    // Row locks in id order, so concurrent bookings of overlapping resource sets cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM ClinicResource r WHERE r.id IN :ids ORDER BY r.id")
+    List<ClinicResource> findAllForUpdate(@Param("ids") Collection<Long> ids);
+}
@@ -1,5 +1,7 @@
 package com.hospital.appointmentsystem.repository;
 
+import com.hospital.appointmentsystem.dto.DoctorSummary;
+import com.hospital.appointmentsystem.dto.DoctorView;
 import com.hospital.appointmentsystem.model.Doctor;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -14,6 +16,10 @@ public interface DoctorRepository extends JpaRepository<Doctor, Long> {
     // Find doctor by user ID
     Optional<Doctor> findByUserId(Long userId);
 
+    // Find only the doctor id linked to a user
+    @Query("SELECT d.id FROM Doctor d WHERE d.user.id = :userId")
+    Optional<Long> findIdByUserId(@Param("userId") Long userId);
+
     // Find doctor by username
     @Query("SELECT d FROM Doctor d WHERE d.user.username = :username")
     Optional<Doctor> findByUsername(@Param("username") String username);
@@ -27,6 +33,16 @@ public interface DoctorRepository extends JpaRepository<Doctor, Long> {
     // Find available doctors by specialization
     List<Doctor> findBySpecializationAndAvailableTrue(String specialization);
 
+    // Available doctors by specialization, without loading linked users (slot search)
+    @Query("SELECT new com.hospital.appointmentsystem.dto.DoctorSummary(d.id, d.firstName, d.lastName, d.specialization) " +
+            "FROM Doctor d WHERE d.specialization = :specialization AND d.available = true")
+    List<DoctorSummary> findAvailableSummariesBySpecialization(@Param("specialization") String specialization);
+
+    // One doctor as a summary
+    @Query("SELECT new com.hospital.appointmentsystem.dto.DoctorSummary(d.id, d.firstName, d.lastName, d.specialization) " +
+            "FROM Doctor d WHERE d.id = :id")
+    Optional<DoctorSummary> findSummaryById(@Param("id") Long id);
+
     // Search doctors by name
     @Query("SELECT d FROM Doctor d WHERE " +
             "LOWER(d.firstName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
@@ -36,4 +52,22 @@ public interface DoctorRepository extends JpaRepository<Doctor, Long> {
     // Find doctors with experience greater than specified years
     @Query("SELECT d FROM Doctor d WHERE d.yearsOfExperience >= :years")
     List<Doctor> findByMinimumExperience(@Param("years") Integer years);
-}
\ No newline at end of file
+
+    // List read models: one statement; the user row contributes only the email
+    String VIEW = "SELECT new com.hospital.appointmentsystem.dto.DoctorView(d.id, d.firstName, d.lastName, " +
+            "d.specialization, d.phone, d.consultationFee, d.qualifications, d.yearsOfExperience, d.available, u.email) " +
+            "FROM Doctor d LEFT JOIN d.user u ";
+
+    @Query(VIEW + "ORDER BY d.lastName, d.firstName, d.id")
+    List<DoctorView> findAllViews();
+
+    @Query(VIEW + "WHERE d.available = true ORDER BY d.lastName, d.firstName, d.id")
+    List<DoctorView> findAvailableViews();
+
+    @Query(VIEW + "WHERE d.specialization = :specialization ORDER BY d.lastName, d.firstName, d.id")
+    List<DoctorView> findViewsBySpecialization(@Param("specialization") String specialization);
+
+    @Query(VIEW + "WHERE LOWER(d.firstName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
+            "OR LOWER(d.lastName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) ORDER BY d.lastName, d.firstName, d.id")
+    List<DoctorView> searchViewsByName(@Param("searchTerm") String searchTerm);
+}
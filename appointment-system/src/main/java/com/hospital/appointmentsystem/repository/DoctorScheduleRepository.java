@@ -0,0 +1,27 @@
+package com.hospital.appointmentsystem.repository;
+
+import com.hospital.appointmentsystem.model.DoctorSchedule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface DoctorScheduleRepository extends JpaRepository<DoctorSchedule, Long> {
+
+    // Weekly template of one doctor
+    @Query("SELECT s FROM DoctorSchedule s WHERE s.doctor.id = :doctorId ORDER BY s.dayOfWeek, s.startTime")
+    List<DoctorSchedule> findByDoctorId(@Param("doctorId") Long doctorId);
+
+    // Every template row with its doctor id, for the calendar materializer: [doctorId, schedule]
+    @Query("SELECT s.doctor.id, s FROM DoctorSchedule s")
+    List<Object[]> findAllWithDoctorId();
+
+    // Replace a doctor's template
+    @Modifying
+    @Query("DELETE FROM DoctorSchedule s WHERE s.doctor.id = :doctorId")
+    int deleteByDoctorId(@Param("doctorId") Long doctorId);
+}
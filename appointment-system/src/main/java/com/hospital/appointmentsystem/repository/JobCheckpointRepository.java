@@ -0,0 +1,20 @@
+package com.hospital.appointmentsystem.repository;
+
+import com.hospital.appointmentsystem.model.JobCheckpoint;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpoint, String> {
+
+    // Row lock held until commit, so two nodes never work the same chunk
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM JobCheckpoint c WHERE c.name = :name")
+    Optional<JobCheckpoint> findForUpdate(@Param("name") String name);
+}
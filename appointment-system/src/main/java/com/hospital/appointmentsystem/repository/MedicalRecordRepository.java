@@ -1,12 +1,18 @@
 package com.hospital.appointmentsystem.repository;
 
+import com.hospital.appointmentsystem.dto.MedicalRecordView;
 import com.hospital.appointmentsystem.model.MedicalRecord;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface MedicalRecordRepository extends JpaRepository<MedicalRecord, Long> {
@@ -47,4 +53,59 @@ public interface MedicalRecordRepository extends JpaRepository<MedicalRecord, Lo
 
     // Count records for a patient
     long countByPatientId(Long patientId);
-}
\ No newline at end of file
+
+    // List read models: one statement, no entity or user rows loaded
+    String VIEW = "SELECT new com.hospital.appointmentsystem.dto.MedicalRecordView(mr.id, p.id, " +
+            "CONCAT(p.firstName, ' ', p.lastName), d.id, CONCAT('Dr. ', d.firstName, ' ', d.lastName), mr.diagnosis, " +
+            "mr.prescription, mr.recordDate, mr.notes, mr.symptoms, mr.testResults, mr.followUpDate, mr.createdAt) " +
+            "FROM MedicalRecord mr JOIN mr.patient p JOIN mr.doctor d ";
+
+    // Keyset pages, newest first: (recordDate, id) descending
+    String NEWEST_ORDER = "ORDER BY mr.recordDate DESC, mr.id DESC";
+    String BEFORE_RECORD = "(mr.recordDate, mr.id) < (:beforeDate, :beforeId) ";
+
+    @Query(VIEW + NEWEST_ORDER)
+    List<MedicalRecordView> findViewPage(Pageable page);
+
+    @Query(VIEW + "WHERE " + BEFORE_RECORD + NEWEST_ORDER)
+    List<MedicalRecordView> findViewPageBefore(@Param("beforeDate") LocalDate beforeDate,
+                                               @Param("beforeId") Long beforeId,
+                                               Pageable page);
+
+    @Query(VIEW + "WHERE d.id = :doctorId " + NEWEST_ORDER)
+    List<MedicalRecordView> findViewPageByDoctorId(@Param("doctorId") Long doctorId, Pageable page);
+
+    @Query(VIEW + "WHERE d.id = :doctorId AND " + BEFORE_RECORD + NEWEST_ORDER)
+    List<MedicalRecordView> findViewPageByDoctorIdBefore(@Param("doctorId") Long doctorId,
+                                                         @Param("beforeDate") LocalDate beforeDate,
+                                                         @Param("beforeId") Long beforeId,
+                                                         Pageable page);
+
+    @Query(VIEW + "WHERE p.id = :patientId ORDER BY mr.recordDate DESC")
+    List<MedicalRecordView> findViewsByPatientId(@Param("patientId") Long patientId);
+
+    @Query(VIEW + "WHERE d.id = :doctorId ORDER BY mr.recordDate DESC")
+    List<MedicalRecordView> findViewsByDoctorId(@Param("doctorId") Long doctorId);
+
+    @Query(VIEW + "WHERE LOWER(mr.diagnosis) LIKE LOWER(CONCAT('%', :keyword, '%')) ORDER BY mr.recordDate DESC")
+    List<MedicalRecordView> findViewsByDiagnosisContaining(@Param("keyword") String keyword);
+
+    // Keyset pages of upcoming follow-ups in (followUpDate, id) order
+    @Query(VIEW + "WHERE mr.followUpDate >= :today ORDER BY mr.followUpDate, mr.id")
+    List<MedicalRecordView> findFollowUpViewPage(@Param("today") LocalDate today, Pageable page);
+
+    @Query(VIEW + "WHERE mr.followUpDate >= :today AND (mr.followUpDate, mr.id) > (:afterDate, :afterId) " +
+            "ORDER BY mr.followUpDate, mr.id")
+    List<MedicalRecordView> findFollowUpViewPageAfter(@Param("today") LocalDate today,
+                                                      @Param("afterDate") LocalDate afterDate,
+                                                      @Param("afterId") Long afterId,
+                                                      Pageable page);
+
+    // Export: views streamed through a server-side cursor, oldest first; a null bound or doctor means unfiltered
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(VIEW + "WHERE (:from IS NULL OR mr.recordDate >= :from) AND (:to IS NULL OR mr.recordDate <= :to) " +
+            "AND (:doctorId IS NULL OR d.id = :doctorId) ORDER BY mr.recordDate, mr.id")
+    Stream<MedicalRecordView> streamViews(@Param("from") LocalDate from,
+                                          @Param("to") LocalDate to,
+                                          @Param("doctorId") Long doctorId);
+}
@@ -1,6 +1,8 @@
 package com.hospital.appointmentsystem.repository;
 
+import com.hospital.appointmentsystem.dto.PatientView;
 import com.hospital.appointmentsystem.model.Patient;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -14,6 +16,10 @@ public interface PatientRepository extends JpaRepository<Patient, Long> {
     // Find patient by user ID
     Optional<Patient> findByUserId(Long userId);
 
+    // Find only the patient id linked to a user
+    @Query("SELECT p.id FROM Patient p WHERE p.user.id = :userId")
+    Optional<Long> findIdByUserId(@Param("userId") Long userId);
+
     // Find patient by username
     @Query("SELECT p FROM Patient p WHERE p.user.username = :username")
     Optional<Patient> findByUsername(@Param("username") String username);
@@ -29,4 +35,20 @@ public interface PatientRepository extends JpaRepository<Patient, Long> {
 
     // Find patients by phone number
     Optional<Patient> findByPhone(String phone);
-}
\ No newline at end of file
+
+    // List read model: one statement; the user row contributes only the email
+    String VIEW = "SELECT new com.hospital.appointmentsystem.dto.PatientView(p.id, p.firstName, p.lastName, " +
+            "p.dateOfBirth, p.phone, p.address, p.bloodGroup, p.emergencyContact, p.emergencyPhone, u.email) " +
+            "FROM Patient p LEFT JOIN p.user u ";
+
+    // Keyset pages in (lastName, firstName, id) order
+    @Query(VIEW + "ORDER BY p.lastName, p.firstName, p.id")
+    List<PatientView> findViewPage(Pageable page);
+
+    @Query(VIEW + "WHERE (p.lastName, p.firstName, p.id) > (:afterLastName, :afterFirstName, :afterId) " +
+            "ORDER BY p.lastName, p.firstName, p.id")
+    List<PatientView> findViewPageAfter(@Param("afterLastName") String afterLastName,
+                                        @Param("afterFirstName") String afterFirstName,
+                                        @Param("afterId") Long afterId,
+                                        Pageable page);
+}
@@ -0,0 +1,49 @@
+package com.hospital.appointmentsystem.repository;
+
+import com.hospital.appointmentsystem.model.ReminderDelivery;
+import model.ReminderKind;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ReminderDeliveryRepository extends JpaRepository<ReminderDelivery, Long> {
+
+    // 1 if this node now owns the reminder, 0 if it was claimed before (here or elsewhere)
+    @Modifying
+    @Query(value = "INSERT INTO reminder_deliveries (appointment_id, kind, appointment_start, claimed_at, attempts) " +
+            "VALUES (:appointmentId, :kind, :start, :now, 1) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int claim(@Param("appointmentId") Long appointmentId,
+              @Param("kind") String kind,
+              @Param("start") LocalDateTime start,
+              @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE ReminderDelivery d SET d.sentAt = :now WHERE d.appointmentId = :appointmentId " +
+            "AND d.kind = :kind AND d.appointmentStart = :start")
+    int markSent(@Param("appointmentId") Long appointmentId,
+                 @Param("kind") ReminderKind kind,
+                 @Param("start") LocalDateTime start,
+                 @Param("now") LocalDateTime now);
+
+    // Claims nobody confirmed in time, oldest first
+    @Query("SELECT d FROM ReminderDelivery d WHERE d.sentAt IS NULL AND d.claimedAt < :before " +
+            "AND d.attempts < :maxAttempts ORDER BY d.claimedAt")
+    List<ReminderDelivery> findStale(@Param("before") LocalDateTime before,
+                                     @Param("maxAttempts") int maxAttempts,
+                                     Pageable page);
+
+    // Take over a stale claim; 0 if another node got there first
+    @Modifying
+    @Query("UPDATE ReminderDelivery d SET d.claimedAt = :now, d.attempts = d.attempts + 1 " +
+            "WHERE d.id = :id AND d.sentAt IS NULL AND d.claimedAt = :claimedAt")
+    int reclaim(@Param("id") Long id,
+                @Param("claimedAt") LocalDateTime claimedAt,
+                @Param("now") LocalDateTime now);
+}
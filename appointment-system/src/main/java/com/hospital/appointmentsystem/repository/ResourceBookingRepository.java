@@ -0,0 +1,27 @@
+package com.hospital.appointmentsystem.repository;
+
+import com.hospital.appointmentsystem.model.ResourceBooking;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ResourceBookingRepository extends JpaRepository<ResourceBooking, Long> {
+
+    @Query("SELECT b FROM ResourceBooking b JOIN FETCH b.resource WHERE b.appointment.id = :appointmentId")
+    List<ResourceBooking> findByAppointmentId(@Param("appointmentId") Long appointmentId);
+
+    // Intervals held by live appointments: [resourceId, date, time, duration] rows
+    @Query("SELECT b.resource.id, a.appointmentDate, a.appointmentTime, a.durationMinutes " +
+            "FROM ResourceBooking b JOIN b.appointment a " +
+            "WHERE b.resource.id IN :resourceIds AND a.appointmentDate BETWEEN :from AND :to " +
+            "AND a.status != 'CANCELLED'")
+    List<Object[]> findBookedIntervals(@Param("resourceIds") Collection<Long> resourceIds,
+                                       @Param("from") LocalDate from,
+                                       @Param("to") LocalDate to);
+}
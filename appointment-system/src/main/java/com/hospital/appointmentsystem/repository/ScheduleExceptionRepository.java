@@ -0,0 +1,32 @@
+package com.hospital.appointmentsystem.repository;
+
+import com.hospital.appointmentsystem.model.ScheduleException;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ScheduleExceptionRepository extends JpaRepository<ScheduleException, Long> {
+
+    // A doctor's own exceptions in a date range
+    @Query("SELECT e FROM ScheduleException e WHERE e.doctor.id = :doctorId " +
+            "AND e.date BETWEEN :from AND :to ORDER BY e.date, e.startTime")
+    List<ScheduleException> findByDoctorIdAndDateBetween(@Param("doctorId") Long doctorId,
+                                                         @Param("from") LocalDate from,
+                                                         @Param("to") LocalDate to);
+
+    // Exceptions that apply to everyone (holidays) in a date range
+    @Query("SELECT e FROM ScheduleException e WHERE e.doctor IS NULL " +
+            "AND e.date BETWEEN :from AND :to ORDER BY e.date")
+    List<ScheduleException> findGlobalBetween(@Param("from") LocalDate from,
+                                              @Param("to") LocalDate to);
+
+    // All exceptions in a date range with their doctor id (null for global): [doctorId, exception]
+    @Query("SELECT d.id, e FROM ScheduleException e LEFT JOIN e.doctor d WHERE e.date BETWEEN :from AND :to")
+    List<Object[]> findAllWithDoctorIdBetween(@Param("from") LocalDate from,
+                                              @Param("to") LocalDate to);
+}
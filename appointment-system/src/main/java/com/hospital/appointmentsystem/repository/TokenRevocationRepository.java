@@ -0,0 +1,28 @@
+package com.hospital.appointmentsystem.repository;
+
+import com.hospital.appointmentsystem.model.TokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+
+    // Find revocations that have not expired yet (startup load)
+    List<TokenRevocation> findByExpiresAtAfter(LocalDateTime now);
+
+    // Find revocations recorded since a point in time (incremental refresh)
+    List<TokenRevocation> findByRevokedAtGreaterThanEqual(LocalDateTime since);
+
+    // Delete revocations whose tokens have all expired
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TokenRevocation r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
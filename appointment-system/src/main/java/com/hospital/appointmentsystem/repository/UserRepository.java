@@ -3,7 +3,10 @@ package com.hospital.appointmentsystem.repository;
 import com.hospital.appointmentsystem.model.User;
 import model.Role;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 
@@ -22,6 +25,20 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // Check if email exists
     boolean existsByEmail(String email);
 
+    // Usernames and emails only, for warming the registration Bloom filter
+    @Query("SELECT u.username FROM User u")
+    List<String> findAllUsernames();
+
+    @Query("SELECT u.email FROM User u")
+    List<String> findAllEmails();
+
+    // Which of the given usernames / emails are already taken (batch registration)
+    @Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
     // Find all users by role
     List<User> findByRole(Role role);
 
@@ -0,0 +1,57 @@
+package com.hospital.appointmentsystem.repository;
+
+import com.hospital.appointmentsystem.model.WaitlistEntry;
+import model.WaitlistStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    @Query("SELECT w FROM WaitlistEntry w WHERE w.doctor.id = :doctorId AND w.date = :date " +
+            "AND w.status = :status ORDER BY w.priority DESC, w.createdAt ASC")
+    List<WaitlistEntry> findByDoctorIdAndDateAndStatusOrderByPriorityDescCreatedAtAsc(
+            @Param("doctorId") Long doctorId, @Param("date") LocalDate date, @Param("status") WaitlistStatus status);
+
+    @Query("SELECT w FROM WaitlistEntry w WHERE w.patient.id = :patientId ORDER BY w.date ASC")
+    List<WaitlistEntry> findByPatientIdOrderByDateAsc(@Param("patientId") Long patientId);
+
+    // Entries still waiting from a date on, for the in-memory matcher:
+    // [id, doctorId, patientId, date, duration, priority, createdAt]
+    @Query("SELECT w.id, w.doctor.id, w.patient.id, w.date, w.durationMinutes, w.priority, w.createdAt " +
+            "FROM WaitlistEntry w WHERE w.status = model.WaitlistStatus.WAITING AND w.date >= :from")
+    List<Object[]> findWaitingFrom(@Param("from") LocalDate from);
+
+    // Same rows for one doctor and day, reread when a slot there is freed
+    @Query("SELECT w.id, w.doctor.id, w.patient.id, w.date, w.durationMinutes, w.priority, w.createdAt " +
+            "FROM WaitlistEntry w WHERE w.status = model.WaitlistStatus.WAITING " +
+            "AND w.doctor.id = :doctorId AND w.date = :date")
+    List<Object[]> findWaitingOn(@Param("doctorId") Long doctorId, @Param("date") LocalDate date);
+
+    // (doctor, day) pairs with someone waiting in [from, to]; all doctors when doctorId is null
+    @Query("SELECT DISTINCT w.doctor.id, w.date FROM WaitlistEntry w WHERE w.status = model.WaitlistStatus.WAITING " +
+            "AND w.date >= :from AND w.date <= :to AND (:doctorId IS NULL OR w.doctor.id = :doctorId)")
+    List<Object[]> findWaitingDays(@Param("doctorId") Long doctorId,
+                                   @Param("from") LocalDate from,
+                                   @Param("to") LocalDate to);
+
+    // Move an entry between statuses; 0 if it was not in the expected one (taken by another node)
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = :status, w.appointmentId = :appointmentId " +
+            "WHERE w.id = :id AND w.status = :expected")
+    int transition(@Param("id") Long id,
+                   @Param("expected") WaitlistStatus expected,
+                   @Param("status") WaitlistStatus status,
+                   @Param("appointmentId") Long appointmentId);
+
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = model.WaitlistStatus.EXPIRED " +
+            "WHERE w.status = model.WaitlistStatus.WAITING AND w.date < :today")
+    int expireBefore(@Param("today") LocalDate today);
+}
@@ -1,8 +1,12 @@
 package com.hospital.appointmentsystem.security;
 
 import com.hospital.appointmentsystem.model.User;
+import com.hospital.appointmentsystem.repository.DoctorRepository;
+import com.hospital.appointmentsystem.repository.PatientRepository;
 import com.hospital.appointmentsystem.repository.UserRepository;
+import model.Role;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -17,6 +21,12 @@ public class CustomUserDetailsService implements UserDetailsService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         User user = userRepository.findByUsername(username)
@@ -25,7 +35,33 @@ public class CustomUserDetailsService implements UserDetailsService {
         return new org.springframework.security.core.userdetails.User(
                 user.getUsername(),
                 user.getPassword(),
+                Boolean.TRUE.equals(user.getActive()),
+                true,
+                true,
+                true,
                 Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()))
         );
     }
-}
\ No newline at end of file
+
+    // Build the token principal for a user, resolving the linked patient/doctor profile (login only)
+    public JwtPrincipal loadPrincipal(User user) {
+        Long patientId = null;
+        Long doctorId = null;
+        if (user.getRole() == Role.PATIENT) {
+            patientId = patientRepository.findIdByUserId(user.getId()).orElse(null);
+        } else if (user.getRole() == Role.DOCTOR) {
+            doctorId = doctorRepository.findIdByUserId(user.getId()).orElse(null);
+        }
+        return new JwtPrincipal(user.getId(), user.getUsername(), user.getRole(), patientId, doctorId);
+    }
+
+    // Fallback for tokens issued without role/id claims
+    public JwtPrincipal loadActivePrincipal(String username) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        if (!Boolean.TRUE.equals(user.getActive())) {
+            throw new DisabledException("User is deactivated: " + username);
+        }
+        return new JwtPrincipal(user.getId(), user.getUsername(), user.getRole(), null, null);
+    }
+}
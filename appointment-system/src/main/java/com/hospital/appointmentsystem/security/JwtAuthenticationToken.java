@@ -0,0 +1,35 @@
+package com.hospital.appointmentsystem.security;
+
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+
+/**
+ * Authentication placed in the SecurityContext by {@link JwtRequestFilter}.
+ * Controllers can read the already-verified claims through {@link #getToken()}
+ * or take the {@link JwtPrincipal} with {@code @AuthenticationPrincipal}.
+ */
+public class JwtAuthenticationToken extends AbstractAuthenticationToken {
+
+    private final JwtPrincipal principal;
+    private final transient VerifiedToken token;
+
+    public JwtAuthenticationToken(VerifiedPrincipal verified) {
+        super(verified.principal().authorities());
+        this.principal = verified.principal();
+        this.token = verified.token();
+        setAuthenticated(true);
+    }
+
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    @Override
+    public JwtPrincipal getPrincipal() {
+        return principal;
+    }
+
+    public VerifiedToken getToken() {
+        return token;
+    }
+}
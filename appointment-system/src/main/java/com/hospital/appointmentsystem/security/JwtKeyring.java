@@ -0,0 +1,203 @@
+package com.hospital.appointmentsystem.security;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.*;
+
+/**
+ * HMAC signing keys shared by every node through a local key store file, so tokens survive
+ * restarts and are accepted by any instance reading the same file.
+ * <p>
+ * File format (java.util.Properties):
+ * <pre>
+ * active=&lt;kid&gt;
+ * key.&lt;kid&gt;=&lt;base64 secret&gt;
+ * key.&lt;kid&gt;.retire-at=&lt;epoch millis&gt;   (retiring keys only)
+ * </pre>
+ * New tokens are signed with the active key. Retiring keys keep verifying tokens until
+ * {@code retire-at}, which {@link #rotate()} sets to the longest token lifetime, so rotation
+ * never forces a mass re-login.
+ */
+@Slf4j
+@Component
+public class JwtKeyring {
+
+    private static final String ACTIVE = "active";
+    private static final String KEY_PREFIX = "key.";
+    private static final String RETIRE_AT_SUFFIX = ".retire-at";
+
+    // Unknown kids trigger a reload at most this often, so forged headers cannot force disk reads
+    private static final long MIN_RELOAD_INTERVAL_MS = 1000;
+
+    @Value("${app.security.keyring.path:config/jwt-keyring.properties}")
+    private String keyringPath;
+
+    private volatile Snapshot snapshot;
+    private volatile long lastReloadAttempt;
+
+    public record SigningKey(String kid, SecretKey key, Long retireAt) {
+    }
+
+    private record Snapshot(SigningKey active, Map<String, SigningKey> keys, FileTime modified) {
+    }
+
+    @PostConstruct
+    public synchronized void init() {
+        Path path = path();
+        if (!Files.exists(path)) {
+            log.warn("No JWT keyring at {}, creating one with a fresh signing key", path.toAbsolutePath());
+            SigningKey first = newKey();
+            write(first, List.of());
+        }
+        snapshot = read();
+    }
+
+    // Key used to sign new tokens
+    public SigningKey active() {
+        return snapshot.active();
+    }
+
+    // Key for a token's kid header, or null if unknown or retired
+    public SecretKey resolve(String kid) {
+        SigningKey key = lookup(kid);
+        if (key == null && System.currentTimeMillis() - lastReloadAttempt >= MIN_RELOAD_INTERVAL_MS) {
+            // Another node may have rotated before we noticed the file change
+            reloadIfChanged();
+            key = lookup(kid);
+        }
+        return key != null ? key.key() : null;
+    }
+
+    public List<SigningKey> keys() {
+        return List.copyOf(snapshot.keys().values());
+    }
+
+    // Pick up rotations written by other nodes or by an operator
+    @Scheduled(fixedDelayString = "${app.security.keyring.reload-interval-ms:30000}")
+    public synchronized void reloadIfChanged() {
+        lastReloadAttempt = System.currentTimeMillis();
+        try {
+            FileTime modified = Files.getLastModifiedTime(path());
+            if (!modified.equals(snapshot.modified())) {
+                snapshot = read();
+                log.info("Reloaded JWT keyring, active kid {}", snapshot.active().kid());
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Could not reload JWT keyring, keeping current keys", e);
+        }
+    }
+
+    // Make a new key active; the previous one keeps verifying until its tokens have expired
+    public synchronized SigningKey rotate() {
+        long now = System.currentTimeMillis();
+        Snapshot current = read();
+        List<SigningKey> retiring = new ArrayList<>();
+        for (SigningKey key : current.keys().values()) {
+            if (key.kid().equals(current.active().kid())) {
+                retiring.add(new SigningKey(key.kid(), key.key(), now + JwtUtil.JWT_TOKEN_VALIDITY));
+            } else if (key.retireAt() != null && key.retireAt() > now) {
+                retiring.add(key);
+            }
+        }
+        SigningKey next = newKey();
+        write(next, retiring);
+        snapshot = read();
+        log.info("Rotated JWT signing key, active kid {}", next.kid());
+        return next;
+    }
+
+    private SigningKey lookup(String kid) {
+        if (kid == null) {
+            return null;
+        }
+        SigningKey key = snapshot.keys().get(kid);
+        if (key == null || (key.retireAt() != null && key.retireAt() <= System.currentTimeMillis())) {
+            return null;
+        }
+        return key;
+    }
+
+    private Path path() {
+        return Paths.get(keyringPath);
+    }
+
+    private SigningKey newKey() {
+        String kid = Long.toString(System.currentTimeMillis(), 36) + "-" + UUID.randomUUID().toString().substring(0, 8);
+        return new SigningKey(kid, Keys.secretKeyFor(SignatureAlgorithm.HS256), null);
+    }
+
+    private Snapshot read() {
+        Path path = path();
+        Properties props = new Properties();
+        try (InputStream in = Files.newInputStream(path)) {
+            props.load(in);
+            FileTime modified = Files.getLastModifiedTime(path);
+
+            Map<String, SigningKey> keys = new LinkedHashMap<>();
+            for (String name : props.stringPropertyNames()) {
+                if (!name.startsWith(KEY_PREFIX) || name.endsWith(RETIRE_AT_SUFFIX)) {
+                    continue;
+                }
+                String kid = name.substring(KEY_PREFIX.length());
+                byte[] secret = Base64.getDecoder().decode(props.getProperty(name).trim());
+                String retireAt = props.getProperty(name + RETIRE_AT_SUFFIX);
+                keys.put(kid, new SigningKey(kid, Keys.hmacShaKeyFor(secret),
+                        retireAt != null ? Long.parseLong(retireAt.trim()) : null));
+            }
+
+            String activeKid = props.getProperty(ACTIVE);
+            SigningKey active = activeKid != null ? keys.get(activeKid.trim()) : null;
+            if (active == null) {
+                throw new IllegalStateException("JWT keyring " + path + " has no usable active key");
+            }
+            return new Snapshot(active, Map.copyOf(keys), modified);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read JWT keyring " + path, e);
+        }
+    }
+
+    // Write to a temp file and move it into place so other nodes never read a partial keyring
+    private void write(SigningKey active, List<SigningKey> retiring) {
+        Path path = path().toAbsolutePath();
+        Properties props = new Properties();
+        props.setProperty(ACTIVE, active.kid());
+        props.setProperty(KEY_PREFIX + active.kid(), Base64.getEncoder().encodeToString(active.key().getEncoded()));
+        for (SigningKey key : retiring) {
+            props.setProperty(KEY_PREFIX + key.kid(), Base64.getEncoder().encodeToString(key.key().getEncoded()));
+            props.setProperty(KEY_PREFIX + key.kid() + RETIRE_AT_SUFFIX, Long.toString(key.retireAt()));
+        }
+        try {
+            Files.createDirectories(path.getParent());
+            Path tmp = Files.createTempFile(path.getParent(), ".jwt-keyring", ".tmp");
+            restrictToOwner(tmp);
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                props.store(out, "JWT signing keys - keep secret, share with every node");
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write JWT keyring " + path, e);
+        }
+    }
+
+    private void restrictToOwner(Path file) throws IOException {
+        try {
+            Files.setPosixFilePermissions(file, PosixFilePermissions.fromString("rw-------"));
+        } catch (UnsupportedOperationException e) {
+            // Non-POSIX file system: rely on the directory's permissions
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.hospital.appointmentsystem.security;
+
+import model.Role;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Authenticated user as described by the signed claims of a JWT.
+ * patientId / doctorId are only set when the account is linked to such a profile.
+ */
+public record JwtPrincipal(Long userId, String username, Role role, Long patientId, Long doctorId)
+        implements Principal {
+
+    private static final Map<Role, List<GrantedAuthority>> AUTHORITIES = new EnumMap<>(Role.class);
+
+    static {
+        for (Role role : Role.values()) {
+            AUTHORITIES.put(role, List.of(new SimpleGrantedAuthority("ROLE_" + role.name())));
+        }
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    public Collection<GrantedAuthority> authorities() {
+        return AUTHORITIES.get(role);
+    }
+}
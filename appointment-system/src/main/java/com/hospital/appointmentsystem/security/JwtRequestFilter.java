@@ -1,13 +1,14 @@
 package com.hospital.appointmentsystem.security;
 
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -23,37 +24,63 @@ public class JwtRequestFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private TokenRevocationService revocationService;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws ServletException, IOException {
 
         final String authorizationHeader = request.getHeader("Authorization");
 
-        String username = null;
-        String jwt = null;
-
         // Extract JWT from Authorization header
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
-            try {
-                username = jwtUtil.extractUsername(jwt);
-            } catch (Exception e) {
-                logger.error("Error extracting username from JWT", e);
-            }
-        }
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String jwt = authorizationHeader.substring(7);
 
-        // Validate token and set authentication
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            // Already verified this exact token: no parsing, no user lookup
+            VerifiedPrincipal verified = principalCache.get(jwt);
+            if (verified == null) {
+                verified = verifyAndLoad(jwt);
+            }
 
-            if (jwtUtil.validateToken(jwt, userDetails.getUsername())) {
-                UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(
-                                userDetails, null, userDetails.getAuthorities());
+            // In-memory check, also applied to cache hits since revocation can happen at any time
+            if (verified != null && !revocationService.isRevoked(verified.token())) {
+                JwtAuthenticationToken authToken = new JwtAuthenticationToken(verified);
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
         }
         chain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    // Verify the token once and build the principal from its claims; cache until the token expires
+    private VerifiedPrincipal verifyAndLoad(String jwt) {
+        VerifiedToken token;
+        try {
+            token = jwtUtil.verify(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.debug("Rejected JWT: " + e.getMessage());
+            return null;
+        }
+
+        JwtPrincipal principal;
+        if (token.isSelfContained()) {
+            principal = token.toPrincipal();
+        } else {
+            try {
+                principal = userDetailsService.loadActivePrincipal(token.subject());
+            } catch (UsernameNotFoundException | DisabledException e) {
+                logger.debug("JWT subject cannot be authenticated: " + token.subject());
+                return null;
+            }
+        }
+
+        VerifiedPrincipal verified = new VerifiedPrincipal(principal, token);
+        principalCache.put(jwt, verified);
+        return verified;
+    }
+}
@@ -1,25 +1,95 @@
 package com.hospital.appointmentsystem.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import model.Role;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
 
-    // Generate a secure key for HS256
-    private final Key SECRET_KEY = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+    // Signing keys shared across restarts and nodes; see JwtKeyring for the file format
+    @Autowired
+    private JwtKeyring keyring;
 
     // Token validity: 10 hours
-    private static final long JWT_TOKEN_VALIDITY = 10 * 60 * 60 * 1000;
+    static final long JWT_TOKEN_VALIDITY = 10 * 60 * 60 * 1000;
+
+    // Claim names carried by every token so authorization needs no database access
+    static final String CLAIM_ROLE = "role";
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_PATIENT_ID = "pid";
+    static final String CLAIM_DOCTOR_ID = "did";
+
+    // Immutable and thread-safe, so one instance serves every request; keys are picked by the kid header
+    private final JwtParser jwtParser = Jwts.parserBuilder()
+            .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                @Override
+                public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                    Key key = keyring.resolve(header.getKeyId());
+                    if (key == null) {
+                        throw new JwtException("Unknown or retired signing key: " + header.getKeyId());
+                    }
+                    return key;
+                }
+            })
+            .build();
+
+    // Parse and check signature and expiry once; throws JwtException if the token is not acceptable
+    public VerifiedToken verify(String token) {
+        Claims claims = extractAllClaims(token);
+        Date issuedAt = claims.getIssuedAt();
+        Date expiration = claims.getExpiration();
+        if (claims.getSubject() == null || expiration == null) {
+            throw new JwtException("Token is missing subject or expiration");
+        }
+        return new VerifiedToken(
+                claims.getId(),
+                claims.getSubject(),
+                issuedAt != null ? issuedAt.getTime() : 0L,
+                expiration.getTime(),
+                roleClaim(claims),
+                idClaim(claims, CLAIM_USER_ID),
+                idClaim(claims, CLAIM_PATIENT_ID),
+                idClaim(claims, CLAIM_DOCTOR_ID)
+        );
+    }
+
+    private Role roleClaim(Claims claims) {
+        Object role = claims.get(CLAIM_ROLE);
+        if (role == null) {
+            return null;
+        }
+        try {
+            return Role.valueOf(role.toString());
+        } catch (IllegalArgumentException e) {
+            throw new JwtException("Unknown role claim: " + role);
+        }
+    }
+
+    private Long idClaim(Claims claims, String name) {
+        Object value = claims.get(name);
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        throw new JwtException("Claim " + name + " is not numeric");
+    }
 
     // Extract username from token
     public String extractUsername(String token) {
@@ -37,40 +107,46 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
 
-    // Extract all claims from token
+    // Extract all claims from token (the parser also rejects expired tokens)
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(SECRET_KEY)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    // Check if token is expired
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        return jwtParser.parseClaimsJws(token).getBody();
     }
 
-    // Generate token for user
-    public String generateToken(String username) {
+    // Generate token for user, embedding role and linked profile ids as signed claims
+    public String generateToken(JwtPrincipal principal) {
         Map<String, Object> claims = new HashMap<>();
-        return createToken(claims, username);
+        claims.put(CLAIM_ROLE, principal.role().name());
+        claims.put(CLAIM_USER_ID, principal.userId());
+        if (principal.patientId() != null) {
+            claims.put(CLAIM_PATIENT_ID, principal.patientId());
+        }
+        if (principal.doctorId() != null) {
+            claims.put(CLAIM_DOCTOR_ID, principal.doctorId());
+        }
+        return createToken(claims, principal.username());
     }
 
-    // Create JWT token
+    // Create JWT token, signed with the active key and tagged with its kid
     private String createToken(Map<String, Object> claims, String subject) {
+        JwtKeyring.SigningKey signingKey = keyring.active();
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, signingKey.kid())
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + JWT_TOKEN_VALIDITY))
-                .signWith(SECRET_KEY)
+                .signWith(signingKey.key(), SignatureAlgorithm.HS256)
                 .compact();
     }
 
     // Validate token
     public Boolean validateToken(String token, String username) {
-        final String extractedUsername = extractUsername(token);
-        return (extractedUsername.equals(username) && !isTokenExpired(token));
+        try {
+            VerifiedToken verified = verify(token);
+            return verified.subject().equals(username) && !verified.isExpired(System.currentTimeMillis());
+        } catch (JwtException | IllegalArgumentException e) {
+            return false;
+        }
     }
-}
\ No newline at end of file
+}
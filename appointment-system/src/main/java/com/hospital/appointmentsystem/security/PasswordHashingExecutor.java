@@ -0,0 +1,116 @@
+package com.hospital.appointmentsystem.security;
+
+import com.hospital.appointmentsystem.exception.OverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Dedicated pool for BCrypt work (login verification, registration hashing) so CPU-bound
+ * hashing never runs on request threads. The pool is sized to the cores and its queue is
+ * bounded: when it is full, or a task has waited longer than the clients will, the work is
+ * refused with {@link OverloadedException} instead of piling up.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    @Value("${app.security.hashing.threads:0}")
+    private int threads;
+
+    @Value("${app.security.hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${app.security.hashing.max-queue-wait-ms:2000}")
+    private long maxQueueWaitMs;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private ThreadPoolExecutor executor;
+    private Timer hashLatency;
+    private Timer queueWait;
+    private Counter rejected;
+
+    @PostConstruct
+    void start() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "bcrypt-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        hashLatency = Timer.builder("auth.hashing.latency")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        queueWait = Timer.builder("auth.hashing.queue.wait")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        rejected = meterRegistry.counter("auth.hashing.rejected");
+        Gauge.builder("auth.hashing.queue.depth", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("auth.hashing.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdown();
+    }
+
+    // Run password work on the pool; fails fast with OverloadedException when saturated
+    public <T> CompletableFuture<T> submit(Supplier<T> work) {
+        long enqueuedAt = System.nanoTime();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                long waited = System.nanoTime() - enqueuedAt;
+                queueWait.record(waited, TimeUnit.NANOSECONDS);
+                if (TimeUnit.NANOSECONDS.toMillis(waited) > maxQueueWaitMs) {
+                    // The caller has most likely given up; do not spend a hash on it
+                    rejected.increment();
+                    result.completeExceptionally(overloaded());
+                    return;
+                }
+                long started = System.nanoTime();
+                try {
+                    result.complete(work.get());
+                } catch (Throwable t) {
+                    result.completeExceptionally(t);
+                } finally {
+                    hashLatency.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw overloaded();
+        }
+        return result;
+    }
+
+    // Number of hashing threads; batch callers split their work into this many tasks
+    public int parallelism() {
+        return executor.getCorePoolSize();
+    }
+
+    public int queueDepth() {
+        return executor.getQueue().size();
+    }
+
+    private OverloadedException overloaded() {
+        return new OverloadedException("Authentication service is busy, please retry",
+                Math.max(1, TimeUnit.MILLISECONDS.toSeconds(maxQueueWaitMs)));
+    }
+}
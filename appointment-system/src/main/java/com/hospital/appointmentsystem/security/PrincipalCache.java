@@ -0,0 +1,120 @@
+package com.hospital.appointmentsystem.security;
+
+import com.hospital.appointmentsystem.event.UserAccessChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded, concurrent cache of principals that have already been verified for a given JWT.
+ * Entries live no longer than the token's own expiration, so a hit never outlives the token.
+ * Entries for a user are dropped once a {@link UserAccessChangedEvent} for them is committed.
+ */
+@Component
+public class PrincipalCache {
+
+    @Value("${app.security.principal-cache.max-size:10000}")
+    private int maxSize;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, VerifiedPrincipal> entries = new ConcurrentHashMap<>();
+    private final Object evictionLock = new Object();
+
+    private Counter hits;
+    private Counter misses;
+    private Counter expiredEvictions;
+    private Counter sizeEvictions;
+    private Counter invalidatedEvictions;
+
+    @PostConstruct
+    void registerMetrics() {
+        hits = meterRegistry.counter("auth.principal.cache.hits");
+        misses = meterRegistry.counter("auth.principal.cache.misses");
+        expiredEvictions = meterRegistry.counter("auth.principal.cache.evictions", "cause", "expired");
+        sizeEvictions = meterRegistry.counter("auth.principal.cache.evictions", "cause", "size");
+        invalidatedEvictions = meterRegistry.counter("auth.principal.cache.evictions", "cause", "invalidated");
+        Gauge.builder("auth.principal.cache.size", entries, Map::size).register(meterRegistry);
+    }
+
+    // Look up the principal previously verified for this token, or null
+    public VerifiedPrincipal get(String token) {
+        VerifiedPrincipal entry = entries.get(token);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.token().isExpired(System.currentTimeMillis())) {
+            if (entries.remove(token, entry)) {
+                expiredEvictions.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry;
+    }
+
+    // Remember a verified principal until the token expires
+    public void put(String token, VerifiedPrincipal principal) {
+        if (principal.token().isExpired(System.currentTimeMillis())) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            makeRoom();
+        }
+        entries.put(token, principal);
+    }
+
+    // Drop every cached principal belonging to the given user
+    public void evictUser(String username) {
+        int before = entries.size();
+        entries.values().removeIf(entry -> entry.principal().username().equals(username));
+        int removed = Math.max(0, before - entries.size());
+        if (removed > 0) {
+            invalidatedEvictions.increment(removed);
+        }
+    }
+
+    // Runs after the change is committed so a concurrent request cannot re-cache the old state
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserAccessChanged(UserAccessChangedEvent event) {
+        evictUser(event.username());
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // Purge expired entries first; if still full, drop an arbitrary tenth of the cache
+    private void makeRoom() {
+        synchronized (evictionLock) {
+            if (entries.size() < maxSize) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            int before = entries.size();
+            entries.values().removeIf(entry -> entry.token().isExpired(now));
+            expiredEvictions.increment(Math.max(0, before - entries.size()));
+
+            int toDrop = entries.size() - maxSize + Math.max(1, maxSize / 10);
+            Iterator<String> keys = entries.keySet().iterator();
+            while (toDrop > 0 && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+                sizeEvictions.increment();
+                toDrop--;
+            }
+        }
+    }
+}
@@ -52,6 +52,9 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         // Public endpoints - anyone can access
                         .requestMatchers("/api/auth/**").permitAll()
+                        // Metrics expose cache, login and hashing internals - admins only
+                        .requestMatchers("/actuator/health", "/actuator/health/**").authenticated()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         // All other endpoints require authentication
                         .anyRequest().authenticated()
                 )
@@ -0,0 +1,178 @@
+package com.hospital.appointmentsystem.security;
+
+import com.hospital.appointmentsystem.model.TokenRevocation;
+import com.hospital.appointmentsystem.repository.TokenRevocationRepository;
+import com.hospital.appointmentsystem.util.BloomFilter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import model.RevocationKind;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revoked tokens and users, persisted in token_revocations and mirrored in memory as a
+ * Bloom filter in front of an exact map. The request path ({@link #isRevoked}) touches only
+ * memory: almost every token misses the Bloom filter, and the rare hit is confirmed in the map.
+ * Other nodes' revocations arrive through the periodic incremental {@link #refresh()}.
+ */
+@Slf4j
+@Service
+public class TokenRevocationService {
+
+    private static final String TOKEN_PREFIX = "t:";
+    private static final String USER_PREFIX = "u:";
+
+    @Autowired
+    private TokenRevocationRepository revocationRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.security.revocation.expected-entries:100000}")
+    private long expectedEntries;
+
+    @Value("${app.security.revocation.refresh-overlap-ms:60000}")
+    private long refreshOverlapMs;
+
+    // key -> revocation; the Bloom filter holds a superset of these keys
+    private final Map<String, Revocation> revoked = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+    private volatile BloomFilter bloom;
+    private volatile LocalDateTime lastRefresh;
+
+    private record Revocation(long revokedAt, long expiresAt) {
+    }
+
+    @PostConstruct
+    void load() {
+        bloom = new BloomFilter(expectedEntries, 0.01);
+        LocalDateTime now = LocalDateTime.now();
+        revocationRepository.findByExpiresAtAfter(now).forEach(this::apply);
+        lastRefresh = now;
+        Gauge.builder("auth.revocations.size", revoked, Map::size).register(meterRegistry);
+        log.info("Loaded {} active token revocations", revoked.size());
+    }
+
+    // O(1), memory only: token revoked by jti, or its user revoked after it was issued
+    public boolean isRevoked(VerifiedToken token) {
+        BloomFilter filter = bloom;
+        if (token.tokenId() != null) {
+            String key = TOKEN_PREFIX + token.tokenId();
+            if (filter.mightContain(key) && revoked.containsKey(key)) {
+                return true;
+            }
+        }
+        String userKey = USER_PREFIX + token.subject();
+        if (filter.mightContain(userKey)) {
+            Revocation revocation = revoked.get(userKey);
+            return revocation != null && token.issuedAt() < revocation.revokedAt();
+        }
+        return false;
+    }
+
+    // Revoke a single token until it expires (logout)
+    public void revokeToken(VerifiedToken token) {
+        if (token.tokenId() == null) {
+            throw new IllegalArgumentException("Token has no id and can only be revoked through its user");
+        }
+        store(RevocationKind.TOKEN, token.tokenId(), token.expiresAt());
+    }
+
+    // Revoke every token of a user issued up to now (deactivation, role change)
+    public void revokeUser(String username) {
+        store(RevocationKind.USER, username, System.currentTimeMillis() + JwtUtil.JWT_TOKEN_VALIDITY);
+    }
+
+    // Pull revocations written by other nodes; the overlap covers transactions that committed late
+    @Scheduled(fixedDelayString = "${app.security.revocation.refresh-interval-ms:5000}")
+    public void refresh() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = lastRefresh.minusNanos(refreshOverlapMs * 1_000_000);
+        try {
+            revocationRepository.findByRevokedAtGreaterThanEqual(since).forEach(this::apply);
+            lastRefresh = now;
+        } catch (RuntimeException e) {
+            log.error("Could not refresh token revocations", e);
+        }
+    }
+
+    // Drop expired revocations from the table and memory, then rebuild the Bloom filter
+    @Scheduled(fixedDelayString = "${app.security.revocation.prune-interval-ms:600000}")
+    public void prune() {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            int deleted = revocationRepository.deleteExpired(now);
+            if (deleted > 0) {
+                log.info("Pruned {} expired token revocations", deleted);
+            }
+        } catch (RuntimeException e) {
+            log.error("Could not prune token revocations", e);
+        }
+        long nowMillis = toMillis(now);
+        synchronized (writeLock) {
+            revoked.values().removeIf(revocation -> revocation.expiresAt() <= nowMillis);
+            rebuildBloom();
+        }
+    }
+
+    private void store(RevocationKind kind, String subject, long expiresAt) {
+        long now = System.currentTimeMillis();
+        // iat has second precision: round up, so every token issued in the revoking second is caught.
+        // A token issued later in that same second is rejected too; the client simply logs in again.
+        long revokedAt = now - now % 1000 + 1000;
+        TokenRevocation revocation = new TokenRevocation(
+                null, kind, subject, toLocalDateTime(revokedAt), toLocalDateTime(expiresAt));
+        revocationRepository.save(revocation);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(revocation);
+                }
+            });
+        } else {
+            apply(revocation);
+        }
+    }
+
+    private void apply(TokenRevocation revocation) {
+        String key = (revocation.getKind() == RevocationKind.TOKEN ? TOKEN_PREFIX : USER_PREFIX)
+                + revocation.getSubject();
+        Revocation value = new Revocation(toMillis(revocation.getRevokedAt()), toMillis(revocation.getExpiresAt()));
+        synchronized (writeLock) {
+            revoked.merge(key, value, (a, b) -> a.revokedAt() >= b.revokedAt() ? a : b);
+            bloom.put(key);
+            if (revoked.size() > bloom.expectedInsertions()) {
+                rebuildBloom();
+            }
+        }
+    }
+
+    // Caller holds writeLock
+    private void rebuildBloom() {
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, revoked.size() * 2L), 0.01);
+        revoked.keySet().forEach(rebuilt::put);
+        bloom = rebuilt;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+}
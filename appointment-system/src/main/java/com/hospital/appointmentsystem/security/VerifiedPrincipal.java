@@ -0,0 +1,8 @@
+package com.hospital.appointmentsystem.security;
+
+/**
+ * A principal together with the verified token it was authenticated from.
+ * Immutable, so one instance can be shared by every request carrying the same token.
+ */
+public record VerifiedPrincipal(JwtPrincipal principal, VerifiedToken token) {
+}
@@ -0,0 +1,25 @@
+package com.hospital.appointmentsystem.security;
+
+import model.Role;
+
+/**
+ * Immutable view of a JWT whose signature and expiry have already been checked.
+ * Produced once per token by {@link JwtUtil#verify(String)}; timestamps are epoch millis.
+ * tokenId (jti), role and the id claims are null for tokens issued before they were added.
+ */
+public record VerifiedToken(String tokenId, String subject, long issuedAt, long expiresAt,
+                            Role role, Long userId, Long patientId, Long doctorId) {
+
+    public boolean isExpired(long now) {
+        return expiresAt <= now;
+    }
+
+    // True when the token alone is enough to build the principal
+    public boolean isSelfContained() {
+        return role != null && userId != null;
+    }
+
+    public JwtPrincipal toPrincipal() {
+        return new JwtPrincipal(userId, subject, role, patientId, doctorId);
+    }
+}
@@ -1,52 +1,100 @@
 package com.hospital.appointmentsystem.service;
 
+import com.hospital.appointmentsystem.dto.AppointmentView;
+import com.hospital.appointmentsystem.dto.AvailableSlot;
+import com.hospital.appointmentsystem.dto.BookingResult;
+import com.hospital.appointmentsystem.dto.BulkMutationResult;
+import com.hospital.appointmentsystem.dto.CursorPage;
+import com.hospital.appointmentsystem.dto.RecurringBookingRequest;
+import com.hospital.appointmentsystem.event.AppointmentChangedEvent;
+import com.hospital.appointmentsystem.event.AppointmentChangedEvent.Slot;
+import com.hospital.appointmentsystem.event.AppointmentsBulkChangedEvent;
+import com.hospital.appointmentsystem.exception.SlotConflictException;
 import com.hospital.appointmentsystem.model.Appointment;
+import com.hospital.appointmentsystem.model.Doctor;
+import com.hospital.appointmentsystem.model.Patient;
 import com.hospital.appointmentsystem.repository.AppointmentRepository;
+import com.hospital.appointmentsystem.util.Cursor;
 import model.AppointmentStatus;
+import model.RecurrenceFrequency;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Objects;
 
 @Service
 @Transactional
 public class AppointmentService {
 
+    // Cursor kind for lists in (date, time, id) order
+    private static final String START_CURSOR = "appointments";
+
     @Autowired
     private AppointmentRepository appointmentRepository;
 
     @Autowired
-    private DoctorService doctorService;
+    private BookingEngine bookingEngine;
 
     @Autowired
-    private PatientService patientService;
+    private SlotSearchService slotSearchService;
 
-    // CREATE
-    public Appointment createAppointment(Appointment appointment) {
-        // Validate that the time slot is available
-        boolean isAvailable = appointmentRepository.isTimeSlotAvailable(
-                appointment.getDoctor().getId(),
-                appointment.getAppointmentDate(),
-                appointment.getAppointmentTime()
-        );
-
-        if (!isAvailable) {
-            throw new RuntimeException("Time slot is not available");
-        }
+    @Autowired
+    private WorkingCalendar workingCalendar;
+
+    @Autowired
+    private SlotIndex slotIndex;
+
+    @Autowired
+    private DaySheetCache daySheetCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
-        // Verify doctor exists and is available
-        doctorService.getDoctorById(appointment.getDoctor().getId());
+    @Value("${app.scheduling.booking.max-occurrences:366}")
+    private int maxOccurrences;
 
-        // Verify patient exists
-        patientService.getPatientById(appointment.getPatient().getId());
+    // CREATE - Serialized per doctor and day by the booking engine; commits on its own
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Appointment createAppointment(Appointment appointment) {
+        return bookingEngine.book(appointment);
+    }
+
+    // CREATE - Many appointments in one call; conflicts are reported per item, not thrown
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<BookingResult> createAppointments(List<Appointment> appointments) {
+        return bookingEngine.bookAll(appointments);
+    }
 
-        return appointmentRepository.save(appointment);
+    // CREATE - A recurring series (e.g. weekly physiotherapy), booked like a bulk request
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<BookingResult> createRecurringAppointments(RecurringBookingRequest request) {
+        return bookingEngine.bookAll(expand(request));
     }
 
-    // READ - Get all appointments
-    public List<Appointment> getAllAppointments() {
-        return appointmentRepository.findAll();
+    // READ - Get all appointments, one keyset page at a time in (date, time, id) order
+    @Transactional(readOnly = true)
+    public CursorPage<AppointmentView> getAllAppointments(String cursor, int size) {
+        PageRequest limit = PageRequest.of(0, CursorPage.checkSize(size) + 1);
+        List<AppointmentView> rows;
+        if (cursor == null) {
+            rows = appointmentRepository.findViewPage(limit);
+        } else {
+            Cursor after = Cursor.decode(cursor, START_CURSOR, 3);
+            rows = appointmentRepository.findViewPageAfter(after.date(0), after.time(1), after.id(2), limit);
+        }
+        return CursorPage.of(rows, size, AppointmentService::startCursor);
     }
 
     // READ - Get appointment by ID
@@ -56,76 +104,125 @@ public class AppointmentService {
     }
 
     // READ - Get patient's appointments
-    public List<Appointment> getPatientAppointments(Long patientId) {
-        return appointmentRepository.findByPatientId(patientId);
+    public List<AppointmentView> getPatientAppointments(Long patientId) {
+        return appointmentRepository.findViewsByPatientId(patientId);
     }
 
     // READ - Get doctor's appointments
-    public List<Appointment> getDoctorAppointments(Long doctorId) {
-        return appointmentRepository.findByDoctorId(doctorId);
+    public List<AppointmentView> getDoctorAppointments(Long doctorId) {
+        return appointmentRepository.findViewsByDoctorId(doctorId);
     }
 
     // READ - Get upcoming appointments for patient
-    public List<Appointment> getUpcomingPatientAppointments(Long patientId) {
-        return appointmentRepository.findUpcomingAppointmentsByPatient(patientId, LocalDate.now());
+    public List<AppointmentView> getUpcomingPatientAppointments(Long patientId) {
+        return appointmentRepository.findUpcomingViewsByPatient(patientId, LocalDate.now());
+    }
+
+    // READ - Upcoming appointments for doctor as JSON, served from the day sheet cache
+    @Transactional(readOnly = true)
+    public byte[] getUpcomingDoctorSheet(Long doctorId) {
+        LocalDate today = LocalDate.now();
+        return daySheetCache.get(DaySheetCache.Key.upcoming(doctorId, today),
+                () -> appointmentRepository.findUpcomingSheet(doctorId, today));
+    }
+
+    // READ - Get appointments by status, paged like getAllAppointments
+    @Transactional(readOnly = true)
+    public CursorPage<AppointmentView> getAppointmentsByStatus(AppointmentStatus status, String cursor, int size) {
+        PageRequest limit = PageRequest.of(0, CursorPage.checkSize(size) + 1);
+        List<AppointmentView> rows;
+        if (cursor == null) {
+            rows = appointmentRepository.findViewPageByStatus(status, limit);
+        } else {
+            Cursor after = Cursor.decode(cursor, START_CURSOR, 3);
+            rows = appointmentRepository.findViewPageByStatusAfter(
+                    status, after.date(0), after.time(1), after.id(2), limit);
+        }
+        return CursorPage.of(rows, size, AppointmentService::startCursor);
+    }
+
+    private static String startCursor(AppointmentView last) {
+        return Cursor.encode(START_CURSOR, last.getAppointmentDate(), last.getAppointmentTime(), last.getId());
     }
 
-    // READ - Get upcoming appointments for doctor
-    public List<Appointment> getUpcomingDoctorAppointments(Long doctorId) {
-        return appointmentRepository.findUpcomingAppointmentsByDoctor(doctorId, LocalDate.now());
+    // READ - Doctor's appointments on a date as JSON, served from the day sheet cache
+    @Transactional(readOnly = true)
+    public byte[] getDoctorDaySheet(Long doctorId, LocalDate date) {
+        return daySheetCache.get(DaySheetCache.Key.day(doctorId, date),
+                () -> appointmentRepository.findDaySheet(doctorId, date));
     }
 
-    // READ - Get appointments by status
-    public List<Appointment> getAppointmentsByStatus(AppointmentStatus status) {
-        return appointmentRepository.findByStatus(status);
+    // READ - Free slot start times for a doctor on a date, for appointments of the given length
+    public List<LocalTime> getFreeSlots(Long doctorId, LocalDate date, int durationMinutes) {
+        return slotIndex.freeSlots(doctorId, date, durationMinutes);
     }
 
-    // READ - Get doctor's appointments on specific date
-    public List<Appointment> getDoctorAppointmentsByDate(Long doctorId, LocalDate date) {
-        return appointmentRepository.findByDoctorIdAndAppointmentDate(doctorId, date);
+    // READ - Earliest free slots for a specialization or doctor within a date window
+    public List<AvailableSlot> findAvailableSlots(String specialization, Long doctorId, LocalDate from,
+                                                  LocalDate to, int durationMinutes, int limit) {
+        return slotSearchService.findEarliest(specialization, doctorId, from, to, durationMinutes, limit);
     }
 
     // UPDATE
     public Appointment updateAppointment(Long id, Appointment appointmentDetails) {
         Appointment appointment = getAppointmentById(id);
+        Slot before = Slot.of(appointment);
+        Integer duration = appointmentDetails.getDurationMinutes() != null
+                ? appointmentDetails.getDurationMinutes() : appointment.getDurationMinutes();
 
-        // If date/time is being changed, check availability
+        // If date/time/duration is being changed, check availability
         if (!appointment.getAppointmentDate().equals(appointmentDetails.getAppointmentDate()) ||
-                !appointment.getAppointmentTime().equals(appointmentDetails.getAppointmentTime())) {
+                !appointment.getAppointmentTime().equals(appointmentDetails.getAppointmentTime()) ||
+                !Objects.equals(appointment.getDurationMinutes(), duration)) {
 
-            boolean isAvailable = appointmentRepository.isTimeSlotAvailable(
+            bookingEngine.checkSlot(appointmentDetails.getAppointmentTime(), duration);
+            workingCalendar.checkWorking(
+                    appointmentDetails.getDoctor().getId(),
+                    appointmentDetails.getAppointmentDate(),
+                    appointmentDetails.getAppointmentTime(),
+                    duration
+            );
+            boolean isAvailable = slotIndex.isFree(
                     appointmentDetails.getDoctor().getId(),
                     appointmentDetails.getAppointmentDate(),
-                    appointmentDetails.getAppointmentTime()
+                    appointmentDetails.getAppointmentTime(),
+                    duration,
+                    before
             );
 
             if (!isAvailable) {
-                throw new RuntimeException("New time slot is not available");
+                throw new SlotConflictException("New time slot is not available");
             }
         }
 
         appointment.setAppointmentDate(appointmentDetails.getAppointmentDate());
         appointment.setAppointmentTime(appointmentDetails.getAppointmentTime());
+        appointment.setDurationMinutes(duration);
         appointment.setReason(appointmentDetails.getReason());
         appointment.setNotes(appointmentDetails.getNotes());
         appointment.setStatus(appointmentDetails.getStatus());
 
-        return appointmentRepository.save(appointment);
+        Appointment saved = saveChecked(appointment, "New time slot is not available");
+        publishChanged(id, before, Slot.of(saved));
+        return saved;
     }
 
     // UPDATE - Change status
     public Appointment updateAppointmentStatus(Long id, AppointmentStatus status) {
         Appointment appointment = getAppointmentById(id);
+        Slot before = Slot.of(appointment);
         appointment.setStatus(status);
-        return appointmentRepository.save(appointment);
+        // Reinstating a cancelled appointment can collide with a booking made meanwhile
+        Appointment saved = saveChecked(appointment, "Time slot has been taken since the cancellation");
+        publishChanged(id, before, Slot.of(saved));
+        return saved;
     }
 
     // DELETE
     public void deleteAppointment(Long id) {
-        if (!appointmentRepository.existsById(id)) {
-            throw new RuntimeException("Appointment not found with id: " + id);
-        }
-        appointmentRepository.deleteById(id);
+        Appointment appointment = getAppointmentById(id);
+        appointmentRepository.delete(appointment);
+        publishChanged(id, Slot.of(appointment), null);
     }
 
     // BUSINESS LOGIC - Cancel appointment
@@ -137,4 +234,114 @@ public class AppointmentService {
     public Appointment completeAppointment(Long id) {
         return updateAppointmentStatus(id, AppointmentStatus.COMPLETED);
     }
-}
\ No newline at end of file
+
+    // BULK - Cancel, complete or mark no-show every matching appointment in one UPDATE.
+    // Only SCHEDULED appointments are touched unless other current statuses are given
+    public BulkMutationResult bulkUpdateStatus(Long doctorId, LocalDate from, LocalDate to,
+                                               Collection<AppointmentStatus> currentStatuses,
+                                               AppointmentStatus status) {
+        checkRange(from, to);
+        if (status == AppointmentStatus.SCHEDULED) {
+            // Reinstating needs a per-row slot check; use the single-appointment endpoint
+            throw new IllegalArgumentException("Bulk updates cannot reinstate appointments");
+        }
+        Collection<AppointmentStatus> matching = currentStatuses == null || currentStatuses.isEmpty()
+                ? EnumSet.of(AppointmentStatus.SCHEDULED) : currentStatuses;
+        int affected = appointmentRepository.bulkUpdateStatus(
+                doctorId, from, to, matching, status, LocalDateTime.now());
+        publishBulkChanged(doctorId, from, to, affected);
+        return new BulkMutationResult(status.name(), affected);
+    }
+
+    // BULK - Delete every matching appointment in one DELETE; all statuses unless given
+    public BulkMutationResult bulkDelete(Long doctorId, LocalDate from, LocalDate to,
+                                         Collection<AppointmentStatus> statuses) {
+        checkRange(from, to);
+        Collection<AppointmentStatus> matching = statuses == null || statuses.isEmpty()
+                ? EnumSet.allOf(AppointmentStatus.class) : statuses;
+        int affected = appointmentRepository.bulkDelete(doctorId, from, to, matching);
+        publishBulkChanged(doctorId, from, to, affected);
+        return new BulkMutationResult("DELETED", affected);
+    }
+
+    private void checkRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Bulk operations need a from and to date");
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("'to' must not be before 'from'");
+        }
+    }
+
+    // Flush now so a lost race surfaces here as a conflict rather than at commit
+    private Appointment saveChecked(Appointment appointment, String conflictMessage) {
+        try {
+            return appointmentRepository.saveAndFlush(appointment);
+        } catch (DataIntegrityViolationException e) {
+            if (BookingEngine.isSlotConflict(e)) {
+                throw new SlotConflictException(conflictMessage);
+            }
+            throw e;
+        }
+    }
+
+    // Slot index and other listeners apply the change once the transaction commits
+    private void publishChanged(Long id, Slot before, Slot after) {
+        eventPublisher.publishEvent(new AppointmentChangedEvent(id, before, after));
+    }
+
+    private void publishBulkChanged(Long doctorId, LocalDate from, LocalDate to, int affected) {
+        if (affected > 0) {
+            eventPublisher.publishEvent(new AppointmentsBulkChangedEvent(doctorId, from, to, affected));
+        }
+    }
+
+    // One appointment per occurrence of the rule, starting at startDate, until count or until is reached
+    private List<Appointment> expand(RecurringBookingRequest request) {
+        if (request.getDoctorId() == null || request.getPatientId() == null
+                || request.getStartDate() == null || request.getTime() == null || request.getFrequency() == null) {
+            throw new IllegalArgumentException("Doctor, patient, start date, time and frequency are required");
+        }
+        if ((request.getCount() == null) == (request.getUntil() == null)) {
+            throw new IllegalArgumentException("Exactly one of count and until is required");
+        }
+        RecurrenceFrequency frequency = RecurrenceFrequency.valueOf(request.getFrequency().toUpperCase());
+        int interval = request.getInterval() != null ? request.getInterval() : 1;
+        if (interval < 1) {
+            throw new IllegalArgumentException("Interval must be at least 1");
+        }
+        int count = request.getCount() != null ? request.getCount() : maxOccurrences + 1;
+        if (count < 1 || (request.getCount() != null && count > maxOccurrences)) {
+            throw new IllegalArgumentException("Count must be between 1 and " + maxOccurrences);
+        }
+
+        Doctor doctor = new Doctor();
+        doctor.setId(request.getDoctorId());
+        Patient patient = new Patient();
+        patient.setId(request.getPatientId());
+        List<Appointment> occurrences = new ArrayList<>();
+        for (int n = 0; n < count; n++) {
+            // Offsets from the start date, so a series starting on the 31st stays on month ends
+            LocalDate date = switch (frequency) {
+                case DAILY -> request.getStartDate().plusDays((long) n * interval);
+                case WEEKLY -> request.getStartDate().plusWeeks((long) n * interval);
+                case MONTHLY -> request.getStartDate().plusMonths((long) n * interval);
+            };
+            if (request.getUntil() != null && date.isAfter(request.getUntil())) {
+                break;
+            }
+            if (occurrences.size() == maxOccurrences) {
+                throw new IllegalArgumentException("A series is limited to " + maxOccurrences + " occurrences");
+            }
+            Appointment appointment = new Appointment();
+            appointment.setDoctor(doctor);
+            appointment.setPatient(patient);
+            appointment.setAppointmentDate(date);
+            appointment.setAppointmentTime(request.getTime());
+            appointment.setDurationMinutes(request.getDurationMinutes());
+            appointment.setReason(request.getReason());
+            occurrences.add(appointment);
+        }
+        return occurrences;
+    }
+}
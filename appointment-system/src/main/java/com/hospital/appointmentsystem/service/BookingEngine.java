@@ -0,0 +1,336 @@
+package com.hospital.appointmentsystem.service;
+
+import com.hospital.appointmentsystem.dto.BookingResult;
+import com.hospital.appointmentsystem.event.AppointmentChangedEvent;
+import com.hospital.appointmentsystem.event.AppointmentChangedEvent.Slot;
+import com.hospital.appointmentsystem.exception.SlotConflictException;
+import com.hospital.appointmentsystem.model.Appointment;
+import com.hospital.appointmentsystem.repository.AppointmentRepository;
+import com.hospital.appointmentsystem.repository.DoctorRepository;
+import com.hospital.appointmentsystem.repository.PatientRepository;
+import com.hospital.appointmentsystem.util.IntervalSet;
+import jakarta.annotation.PostConstruct;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Race-free booking. Each (doctor, day) maps to one of a fixed set of lock stripes, so bookings
+ * for unrelated doctors or days never wait on each other. Under the stripe the slot is checked
+ * against the in-memory {@link SlotIndex}, the row is inserted with reference-only doctor and
+ * patient, and the transaction commits before the lock is released, so the next holder already
+ * sees the booking. Across nodes, the exclusion constraint {@value #OVERLAP_CONSTRAINT} (overlapping
+ * intervals) and the unique index {@value #SLOT_INDEX} (same start) are the arbiters.
+ */
+@Service
+public class BookingEngine {
+
+    public static final String SLOT_INDEX = "ux_appointments_doctor_slot";
+    public static final String OVERLAP_CONSTRAINT = "ex_appointments_doctor_overlap";
+
+    private static final String EXCLUSION_VIOLATION = "23P01";
+    private static final String FOREIGN_KEY_VIOLATION = "23503";
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private SlotIndex slotIndex;
+
+    @Autowired
+    private WorkingCalendar workingCalendar;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.scheduling.booking.lock-stripes:1024}")
+    private int lockStripes;
+
+    @Value("${app.scheduling.max-duration-minutes:480}")
+    private int maxDurationMinutes;
+
+    @Value("${app.scheduling.booking.max-bulk-size:1000}")
+    private int maxBulkSize;
+
+    private ReentrantLock[] locks;
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        locks = new ReentrantLock[lockStripes];
+        for (int i = 0; i < lockStripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        // Own transaction even if a caller has one open: it must commit before the stripe is released
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Book a new appointment; SlotConflictException if the slot is already taken
+    public Appointment book(Appointment request) {
+        return book(request, saved -> {
+        });
+    }
+
+    // Same, running `alsoInTransaction` on the saved row before commit; whatever it throws undoes the booking
+    public Appointment book(Appointment request, Consumer<Appointment> alsoInTransaction) {
+        validate(request);
+        Long doctorId = request.getDoctor().getId();
+        Long patientId = request.getPatient().getId();
+        LocalDate date = request.getAppointmentDate();
+        LocalTime time = request.getAppointmentTime();
+        int duration = request.getEffectiveDurationMinutes();
+
+        ReentrantLock lock = lockFor(doctorId, date);
+        lock.lock();
+        try {
+            return transactionTemplate.execute(status -> {
+                if (!slotIndex.isFree(doctorId, date, time, duration)) {
+                    throw new SlotConflictException("Time slot is not available");
+                }
+                // No SELECTs: a missing doctor or patient surfaces as a foreign key violation
+                request.setDoctor(doctorRepository.getReferenceById(doctorId));
+                request.setPatient(patientRepository.getReferenceById(patientId));
+                Appointment saved = insert(request, doctorId, patientId);
+                alsoInTransaction.accept(saved);
+                eventPublisher.publishEvent(new AppointmentChangedEvent(saved.getId(), null, Slot.of(saved)));
+                return saved;
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Book many appointments at once (a series, a vaccination drive); one result per request, in order
+    public List<BookingResult> bookAll(List<Appointment> requests) {
+        if (requests.size() > maxBulkSize) {
+            throw new IllegalArgumentException("At most " + maxBulkSize + " appointments per request");
+        }
+        BookingResult[] results = new BookingResult[requests.size()];
+        List<Integer> valid = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            try {
+                validate(requests.get(i));
+                valid.add(i);
+            } catch (IllegalArgumentException e) {
+                results[i] = result(i, requests.get(i), "INVALID", null, e.getMessage());
+            }
+        }
+        if (valid.isEmpty()) {
+            return Arrays.asList(results);
+        }
+
+        // Every stripe the batch touches, taken in index order so concurrent batches cannot deadlock
+        int[] stripes = valid.stream()
+                .mapToInt(i -> stripeOf(requests.get(i).getDoctor().getId(), requests.get(i).getAppointmentDate()))
+                .distinct().sorted().toArray();
+        for (int stripe : stripes) {
+            locks[stripe].lock();
+        }
+        try {
+            // Set-based check: one query loads every (doctor, day) of the batch into the slot index
+            Set<Long> doctorIds = new HashSet<>();
+            LocalDate first = null;
+            LocalDate last = null;
+            for (int i : valid) {
+                Appointment request = requests.get(i);
+                doctorIds.add(request.getDoctor().getId());
+                LocalDate date = request.getAppointmentDate();
+                first = first == null || date.isBefore(first) ? date : first;
+                last = last == null || date.isAfter(last) ? date : last;
+            }
+            slotIndex.ensureLoaded(doctorIds, first, last);
+
+            // Also reject items that collide with an earlier item of the same batch
+            Map<List<Object>, IntervalSet> taken = new HashMap<>();
+            List<Integer> accepted = new ArrayList<>();
+            for (int i : valid) {
+                Appointment request = requests.get(i);
+                Long doctorId = request.getDoctor().getId();
+                int start = request.getAppointmentTime().getHour() * 60 + request.getAppointmentTime().getMinute();
+                int end = start + request.getEffectiveDurationMinutes();
+                IntervalSet sameDay = taken.computeIfAbsent(List.of(doctorId, request.getAppointmentDate()),
+                        key -> new IntervalSet());
+                if (sameDay.overlaps(start, end) || !slotIndex.isFree(doctorId, request.getAppointmentDate(),
+                        request.getAppointmentTime(), request.getEffectiveDurationMinutes())) {
+                    results[i] = result(i, request, "CONFLICT", null, "Time slot is not available");
+                } else {
+                    sameDay.add(start, end);
+                    accepted.add(i);
+                }
+            }
+            insertAll(requests, accepted, results);
+        } finally {
+            for (int k = stripes.length - 1; k >= 0; k--) {
+                locks[stripes[k]].unlock();
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    // Minute-aligned start, sane duration, and the appointment must end the same day
+    public void checkSlot(LocalTime time, Integer durationMinutes) {
+        if (time == null) {
+            throw new IllegalArgumentException("Appointment time is required");
+        }
+        if (time.getSecond() != 0 || time.getNano() != 0) {
+            throw new IllegalArgumentException("Appointment time must be on a whole minute");
+        }
+        if (durationMinutes != null && (durationMinutes < 1 || durationMinutes > maxDurationMinutes)) {
+            throw new IllegalArgumentException("Duration must be between 1 and " + maxDurationMinutes + " minutes");
+        }
+        int duration = durationMinutes != null ? durationMinutes : Appointment.DEFAULT_DURATION_MINUTES;
+        if (time.getHour() * 60 + time.getMinute() + duration > MINUTES_PER_DAY) {
+            throw new IllegalArgumentException("Appointment must end by midnight");
+        }
+    }
+
+    // True if the violation is the live-slot unique index or the overlap exclusion constraint
+    public static boolean isSlotConflict(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation
+                    && SLOT_INDEX.equalsIgnoreCase(violation.getConstraintName())) {
+                return true;
+            }
+            // Hibernate does not extract names for exclusion violations; the SQL state is enough
+            if (cause instanceof SQLException sql && EXCLUSION_VIOLATION.equals(sql.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void validate(Appointment request) {
+        if (request.getDoctor() == null || request.getDoctor().getId() == null
+                || request.getPatient() == null || request.getPatient().getId() == null
+                || request.getAppointmentDate() == null || request.getAppointmentTime() == null) {
+            throw new IllegalArgumentException("Doctor, patient, date and time are required");
+        }
+        checkSlot(request.getAppointmentTime(), request.getDurationMinutes());
+        workingCalendar.checkWorking(request.getDoctor().getId(), request.getAppointmentDate(),
+                request.getAppointmentTime(), request.getEffectiveDurationMinutes());
+    }
+
+    // One transaction, JDBC-batched through the pooled sequence; if any row fails (a slot taken
+    // on another node, a missing patient) it rolls back and the rows are retried one by one
+    private void insertAll(List<Appointment> requests, List<Integer> accepted, BookingResult[] results) {
+        if (accepted.isEmpty()) {
+            return;
+        }
+        try {
+            List<Appointment> saved = transactionTemplate.execute(status -> {
+                List<Appointment> batch = accepted.stream().map(i -> newAppointment(requests.get(i))).toList();
+                List<Appointment> inserted = appointmentRepository.saveAll(batch);
+                appointmentRepository.flush();
+                for (Appointment appointment : inserted) {
+                    eventPublisher.publishEvent(new AppointmentChangedEvent(appointment.getId(), null, Slot.of(appointment)));
+                }
+                return inserted;
+            });
+            for (int k = 0; k < accepted.size(); k++) {
+                int i = accepted.get(k);
+                results[i] = result(i, requests.get(i), "CREATED", saved.get(k).getId(), null);
+            }
+        } catch (DataIntegrityViolationException e) {
+            for (int i : accepted) {
+                Appointment request = requests.get(i);
+                try {
+                    Appointment saved = transactionTemplate.execute(status -> {
+                        Appointment inserted = insert(newAppointment(request),
+                                request.getDoctor().getId(), request.getPatient().getId());
+                        eventPublisher.publishEvent(new AppointmentChangedEvent(inserted.getId(), null, Slot.of(inserted)));
+                        return inserted;
+                    });
+                    results[i] = result(i, request, "CREATED", saved.getId(), null);
+                } catch (SlotConflictException conflict) {
+                    results[i] = result(i, request, "CONFLICT", null, conflict.getMessage());
+                } catch (RuntimeException failure) {
+                    results[i] = result(i, request, "INVALID", null, failure.getMessage());
+                }
+            }
+        }
+    }
+
+    // Fresh entity per attempt: a rolled-back attempt leaves ids on the ones it touched
+    private Appointment newAppointment(Appointment request) {
+        Appointment appointment = new Appointment();
+        appointment.setDoctor(doctorRepository.getReferenceById(request.getDoctor().getId()));
+        appointment.setPatient(patientRepository.getReferenceById(request.getPatient().getId()));
+        appointment.setAppointmentDate(request.getAppointmentDate());
+        appointment.setAppointmentTime(request.getAppointmentTime());
+        appointment.setDurationMinutes(request.getEffectiveDurationMinutes());
+        appointment.setReason(request.getReason());
+        appointment.setNotes(request.getNotes());
+        return appointment;
+    }
+
+    private static BookingResult result(int index, Appointment request, String status, Long id, String message) {
+        return new BookingResult(index, status, id, request.getAppointmentDate(), request.getAppointmentTime(), message);
+    }
+
+    private Appointment insert(Appointment appointment, Long doctorId, Long patientId) {
+        try {
+            return appointmentRepository.saveAndFlush(appointment);
+        } catch (DataIntegrityViolationException e) {
+            if (isSlotConflict(e)) {
+                throw new SlotConflictException("Time slot is not available");
+            }
+            // The transaction is aborted now, so no lookups: PostgreSQL's detail names the column
+            String missing = missingReference(e);
+            if ("doctor_id".equals(missing)) {
+                throw new RuntimeException("Doctor not found with id: " + doctorId);
+            }
+            if ("patient_id".equals(missing)) {
+                throw new RuntimeException("Patient not found with id: " + patientId);
+            }
+            if (missing != null) {
+                throw new RuntimeException("Doctor " + doctorId + " or patient " + patientId + " not found");
+            }
+            throw e;
+        }
+    }
+
+    // Column of a foreign key violation ("Key (doctor_id)=(7) is not present..."), "" if it cannot
+    // be told, null if the violation is not a foreign key one
+    private static String missingReference(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql && FOREIGN_KEY_VIOLATION.equals(sql.getSQLState())) {
+                String message = String.valueOf(sql.getMessage());
+                return message.contains("(doctor_id)") ? "doctor_id"
+                        : message.contains("(patient_id)") ? "patient_id" : "";
+            }
+        }
+        return null;
+    }
+
+    private ReentrantLock lockFor(Long doctorId, LocalDate date) {
+        return locks[stripeOf(doctorId, date)];
+    }
+
+    private int stripeOf(Long doctorId, LocalDate date) {
+        return (Objects.hash(doctorId, date) & 0x7fffffff) % locks.length;
+    }
+}
@@ -0,0 +1,238 @@
+package com.hospital.appointmentsystem.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospital.appointmentsystem.dto.AppointmentView;
+import com.hospital.appointmentsystem.event.AppointmentChangedEvent;
+import com.hospital.appointmentsystem.event.AppointmentChangedEvent.Slot;
+import com.hospital.appointmentsystem.event.AppointmentsBulkChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of doctors' day sheets (a day's appointments, or everything from today on) kept
+ * as the exact JSON the endpoints return, so a hit costs neither a query nor serialization. Sheets
+ * are built from {@link AppointmentView} rows, never entities, so no patient or doctor graph (nor
+ * a user row with its password hash) is held or served from here.
+ * <p>
+ * Committed appointment changes evict only the affected (doctor, day) and that doctor's upcoming
+ * sheet; bulk changes evict their date range. A load that races with an eviction is served but
+ * not kept: every eviction bumps a per-doctor generation first, and a load whose generation moved
+ * while it ran removes what it just stored. Doctor and patient profile edits are not tracked;
+ * the TTL bounds how long a renamed patient can show up under the old name.
+ */
+@Component
+public class DaySheetCache {
+
+    public record Key(Long doctorId, LocalDate date, boolean upcoming) {
+
+        public static Key day(Long doctorId, LocalDate date) {
+            return new Key(doctorId, date, false);
+        }
+
+        // Everything from `today` on; a new key every day, so yesterday's never serves
+        public static Key upcoming(Long doctorId, LocalDate today) {
+            return new Key(doctorId, today, true);
+        }
+
+        // Would a change on `changed` alter this sheet?
+        boolean covers(LocalDate changed) {
+            return upcoming ? !changed.isBefore(date) : changed.equals(date);
+        }
+    }
+
+    private record Sheet(byte[] json, long[] appointmentIds, long loadedAt) {
+    }
+
+    @Value("${app.scheduling.day-sheet.max-entries:5000}")
+    private int maxEntries;
+
+    @Value("${app.scheduling.day-sheet.ttl-ms:300000}")
+    private long ttlMs;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<Key, Sheet> entries = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> generations = new ConcurrentHashMap<>();
+    // Bumped by changes not tied to one doctor
+    private final AtomicLong globalGeneration = new AtomicLong();
+    private final Object evictionLock = new Object();
+
+    private Counter hits;
+    private Counter misses;
+    private Counter discardedLoads;
+    private Counter expiredEvictions;
+    private Counter sizeEvictions;
+    private Counter invalidatedEvictions;
+    private Timer servedAge;
+
+    @PostConstruct
+    void registerMetrics() {
+        hits = meterRegistry.counter("appointments.day.sheet.cache.hits");
+        misses = meterRegistry.counter("appointments.day.sheet.cache.misses");
+        discardedLoads = meterRegistry.counter("appointments.day.sheet.cache.discarded.loads");
+        expiredEvictions = meterRegistry.counter("appointments.day.sheet.cache.evictions", "cause", "expired");
+        sizeEvictions = meterRegistry.counter("appointments.day.sheet.cache.evictions", "cause", "size");
+        invalidatedEvictions = meterRegistry.counter("appointments.day.sheet.cache.evictions", "cause", "invalidated");
+        servedAge = Timer.builder("appointments.day.sheet.cache.staleness")
+                .description("Age of day sheets when served from the cache").register(meterRegistry);
+        Gauge.builder("appointments.day.sheet.cache.size", entries, Map::size).register(meterRegistry);
+        Gauge.builder("appointments.day.sheet.cache.hit.ratio", this, DaySheetCache::hitRatio).register(meterRegistry);
+    }
+
+    // Cached JSON for the sheet, or the loader's result serialized (and cached unless it raced a change)
+    public byte[] get(Key key, Supplier<List<AppointmentView>> loader) {
+        long now = System.currentTimeMillis();
+        Sheet cached = entries.get(key);
+        if (cached != null) {
+            if (now - cached.loadedAt() < ttlMs) {
+                hits.increment();
+                servedAge.record(Duration.ofMillis(now - cached.loadedAt()));
+                return cached.json();
+            }
+            if (entries.remove(key, cached)) {
+                expiredEvictions.increment();
+            }
+        }
+        misses.increment();
+
+        long global = globalGeneration.get();
+        long own = generation(key.doctorId()).get();
+        List<AppointmentView> appointments = loader.get();
+        Sheet sheet = new Sheet(serialize(appointments),
+                appointments.stream().mapToLong(AppointmentView::getId).toArray(), now);
+        if (entries.size() >= maxEntries) {
+            makeRoom();
+        }
+        entries.put(key, sheet);
+        // Evictions bump the generation before removing, so either they saw this entry or we see the bump
+        if (globalGeneration.get() != global || generation(key.doctorId()).get() != own) {
+            entries.remove(key, sheet);
+            discardedLoads.increment();
+        }
+        return sheet.json();
+    }
+
+    // Drop the doctor's sheet for that day and their upcoming sheet
+    public void evict(Long doctorId, LocalDate date) {
+        generation(doctorId).incrementAndGet();
+        removeIf((key, sheet) -> key.doctorId().equals(doctorId) && key.covers(date));
+    }
+
+    // Drop sheets overlapping [from, to] for one doctor, or for all when doctorId is null
+    public void evict(Long doctorId, LocalDate from, LocalDate to) {
+        if (doctorId == null) {
+            globalGeneration.incrementAndGet();
+        } else {
+            generation(doctorId).incrementAndGet();
+        }
+        removeIf((key, sheet) -> (doctorId == null || key.doctorId().equals(doctorId))
+                && !key.date().isAfter(to) && (key.upcoming() || !key.date().isBefore(from)));
+    }
+
+    // Runs after the change is committed so a concurrent load cannot re-cache the old state
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        Slot before = event.before();
+        Slot after = event.after();
+        if (before != null) {
+            evict(before.doctorId(), before.date());
+        }
+        if (after != null && !after.equals(before)) {
+            evict(after.doctorId(), after.date());
+        }
+        if (before == null && after == null) {
+            // A cancelled appointment was edited or deleted: no slot says where it is listed
+            globalGeneration.incrementAndGet();
+            long id = event.appointmentId();
+            removeIf((key, sheet) -> contains(sheet, id));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentsBulkChanged(AppointmentsBulkChangedEvent event) {
+        evict(event.doctorId(), event.from(), event.to());
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    private AtomicLong generation(Long doctorId) {
+        return generations.computeIfAbsent(doctorId, id -> new AtomicLong());
+    }
+
+    private byte[] serialize(List<AppointmentView> appointments) {
+        try {
+            return objectMapper.writeValueAsBytes(appointments);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize day sheet", e);
+        }
+    }
+
+    private void removeIf(BiPredicate<Key, Sheet> stale) {
+        int before = entries.size();
+        entries.entrySet().removeIf(entry -> stale.test(entry.getKey(), entry.getValue()));
+        int removed = Math.max(0, before - entries.size());
+        if (removed > 0) {
+            invalidatedEvictions.increment(removed);
+        }
+    }
+
+    private static boolean contains(Sheet sheet, long appointmentId) {
+        for (long id : sheet.appointmentIds()) {
+            if (id == appointmentId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Purge expired entries first; if still full, drop an arbitrary tenth of the cache
+    private void makeRoom() {
+        synchronized (evictionLock) {
+            if (entries.size() < maxEntries) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            int before = entries.size();
+            entries.values().removeIf(sheet -> now - sheet.loadedAt() >= ttlMs);
+            expiredEvictions.increment(Math.max(0, before - entries.size()));
+
+            int toDrop = entries.size() - maxEntries + Math.max(1, maxEntries / 10);
+            Iterator<Key> keys = entries.keySet().iterator();
+            while (toDrop > 0 && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+                sizeEvictions.increment();
+                toDrop--;
+            }
+        }
+    }
+}
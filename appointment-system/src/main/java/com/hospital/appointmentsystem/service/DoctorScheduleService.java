@@ -0,0 +1,178 @@
+package com.hospital.appointmentsystem.service;
+
+import com.hospital.appointmentsystem.dto.WorkingDay;
+import com.hospital.appointmentsystem.dto.WorkingHours;
+import com.hospital.appointmentsystem.event.ScheduleChangedEvent;
+import com.hospital.appointmentsystem.model.Doctor;
+import com.hospital.appointmentsystem.model.DoctorSchedule;
+import com.hospital.appointmentsystem.model.ScheduleException;
+import com.hospital.appointmentsystem.repository.DoctorScheduleRepository;
+import com.hospital.appointmentsystem.repository.ScheduleExceptionRepository;
+import model.ScheduleExceptionKind;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+@Transactional
+public class DoctorScheduleService {
+
+    @Autowired
+    private DoctorScheduleRepository scheduleRepository;
+
+    @Autowired
+    private ScheduleExceptionRepository exceptionRepository;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private WorkingCalendar workingCalendar;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // READ - Weekly template of a doctor
+    public List<DoctorSchedule> getSchedule(Long doctorId) {
+        return scheduleRepository.findByDoctorId(doctorId);
+    }
+
+    // UPDATE - Replace a doctor's weekly template
+    public List<DoctorSchedule> replaceSchedule(Long doctorId, List<DoctorSchedule> blocks) {
+        Doctor doctor = doctorService.getDoctorById(doctorId);
+        for (DoctorSchedule block : blocks) {
+            if (block.getDayOfWeek() == null) {
+                throw new IllegalArgumentException("Day of week is required");
+            }
+            checkHours(block.getStartTime(), block.getEndTime());
+            if (block.getSlotMinutes() != null && block.getSlotMinutes() < 1) {
+                throw new IllegalArgumentException("Slot minutes must be positive");
+            }
+            block.setId(null);
+            block.setDoctor(doctor);
+        }
+        scheduleRepository.deleteByDoctorId(doctorId);
+        List<DoctorSchedule> saved = scheduleRepository.saveAll(blocks);
+        eventPublisher.publishEvent(new ScheduleChangedEvent(doctorId));
+        return saved;
+    }
+
+    // READ - A doctor's exceptions in a date range
+    public List<ScheduleException> getExceptions(Long doctorId, LocalDate from, LocalDate to) {
+        return exceptionRepository.findByDoctorIdAndDateBetween(doctorId, from, to);
+    }
+
+    // CREATE - Leave or extra hours for one doctor
+    public ScheduleException addException(Long doctorId, ScheduleException exception) {
+        exception.setDoctor(doctorService.getDoctorById(doctorId));
+        return saveException(exception, doctorId);
+    }
+
+    // CREATE - Whole-day leave for each day of a range not already on whole-day leave
+    public List<ScheduleException> addLeave(Long doctorId, LocalDate from, LocalDate to, String reason) {
+        Doctor doctor = doctorService.getDoctorById(doctorId);
+        Set<LocalDate> onLeave = new HashSet<>();
+        for (ScheduleException existing : exceptionRepository.findByDoctorIdAndDateBetween(doctorId, from, to)) {
+            if (existing.getKind() == ScheduleExceptionKind.LEAVE && existing.isWholeDay()) {
+                onLeave.add(existing.getDate());
+            }
+        }
+        List<ScheduleException> leave = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            if (!onLeave.contains(date)) {
+                ScheduleException day = new ScheduleException();
+                day.setDoctor(doctor);
+                day.setDate(date);
+                day.setKind(ScheduleExceptionKind.LEAVE);
+                day.setReason(reason);
+                leave.add(day);
+            }
+        }
+        List<ScheduleException> saved = exceptionRepository.saveAll(leave);
+        eventPublisher.publishEvent(new ScheduleChangedEvent(doctorId));
+        return saved;
+    }
+
+    // DELETE - Remove one of a doctor's exceptions
+    public void deleteException(Long doctorId, Long exceptionId) {
+        ScheduleException exception = exceptionRepository.findById(exceptionId)
+                .filter(found -> doctorId.equals(found.getDoctorId()))
+                .orElseThrow(() -> new RuntimeException("Schedule exception not found with id: " + exceptionId));
+        exceptionRepository.delete(exception);
+        eventPublisher.publishEvent(new ScheduleChangedEvent(doctorId));
+    }
+
+    // READ - Public holidays in a date range
+    public List<ScheduleException> getHolidays(LocalDate from, LocalDate to) {
+        return exceptionRepository.findGlobalBetween(from, to);
+    }
+
+    // CREATE - Public holiday (or partial closure) for every doctor
+    public ScheduleException addHoliday(ScheduleException holiday) {
+        holiday.setDoctor(null);
+        if (holiday.getKind() == null) {
+            holiday.setKind(ScheduleExceptionKind.HOLIDAY);
+        }
+        return saveException(holiday, null);
+    }
+
+    // DELETE - Remove a public holiday
+    public void deleteHoliday(Long id) {
+        ScheduleException holiday = exceptionRepository.findById(id)
+                .filter(found -> found.getDoctor() == null)
+                .orElseThrow(() -> new RuntimeException("Holiday not found with id: " + id));
+        exceptionRepository.delete(holiday);
+        eventPublisher.publishEvent(new ScheduleChangedEvent(null));
+    }
+
+    // READ - Materialized working hours of a doctor, day by day
+    @Transactional(readOnly = true)
+    public List<WorkingDay> getCalendar(Long doctorId, LocalDate from, LocalDate to) {
+        List<WorkingDay> days = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            int[] blocks = workingCalendar.blocks(doctorId, date);
+            if (blocks == null) {
+                continue;
+            }
+            List<WorkingHours> hours = new ArrayList<>();
+            for (int i = 0; i < blocks.length; i += 3) {
+                hours.add(new WorkingHours(toTime(blocks[i]), toTime(blocks[i + 1]), blocks[i + 2]));
+            }
+            days.add(new WorkingDay(date, hours));
+        }
+        return days;
+    }
+
+    private ScheduleException saveException(ScheduleException exception, Long doctorId) {
+        if (exception.getDate() == null || exception.getKind() == null) {
+            throw new IllegalArgumentException("Date and kind are required");
+        }
+        if (!exception.isWholeDay()) {
+            checkHours(exception.getStartTime(), exception.getEndTime());
+        } else if (exception.getKind() == ScheduleExceptionKind.EXTRA_HOURS) {
+            throw new IllegalArgumentException("Extra hours need a start and end time");
+        }
+        exception.setId(null);
+        ScheduleException saved = exceptionRepository.save(exception);
+        eventPublisher.publishEvent(new ScheduleChangedEvent(doctorId));
+        return saved;
+    }
+
+    private static void checkHours(LocalTime start, LocalTime end) {
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new IllegalArgumentException("Start time must be before end time");
+        }
+    }
+
+    private static LocalTime toTime(int minute) {
+        return minute >= 24 * 60 ? LocalTime.MAX : LocalTime.of(minute / 60, minute % 60);
+    }
+}
@@ -1,7 +1,9 @@
 package com.hospital.appointmentsystem.service;
 
+import com.hospital.appointmentsystem.dto.DoctorView;
 import com.hospital.appointmentsystem.model.Doctor;
 import com.hospital.appointmentsystem.repository.DoctorRepository;
+import com.hospital.appointmentsystem.security.JwtPrincipal;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,8 +22,8 @@ public class DoctorService {
     }
 
     // READ - Get all doctors
-    public List<Doctor> getAllDoctors() {
-        return doctorRepository.findAll();
+    public List<DoctorView> getAllDoctors() {
+        return doctorRepository.findAllViews();
     }
 
     // READ - Get doctor by ID
@@ -36,14 +38,23 @@ public class DoctorService {
                 .orElseThrow(() -> new RuntimeException("Doctor not found for user id: " + userId));
     }
 
+    // READ - Get the doctor profile of the authenticated user (primary key lookup when the token carries it)
+    public Doctor getDoctorForPrincipal(JwtPrincipal principal) {
+        if (principal.doctorId() != null) {
+            return getDoctorById(principal.doctorId());
+        }
+        return doctorRepository.findByUsername(principal.username())
+                .orElseThrow(() -> new RuntimeException("Doctor not found with username: " + principal.username()));
+    }
+
     // READ - Get available doctors
-    public List<Doctor> getAvailableDoctors() {
-        return doctorRepository.findByAvailableTrue();
+    public List<DoctorView> getAvailableDoctors() {
+        return doctorRepository.findAvailableViews();
     }
 
     // READ - Get doctors by specialization
-    public List<Doctor> getDoctorsBySpecialization(String specialization) {
-        return doctorRepository.findBySpecialization(specialization);
+    public List<DoctorView> getDoctorsBySpecialization(String specialization) {
+        return doctorRepository.findViewsBySpecialization(specialization);
     }
 
     // READ - Get available doctors by specialization
@@ -52,8 +63,8 @@ public class DoctorService {
     }
 
     // READ - Search doctors by name
-    public List<Doctor> searchDoctorsByName(String searchTerm) {
-        return doctorRepository.searchByName(searchTerm);
+    public List<DoctorView> searchDoctorsByName(String searchTerm) {
+        return doctorRepository.searchViewsByName(searchTerm);
     }
 
     // UPDATE
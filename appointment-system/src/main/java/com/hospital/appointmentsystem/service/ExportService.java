@@ -0,0 +1,121 @@
+package com.hospital.appointmentsystem.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospital.appointmentsystem.repository.AppointmentRepository;
+import com.hospital.appointmentsystem.repository.MedicalRecordRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import model.AppointmentStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Full-history exports as NDJSON (one JSON object per line), optionally gzipped.
+ * <p>
+ * Rows are read as flat views through a server-side cursor (bounded fetch size, see the repository
+ * queries) and written to the response as they arrive, so neither the persistence context nor the
+ * heap grows with the size of the export. The read runs in its own read-only transaction on the
+ * thread that writes the response.
+ */
+@Service
+public class ExportService {
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private MedicalRecordRepository medicalRecordRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TransactionTemplate readOnlyTemplate;
+    private Counter appointmentRows;
+    private Counter medicalRecordRows;
+
+    @PostConstruct
+    void init() {
+        readOnlyTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTemplate.setReadOnly(true);
+        appointmentRows = meterRegistry.counter("exports.rows", "type", "appointments");
+        medicalRecordRows = meterRegistry.counter("exports.rows", "type", "medical-records");
+    }
+
+    // Appointments in (date, time, id) order; null filters are not applied, no statuses means all
+    public StreamingResponseBody exportAppointments(LocalDate from, LocalDate to, Long doctorId,
+                                                    Collection<AppointmentStatus> statuses, boolean gzip) {
+        checkRange(from, to);
+        Collection<AppointmentStatus> matching = statuses == null || statuses.isEmpty()
+                ? EnumSet.allOf(AppointmentStatus.class) : statuses;
+        return out -> write(() -> appointmentRepository.streamViews(from, to, doctorId, matching),
+                out, gzip, appointmentRows);
+    }
+
+    // Medical records in (record date, id) order; null filters are not applied
+    public StreamingResponseBody exportMedicalRecords(LocalDate from, LocalDate to, Long doctorId, boolean gzip) {
+        checkRange(from, to);
+        return out -> write(() -> medicalRecordRepository.streamViews(from, to, doctorId),
+                out, gzip, medicalRecordRows);
+    }
+
+    // Returns the number of rows written
+    long write(Supplier<? extends Stream<?>> query, OutputStream out, boolean gzip, Counter rowsWritten)
+            throws IOException {
+        OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(target)) {
+            // The generator must not close the response stream; the gzip trailer is written below
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            Long written = readOnlyTemplate.execute(status -> {
+                long count = 0;
+                try (Stream<?> rows = query.get()) {
+                    Iterator<?> iterator = rows.iterator();
+                    while (iterator.hasNext()) {
+                        json.writeObject(iterator.next());
+                        json.writeRaw('\n');
+                        count++;
+                    }
+                    json.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return count;
+            });
+            if (target instanceof GZIPOutputStream compressed) {
+                compressed.finish();
+            }
+            rowsWritten.increment(written);
+            return written;
+        } catch (UncheckedIOException e) {
+            // Usually the client went away; the transaction has been rolled back and the cursor closed
+            throw e.getCause();
+        }
+    }
+
+    private static void checkRange(LocalDate from, LocalDate to) {
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new IllegalArgumentException("'to' must not be before 'from'");
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.hospital.appointmentsystem.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospital.appointmentsystem.dto.Reminder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// Appends each batch as JSON lines to a local file; for testing and demos
+@Component
+@ConditionalOnProperty(name = "app.reminders.sender", havingValue = "file")
+public class FileReminderSender implements ReminderSender {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.reminders.file.path:reminders.ndjson}")
+    private String filePath;
+
+    @Override
+    public synchronized void send(List<Reminder> reminders) {
+        Path path = Path.of(filePath);
+        StringBuilder lines = new StringBuilder();
+        try {
+            for (Reminder reminder : reminders) {
+                lines.append(objectMapper.writeValueAsString(reminder)).append('\n');
+            }
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            Files.writeString(path, lines, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize reminder", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write reminders to " + filePath, e);
+        }
+    }
+}
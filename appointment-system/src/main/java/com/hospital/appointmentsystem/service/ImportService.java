@@ -0,0 +1,489 @@
+package com.hospital.appointmentsystem.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospital.appointmentsystem.dto.ImportError;
+import com.hospital.appointmentsystem.dto.ImportReport;
+import com.hospital.appointmentsystem.exception.DuplicateAccountException;
+import com.hospital.appointmentsystem.model.Doctor;
+import com.hospital.appointmentsystem.model.JobCheckpoint;
+import com.hospital.appointmentsystem.model.Patient;
+import com.hospital.appointmentsystem.model.User;
+import com.hospital.appointmentsystem.repository.JobCheckpointRepository;
+import com.hospital.appointmentsystem.repository.UserRepository;
+import com.hospital.appointmentsystem.util.CsvReader;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import model.Role;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Bulk import of patients or doctors, each with a login account, from CSV (a header row naming
+ * the columns) or NDJSON. Three pipeline stages:
+ * <ol>
+ *   <li>reading splits the body into records and groups them into batches, on the request thread;</li>
+ *   <li>parsing, validation and password hashing run on the import's own worker pool, several
+ *       batches at a time;</li>
+ *   <li>writing runs back on the request thread, in file order, one transaction per batch.</li>
+ * </ol>
+ * A bad record is reported with its number and left out; it never fails its batch. Each batch
+ * commits together with the job's checkpoint (how many records have been consumed), so a rerun
+ * with the same job id and the same file skips what was committed and continues with the next
+ * batch. BCrypt for imported accounts runs on the import workers, not the shared login pool, so a
+ * large onboarding cannot get logins refused.
+ */
+@Slf4j
+@Service
+public class ImportService {
+
+    private static final String JOB_PREFIX = "import:";
+    private static final int MAX_JOB_ID_LENGTH = 80;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JobCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private ProfileBulkWriter writer;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.import.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.import.parallelism:0}")
+    private int parallelism;
+
+    @Value("${app.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    private ExecutorService workers;
+    private int threads;
+    private TransactionTemplate transactionTemplate;
+
+    // A record as read: CSV fields (named by the header) or one NDJSON line
+    private record RawRecord(long number, List<String> fields, String line) {
+    }
+
+    // A valid record, ready to insert; profile is a Patient or a Doctor
+    private record Row(long number, User user, Object profile) {
+    }
+
+    // Records [first, last] of the file, after parsing and validation
+    private record Batch(long first, long last, List<Row> rows, List<ImportError> errors) {
+    }
+
+    // Counters and in-file uniqueness for one run
+    private class Run {
+        final Set<String> usernames = new HashSet<>();
+        final Set<String> emails = new HashSet<>();
+        final List<ImportError> errors = new ArrayList<>();
+        long read;
+        long imported;
+        long failed;
+
+        void fail(ImportError error) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(error);
+            }
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        threads = parallelism > 0 ? parallelism : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        workers = Executors.newFixedThreadPool(threads);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    void stop() {
+        workers.shutdown();
+    }
+
+    // "csv" or "ndjson": the explicit format if given, else from the Content-Type
+    public static String format(String requested, String contentType) {
+        String format = requested != null ? requested.toLowerCase()
+                : contentType == null ? "" : contentType.toLowerCase().contains("ndjson") ? "ndjson"
+                : contentType.toLowerCase().contains("csv") ? "csv" : "";
+        if (!format.equals("csv") && !format.equals("ndjson")) {
+            throw new IllegalArgumentException("Format must be csv or ndjson");
+        }
+        return format;
+    }
+
+    public ImportReport importProfiles(Role role, String jobId, String format, InputStream body) throws IOException {
+        if (role != Role.PATIENT && role != Role.DOCTOR) {
+            throw new IllegalArgumentException("Only patients and doctors can be imported");
+        }
+        if (jobId == null || jobId.isBlank() || jobId.length() > MAX_JOB_ID_LENGTH) {
+            throw new IllegalArgumentException("A job id of at most " + MAX_JOB_ID_LENGTH + " characters is required");
+        }
+        boolean csv = format(format, null).equals("csv");
+        String job = JOB_PREFIX + jobId;
+        long started = System.nanoTime();
+        long resumeAfter = committed(job, role);
+
+        Run run = new Run();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), 64 * 1024);
+        CsvReader csvReader = csv ? new CsvReader(reader) : null;
+        List<String> header = csv ? header(csvReader) : null;
+        Deque<CompletableFuture<Batch>> inFlight = new ArrayDeque<>();
+        List<RawRecord> pending = new ArrayList<>(batchSize);
+        long number = 0;
+        try {
+            while (true) {
+                RawRecord record = csv ? csvRecord(csvReader, number + 1) : ndjsonRecord(reader, number + 1);
+                if (record == null) {
+                    break;
+                }
+                number++;
+                if (number <= resumeAfter) {
+                    continue;
+                }
+                run.read++;
+                pending.add(record);
+                if (pending.size() == batchSize) {
+                    inFlight.add(prepareAsync(role, header, pending));
+                    pending = new ArrayList<>(batchSize);
+                    // Bounded read-ahead keeps memory flat however large the file is
+                    if (inFlight.size() > 2 * threads) {
+                        write(role, job, join(inFlight.poll()), run);
+                    }
+                }
+            }
+            if (!pending.isEmpty()) {
+                inFlight.add(prepareAsync(role, header, pending));
+            }
+            while (!inFlight.isEmpty()) {
+                write(role, job, join(inFlight.poll()), run);
+            }
+        } finally {
+            inFlight.forEach(batch -> batch.cancel(false));
+        }
+
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        meterRegistry.counter("imports.records", "role", role.name(), "outcome", "imported").increment(run.imported);
+        meterRegistry.counter("imports.records", "role", role.name(), "outcome", "failed").increment(run.failed);
+        log.info("Import {} ({}): {} records read after {}, {} imported, {} failed in {} ms",
+                jobId, role, run.read, resumeAfter, run.imported, run.failed, elapsedMs);
+        return new ImportReport(jobId, role.name(), resumeAfter, run.read, run.imported, run.failed, elapsedMs,
+                run.errors);
+    }
+
+    // Records committed by earlier runs of the job; creates its checkpoint on first use
+    private long committed(String job, Role role) {
+        Optional<JobCheckpoint> existing = checkpointRepository.findById(job);
+        if (existing.isEmpty()) {
+            try {
+                checkpointRepository.saveAndFlush(new JobCheckpoint(job, null, 0L, LocalDateTime.now()));
+            } catch (DataIntegrityViolationException e) {
+                // Another run of the same job created it first
+                return committed(job, role);
+            }
+            return 0;
+        }
+        return position(existing.get(), role);
+    }
+
+    // Checkpoint positions are "<ROLE>:<records consumed>"
+    private static long position(JobCheckpoint checkpoint, Role role) {
+        String position = checkpoint.getPosition();
+        if (position == null) {
+            return 0;
+        }
+        int colon = position.indexOf(':');
+        if (!position.substring(0, colon).equals(role.name())) {
+            throw new IllegalArgumentException("Job id already used for a " + position.substring(0, colon) + " import");
+        }
+        return Long.parseLong(position.substring(colon + 1));
+    }
+
+    private static List<String> header(CsvReader reader) throws IOException {
+        List<String> header = reader.next();
+        if (header == null) {
+            return List.of();
+        }
+        // firstName, first_name and "First Name" all name the same column
+        return header.stream().map(name -> name.replaceAll("[_\\s]", "").toLowerCase()).toList();
+    }
+
+    private static RawRecord csvRecord(CsvReader reader, long number) throws IOException {
+        List<String> fields = reader.next();
+        return fields == null ? null : new RawRecord(number, fields, null);
+    }
+
+    private static RawRecord ndjsonRecord(BufferedReader reader, long number) throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+        } while (line != null && line.isBlank());
+        return line == null ? null : new RawRecord(number, null, line);
+    }
+
+    private CompletableFuture<Batch> prepareAsync(Role role, List<String> header, List<RawRecord> records) {
+        return CompletableFuture.supplyAsync(() -> prepare(role, header, records), workers);
+    }
+
+    private static Batch join(CompletableFuture<Batch> batch) {
+        try {
+            return batch.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    // Stage 2: parse, validate and hash one batch
+    private Batch prepare(Role role, List<String> header, List<RawRecord> records) {
+        List<Row> rows = new ArrayList<>(records.size());
+        List<ImportError> errors = new ArrayList<>();
+        for (RawRecord record : records) {
+            Map<String, String> values = null;
+            try {
+                values = record.line() != null ? fromJson(record.line()) : fromCsv(header, record.fields());
+                rows.add(toRow(role, record.number(), values));
+            } catch (IllegalArgumentException e) {
+                errors.add(new ImportError(record.number(), values == null ? null : values.get("username"),
+                        e.getMessage()));
+            }
+        }
+        return new Batch(records.get(0).number(), records.get(records.size() - 1).number(), rows, errors);
+    }
+
+    private Map<String, String> fromJson(String line) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Not valid JSON");
+        }
+        if (!node.isObject()) {
+            throw new IllegalArgumentException("Expected a JSON object");
+        }
+        Map<String, String> values = new HashMap<>();
+        for (Map.Entry<String, JsonNode> field : node.properties()) {
+            if (!field.getValue().isNull()) {
+                values.put(field.getKey().replace("_", "").toLowerCase(), field.getValue().asText());
+            }
+        }
+        return values;
+    }
+
+    private static Map<String, String> fromCsv(List<String> header, List<String> fields) {
+        if (fields.size() != header.size()) {
+            throw new IllegalArgumentException("Expected " + header.size() + " fields, found " + fields.size());
+        }
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < fields.size(); i++) {
+            if (!fields.get(i).isEmpty()) {
+                values.put(header.get(i), fields.get(i));
+            }
+        }
+        return values;
+    }
+
+    private Row toRow(Role role, long number, Map<String, String> values) {
+        User user = new User();
+        user.setUsername(text(values, "username", 50, true));
+        user.setEmail(text(values, "email", 255, true));
+        if (!user.getEmail().contains("@")) {
+            throw new IllegalArgumentException("Invalid email");
+        }
+        String password = text(values, "password", 72, true);
+        user.setRole(role);
+        user.setActive(true);
+
+        Object profile;
+        if (role == Role.PATIENT) {
+            Patient patient = new Patient();
+            patient.setUser(user);
+            patient.setFirstName(text(values, "firstname", 255, true));
+            patient.setLastName(text(values, "lastname", 255, true));
+            patient.setDateOfBirth(date(values, "dateofbirth"));
+            patient.setPhone(text(values, "phone", 15, false));
+            patient.setAddress(text(values, "address", 500, false));
+            patient.setBloodGroup(text(values, "bloodgroup", 5, false));
+            patient.setEmergencyContact(text(values, "emergencycontact", 255, false));
+            patient.setEmergencyPhone(text(values, "emergencyphone", 255, false));
+            profile = patient;
+        } else {
+            Doctor doctor = new Doctor();
+            doctor.setUser(user);
+            doctor.setFirstName(text(values, "firstname", 255, true));
+            doctor.setLastName(text(values, "lastname", 255, true));
+            doctor.setSpecialization(text(values, "specialization", 255, true));
+            doctor.setPhone(text(values, "phone", 15, false));
+            doctor.setQualifications(text(values, "qualifications", 1000, false));
+            String fee = text(values, "consultationfee", 32, false);
+            String years = text(values, "yearsofexperience", 9, false);
+            String available = text(values, "available", 5, false);
+            try {
+                doctor.setConsultationFee(fee == null ? null : Double.valueOf(fee));
+                doctor.setYearsOfExperience(years == null ? null : Integer.valueOf(years));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("consultationFee and yearsOfExperience must be numbers");
+            }
+            doctor.setAvailable(available == null || Boolean.parseBoolean(available));
+            profile = doctor;
+        }
+        // Hash last, so invalid records cost no BCrypt work
+        user.setPassword(passwordEncoder.encode(password));
+        return new Row(number, user, profile);
+    }
+
+    private static String text(Map<String, String> values, String key, int maxLength, boolean required) {
+        String value = values.get(key);
+        value = value == null ? null : value.trim();
+        if (value == null || value.isEmpty()) {
+            if (required) {
+                throw new IllegalArgumentException(key + " is required");
+            }
+            return null;
+        }
+        if (value.length() > maxLength) {
+            throw new IllegalArgumentException(key + " is longer than " + maxLength + " characters");
+        }
+        return value;
+    }
+
+    private static LocalDate date(Map<String, String> values, String key) {
+        String value = text(values, key, 10, false);
+        try {
+            return value == null ? null : LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(key + " must be an ISO date (yyyy-mm-dd)");
+        }
+    }
+
+    // Stage 3: drop duplicates, then insert the batch and advance the checkpoint in one transaction
+    private void write(Role role, String job, Batch batch, Run run) {
+        batch.errors().forEach(run::fail);
+        List<Row> rows = new ArrayList<>(batch.rows().size());
+        for (Row row : batch.rows()) {
+            String username = row.user().getUsername();
+            String email = row.user().getEmail();
+            if (run.usernames.contains(username)) {
+                run.fail(new ImportError(row.number(), username, "Username appears earlier in the file"));
+            } else if (run.emails.contains(email)) {
+                run.fail(new ImportError(row.number(), username, "Email appears earlier in the file"));
+            } else {
+                run.usernames.add(username);
+                run.emails.add(email);
+                rows.add(row);
+            }
+        }
+        rows = withoutExisting(rows, run);
+
+        try {
+            List<Row> insert = rows;
+            Integer inserted = transactionTemplate.execute(status -> {
+                JobCheckpoint checkpoint = lockCheckpoint(job);
+                if (position(checkpoint, role) >= batch.last()) {
+                    // Another run of the same job committed this batch meanwhile
+                    return null;
+                }
+                insert(role, insert);
+                advance(checkpoint, role, batch.last(), insert.size());
+                return insert.size();
+            });
+            run.imported += inserted == null ? 0 : inserted;
+        } catch (DataAccessException e) {
+            // A row collided with an account created since the check; the batch rolled back, so go row by row
+            int imported = 0;
+            for (Row row : rows) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insert(role, List.of(row)));
+                    imported++;
+                } catch (DataAccessException rowFailure) {
+                    run.fail(new ImportError(row.number(), row.user().getUsername(),
+                            "Rejected by the database: " + rowFailure.getMostSpecificCause().getMessage()));
+                }
+            }
+            run.imported += imported;
+            int committed = imported;
+            transactionTemplate.executeWithoutResult(status ->
+                    advance(lockCheckpoint(job), role, batch.last(), committed));
+        }
+    }
+
+    // One query per column for the batch; accounts that already exist are reported and left out
+    private List<Row> withoutExisting(List<Row> rows, Run run) {
+        if (rows.isEmpty()) {
+            return rows;
+        }
+        Set<String> takenUsernames = new HashSet<>(userRepository.findExistingUsernames(
+                rows.stream().map(row -> row.user().getUsername()).toList()));
+        Set<String> takenEmails = new HashSet<>(userRepository.findExistingEmails(
+                rows.stream().map(row -> row.user().getEmail()).toList()));
+        List<Row> fresh = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            if (takenUsernames.contains(row.user().getUsername())) {
+                run.fail(new ImportError(row.number(), row.user().getUsername(),
+                        new DuplicateAccountException(DuplicateAccountException.Field.USERNAME).getMessage()));
+            } else if (takenEmails.contains(row.user().getEmail())) {
+                run.fail(new ImportError(row.number(), row.user().getUsername(),
+                        new DuplicateAccountException(DuplicateAccountException.Field.EMAIL).getMessage()));
+            } else {
+                fresh.add(row);
+            }
+        }
+        return fresh;
+    }
+
+    private void insert(Role role, List<Row> rows) {
+        if (role == Role.PATIENT) {
+            writer.insertPatients(rows.stream().map(row -> (Patient) row.profile()).toList());
+        } else {
+            writer.insertDoctors(rows.stream().map(row -> (Doctor) row.profile()).toList());
+        }
+    }
+
+    private JobCheckpoint lockCheckpoint(String job) {
+        return checkpointRepository.findForUpdate(job)
+                .orElseThrow(() -> new IllegalStateException("Checkpoint " + job + " disappeared"));
+    }
+
+    private static void advance(JobCheckpoint checkpoint, Role role, long last, int imported) {
+        long processedBefore = checkpoint.getPosition() == null ? 0 : checkpoint.getProcessed();
+        checkpoint.setPosition(role.name() + ":" + last);
+        checkpoint.setProcessed(processedBefore + imported);
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+    }
+}
@@ -0,0 +1,24 @@
+package com.hospital.appointmentsystem.service;
+
+import com.hospital.appointmentsystem.dto.Reminder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Default sender: writes reminders to the application log
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.reminders.sender", havingValue = "log", matchIfMissing = true)
+public class LogReminderSender implements ReminderSender {
+
+    @Override
+    public void send(List<Reminder> reminders) {
+        for (Reminder reminder : reminders) {
+            log.info("Reminder {} for patient {}: appointment with doctor {} on {} at {}",
+                    reminder.getKind(), reminder.getPatientId(), reminder.getDoctorId(),
+                    reminder.getAppointmentDate(), reminder.getAppointmentTime());
+        }
+    }
+}
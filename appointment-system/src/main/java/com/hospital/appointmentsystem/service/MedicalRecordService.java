@@ -1,7 +1,11 @@
 package com.hospital.appointmentsystem.service;
 
+import com.hospital.appointmentsystem.dto.CursorPage;
+import com.hospital.appointmentsystem.dto.MedicalRecordView;
 import com.hospital.appointmentsystem.model.MedicalRecord;
 import com.hospital.appointmentsystem.repository.MedicalRecordRepository;
+import com.hospital.appointmentsystem.util.Cursor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -30,9 +34,22 @@ public class MedicalRecordService {
         return medicalRecordRepository.save(record);
     }
 
-    // READ - Get all records
-    public List<MedicalRecord> getAllMedicalRecords() {
-        return medicalRecordRepository.findAll();
+    // Cursor kinds: newest-first lists and the follow-up list are ordered differently
+    private static final String NEWEST_CURSOR = "records";
+    private static final String FOLLOW_UP_CURSOR = "follow-ups";
+
+    // READ - Get all records, newest first, one keyset page at a time
+    @Transactional(readOnly = true)
+    public CursorPage<MedicalRecordView> getAllMedicalRecords(String cursor, int size) {
+        PageRequest limit = PageRequest.of(0, CursorPage.checkSize(size) + 1);
+        List<MedicalRecordView> rows;
+        if (cursor == null) {
+            rows = medicalRecordRepository.findViewPage(limit);
+        } else {
+            Cursor before = Cursor.decode(cursor, NEWEST_CURSOR, 2);
+            rows = medicalRecordRepository.findViewPageBefore(before.date(0), before.id(1), limit);
+        }
+        return CursorPage.of(rows, size, MedicalRecordService::newestCursor);
     }
 
     // READ - Get record by ID
@@ -42,23 +59,47 @@ public class MedicalRecordService {
     }
 
     // READ - Get patient's medical records
-    public List<MedicalRecord> getPatientMedicalRecords(Long patientId) {
-        return medicalRecordRepository.findByPatientIdOrderByRecordDateDesc(patientId);
+    public List<MedicalRecordView> getPatientMedicalRecords(Long patientId) {
+        return medicalRecordRepository.findViewsByPatientId(patientId);
     }
 
-    // READ - Get records created by a doctor
-    public List<MedicalRecord> getDoctorMedicalRecords(Long doctorId) {
-        return medicalRecordRepository.findByDoctorId(doctorId);
+    // READ - Get records created by a doctor, paged like getAllMedicalRecords
+    @Transactional(readOnly = true)
+    public CursorPage<MedicalRecordView> getDoctorMedicalRecords(Long doctorId, String cursor, int size) {
+        PageRequest limit = PageRequest.of(0, CursorPage.checkSize(size) + 1);
+        List<MedicalRecordView> rows;
+        if (cursor == null) {
+            rows = medicalRecordRepository.findViewPageByDoctorId(doctorId, limit);
+        } else {
+            Cursor before = Cursor.decode(cursor, NEWEST_CURSOR, 2);
+            rows = medicalRecordRepository.findViewPageByDoctorIdBefore(doctorId, before.date(0), before.id(1), limit);
+        }
+        return CursorPage.of(rows, size, MedicalRecordService::newestCursor);
     }
 
     // READ - Search by diagnosis
-    public List<MedicalRecord> searchByDiagnosis(String keyword) {
-        return medicalRecordRepository.findByDiagnosisContaining(keyword);
+    public List<MedicalRecordView> searchByDiagnosis(String keyword) {
+        return medicalRecordRepository.findViewsByDiagnosisContaining(keyword);
+    }
+
+    // READ - Get records with upcoming follow-ups, soonest first, one keyset page at a time
+    @Transactional(readOnly = true)
+    public CursorPage<MedicalRecordView> getRecordsWithUpcomingFollowUp(String cursor, int size) {
+        PageRequest limit = PageRequest.of(0, CursorPage.checkSize(size) + 1);
+        LocalDate today = LocalDate.now();
+        List<MedicalRecordView> rows;
+        if (cursor == null) {
+            rows = medicalRecordRepository.findFollowUpViewPage(today, limit);
+        } else {
+            Cursor after = Cursor.decode(cursor, FOLLOW_UP_CURSOR, 2);
+            rows = medicalRecordRepository.findFollowUpViewPageAfter(today, after.date(0), after.id(1), limit);
+        }
+        return CursorPage.of(rows, size,
+                last -> Cursor.encode(FOLLOW_UP_CURSOR, last.getFollowUpDate(), last.getId()));
     }
 
-    // READ - Get records with upcoming follow-ups
-    public List<MedicalRecord> getRecordsWithUpcomingFollowUp() {
-        return medicalRecordRepository.findRecordsWithUpcomingFollowUp(LocalDate.now());
+    private static String newestCursor(MedicalRecordView last) {
+        return Cursor.encode(NEWEST_CURSOR, last.getRecordDate(), last.getId());
     }
 
     // UPDATE
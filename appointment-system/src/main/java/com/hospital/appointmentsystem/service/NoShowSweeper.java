@@ -0,0 +1,187 @@
+package com.hospital.appointmentsystem.service;
+
+import com.hospital.appointmentsystem.event.AppointmentsBulkChangedEvent;
+import com.hospital.appointmentsystem.model.JobCheckpoint;
+import com.hospital.appointmentsystem.repository.AppointmentRepository;
+import com.hospital.appointmentsystem.repository.JobCheckpointRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import model.AppointmentStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Marks SCHEDULED appointments as NO_SHOW once they ended more than {@code grace-minutes} ago.
+ * <p>
+ * A run walks the SCHEDULED rows in (date, time, id) order, one keyset chunk per short
+ * transaction: read a page, update the due rows by id, and advance the {@link JobCheckpoint} in
+ * the same transaction. Nothing is held in memory beyond one chunk and no lock outlives a chunk.
+ * A crashed run resumes after the last committed chunk; a finished run clears the position so
+ * the next one starts over (swept rows are no longer SCHEDULED, so that start is cheap).
+ * The checkpoint row is locked per chunk, which also keeps several nodes from sweeping at once.
+ */
+@Slf4j
+@Component
+public class NoShowSweeper {
+
+    static final String JOB_NAME = "no-show-sweeper";
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private JobCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.scheduling.no-show.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.scheduling.no-show.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.scheduling.no-show.grace-minutes:60}")
+    private int graceMinutes;
+
+    private TransactionTemplate transactionTemplate;
+    private Counter swept;
+    private volatile double rowsPerSecond;
+    private volatile double lagSeconds;
+
+    // Keyset cursor: the last (date, time, id) a committed chunk covered
+    record Position(LocalDate date, LocalTime time, long id) {
+
+        // Before any real row; LocalDate.MIN itself is outside what PostgreSQL can bind
+        static final Position START = new Position(LocalDate.of(1, 1, 1), LocalTime.MIN, Long.MIN_VALUE);
+
+        static Position parse(String value) {
+            if (value == null) {
+                return START;
+            }
+            String[] parts = value.split("\\|");
+            return new Position(LocalDate.parse(parts[0]), LocalTime.parse(parts[1]), Long.parseLong(parts[2]));
+        }
+
+        String format() {
+            return date + "|" + time + "|" + id;
+        }
+    }
+
+    // oldestEnd: end of the earliest row marked in the chunk, null if none was
+    private record Chunk(int scanned, int marked, LocalDateTime oldestEnd) {
+    }
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        swept = Counter.builder("scheduling.noshow.swept")
+                .description("Appointments marked NO_SHOW").register(meterRegistry);
+        Gauge.builder("scheduling.noshow.rows.per.second", this, sweeper -> sweeper.rowsPerSecond)
+                .description("Rows marked per second by the last run").register(meterRegistry);
+        Gauge.builder("scheduling.noshow.lag.seconds", this, sweeper -> sweeper.lagSeconds)
+                .description("How long the oldest swept appointment had been due").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.scheduling.no-show.interval-ms:300000}",
+            initialDelayString = "${app.scheduling.no-show.initial-delay-ms:60000}")
+    public void sweep() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            run(LocalDateTime.now());
+        } catch (RuntimeException e) {
+            log.error("NO_SHOW sweep failed; it resumes from the last checkpoint", e);
+        }
+    }
+
+    // One full pass over everything due at `now`; returns the number of rows marked
+    long run(LocalDateTime now) {
+        LocalDateTime cutoff = now.minusMinutes(graceMinutes);
+        long started = System.nanoTime();
+        long marked = 0;
+        LocalDateTime oldestEnd = null;
+        Chunk chunk;
+        do {
+            chunk = transactionTemplate.execute(status -> sweepChunk(cutoff, now));
+            marked += chunk.marked();
+            oldestEnd = oldestEnd == null ? chunk.oldestEnd() : oldestEnd;
+        } while (chunk.scanned() == chunkSize);
+
+        double seconds = Math.max(1e-3, (System.nanoTime() - started) / 1e9);
+        rowsPerSecond = marked / seconds;
+        lagSeconds = oldestEnd == null ? 0 : Duration.between(oldestEnd, now).toSeconds();
+        if (marked > 0) {
+            log.info("Marked {} appointments NO_SHOW in {} ms", marked, Math.round(seconds * 1000));
+        }
+        return marked;
+    }
+
+    private Chunk sweepChunk(LocalDateTime cutoff, LocalDateTime now) {
+        JobCheckpoint checkpoint = checkpointRepository.findForUpdate(JOB_NAME)
+                .orElseGet(() -> checkpointRepository.saveAndFlush(new JobCheckpoint(JOB_NAME, null, 0L, now)));
+        Position after = Position.parse(checkpoint.getPosition());
+        List<Object[]> rows = appointmentRepository.findScheduledAfter(
+                after.date(), after.time(), after.id(), cutoff.toLocalDate(), PageRequest.of(0, chunkSize));
+
+        List<Long> due = new ArrayList<>();
+        LocalDate firstDue = null;
+        LocalDate lastDue = null;
+        LocalDateTime oldestEnd = null;
+        for (Object[] row : rows) {
+            LocalDate date = (LocalDate) row[2];
+            LocalTime time = (LocalTime) row[3];
+            LocalDateTime end = date.atTime(time).plusMinutes(((Number) row[4]).intValue());
+            // Rows of the cutoff day that have not ended yet are left for a later run
+            if (end.isBefore(cutoff)) {
+                due.add((Long) row[0]);
+                firstDue = firstDue == null ? date : firstDue;
+                lastDue = date;
+                oldestEnd = oldestEnd == null || end.isBefore(oldestEnd) ? end : oldestEnd;
+            }
+        }
+
+        // Advance the checkpoint first; the bulk update below flushes it and clears the context
+        long processedBefore = checkpoint.getPosition() == null ? 0 : checkpoint.getProcessed();
+        if (rows.size() < chunkSize) {
+            checkpoint.setPosition(null);
+        } else {
+            Object[] last = rows.get(rows.size() - 1);
+            checkpoint.setPosition(new Position((LocalDate) last[2], (LocalTime) last[3], (Long) last[0]).format());
+        }
+        checkpoint.setProcessed(processedBefore + due.size());
+        checkpoint.setUpdatedAt(now);
+
+        int marked = 0;
+        if (!due.isEmpty()) {
+            marked = appointmentRepository.updateStatusByIds(
+                    due, AppointmentStatus.SCHEDULED, AppointmentStatus.NO_SHOW, now);
+            swept.increment(marked);
+            eventPublisher.publishEvent(new AppointmentsBulkChangedEvent(null, firstDue, lastDue, marked));
+        }
+        return new Chunk(rows.size(), marked, oldestEnd);
+    }
+}
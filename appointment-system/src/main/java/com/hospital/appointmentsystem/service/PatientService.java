@@ -1,8 +1,13 @@
 package com.hospital.appointmentsystem.service;
 
+import com.hospital.appointmentsystem.dto.CursorPage;
+import com.hospital.appointmentsystem.dto.PatientView;
 import com.hospital.appointmentsystem.model.Patient;
 import com.hospital.appointmentsystem.repository.PatientRepository;
+import com.hospital.appointmentsystem.security.JwtPrincipal;
+import com.hospital.appointmentsystem.util.Cursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
@@ -19,9 +24,21 @@ public class PatientService {
         return patientRepository.save(patient);
     }
 
-    // READ - Get all patients
-    public List<Patient> getAllPatients() {
-        return patientRepository.findAll();
+    private static final String NAME_CURSOR = "patients";
+
+    // READ - Get all patients, by name, one keyset page at a time
+    @Transactional(readOnly = true)
+    public CursorPage<PatientView> getAllPatients(String cursor, int size) {
+        PageRequest limit = PageRequest.of(0, CursorPage.checkSize(size) + 1);
+        List<PatientView> rows;
+        if (cursor == null) {
+            rows = patientRepository.findViewPage(limit);
+        } else {
+            Cursor after = Cursor.decode(cursor, NAME_CURSOR, 3);
+            rows = patientRepository.findViewPageAfter(after.text(0), after.text(1), after.id(2), limit);
+        }
+        return CursorPage.of(rows, size,
+                last -> Cursor.encode(NAME_CURSOR, last.getLastName(), last.getFirstName(), last.getId()));
     }
 
     // READ - Get patient by ID
@@ -42,6 +59,14 @@ public class PatientService {
                 .orElseThrow(() -> new RuntimeException("Patient not found with username: " + username));
     }
 
+    // READ - Get the patient profile of the authenticated user (primary key lookup when the token carries it)
+    public Patient getPatientForPrincipal(JwtPrincipal principal) {
+        if (principal.patientId() != null) {
+            return getPatientById(principal.patientId());
+        }
+        return getPatientByUsername(principal.username());
+    }
+
     // READ - Search patients by name
     public List<Patient> searchPatientsByName(String searchTerm) {
         return patientRepository.searchByName(searchTerm);
@@ -0,0 +1,148 @@
+package com.hospital.appointmentsystem.service;
+
+import com.hospital.appointmentsystem.model.Doctor;
+import com.hospital.appointmentsystem.model.Patient;
+import com.hospital.appointmentsystem.model.User;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Set-based inserts of users, alone or with their patient or doctor profiles, for bulk import and
+ * batch registration. Must run inside the caller's transaction.
+ * <p>
+ * The tables keep their identity columns; ids for a whole batch are drawn from each column's own
+ * sequence in one round trip, so profiles can reference their users without a read-back. Rows then
+ * go in with {@code COPY ... FROM STDIN} when the connection is PostgreSQL's, otherwise as one JDBC
+ * batch per table (rewritten to multi-row INSERTs by the driver's reWriteBatchedInserts).
+ */
+@Component
+public class ProfileBulkWriter {
+
+    private static final String USER_COLUMNS = "users (id, username, password, email, role, active, created_at, updated_at)";
+    private static final String PATIENT_COLUMNS = "patients (id, user_id, first_name, last_name, date_of_birth, phone, " +
+            "address, blood_group, emergency_contact, emergency_phone)";
+    private static final String DOCTOR_COLUMNS = "doctors (id, user_id, first_name, last_name, specialization, phone, " +
+            "consultation_fee, qualifications, years_of_experience, available)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.import.copy-enabled:true}")
+    private boolean copyEnabled;
+
+    // Assigns ids to the patients and their users, then inserts both
+    public void insertPatients(List<Patient> patients) {
+        List<User> users = patients.stream().map(Patient::getUser).toList();
+        insertUsers(users);
+        List<Long> ids = nextIds("patients", patients.size());
+        for (int i = 0; i < patients.size(); i++) {
+            patients.get(i).setId(ids.get(i));
+        }
+        insert(PATIENT_COLUMNS, patients, patient -> new Object[]{patient.getId(), patient.getUser().getId(),
+                patient.getFirstName(), patient.getLastName(), date(patient.getDateOfBirth()), patient.getPhone(),
+                patient.getAddress(), patient.getBloodGroup(), patient.getEmergencyContact(),
+                patient.getEmergencyPhone()});
+    }
+
+    // Assigns ids to the doctors and their users, then inserts both
+    public void insertDoctors(List<Doctor> doctors) {
+        List<User> users = doctors.stream().map(Doctor::getUser).toList();
+        insertUsers(users);
+        List<Long> ids = nextIds("doctors", doctors.size());
+        for (int i = 0; i < doctors.size(); i++) {
+            doctors.get(i).setId(ids.get(i));
+        }
+        insert(DOCTOR_COLUMNS, doctors, doctor -> new Object[]{doctor.getId(), doctor.getUser().getId(),
+                doctor.getFirstName(), doctor.getLastName(), doctor.getSpecialization(), doctor.getPhone(),
+                doctor.getConsultationFee(), doctor.getQualifications(), doctor.getYearsOfExperience(),
+                doctor.getAvailable()});
+    }
+
+    // Assigns ids to the users and inserts them (accounts without a profile, e.g. batch registration)
+    public void insertUsers(List<User> users) {
+        List<Long> ids = nextIds("users", users.size());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (int i = 0; i < users.size(); i++) {
+            users.get(i).setId(ids.get(i));
+        }
+        insert(USER_COLUMNS, users, user -> new Object[]{user.getId(), user.getUsername(), user.getPassword(),
+                user.getEmail(), user.getRole().name(), user.getActive(), now, now});
+    }
+
+    // One block of ids from the table's identity sequence; the column default draws from the same one
+    private List<Long> nextIds(String table, int count) {
+        return jdbcTemplate.queryForList("SELECT nextval(pg_get_serial_sequence(?, 'id')) FROM generate_series(1, ?)",
+                Long.class, table, count);
+    }
+
+    private <T> void insert(String columns, List<T> rows, Function<T, Object[]> values) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        if (copyEnabled && Boolean.TRUE.equals(jdbcTemplate.execute(
+                (ConnectionCallback<Boolean>) connection -> connection.isWrapperFor(PGConnection.class)))) {
+            copy(columns, rows, values);
+        } else {
+            batch(columns, rows, values);
+        }
+    }
+
+    private <T> void copy(String columns, List<T> rows, Function<T, Object[]> values) {
+        StringBuilder csv = new StringBuilder(rows.size() * 160);
+        for (T row : rows) {
+            Object[] fields = values.apply(row);
+            for (int i = 0; i < fields.length; i++) {
+                if (i > 0) {
+                    csv.append(',');
+                }
+                // Unquoted empty is NULL in COPY's CSV format; everything else is quoted
+                if (fields[i] != null) {
+                    csv.append('"').append(fields[i].toString().replace("\"", "\"\"")).append('"');
+                }
+            }
+            csv.append('\n');
+        }
+        jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI()
+                        .copyIn("COPY " + columns + " FROM STDIN WITH (FORMAT csv)", new StringReader(csv.toString()));
+            } catch (IOException e) {
+                throw new SQLException("COPY into " + columns + " failed", e);
+            }
+        });
+    }
+
+    private <T> void batch(String columns, List<T> rows, Function<T, Object[]> values) {
+        int width = values.apply(rows.get(0)).length;
+        String sql = "INSERT INTO " + columns + " VALUES (" + "?, ".repeat(width - 1) + "?)";
+        jdbcTemplate.batchUpdate(sql, rows, rows.size(), (statement, row) -> {
+            Object[] fields = values.apply(row);
+            for (int i = 0; i < fields.length; i++) {
+                if (fields[i] == null) {
+                    statement.setNull(i + 1, Types.NULL);
+                } else {
+                    statement.setObject(i + 1, fields[i]);
+                }
+            }
+        });
+    }
+
+    private static Date date(LocalDate value) {
+        return value == null ? null : Date.valueOf(value);
+    }
+}
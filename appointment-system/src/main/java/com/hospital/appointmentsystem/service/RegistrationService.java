@@ -0,0 +1,330 @@
+package com.hospital.appointmentsystem.service;
+
+import com.hospital.appointmentsystem.dto.RegisterRequest;
+import com.hospital.appointmentsystem.dto.RegistrationResult;
+import com.hospital.appointmentsystem.exception.DuplicateAccountException;
+import com.hospital.appointmentsystem.model.User;
+import com.hospital.appointmentsystem.repository.UserRepository;
+import com.hospital.appointmentsystem.security.PasswordHashingExecutor;
+import com.hospital.appointmentsystem.util.BloomFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import model.Role;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Account registration. The unique constraints on users.username and users.email are the source
+ * of truth: a new account is inserted directly and a constraint violation becomes
+ * {@link DuplicateAccountException}. A Bloom filter of taken usernames and emails, warmed at
+ * startup, turns away obvious duplicates before any hashing; only its positives cost a query.
+ * <p>
+ * Hashing runs on the shared BCrypt pool; the inserts then move to a small pool of their own, so
+ * database round trips never hold a hashing thread that logins are waiting for.
+ */
+@Slf4j
+@Service
+public class RegistrationService {
+
+    private static final String USERNAME_PREFIX = "u:";
+    private static final String EMAIL_PREFIX = "e:";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private PasswordHashingExecutor hashingExecutor;
+
+    @Autowired
+    private ProfileBulkWriter bulkWriter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.security.registration.expected-accounts:100000}")
+    private long expectedAccounts;
+
+    @Value("${app.security.registration.max-batch-size:1000}")
+    private int maxBatchSize;
+
+    @Value("${app.security.registration.write-threads:4}")
+    private int writeThreads;
+
+    // Superset of taken usernames/emails known to this node; misses fall through to the constraints
+    private volatile BloomFilter taken;
+    private ExecutorService writes;
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger counter = new AtomicInteger();
+        writes = Executors.newFixedThreadPool(writeThreads, runnable -> {
+            Thread thread = new Thread(runnable, "registration-write-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        warm();
+    }
+
+    @PreDestroy
+    void stop() {
+        writes.shutdown();
+    }
+
+    void warm() {
+        List<String> usernames = userRepository.findAllUsernames();
+        List<String> emails = userRepository.findAllEmails();
+        BloomFilter filter = new BloomFilter(Math.max(expectedAccounts, 2L * (usernames.size() + emails.size())), 0.01);
+        usernames.forEach(username -> filter.put(USERNAME_PREFIX + username));
+        emails.forEach(email -> filter.put(EMAIL_PREFIX + email));
+        taken = filter;
+        log.info("Warmed registration filter with {} accounts", usernames.size());
+    }
+
+    // Rebuild so the filter follows growth and learns accounts created on other nodes
+    @Scheduled(fixedDelayString = "${app.security.registration.rewarm-interval-ms:3600000}",
+            initialDelayString = "${app.security.registration.rewarm-interval-ms:3600000}")
+    public void rewarm() {
+        try {
+            warm();
+        } catch (RuntimeException e) {
+            log.error("Could not rebuild registration filter, keeping the current one", e);
+        }
+    }
+
+    // CREATE - Register one account; hashing happens on the BCrypt pool, the insert on the write pool
+    public CompletableFuture<User> register(RegisterRequest request) {
+        Role role = validate(request);
+        DuplicateAccountException duplicate = knownDuplicate(request);
+        if (duplicate != null) {
+            return CompletableFuture.failedFuture(duplicate);
+        }
+        return hashingExecutor.submit(() -> passwordEncoder.encode(request.getPassword()))
+                .thenApplyAsync(passwordHash -> insert(newUser(request, role, passwordHash)), writes);
+    }
+
+    // CREATE - Register many accounts (clinic onboarding); one result per request, in order
+    public CompletableFuture<List<RegistrationResult>> registerBatch(List<RegisterRequest> requests) {
+        if (requests.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Batch too large, at most " + maxBatchSize + " accounts");
+        }
+        RegistrationResult[] results = new RegistrationResult[requests.size()];
+        Role[] roles = new Role[requests.size()];
+        Set<String> batchUsernames = new HashSet<>();
+        Set<String> batchEmails = new HashSet<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            RegisterRequest request = requests.get(i);
+            try {
+                roles[i] = validate(request);
+            } catch (IllegalArgumentException e) {
+                results[i] = result(request, "INVALID", null, e.getMessage());
+                continue;
+            }
+            if (!batchUsernames.add(request.getUsername())) {
+                results[i] = duplicate(request, DuplicateAccountException.Field.USERNAME);
+            } else if (!batchEmails.add(request.getEmail())) {
+                results[i] = duplicate(request, DuplicateAccountException.Field.EMAIL);
+            }
+        }
+
+        // One query per column, and only for names the filter says might be taken
+        Set<String> takenUsernames = existing(batchUsernames, USERNAME_PREFIX, userRepository::findExistingUsernames);
+        Set<String> takenEmails = existing(batchEmails, EMAIL_PREFIX, userRepository::findExistingEmails);
+        List<Integer> pending = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            RegisterRequest request = requests.get(i);
+            if (takenUsernames.contains(request.getUsername())) {
+                results[i] = duplicate(request, DuplicateAccountException.Field.USERNAME);
+            } else if (takenEmails.contains(request.getEmail())) {
+                results[i] = duplicate(request, DuplicateAccountException.Field.EMAIL);
+            } else {
+                pending.add(i);
+            }
+        }
+
+        // Hash in parallel: one task per hashing thread rather than one per account,
+        // so a large batch does not flood the shared queue and starve logins
+        int chunks = Math.max(1, Math.min(hashingExecutor.parallelism(), pending.size()));
+        int chunkSize = (pending.size() + chunks - 1) / chunks;
+        List<CompletableFuture<Void>> hashing = new ArrayList<>();
+        String[] hashes = new String[requests.size()];
+        for (int from = 0; from < pending.size(); from += chunkSize) {
+            List<Integer> chunk = pending.subList(from, Math.min(from + chunkSize, pending.size()));
+            hashing.add(hashingExecutor.submit(() -> {
+                for (int i : chunk) {
+                    hashes[i] = passwordEncoder.encode(requests.get(i).getPassword());
+                }
+                return null;
+            }));
+        }
+
+        return CompletableFuture.allOf(hashing.toArray(CompletableFuture[]::new)).thenApplyAsync(done -> {
+            insertAll(requests, pending, roles, hashes, results);
+            return Arrays.asList(results);
+        }, writes);
+    }
+
+    // One transaction, one JDBC batch (ids drawn in a block from the identity sequence); if a late
+    // conflict fails it (another node registered the same name meanwhile), rows go in one by one
+    // so the conflict only affects its own row
+    private void insertAll(List<RegisterRequest> requests, List<Integer> pending, Role[] roles, String[] hashes,
+                           RegistrationResult[] results) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<User> users = pending.stream().map(i -> newUser(requests.get(i), roles[i], hashes[i])).toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> bulkWriter.insertUsers(users));
+            for (int k = 0; k < pending.size(); k++) {
+                int i = pending.get(k);
+                remember(users.get(k));
+                results[i] = result(requests.get(i), "CREATED", users.get(k).getId(), "User registered successfully");
+            }
+        } catch (DataIntegrityViolationException e) {
+            for (int i : pending) {
+                RegisterRequest request = requests.get(i);
+                try {
+                    // Fresh entity: the rolled-back batch left ids on the others
+                    User saved = insert(newUser(request, roles[i], hashes[i]));
+                    results[i] = result(request, "CREATED", saved.getId(), "User registered successfully");
+                } catch (DuplicateAccountException duplicate) {
+                    results[i] = duplicate(request, duplicate.getField());
+                }
+            }
+        }
+    }
+
+    private Role validate(RegisterRequest request) {
+        if (isBlank(request.getUsername()) || isBlank(request.getPassword()) || isBlank(request.getEmail())) {
+            throw new IllegalArgumentException("Username, password and email are required");
+        }
+        if (request.getRole() == null) {
+            throw new IllegalArgumentException("Role is required");
+        }
+        try {
+            return Role.valueOf(request.getRole().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown role: " + request.getRole());
+        }
+    }
+
+    // Bloom positives are confirmed with one query each; negatives skip the database entirely
+    private DuplicateAccountException knownDuplicate(RegisterRequest request) {
+        BloomFilter filter = taken;
+        if (filter.mightContain(USERNAME_PREFIX + request.getUsername())
+                && userRepository.existsByUsername(request.getUsername())) {
+            countDuplicate("filter");
+            return new DuplicateAccountException(DuplicateAccountException.Field.USERNAME);
+        }
+        if (filter.mightContain(EMAIL_PREFIX + request.getEmail())
+                && userRepository.existsByEmail(request.getEmail())) {
+            countDuplicate("filter");
+            return new DuplicateAccountException(DuplicateAccountException.Field.EMAIL);
+        }
+        return null;
+    }
+
+    private Set<String> existing(Set<String> candidates, String prefix,
+                                 Function<Collection<String>, List<String>> query) {
+        BloomFilter filter = taken;
+        List<String> suspects = candidates.stream().filter(value -> filter.mightContain(prefix + value)).toList();
+        return suspects.isEmpty() ? Set.of() : new HashSet<>(query.apply(suspects));
+    }
+
+    private User insert(User user) {
+        try {
+            User saved = userRepository.saveAndFlush(user);
+            remember(saved);
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            DuplicateAccountException.Field field = violatedField(e, user);
+            if (field == null) {
+                throw e;
+            }
+            remember(user);
+            countDuplicate("constraint");
+            throw new DuplicateAccountException(field);
+        }
+    }
+
+    private DuplicateAccountException.Field violatedField(DataIntegrityViolationException e, User user) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                String name = violation.getConstraintName();
+                if (name.equalsIgnoreCase(User.UK_USERNAME)) {
+                    return DuplicateAccountException.Field.USERNAME;
+                }
+                if (name.equalsIgnoreCase(User.UK_EMAIL)) {
+                    return DuplicateAccountException.Field.EMAIL;
+                }
+            }
+        }
+        // Schemas created before the constraints were named: ask which value collided
+        if (userRepository.existsByUsername(user.getUsername())) {
+            return DuplicateAccountException.Field.USERNAME;
+        }
+        if (userRepository.existsByEmail(user.getEmail())) {
+            return DuplicateAccountException.Field.EMAIL;
+        }
+        return null;
+    }
+
+    private void remember(User user) {
+        BloomFilter filter = taken;
+        filter.put(USERNAME_PREFIX + user.getUsername());
+        filter.put(EMAIL_PREFIX + user.getEmail());
+    }
+
+    private void countDuplicate(String stage) {
+        meterRegistry.counter("auth.registration.duplicates", "stage", stage).increment();
+    }
+
+    private static User newUser(RegisterRequest request, Role role, String passwordHash) {
+        User user = new User();
+        user.setUsername(request.getUsername());
+        user.setPassword(passwordHash);
+        user.setEmail(request.getEmail());
+        user.setRole(role);
+        user.setActive(true);
+        return user;
+    }
+
+    private static RegistrationResult duplicate(RegisterRequest request, DuplicateAccountException.Field field) {
+        return result(request, "DUPLICATE_" + field.name(), null, new DuplicateAccountException(field).getMessage());
+    }
+
+    private static RegistrationResult result(RegisterRequest request, String status, Long userId, String message) {
+        return new RegistrationResult(request.getUsername(), status, userId, message);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,320 @@
+package com.hospital.appointmentsystem.service;
+
+import com.hospital.appointmentsystem.dto.Reminder;
+import com.hospital.appointmentsystem.event.AppointmentChangedEvent;
+import com.hospital.appointmentsystem.event.AppointmentChangedEvent.Slot;
+import com.hospital.appointmentsystem.event.AppointmentsBulkChangedEvent;
+import com.hospital.appointmentsystem.model.ReminderDelivery;
+import com.hospital.appointmentsystem.repository.AppointmentRepository;
+import com.hospital.appointmentsystem.repository.ReminderDeliveryRepository;
+import com.hospital.appointmentsystem.util.TimingWheel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import model.AppointmentStatus;
+import model.ReminderKind;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Sends {@link ReminderKind} reminders (a day and an hour before) for SCHEDULED appointments.
+ * <p>
+ * Pending reminders live in a {@link TimingWheel} with {@code tick-ms} resolution. It holds only
+ * reminders that fire up to {@code loadedUntil}, which is pushed about {@code window-minutes}
+ * ahead by streaming the next window of appointments from the database. Committed
+ * {@link AppointmentChangedEvent}s add, move or cancel single reminders; bulk changes reload the
+ * affected range. The wheel and the loader share one lock, so an appointment committed during a
+ * load is picked up either by the load or by its event.
+ * <p>
+ * Due reminders are re-read in one query (status or time may have changed on another node),
+ * claimed in reminder_deliveries, handed to the {@link ReminderSender} in batches and marked
+ * sent. Every node runs the wheel; the claim makes each reminder go out once.
+ */
+@Slf4j
+@Component
+public class ReminderDispatcher {
+
+    private static final int MAX_LEAD_MINUTES = Arrays.stream(ReminderKind.values())
+            .mapToInt(ReminderKind::getLeadMinutes).max().orElse(0);
+    private static final int MIN_LEAD_MINUTES = Arrays.stream(ReminderKind.values())
+            .mapToInt(ReminderKind::getLeadMinutes).min().orElse(0);
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private ReminderDeliveryRepository deliveryRepository;
+
+    @Autowired
+    private ReminderSender reminderSender;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.reminders.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.reminders.tick-ms:60000}")
+    private long tickMs;
+
+    @Value("${app.reminders.window-minutes:60}")
+    private int windowMinutes;
+
+    @Value("${app.reminders.batch-size:200}")
+    private int batchSize;
+
+    // Reminders missed by up to this much (node down, late booking) are still sent
+    @Value("${app.reminders.max-lateness-minutes:15}")
+    private int maxLatenessMinutes;
+
+    @Value("${app.reminders.claim-timeout-minutes:10}")
+    private int claimTimeoutMinutes;
+
+    @Value("${app.reminders.max-attempts:5}")
+    private int maxAttempts;
+
+    private TimingWheel<ReminderKey, Pending> wheel;
+    // Reminders firing up to here are in the wheel; guarded by this
+    private LocalDateTime loadedUntil;
+    private TransactionTemplate transactionTemplate;
+    private TransactionTemplate readOnlyTemplate;
+    private Counter failed;
+
+    private record ReminderKey(Long appointmentId, ReminderKind kind) {
+    }
+
+    private record Pending(Long appointmentId, ReminderKind kind, Long doctorId, LocalDateTime start) {
+    }
+
+    @PostConstruct
+    void init() {
+        LocalDateTime now = LocalDateTime.now();
+        wheel = new TimingWheel<>(tick(now));
+        loadedUntil = now.minusMinutes(maxLatenessMinutes);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTemplate.setReadOnly(true);
+        failed = Counter.builder("reminders.failed")
+                .description("Reminder batches the sender rejected").register(meterRegistry);
+        Gauge.builder("reminders.pending", this, ReminderDispatcher::pending)
+                .description("Reminders waiting in the timing wheel").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.reminders.poll-interval-ms:10000}",
+            initialDelayString = "${app.reminders.initial-delay-ms:30000}")
+    public void dispatch() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            extendHorizon(now);
+            List<Pending> due;
+            synchronized (this) {
+                due = wheel.advance(tick(now));
+            }
+            for (int from = 0; from < due.size(); from += batchSize) {
+                deliver(due.subList(from, Math.min(due.size(), from + batchSize)), now);
+            }
+            retryStale(now);
+        } catch (RuntimeException e) {
+            log.error("Reminder dispatch failed", e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        if (Objects.equals(event.before(), event.after())) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (this) {
+            for (ReminderKind kind : ReminderKind.values()) {
+                wheel.cancel(new ReminderKey(event.appointmentId(), kind));
+            }
+            Slot after = event.after();
+            if (after != null) {
+                scheduleAll(event.appointmentId(), after.doctorId(), after.date().atTime(after.time()), now);
+            }
+        }
+    }
+
+    // Statuses changed in bulk: forget the range and read it again
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentsBulkChanged(AppointmentsBulkChangedEvent event) {
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (this) {
+            LocalDate from = max(event.from(), now.toLocalDate());
+            LocalDate to = min(event.to(), loadedUntil.plusMinutes(MAX_LEAD_MINUTES).toLocalDate());
+            if (from.isAfter(to)) {
+                return;
+            }
+            wheel.cancelIf(pending -> (event.doctorId() == null || event.doctorId().equals(pending.doctorId()))
+                    && !pending.start().toLocalDate().isBefore(from) && !pending.start().toLocalDate().isAfter(to));
+            load(from, to, event.doctorId(), now);
+        }
+    }
+
+    public synchronized int pending() {
+        return wheel.size();
+    }
+
+    // Stream the next window of appointments into the wheel once less than half a window is left
+    private synchronized void extendHorizon(LocalDateTime now) {
+        if (loadedUntil.isAfter(now.plusMinutes(windowMinutes / 2))) {
+            return;
+        }
+        LocalDateTime previous = loadedUntil;
+        loadedUntil = now.plusMinutes(windowMinutes);
+        // Appointments with any reminder firing in (previous, loadedUntil]
+        load(previous.plusMinutes(MIN_LEAD_MINUTES).toLocalDate(),
+                loadedUntil.plusMinutes(MAX_LEAD_MINUTES).toLocalDate(), null, now);
+    }
+
+    // Caller holds the lock; scheduleAll skips reminders outside the loaded horizon
+    private void load(LocalDate from, LocalDate to, Long doctorId, LocalDateTime now) {
+        readOnlyTemplate.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = appointmentRepository.streamScheduledBetween(from, to)) {
+                rows.forEach(row -> {
+                    Long rowDoctorId = (Long) row[1];
+                    if (doctorId == null || doctorId.equals(rowDoctorId)) {
+                        LocalDateTime start = ((LocalDate) row[2]).atTime((LocalTime) row[3]);
+                        scheduleAll((Long) row[0], rowDoctorId, start, now);
+                    }
+                });
+            }
+        });
+    }
+
+    // Caller holds the lock
+    private void scheduleAll(Long appointmentId, Long doctorId, LocalDateTime start, LocalDateTime now) {
+        if (!start.isAfter(now)) {
+            return;
+        }
+        for (ReminderKind kind : ReminderKind.values()) {
+            LocalDateTime fireAt = start.minusMinutes(kind.getLeadMinutes());
+            if (fireAt.isAfter(loadedUntil) || fireAt.isBefore(now.minusMinutes(maxLatenessMinutes))) {
+                continue;
+            }
+            wheel.schedule(new ReminderKey(appointmentId, kind), tick(fireAt),
+                    new Pending(appointmentId, kind, doctorId, start));
+        }
+    }
+
+    private void deliver(List<Pending> batch, LocalDateTime now) {
+        Map<Long, Object[]> current = new HashMap<>();
+        for (Object[] row : appointmentRepository.findReminderDetails(
+                batch.stream().map(Pending::appointmentId).distinct().toList())) {
+            current.put((Long) row[0], row);
+        }
+
+        List<Reminder> claimed = transactionTemplate.execute(status -> {
+            List<Reminder> owned = new ArrayList<>();
+            for (Pending pending : batch) {
+                Reminder reminder = reminderFor(current.get(pending.appointmentId()), pending.kind(), pending.start());
+                if (reminder != null && deliveryRepository.claim(pending.appointmentId(), pending.kind().name(),
+                        pending.start(), now) == 1) {
+                    owned.add(reminder);
+                }
+            }
+            return owned;
+        });
+        send(claimed, now);
+    }
+
+    // Claims nobody confirmed within the timeout: the sender failed or the node died mid-batch
+    private void retryStale(LocalDateTime now) {
+        List<ReminderDelivery> stale = deliveryRepository.findStale(
+                now.minusMinutes(claimTimeoutMinutes), maxAttempts, PageRequest.of(0, batchSize));
+        if (stale.isEmpty()) {
+            return;
+        }
+        Map<Long, Object[]> current = new HashMap<>();
+        for (Object[] row : appointmentRepository.findReminderDetails(
+                stale.stream().map(ReminderDelivery::getAppointmentId).distinct().toList())) {
+            current.put((Long) row[0], row);
+        }
+        List<Reminder> reclaimed = transactionTemplate.execute(status -> {
+            List<Reminder> owned = new ArrayList<>();
+            for (ReminderDelivery delivery : stale) {
+                Reminder reminder = reminderFor(current.get(delivery.getAppointmentId()),
+                        delivery.getKind(), delivery.getAppointmentStart());
+                if (reminder == null || !delivery.getAppointmentStart().isAfter(now)) {
+                    // Cancelled, moved or already over: nothing left to remind about
+                    deliveryRepository.delete(delivery);
+                } else if (deliveryRepository.reclaim(delivery.getId(), delivery.getClaimedAt(), now) == 1) {
+                    owned.add(reminder);
+                }
+            }
+            return owned;
+        });
+        send(reclaimed, now);
+    }
+
+    private void send(List<Reminder> reminders, LocalDateTime now) {
+        if (reminders.isEmpty()) {
+            return;
+        }
+        try {
+            reminderSender.send(reminders);
+        } catch (RuntimeException e) {
+            failed.increment();
+            log.warn("Reminder sender failed for {} reminders; retrying after the claim timeout",
+                    reminders.size(), e);
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Reminder reminder : reminders) {
+                deliveryRepository.markSent(reminder.getAppointmentId(), reminder.getKind(),
+                        reminder.getAppointmentDate().atTime(reminder.getAppointmentTime()), now);
+            }
+        });
+        for (Reminder reminder : reminders) {
+            meterRegistry.counter("reminders.sent", "kind", reminder.getKind().name()).increment();
+        }
+    }
+
+    // Null unless the appointment is still SCHEDULED at the time the reminder was planned for
+    private static Reminder reminderFor(Object[] row, ReminderKind kind, LocalDateTime plannedStart) {
+        if (row == null || row[5] != AppointmentStatus.SCHEDULED) {
+            return null;
+        }
+        LocalDate date = (LocalDate) row[3];
+        LocalTime time = (LocalTime) row[4];
+        if (!date.atTime(time).equals(plannedStart)) {
+            return null;
+        }
+        String idempotencyKey = row[0] + ":" + kind + ":" + plannedStart;
+        return new Reminder((Long) row[0], kind, (Long) row[1], (Long) row[2], date, time, idempotencyKey);
+    }
+
+    private long tick(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() / tickMs;
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
@@ -0,0 +1,15 @@
+package com.hospital.appointmentsystem.service;
+
+import com.hospital.appointmentsystem.dto.Reminder;
+
+import java.util.List;
+
+/**
+ * Delivery channel for appointment reminders (SMS gateway, e-mail, push). {@link ReminderDispatcher}
+ * calls it with batches of claimed reminders; returning normally confirms the whole batch, throwing
+ * leaves it to be retried.
+ */
+public interface ReminderSender {
+
+    void send(List<Reminder> reminders);
+}
@@ -0,0 +1,293 @@
+package com.hospital.appointmentsystem.service;
+
+import com.hospital.appointmentsystem.dto.DoctorSummary;
+import com.hospital.appointmentsystem.dto.RescheduleItem;
+import com.hospital.appointmentsystem.dto.RescheduleReport;
+import com.hospital.appointmentsystem.event.AppointmentChangedEvent;
+import com.hospital.appointmentsystem.event.AppointmentChangedEvent.Slot;
+import com.hospital.appointmentsystem.model.Appointment;
+import com.hospital.appointmentsystem.repository.AppointmentRepository;
+import com.hospital.appointmentsystem.repository.DoctorRepository;
+import com.hospital.appointmentsystem.util.IntervalSet;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * Moves a doctor's SCHEDULED appointments in a date range to other available doctors of the same
+ * specialization, e.g. when the doctor falls ill.
+ * <p>
+ * The affected appointments come from one query and every candidate doctor's days from one
+ * {@link SlotIndex#ensureLoaded} call. Days are independent, so they are planned in parallel on
+ * a fork-join pool: each appointment goes to the free slot closest to its original time (the
+ * same time if possible, spreading ties over colleagues), with the day's tentative moves tracked
+ * per doctor so no two land on the same slot. Moves are then applied as JDBC batch updates, {@code batch-size} per
+ * transaction, each guarded by the appointment still being where the plan found it. If a batch
+ * hits a constraint (a slot booked meanwhile), its rows are retried one by one.
+ */
+@Slf4j
+@Service
+public class RescheduleService {
+
+    private static final String MOVE_SQL = "UPDATE appointments SET doctor_id = ?, appointment_time = ?, updated_at = ? " +
+            "WHERE id = ? AND doctor_id = ? AND appointment_date = ? AND appointment_time = ? AND status = 'SCHEDULED'";
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private DoctorScheduleService scheduleService;
+
+    @Autowired
+    private SlotIndex slotIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.scheduling.reschedule.parallelism:0}")
+    private int parallelism;
+
+    @Value("${app.scheduling.reschedule.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.scheduling.reschedule.max-window-days:62}")
+    private int maxWindowDays;
+
+    private ForkJoinPool pool;
+    private TransactionTemplate transactionTemplate;
+
+    private record Affected(Long id, Long patientId, LocalDate date, LocalTime time, int duration) {
+    }
+
+    private record Move(Affected appointment, Long doctorId, LocalTime time) {
+    }
+
+    // Outcome of planning one appointment: a move, or the reason there is none
+    private record Planned(Move move, RescheduleItem unresolved) {
+    }
+
+    @PostConstruct
+    void init() {
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    void stop() {
+        pool.shutdown();
+    }
+
+    // Put the doctor on leave for the range and move their appointments to colleagues
+    public RescheduleReport rescheduleAway(Long doctorId, LocalDate from, LocalDate to, String reason) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new IllegalArgumentException("A from date not after the to date is required");
+        }
+        if (from.plusDays(maxWindowDays).isBefore(to)) {
+            throw new IllegalArgumentException("Window must not exceed " + maxWindowDays + " days");
+        }
+        long started = System.nanoTime();
+        DoctorSummary doctor = doctorRepository.findSummaryById(doctorId)
+                .orElseThrow(() -> new RuntimeException("Doctor not found with id: " + doctorId));
+        // Leave first: no new bookings land on the doctor while we move the existing ones
+        scheduleService.addLeave(doctorId, from, to, reason != null ? reason : "Unavailable");
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<LocalDate, List<Affected>> byDay = appointmentRepository.findScheduledForDoctor(doctorId, from, to).stream()
+                .map(row -> new Affected((Long) row[0], (Long) row[1], (LocalDate) row[2], (LocalTime) row[3],
+                        durationOf((Integer) row[4])))
+                .filter(appointment -> appointment.date().atTime(appointment.time()).isAfter(now))
+                .collect(Collectors.groupingBy(Affected::date, TreeMap::new, Collectors.toList()));
+        List<Long> colleagues = doctorRepository.findAvailableSummariesBySpecialization(doctor.getSpecialization())
+                .stream().map(DoctorSummary::getId).filter(id -> !id.equals(doctorId)).toList();
+        if (!colleagues.isEmpty() && !byDay.isEmpty()) {
+            slotIndex.ensureLoaded(colleagues, from, to);
+        }
+
+        List<RescheduleItem> items = new ArrayList<>();
+        List<Move> moves = new ArrayList<>();
+        for (Planned planned : plan(byDay, colleagues)) {
+            if (planned.move() != null) {
+                moves.add(planned.move());
+            } else {
+                items.add(planned.unresolved());
+            }
+        }
+        for (int i = 0; i < moves.size(); i += batchSize) {
+            items.addAll(apply(doctorId, moves.subList(i, Math.min(moves.size(), i + batchSize))));
+        }
+
+        items.sort(Comparator.comparing(RescheduleItem::getDate).thenComparing(RescheduleItem::getOriginalTime));
+        int moved = (int) items.stream().filter(item -> "MOVED".equals(item.getStatus())).count();
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        log.info("Rescheduled doctor {} {}..{}: {} moved, {} unresolved in {} ms",
+                doctorId, from, to, moved, items.size() - moved, elapsedMs);
+        return new RescheduleReport(doctorId, from, to, items.size(), moved, items.size() - moved, elapsedMs, items);
+    }
+
+    // Days share no slots, so they are planned in parallel
+    private List<Planned> plan(Map<LocalDate, List<Affected>> byDay, List<Long> colleagues) {
+        try {
+            return pool.submit(() -> byDay.values().parallelStream()
+                    .flatMap(day -> planDay(day, colleagues).stream())
+                    .toList()).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while planning", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Planning failed", e.getCause());
+        }
+    }
+
+    private List<Planned> planDay(List<Affected> day, List<Long> colleagues) {
+        Map<Long, IntervalSet> tentative = new HashMap<>();
+        List<Planned> planned = new ArrayList<>();
+        for (Affected appointment : day) {
+            int original = minutes(appointment.time());
+            Long bestDoctor = null;
+            int bestStart = -1;
+            for (Long colleague : colleagues) {
+                IntervalSet taken = tentative.computeIfAbsent(colleague, id -> new IntervalSet());
+                for (LocalTime free : slotIndex.freeSlots(colleague, appointment.date(), appointment.duration())) {
+                    int start = minutes(free);
+                    if (taken.overlaps(start, start + appointment.duration())) {
+                        continue;
+                    }
+                    int distance = Math.abs(start - original);
+                    int bestDistance = Math.abs(bestStart - original);
+                    // Closest to the original time; on a tie, the colleague given fewer of today's moves
+                    if (bestDoctor == null || distance < bestDistance || (distance == bestDistance
+                            && taken.size() < tentative.get(bestDoctor).size())) {
+                        bestDoctor = colleague;
+                        bestStart = start;
+                    }
+                }
+            }
+            if (bestDoctor == null) {
+                planned.add(new Planned(null, unresolved(appointment, "No free slot with a colleague that day")));
+            } else {
+                tentative.get(bestDoctor).add(bestStart, bestStart + appointment.duration());
+                planned.add(new Planned(new Move(appointment, bestDoctor, LocalTime.of(bestStart / 60, bestStart % 60)), null));
+            }
+        }
+        return planned;
+    }
+
+    private List<RescheduleItem> apply(Long doctorId, List<Move> batch) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            int[] counts = transactionTemplate.execute(status -> {
+                int[] updated = jdbcTemplate.batchUpdate(MOVE_SQL, batch, batch.size(), (statement, move) -> bind(
+                        statement, move, doctorId, now))[0];
+                for (int i = 0; i < batch.size(); i++) {
+                    if (applied(updated[i])) {
+                        publishMoved(doctorId, batch.get(i));
+                    }
+                }
+                return updated;
+            });
+            List<RescheduleItem> items = new ArrayList<>();
+            for (int i = 0; i < batch.size(); i++) {
+                items.add(applied(counts[i]) ? moved(batch.get(i))
+                        : unresolved(batch.get(i).appointment(), "Changed while rescheduling"));
+            }
+            return items;
+        } catch (DataAccessException e) {
+            // One row hit a slot booked since planning; the batch rolled back, so go row by row
+            List<RescheduleItem> items = new ArrayList<>();
+            for (Move move : batch) {
+                items.add(applyOne(doctorId, move, now));
+            }
+            return items;
+        }
+    }
+
+    private RescheduleItem applyOne(Long doctorId, Move move, Timestamp now) {
+        try {
+            Integer updated = transactionTemplate.execute(status -> {
+                int count = jdbcTemplate.update(MOVE_SQL, statement -> bind(statement, move, doctorId, now));
+                if (count > 0) {
+                    publishMoved(doctorId, move);
+                }
+                return count;
+            });
+            return updated != null && updated > 0 ? moved(move)
+                    : unresolved(move.appointment(), "Changed while rescheduling");
+        } catch (DataAccessException e) {
+            return unresolved(move.appointment(), "Planned slot was booked meanwhile");
+        }
+    }
+
+    private static void bind(PreparedStatement statement, Move move, Long doctorId, Timestamp now) throws SQLException {
+        Affected appointment = move.appointment();
+        statement.setLong(1, move.doctorId());
+        statement.setTime(2, Time.valueOf(move.time()));
+        statement.setTimestamp(3, now);
+        statement.setLong(4, appointment.id());
+        statement.setLong(5, doctorId);
+        statement.setDate(6, Date.valueOf(appointment.date()));
+        statement.setTime(7, Time.valueOf(appointment.time()));
+    }
+
+    // Slot index, reminders and waitlist follow the move once the batch commits
+    private void publishMoved(Long doctorId, Move move) {
+        Affected appointment = move.appointment();
+        eventPublisher.publishEvent(new AppointmentChangedEvent(appointment.id(),
+                new Slot(doctorId, appointment.date(), appointment.time(), appointment.duration()),
+                new Slot(move.doctorId(), appointment.date(), move.time(), appointment.duration())));
+    }
+
+    private static RescheduleItem moved(Move move) {
+        Affected appointment = move.appointment();
+        return new RescheduleItem(appointment.id(), appointment.patientId(), appointment.date(), appointment.time(),
+                "MOVED", move.doctorId(), move.time(), null);
+    }
+
+    private static RescheduleItem unresolved(Affected appointment, String reason) {
+        return new RescheduleItem(appointment.id(), appointment.patientId(), appointment.date(), appointment.time(),
+                "UNRESOLVED", null, null, reason);
+    }
+
+    // Drivers may report SUCCESS_NO_INFO instead of a row count for batched statements
+    private static boolean applied(int count) {
+        return count > 0 || count == Statement.SUCCESS_NO_INFO;
+    }
+
+    private static int durationOf(Integer minutes) {
+        return minutes != null && minutes > 0 ? minutes : Appointment.DEFAULT_DURATION_MINUTES;
+    }
+
+    private static int minutes(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+}
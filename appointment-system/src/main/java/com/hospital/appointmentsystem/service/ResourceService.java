@@ -0,0 +1,141 @@
+package com.hospital.appointmentsystem.service;
+
+import com.hospital.appointmentsystem.exception.SlotConflictException;
+import com.hospital.appointmentsystem.model.Appointment;
+import com.hospital.appointmentsystem.model.ClinicResource;
+import com.hospital.appointmentsystem.model.ResourceBooking;
+import com.hospital.appointmentsystem.repository.ClinicResourceRepository;
+import com.hospital.appointmentsystem.repository.ResourceBookingRepository;
+import model.ResourceType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+@Transactional
+public class ResourceService {
+
+    @Autowired
+    private ClinicResourceRepository resourceRepository;
+
+    @Autowired
+    private ResourceBookingRepository bookingRepository;
+
+    @Autowired
+    private BookingEngine bookingEngine;
+
+    // CREATE
+    public ClinicResource createResource(ClinicResource resource) {
+        validate(resource);
+        if (resourceRepository.existsByName(resource.getName())) {
+            throw new IllegalArgumentException("Resource already exists: " + resource.getName());
+        }
+        resource.setId(null);
+        if (resource.getActive() == null) {
+            resource.setActive(true);
+        }
+        return resourceRepository.save(resource);
+    }
+
+    // READ - All resources, optionally of one type or category
+    public List<ClinicResource> getResources(ResourceType type, String category) {
+        if (category != null) {
+            return resourceRepository.findByCategory(category);
+        }
+        return type != null ? resourceRepository.findByType(type) : resourceRepository.findAll();
+    }
+
+    // READ - Get resource by ID
+    public ClinicResource getResourceById(Long id) {
+        return resourceRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Resource not found with id: " + id));
+    }
+
+    // READ - Resources an appointment holds
+    public List<ResourceBooking> getAppointmentResources(Long appointmentId) {
+        return bookingRepository.findByAppointmentId(appointmentId);
+    }
+
+    // UPDATE
+    public ClinicResource updateResource(Long id, ClinicResource details) {
+        validate(details);
+        ClinicResource resource = getResourceById(id);
+        resource.setName(details.getName());
+        resource.setType(details.getType());
+        resource.setCategory(details.getCategory());
+        resource.setLocation(details.getLocation());
+        if (details.getActive() != null) {
+            resource.setActive(details.getActive());
+        }
+        return resourceRepository.save(resource);
+    }
+
+    // DELETE - Retire a resource; it stays on past bookings but is no longer offered
+    public void retireResource(Long id) {
+        ClinicResource resource = getResourceById(id);
+        resource.setActive(false);
+        resourceRepository.save(resource);
+    }
+
+    // CREATE - Book an appointment together with the rooms and equipment it needs, all or nothing.
+    // The resource rows are locked in id order inside the booking transaction, so two bookings
+    // wanting the same resource serialize on any node and the second sees the first's rows.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Appointment bookWithResources(Appointment request, List<Long> resourceIds) {
+        Set<Long> ids = new LinkedHashSet<>(resourceIds != null ? resourceIds : List.of());
+        if (ids.isEmpty() || ids.contains(null)) {
+            throw new IllegalArgumentException("At least one resource id is required");
+        }
+        return bookingEngine.book(request, saved -> {
+            List<ClinicResource> resources = resourceRepository.findAllForUpdate(ids);
+            if (resources.size() != ids.size()) {
+                throw new RuntimeException("Resource not found among ids: " + ids);
+            }
+            for (ClinicResource resource : resources) {
+                if (!Boolean.TRUE.equals(resource.getActive())) {
+                    throw new IllegalArgumentException("Resource is retired: " + resource.getName());
+                }
+            }
+            int start = minuteOf(saved.getAppointmentTime());
+            int end = start + saved.getEffectiveDurationMinutes();
+            for (Object[] row : bookingRepository.findBookedIntervals(ids, saved.getAppointmentDate(),
+                    saved.getAppointmentDate())) {
+                int bookedStart = minuteOf((LocalTime) row[2]);
+                Integer duration = (Integer) row[3];
+                int bookedEnd = bookedStart + (duration != null && duration > 0
+                        ? duration : Appointment.DEFAULT_DURATION_MINUTES);
+                if (bookedStart < end && start < bookedEnd) {
+                    throw new SlotConflictException("Resource " + row[0] + " is not available");
+                }
+            }
+            List<ResourceBooking> bookings = new ArrayList<>();
+            for (ClinicResource resource : resources) {
+                bookings.add(new ResourceBooking(null, saved, resource));
+            }
+            bookingRepository.saveAll(bookings);
+        });
+    }
+
+    private static void validate(ClinicResource resource) {
+        if (resource.getName() == null || resource.getName().isBlank()) {
+            throw new IllegalArgumentException("Resource name is required");
+        }
+        if (resource.getType() == null) {
+            throw new IllegalArgumentException("Resource type is required");
+        }
+        if (resource.getCategory() == null || resource.getCategory().isBlank()) {
+            throw new IllegalArgumentException("Resource category is required");
+        }
+    }
+
+    private static int minuteOf(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+}
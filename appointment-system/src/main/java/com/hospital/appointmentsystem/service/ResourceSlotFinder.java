@@ -0,0 +1,180 @@
+package com.hospital.appointmentsystem.service;
+
+import com.hospital.appointmentsystem.dto.ResourceSlot;
+import com.hospital.appointmentsystem.model.Appointment;
+import com.hospital.appointmentsystem.model.ClinicResource;
+import com.hospital.appointmentsystem.repository.ClinicResourceRepository;
+import com.hospital.appointmentsystem.repository.ResourceBookingRepository;
+import com.hospital.appointmentsystem.util.IntervalSet;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * Slots where a doctor and one free resource of every required category are available together.
+ * <p>
+ * Everything is loaded up front with two queries: the doctor's days through the slot index and
+ * the busy intervals of every candidate resource into one {@link IntervalSet} per (resource, day).
+ * The doctor's free starts are the outer loop, since they are usually the scarcest; each is then
+ * checked against the categories scarcest-first, and a start is dropped at the first category
+ * with no free resource left. Requirements no pool can ever meet end the search before any day
+ * is looked at.
+ */
+@Service
+public class ResourceSlotFinder {
+
+    @Autowired
+    private ClinicResourceRepository resourceRepository;
+
+    @Autowired
+    private ResourceBookingRepository bookingRepository;
+
+    @Autowired
+    private SlotIndex slotIndex;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.scheduling.search.max-window-days:62}")
+    private int maxWindowDays;
+
+    @Value("${app.scheduling.search.max-results:100}")
+    private int maxResults;
+
+    private Timer searchTime;
+
+    @PostConstruct
+    void init() {
+        searchTime = Timer.builder("scheduling.resource.search")
+                .description("Doctor, room and equipment slot searches").register(meterRegistry);
+    }
+
+    // READ - Earliest slots with the doctor free and every required category covered, earliest first
+    public List<ResourceSlot> findSlots(Long doctorId, List<String> requires, LocalDate from, LocalDate to,
+                                        int durationMinutes, int limit) {
+        if (doctorId == null) {
+            throw new IllegalArgumentException("doctorId is required");
+        }
+        if (limit < 1 || limit > maxResults) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxResults);
+        }
+        if (durationMinutes < 1) {
+            throw new IllegalArgumentException("Duration must be positive");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate start = from.isBefore(now.toLocalDate()) ? now.toLocalDate() : from;
+        if (to.isBefore(start)) {
+            return List.of();
+        }
+        if (start.plusDays(maxWindowDays).isBefore(to)) {
+            throw new IllegalArgumentException("Window must not exceed " + maxWindowDays + " days");
+        }
+        return searchTime.record(() -> search(doctorId, requires != null ? requires : List.of(),
+                start, to, now, durationMinutes, limit));
+    }
+
+    private List<ResourceSlot> search(Long doctorId, List<String> requires, LocalDate from, LocalDate to,
+                                      LocalDateTime now, int durationMinutes, int limit) {
+        // Candidate resources per category, in id order so the same resource is preferred every time
+        Map<String, List<Long>> pools = new HashMap<>();
+        if (!requires.isEmpty()) {
+            for (ClinicResource resource : resourceRepository.findByActiveTrueAndCategoryIn(new HashSet<>(requires))) {
+                pools.computeIfAbsent(resource.getCategory(), category -> new ArrayList<>()).add(resource.getId());
+            }
+        }
+        pools.values().forEach(Collections::sort);
+        Map<String, Integer> needed = new HashMap<>();
+        requires.forEach(category -> needed.merge(category, 1, Integer::sum));
+        for (Map.Entry<String, Integer> need : needed.entrySet()) {
+            if (pools.getOrDefault(need.getKey(), List.of()).size() < need.getValue()) {
+                return List.of();
+            }
+        }
+        // Scarcest category first: it rejects a start with the fewest checks
+        Integer[] order = new Integer[requires.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingInt(i -> pools.get(requires.get(i)).size()));
+
+        Map<Long, Map<LocalDate, IntervalSet>> busy = loadBusy(pools, from, to);
+        slotIndex.ensureLoaded(List.of(doctorId), from, to);
+
+        List<ResourceSlot> found = new ArrayList<>();
+        Long[] picked = new Long[requires.size()];
+        for (LocalDate date = from; !date.isAfter(to) && found.size() < limit; date = date.plusDays(1)) {
+            for (LocalTime time : slotIndex.freeSlots(doctorId, date, durationMinutes)) {
+                if (!date.atTime(time).isAfter(now)) {
+                    continue;
+                }
+                int startMinute = time.getHour() * 60 + time.getMinute();
+                if (pick(requires, order, pools, busy, date, startMinute, startMinute + durationMinutes, picked)) {
+                    found.add(new ResourceSlot(doctorId, date, time, List.of(picked)));
+                    if (found.size() == limit) {
+                        break;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    // Fill `picked` with a distinct free resource per requirement; false at the first one that has none
+    private static boolean pick(List<String> requires, Integer[] order, Map<String, List<Long>> pools,
+                                Map<Long, Map<LocalDate, IntervalSet>> busy, LocalDate date,
+                                int start, int end, Long[] picked) {
+        Arrays.fill(picked, null);
+        for (int i : order) {
+            Long choice = null;
+            for (Long resourceId : pools.get(requires.get(i))) {
+                if (isPicked(picked, resourceId)) {
+                    continue;
+                }
+                IntervalSet day = busy.getOrDefault(resourceId, Map.of()).get(date);
+                if (day == null || !day.overlaps(start, end)) {
+                    choice = resourceId;
+                    break;
+                }
+            }
+            if (choice == null) {
+                return false;
+            }
+            picked[i] = choice;
+        }
+        return true;
+    }
+
+    private static boolean isPicked(Long[] picked, Long resourceId) {
+        for (Long id : picked) {
+            if (resourceId.equals(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Map<Long, Map<LocalDate, IntervalSet>> loadBusy(Map<String, List<Long>> pools, LocalDate from, LocalDate to) {
+        Map<Long, Map<LocalDate, IntervalSet>> busy = new HashMap<>();
+        List<Long> resourceIds = pools.values().stream().flatMap(List::stream).toList();
+        if (resourceIds.isEmpty()) {
+            return busy;
+        }
+        for (Object[] row : bookingRepository.findBookedIntervals(resourceIds, from, to)) {
+            LocalTime time = (LocalTime) row[2];
+            Integer duration = (Integer) row[3];
+            int start = time.getHour() * 60 + time.getMinute();
+            busy.computeIfAbsent((Long) row[0], id -> new HashMap<>())
+                    .computeIfAbsent((LocalDate) row[1], date -> new IntervalSet())
+                    .add(start, start + (duration != null && duration > 0 ? duration : Appointment.DEFAULT_DURATION_MINUTES));
+        }
+        return busy;
+    }
+}
@@ -0,0 +1,282 @@
+package com.hospital.appointmentsystem.service;
+
+import com.hospital.appointmentsystem.event.AppointmentChangedEvent;
+import com.hospital.appointmentsystem.event.AppointmentChangedEvent.Slot;
+import com.hospital.appointmentsystem.event.AppointmentsBulkChangedEvent;
+import com.hospital.appointmentsystem.model.Appointment;
+import com.hospital.appointmentsystem.repository.AppointmentRepository;
+import com.hospital.appointmentsystem.util.IntervalSet;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Booked intervals per (doctor, day) in minutes of the day, held in an {@link IntervalSet} so
+ * overlap checks are O(log n) and a day's free starts come from one sweep.
+ * Days are loaded lazily with a times-and-durations query, kept coherent by committed
+ * {@link AppointmentChangedEvent}s, evicted LRU beyond {@code max-days} and reloaded after
+ * {@code ttl-ms} to pick up bookings made on other nodes. The database stays the final arbiter.
+ */
+@Component
+public class SlotIndex {
+
+    private static final int STRIPES = 64;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private WorkingCalendar workingCalendar;
+
+    @Value("${app.scheduling.slot-index.max-days:10000}")
+    private int maxDays;
+
+    @Value("${app.scheduling.slot-index.ttl-ms:60000}")
+    private long ttlMs;
+
+    private Map<DayKey, Day> days;
+
+    // Bumped on every applied change; a load that raced a change is not cached
+    private final AtomicLongArray changeStamps = new AtomicLongArray(STRIPES);
+
+    private Counter hits;
+    private Counter misses;
+
+    private record DayKey(Long doctorId, LocalDate date) {
+    }
+
+    private static final class Day {
+        final IntervalSet booked = new IntervalSet();
+        final long loadedAt = System.currentTimeMillis();
+
+        synchronized void add(int start, int end) {
+            booked.add(start, end);
+        }
+
+        synchronized void remove(int start, int end) {
+            booked.remove(start, end);
+        }
+
+        // Overlap test that disregards one existing interval (the appointment being moved)
+        synchronized boolean overlaps(int start, int end, Slot ignore) {
+            boolean ignored = ignore != null && booked.remove(startOf(ignore), endOf(ignore));
+            try {
+                return booked.overlaps(start, end);
+            } finally {
+                if (ignored) {
+                    booked.add(startOf(ignore), endOf(ignore));
+                }
+            }
+        }
+
+        synchronized List<Integer> freeStarts(int from, int to, int length, int step) {
+            return booked.freeStarts(from, to, length, step);
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        days = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<DayKey, Day> eldest) {
+                return size() > maxDays;
+            }
+        };
+        hits = meterRegistry.counter("scheduling.slot.index.hits");
+        misses = meterRegistry.counter("scheduling.slot.index.misses");
+        Gauge.builder("scheduling.slot.index.days", this, SlotIndex::size).register(meterRegistry);
+    }
+
+    // Is [time, time + duration) free for the doctor on that day?
+    public boolean isFree(Long doctorId, LocalDate date, LocalTime time, int durationMinutes) {
+        return isFree(doctorId, date, time, durationMinutes, null);
+    }
+
+    // Same, disregarding the slot the appointment being rescheduled holds now
+    public boolean isFree(Long doctorId, LocalDate date, LocalTime time, int durationMinutes, Slot ignore) {
+        int start = minuteOf(time);
+        Slot own = ignore != null && ignore.doctorId().equals(doctorId) && ignore.date().equals(date) ? ignore : null;
+        return !day(doctorId, date).overlaps(start, start + durationMinutes, own);
+    }
+
+    // Starts on the doctor's slot grid, within working hours, where an appointment of the given length fits
+    public List<LocalTime> freeSlots(Long doctorId, LocalDate date, int durationMinutes) {
+        int[] blocks = workingCalendar.blocks(doctorId, date);
+        if (blocks == null || blocks.length == 0) {
+            return List.of();
+        }
+        Day day = day(doctorId, date);
+        List<LocalTime> free = new ArrayList<>();
+        // Blocks are sorted and disjoint, so the result comes out in order
+        for (int i = 0; i < blocks.length; i += 3) {
+            for (int minute : day.freeStarts(blocks[i], blocks[i + 1], durationMinutes, blocks[i + 2])) {
+                free.add(LocalTime.of(minute / 60, minute % 60));
+            }
+        }
+        return free;
+    }
+
+    // Load every missing or stale (doctor, day) in the range with a single query
+    public void ensureLoaded(Collection<Long> doctorIds, LocalDate from, LocalDate to) {
+        long now = System.currentTimeMillis();
+        Map<DayKey, Long> stamps = new HashMap<>();
+        Set<Long> missing = new HashSet<>();
+        synchronized (this) {
+            for (Long doctorId : doctorIds) {
+                for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                    DayKey key = new DayKey(doctorId, date);
+                    Day cached = days.get(key);
+                    if (cached == null || now - cached.loadedAt >= ttlMs) {
+                        missing.add(doctorId);
+                        stamps.put(key, changeStamps.get(stripe(key)));
+                    }
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        misses.increment(stamps.size());
+        Map<DayKey, Day> loaded = new HashMap<>();
+        stamps.keySet().forEach(key -> loaded.put(key, new Day()));
+        for (Object[] row : appointmentRepository.findBookedIntervalsInRange(missing, from, to)) {
+            Day day = loaded.get(new DayKey((Long) row[0], (LocalDate) row[1]));
+            if (day != null) {
+                int start = minuteOf((LocalTime) row[2]);
+                day.add(start, start + durationOf((Integer) row[3]));
+            }
+        }
+        synchronized (this) {
+            loaded.forEach((key, day) -> {
+                if (changeStamps.get(stripe(key)) == stamps.get(key)) {
+                    days.put(key, day);
+                }
+            });
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        if (Objects.equals(event.before(), event.after())) {
+            return;
+        }
+        apply(event.before(), false);
+        apply(event.after(), true);
+    }
+
+    // A bulk update or delete freed an unknown set of slots: drop the affected days
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentsBulkChanged(AppointmentsBulkChangedEvent event) {
+        invalidate(event.doctorId(), event.from(), event.to());
+    }
+
+    // Forget a doctor's days (every doctor's when doctorId is null) between from and to
+    public void invalidate(Long doctorId, LocalDate from, LocalDate to) {
+        // Keys may be loading right now; bumping every stripe keeps those loads out of the cache
+        for (int i = 0; i < STRIPES; i++) {
+            changeStamps.incrementAndGet(i);
+        }
+        synchronized (this) {
+            days.keySet().removeIf(key -> (doctorId == null || doctorId.equals(key.doctorId()))
+                    && !key.date().isBefore(from) && !key.date().isAfter(to));
+        }
+    }
+
+    // Forget a day so the next lookup reloads it
+    public void invalidate(Long doctorId, LocalDate date) {
+        DayKey key = new DayKey(doctorId, date);
+        changeStamps.incrementAndGet(stripe(key));
+        synchronized (this) {
+            days.remove(key);
+        }
+    }
+
+    public synchronized int size() {
+        return days.size();
+    }
+
+    private void apply(Slot slot, boolean booked) {
+        if (slot == null) {
+            return;
+        }
+        DayKey key = new DayKey(slot.doctorId(), slot.date());
+        changeStamps.incrementAndGet(stripe(key));
+        Day day;
+        synchronized (this) {
+            day = days.get(key);
+        }
+        if (day == null) {
+            return;
+        }
+        if (booked) {
+            day.add(startOf(slot), endOf(slot));
+        } else {
+            day.remove(startOf(slot), endOf(slot));
+        }
+    }
+
+    private Day day(Long doctorId, LocalDate date) {
+        DayKey key = new DayKey(doctorId, date);
+        synchronized (this) {
+            Day cached = days.get(key);
+            if (cached != null && System.currentTimeMillis() - cached.loadedAt < ttlMs) {
+                hits.increment();
+                return cached;
+            }
+        }
+        misses.increment();
+        long stamp = changeStamps.get(stripe(key));
+        Day loaded = new Day();
+        for (Object[] row : appointmentRepository.findBookedIntervals(doctorId, date)) {
+            int start = minuteOf((LocalTime) row[0]);
+            loaded.add(start, start + durationOf((Integer) row[1]));
+        }
+        synchronized (this) {
+            if (changeStamps.get(stripe(key)) == stamp) {
+                days.put(key, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    private static int stripe(DayKey key) {
+        return (key.hashCode() & 0x7fffffff) % STRIPES;
+    }
+
+    private static int minuteOf(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    private static int durationOf(Integer minutes) {
+        return minutes != null && minutes > 0 ? minutes : Appointment.DEFAULT_DURATION_MINUTES;
+    }
+
+    private static int startOf(Slot slot) {
+        return minuteOf(slot.time());
+    }
+
+    private static int endOf(Slot slot) {
+        return startOf(slot) + slot.durationMinutes();
+    }
+}
@@ -0,0 +1,170 @@
+package com.hospital.appointmentsystem.service;
+
+import com.hospital.appointmentsystem.dto.AvailableSlot;
+import com.hospital.appointmentsystem.dto.DoctorSummary;
+import com.hospital.appointmentsystem.repository.DoctorRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Earliest free slots across the doctors of a specialization (or a single doctor) in a date
+ * window. The window is walked in chronological chunks; within a chunk, doctor batches are
+ * evaluated in parallel, each with one set-based query through {@link SlotIndex#ensureLoaded}
+ * for whatever is not already in memory. The walk stops at the first chunk that yields enough
+ * results, since every later chunk only holds later slots.
+ */
+@Service
+public class SlotSearchService {
+
+    private static final Comparator<AvailableSlot> EARLIEST_FIRST = Comparator
+            .comparing(AvailableSlot::getDate)
+            .thenComparing(AvailableSlot::getTime)
+            .thenComparing(AvailableSlot::getDoctorId);
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private SlotIndex slotIndex;
+
+    @Value("${app.scheduling.search.parallelism:4}")
+    private int parallelism;
+
+    @Value("${app.scheduling.search.doctor-batch-size:25}")
+    private int doctorBatchSize;
+
+    @Value("${app.scheduling.search.chunk-days:7}")
+    private int chunkDays;
+
+    @Value("${app.scheduling.search.max-window-days:62}")
+    private int maxWindowDays;
+
+    @Value("${app.scheduling.search.max-results:100}")
+    private int maxResults;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    void start() {
+        AtomicInteger counter = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "slot-search-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdown();
+    }
+
+    // READ - Earliest free slots for a specialization or a single doctor, earliest first
+    public List<AvailableSlot> findEarliest(String specialization, Long doctorId, LocalDate from,
+                                            LocalDate to, int durationMinutes, int limit) {
+        if (limit < 1 || limit > maxResults) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxResults);
+        }
+        if (durationMinutes < 1) {
+            throw new IllegalArgumentException("Duration must be positive");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate start = from.isBefore(now.toLocalDate()) ? now.toLocalDate() : from;
+        if (to.isBefore(start)) {
+            return List.of();
+        }
+        if (start.plusDays(maxWindowDays).isBefore(to)) {
+            throw new IllegalArgumentException("Window must not exceed " + maxWindowDays + " days");
+        }
+
+        List<DoctorSummary> doctors = candidates(specialization, doctorId);
+        if (doctors.isEmpty()) {
+            return List.of();
+        }
+        List<List<DoctorSummary>> batches = new ArrayList<>();
+        for (int i = 0; i < doctors.size(); i += doctorBatchSize) {
+            batches.add(doctors.subList(i, Math.min(i + doctorBatchSize, doctors.size())));
+        }
+
+        List<AvailableSlot> result = new ArrayList<>();
+        for (LocalDate chunkStart = start; !chunkStart.isAfter(to); chunkStart = chunkStart.plusDays(chunkDays)) {
+            LocalDate chunkEnd = chunkStart.plusDays(chunkDays - 1L);
+            if (chunkEnd.isAfter(to)) {
+                chunkEnd = to;
+            }
+            result.addAll(searchChunk(batches, chunkStart, chunkEnd, now, durationMinutes, limit - result.size()));
+            if (result.size() >= limit) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private List<DoctorSummary> candidates(String specialization, Long doctorId) {
+        if (doctorId != null) {
+            return doctorRepository.findSummaryById(doctorId).map(List::of).orElse(List.of());
+        }
+        if (specialization == null || specialization.isBlank()) {
+            throw new IllegalArgumentException("Either specialization or doctorId is required");
+        }
+        return doctorRepository.findAvailableSummariesBySpecialization(specialization);
+    }
+
+    // Earliest `limit` free slots of the chunk across all batches, evaluated in parallel
+    private List<AvailableSlot> searchChunk(List<List<DoctorSummary>> batches, LocalDate from, LocalDate to,
+                                            LocalDateTime now, int durationMinutes, int limit) {
+        List<Future<List<AvailableSlot>>> futures = new ArrayList<>();
+        for (List<DoctorSummary> batch : batches) {
+            futures.add(executor.submit(() -> searchBatch(batch, from, to, now, durationMinutes, limit)));
+        }
+        List<AvailableSlot> merged = new ArrayList<>();
+        try {
+            for (Future<List<AvailableSlot>> future : futures) {
+                merged.addAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new RuntimeException("Slot search interrupted", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : new RuntimeException(e.getCause());
+        }
+        merged.sort(EARLIEST_FIRST);
+        return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+    }
+
+    private List<AvailableSlot> searchBatch(List<DoctorSummary> batch, LocalDate from, LocalDate to,
+                                            LocalDateTime now, int durationMinutes, int limit) {
+        slotIndex.ensureLoaded(batch.stream().map(DoctorSummary::getId).toList(), from, to);
+        List<AvailableSlot> found = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            for (DoctorSummary doctor : batch) {
+                for (LocalTime time : slotIndex.freeSlots(doctor.getId(), date, durationMinutes)) {
+                    if (date.equals(now.toLocalDate()) && !time.isAfter(now.toLocalTime())) {
+                        continue;
+                    }
+                    found.add(new AvailableSlot(doctor.getId(), doctor.getFullName(),
+                            doctor.getSpecialization(), date, time));
+                }
+            }
+            // Days are visited in order, so a batch that has enough can stop here
+            if (found.size() >= limit) {
+                break;
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,74 @@
+package com.hospital.appointmentsystem.service;
+
+import com.hospital.appointmentsystem.event.UserAccessChangedEvent;
+import com.hospital.appointmentsystem.model.User;
+import com.hospital.appointmentsystem.repository.UserRepository;
+import com.hospital.appointmentsystem.security.TokenRevocationService;
+import model.Role;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@Transactional
+public class UserAccountService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TokenRevocationService revocationService;
+
+    // READ - Get user by ID
+    public User getUserById(Long id) {
+        return userRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+    }
+
+    // UPDATE - Deactivate account
+    public User deactivateUser(Long id) {
+        return setActive(id, false);
+    }
+
+    // UPDATE - Reactivate account
+    public User activateUser(Long id) {
+        return setActive(id, true);
+    }
+
+    // UPDATE - Change role
+    public User changeRole(Long id, Role role) {
+        User user = getUserById(id);
+        if (user.getRole() == role) {
+            return user;
+        }
+        user.setRole(role);
+        User saved = userRepository.save(user);
+        // Outstanding tokens still claim the old role
+        revocationService.revokeUser(saved.getUsername());
+        publishAccessChanged(saved);
+        return saved;
+    }
+
+    private User setActive(Long id, boolean active) {
+        User user = getUserById(id);
+        if (Boolean.valueOf(active).equals(user.getActive())) {
+            return user;
+        }
+        user.setActive(active);
+        User saved = userRepository.save(user);
+        if (!active) {
+            revocationService.revokeUser(saved.getUsername());
+        }
+        publishAccessChanged(saved);
+        return saved;
+    }
+
+    private void publishAccessChanged(User user) {
+        eventPublisher.publishEvent(new UserAccessChangedEvent(
+                user.getId(), user.getUsername(), user.getRole(), Boolean.TRUE.equals(user.getActive())));
+    }
+}
@@ -0,0 +1,378 @@
+package com.hospital.appointmentsystem.service;
+
+import com.hospital.appointmentsystem.event.AppointmentChangedEvent;
+import com.hospital.appointmentsystem.event.AppointmentChangedEvent.Slot;
+import com.hospital.appointmentsystem.event.AppointmentsBulkChangedEvent;
+import com.hospital.appointmentsystem.exception.SlotConflictException;
+import com.hospital.appointmentsystem.model.Appointment;
+import com.hospital.appointmentsystem.model.Doctor;
+import com.hospital.appointmentsystem.model.Patient;
+import com.hospital.appointmentsystem.repository.WaitlistEntryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import model.WaitlistStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Books waitlisted patients into slots as soon as they are freed.
+ * <p>
+ * Waiting entries are held in memory per (doctor, day), in one priority-ordered set per requested
+ * duration. The best entry that fits a freed gap is the best of the bucket heads whose duration
+ * fits: O(D log n) for D distinct durations (a handful in practice), however long the list is.
+ * A committed {@link AppointmentChangedEvent} that frees a slot hands the gap to a small pool,
+ * which books entries into it in priority order until it is full.
+ * <p>
+ * The queues are per node, and change events are published only on the node that made the
+ * change, so memory alone misses entries that joined on other nodes. Before filling a freed gap
+ * the pool therefore rereads that (doctor, day)'s WAITING rows (one indexed query): new entries
+ * are added and ones claimed or withdrawn elsewhere are dropped. Each entry is still claimed in
+ * the database first (WAITING to BOOKED), so two nodes that both hold it never book one patient
+ * twice; the booking itself goes through {@link BookingEngine} like any other.
+ */
+@Slf4j
+@Component
+public class WaitlistMatcher {
+
+    private static final Comparator<Waiting> SERVE_ORDER = Comparator
+            .comparingInt(Waiting::priority).reversed()
+            .thenComparing(Waiting::createdAt)
+            .thenComparing(Waiting::id);
+
+    @Autowired
+    private WaitlistEntryRepository waitlistRepository;
+
+    @Autowired
+    private BookingEngine bookingEngine;
+
+    @Autowired
+    private SlotIndex slotIndex;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.waitlist.matcher-threads:2}")
+    private int matcherThreads;
+
+    private final Map<DayKey, DayQueue> queues = new ConcurrentHashMap<>();
+    private final Map<Long, Waiting> byId = new ConcurrentHashMap<>();
+    private ExecutorService executor;
+    private TransactionTemplate transactionTemplate;
+    private Counter matched;
+    private Timer matchLatency;
+
+    public record Waiting(Long id, Long doctorId, Long patientId, LocalDate date, int durationMinutes,
+                   int priority, LocalDateTime createdAt) {
+    }
+
+    record DayKey(Long doctorId, LocalDate date) {
+    }
+
+    private enum Outcome { BOOKED, SLOT_GONE, ENTRY_GONE }
+
+    // One doctor's waitlist for one day; guarded by its own monitor
+    private static final class DayQueue {
+        final TreeMap<Integer, TreeSet<Waiting>> byDuration = new TreeMap<>();
+
+        void add(Waiting waiting) {
+            byDuration.computeIfAbsent(waiting.durationMinutes(), d -> new TreeSet<>(SERVE_ORDER)).add(waiting);
+        }
+
+        boolean remove(Waiting waiting) {
+            TreeSet<Waiting> bucket = byDuration.get(waiting.durationMinutes());
+            if (bucket == null || !bucket.remove(waiting)) {
+                return false;
+            }
+            if (bucket.isEmpty()) {
+                byDuration.remove(waiting.durationMinutes());
+            }
+            return true;
+        }
+
+        // Best entry whose duration fits in `minutes`, or null
+        Waiting best(int minutes) {
+            Waiting best = null;
+            for (TreeSet<Waiting> bucket : byDuration.headMap(minutes, true).values()) {
+                Waiting head = bucket.first();
+                if (best == null || SERVE_ORDER.compare(head, best) < 0) {
+                    best = head;
+                }
+            }
+            return best;
+        }
+
+        List<Waiting> inServeOrder() {
+            List<Waiting> all = new ArrayList<>();
+            byDuration.values().forEach(all::addAll);
+            all.sort(SERVE_ORDER);
+            return all;
+        }
+
+        boolean isEmpty() {
+            return byDuration.isEmpty();
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        AtomicInteger counter = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(matcherThreads, runnable -> {
+            Thread thread = new Thread(runnable, "waitlist-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        matched = Counter.builder("waitlist.matched")
+                .description("Waitlisted patients booked into freed slots").register(meterRegistry);
+        matchLatency = Timer.builder("waitlist.match.latency")
+                .description("From a slot being freed to a waitlisted patient holding it").register(meterRegistry);
+        Gauge.builder("waitlist.size", byId, Map::size).register(meterRegistry);
+
+        for (Object[] row : waitlistRepository.findWaitingFrom(LocalDate.now())) {
+            add(waiting(row));
+        }
+        log.info("Loaded {} waitlist entries", byId.size());
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdown();
+    }
+
+    public void add(Waiting waiting) {
+        DayKey key = new DayKey(waiting.doctorId(), waiting.date());
+        while (true) {
+            DayQueue queue = queues.computeIfAbsent(key, k -> new DayQueue());
+            synchronized (queue) {
+                // take() drops a queue once empty; never add to one that is no longer mapped
+                if (queues.get(key) == queue) {
+                    queue.add(waiting);
+                    byId.put(waiting.id(), waiting);
+                    return;
+                }
+            }
+        }
+    }
+
+    public void remove(Long id) {
+        Waiting waiting = byId.get(id);
+        if (waiting != null) {
+            take(waiting);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        Slot freed = event.before();
+        Slot after = event.after();
+        if (freed == null || freed.equals(after)) {
+            return;
+        }
+        if (after != null && after.doctorId().equals(freed.doctorId()) && after.date().equals(freed.date())) {
+            // Moved within the day: whatever it freed is partial, left for the next full match
+            return;
+        }
+        long freedAt = System.nanoTime();
+        executor.execute(() -> {
+            reload(new DayKey(freed.doctorId(), freed.date()));
+            fillGap(freed.doctorId(), freed.date(), freed.time(), freed.durationMinutes(), freedAt);
+        });
+    }
+
+    // Bulk cancellations free slots we cannot see individually: refill every affected day anyone waits for
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentsBulkChanged(AppointmentsBulkChangedEvent event) {
+        long freedAt = System.nanoTime();
+        executor.execute(() -> {
+            for (Object[] row : waitlistRepository.findWaitingDays(event.doctorId(), event.from(), event.to())) {
+                DayKey key = new DayKey((Long) row[0], (LocalDate) row[1]);
+                reload(key);
+                fillDay(key, freedAt);
+            }
+        });
+    }
+
+    // Bring one day's queue in line with the database: entries joined on other nodes come in,
+    // entries claimed or withdrawn elsewhere go. A stale entry only costs one failed claim.
+    void reload(DayKey key) {
+        Set<Long> before = new HashSet<>();
+        DayQueue queue = queues.get(key);
+        if (queue != null) {
+            synchronized (queue) {
+                queue.byDuration.values().forEach(bucket -> bucket.forEach(waiting -> before.add(waiting.id())));
+            }
+        }
+        Set<Long> waitingNow = new HashSet<>();
+        for (Object[] row : waitlistRepository.findWaitingOn(key.doctorId(), key.date())) {
+            Waiting waiting = waiting(row);
+            waitingNow.add(waiting.id());
+            if (!byId.containsKey(waiting.id())) {
+                add(waiting);
+            }
+        }
+        // Only entries held before the query: anything added since joined after it
+        for (Long id : before) {
+            if (!waitingNow.contains(id)) {
+                remove(id);
+            }
+        }
+    }
+
+    // Waiting entries for past days will never be served
+    @Scheduled(cron = "${app.waitlist.expire-cron:0 5 0 * * *}")
+    public void expire() {
+        LocalDate today = LocalDate.now();
+        try {
+            int expired = transactionTemplate.execute(status -> waitlistRepository.expireBefore(today));
+            queues.keySet().removeIf(key -> key.date().isBefore(today));
+            byId.values().removeIf(waiting -> waiting.date().isBefore(today));
+            if (expired > 0) {
+                log.info("Expired {} waitlist entries", expired);
+            }
+        } catch (RuntimeException e) {
+            log.error("Could not expire waitlist entries", e);
+        }
+    }
+
+    // Book entries back to back into [start, start + minutes) in priority order
+    void fillGap(Long doctorId, LocalDate date, LocalTime start, int minutes, long freedAt) {
+        DayQueue queue = queues.get(new DayKey(doctorId, date));
+        int offset = 0;
+        while (queue != null && offset < minutes) {
+            LocalTime time = start.plusMinutes(offset);
+            if (!date.atTime(time).isAfter(LocalDateTime.now())) {
+                return;
+            }
+            Waiting next;
+            synchronized (queue) {
+                next = queue.best(minutes - offset);
+            }
+            if (next == null) {
+                return;
+            }
+            if (!take(next)) {
+                continue;
+            }
+            Outcome outcome = book(next, time, freedAt);
+            if (outcome == Outcome.BOOKED) {
+                offset += next.durationMinutes();
+            } else if (outcome == Outcome.SLOT_GONE) {
+                return;
+            }
+        }
+    }
+
+    // Give each entry, in priority order, the earliest free slot of its length that day
+    void fillDay(DayKey key, long freedAt) {
+        DayQueue queue = queues.get(key);
+        if (queue == null) {
+            return;
+        }
+        List<Waiting> candidates;
+        synchronized (queue) {
+            candidates = queue.inServeOrder();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (Waiting waiting : candidates) {
+            Optional<LocalTime> slot = slotIndex.freeSlots(key.doctorId(), key.date(), waiting.durationMinutes())
+                    .stream().filter(time -> key.date().atTime(time).isAfter(now)).findFirst();
+            if (slot.isPresent() && take(waiting)) {
+                book(waiting, slot.get(), freedAt);
+            }
+        }
+    }
+
+    // Caller has taken the entry out of memory; claims it in the database and books it
+    private Outcome book(Waiting waiting, LocalTime time, long freedAt) {
+        Integer claimed = transactionTemplate.execute(status -> waitlistRepository.transition(
+                waiting.id(), WaitlistStatus.WAITING, WaitlistStatus.BOOKED, null));
+        if (claimed == null || claimed == 0) {
+            // Left the waitlist or was served by another node
+            return Outcome.ENTRY_GONE;
+        }
+        Appointment request = new Appointment();
+        Doctor doctor = new Doctor();
+        doctor.setId(waiting.doctorId());
+        Patient patient = new Patient();
+        patient.setId(waiting.patientId());
+        request.setDoctor(doctor);
+        request.setPatient(patient);
+        request.setAppointmentDate(waiting.date());
+        request.setAppointmentTime(time);
+        request.setDurationMinutes(waiting.durationMinutes());
+        request.setReason("Booked from waitlist");
+        try {
+            Appointment booked = bookingEngine.book(request);
+            transactionTemplate.execute(status -> waitlistRepository.transition(
+                    waiting.id(), WaitlistStatus.BOOKED, WaitlistStatus.BOOKED, booked.getId()));
+            matched.increment();
+            matchLatency.record(System.nanoTime() - freedAt, TimeUnit.NANOSECONDS);
+            log.info("Waitlist entry {} booked as appointment {} at {} {}",
+                    waiting.id(), booked.getId(), waiting.date(), time);
+            return Outcome.BOOKED;
+        } catch (SlotConflictException | IllegalArgumentException e) {
+            // Someone else got the slot, or the doctor no longer works then: keep waiting
+            release(waiting);
+            return Outcome.SLOT_GONE;
+        } catch (RuntimeException e) {
+            log.warn("Dropping waitlist entry {}: {}", waiting.id(), e.getMessage());
+            transactionTemplate.execute(status -> waitlistRepository.transition(
+                    waiting.id(), WaitlistStatus.BOOKED, WaitlistStatus.CANCELLED, null));
+            return Outcome.ENTRY_GONE;
+        }
+    }
+
+    private void release(Waiting waiting) {
+        transactionTemplate.execute(status -> waitlistRepository.transition(
+                waiting.id(), WaitlistStatus.BOOKED, WaitlistStatus.WAITING, null));
+        add(waiting);
+    }
+
+    // Row of findWaitingFrom / findWaitingOn
+    private static Waiting waiting(Object[] row) {
+        return new Waiting((Long) row[0], (Long) row[1], (Long) row[2], (LocalDate) row[3],
+                (Integer) row[4], (Integer) row[5], (LocalDateTime) row[6]);
+    }
+
+    // Remove from memory; false if another thread got it first
+    private boolean take(Waiting waiting) {
+        DayKey key = new DayKey(waiting.doctorId(), waiting.date());
+        DayQueue queue = queues.get(key);
+        if (queue == null) {
+            return false;
+        }
+        synchronized (queue) {
+            if (!queue.remove(waiting)) {
+                return false;
+            }
+            byId.remove(waiting.id());
+            if (queue.isEmpty()) {
+                queues.remove(key, queue);
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.hospital.appointmentsystem.service;
+
+import com.hospital.appointmentsystem.dto.WaitlistRequest;
+import com.hospital.appointmentsystem.model.Appointment;
+import com.hospital.appointmentsystem.model.WaitlistEntry;
+import com.hospital.appointmentsystem.repository.WaitlistEntryRepository;
+import model.WaitlistStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+@Service
+@Transactional
+public class WaitlistService {
+
+    @Autowired
+    private WaitlistEntryRepository waitlistRepository;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private BookingEngine bookingEngine;
+
+    @Autowired
+    private WorkingCalendar workingCalendar;
+
+    @Autowired
+    private WaitlistMatcher waitlistMatcher;
+
+    // CREATE - Join a doctor's waitlist for a day
+    public WaitlistEntry join(WaitlistRequest request) {
+        if (request.getDoctorId() == null || request.getPatientId() == null || request.getDate() == null) {
+            throw new IllegalArgumentException("Doctor, patient and date are required");
+        }
+        LocalDate date = request.getDate();
+        if (date.isBefore(LocalDate.now()) || date.isAfter(workingCalendar.horizonEnd())) {
+            throw new IllegalArgumentException("Date must be between today and " + workingCalendar.horizonEnd());
+        }
+        int duration = request.getDurationMinutes() != null
+                ? request.getDurationMinutes() : Appointment.DEFAULT_DURATION_MINUTES;
+        bookingEngine.checkSlot(LocalTime.MIDNIGHT, duration);
+
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setDoctor(doctorService.getDoctorById(request.getDoctorId()));
+        entry.setPatient(patientService.getPatientById(request.getPatientId()));
+        entry.setDate(date);
+        entry.setDurationMinutes(duration);
+        entry.setPriority(request.getPriority() != null ? request.getPriority() : 0);
+        WaitlistEntry saved = waitlistRepository.save(entry);
+
+        WaitlistMatcher.Waiting waiting = new WaitlistMatcher.Waiting(saved.getId(), request.getDoctorId(),
+                request.getPatientId(), date, duration, saved.getPriority(), saved.getCreatedAt());
+        afterCommit(() -> waitlistMatcher.add(waiting));
+        return saved;
+    }
+
+    // READ - One entry
+    public WaitlistEntry getEntry(Long id) {
+        return waitlistRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Waitlist entry not found with id: " + id));
+    }
+
+    // READ - Who is waiting for a doctor on a day, in the order they will be served
+    public List<WaitlistEntry> getWaitlist(Long doctorId, LocalDate date) {
+        return waitlistRepository.findByDoctorIdAndDateAndStatusOrderByPriorityDescCreatedAtAsc(
+                doctorId, date, WaitlistStatus.WAITING);
+    }
+
+    // READ - A patient's waitlist entries
+    public List<WaitlistEntry> getPatientEntries(Long patientId) {
+        return waitlistRepository.findByPatientIdOrderByDateAsc(patientId);
+    }
+
+    // DELETE - Leave the waitlist
+    public void leave(Long id) {
+        getEntry(id);
+        if (waitlistRepository.transition(id, WaitlistStatus.WAITING, WaitlistStatus.CANCELLED, null) == 0) {
+            throw new IllegalStateException("Waitlist entry " + id + " is no longer waiting");
+        }
+        afterCommit(() -> waitlistMatcher.remove(id));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.hospital.appointmentsystem.service;
+
+import com.hospital.appointmentsystem.event.ScheduleChangedEvent;
+import com.hospital.appointmentsystem.model.DoctorSchedule;
+import com.hospital.appointmentsystem.model.ScheduleException;
+import com.hospital.appointmentsystem.repository.DoctorScheduleRepository;
+import com.hospital.appointmentsystem.repository.ScheduleExceptionRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import model.ScheduleExceptionKind;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Doctors' working hours, materialized from weekly {@link DoctorSchedule} templates and dated
+ * {@link ScheduleException}s into a precomputed calendar for a rolling horizon (yesterday up to
+ * {@code horizon-days} ahead). Each day is a flat {@code int[]} of [start, end, slot] minute
+ * triples, sorted and non-overlapping, so booking validation and free-slot listing never touch
+ * the schedule tables. Doctors without a template work the default day
+ * ({@code app.scheduling.day-start} to {@code day-end}), holidays and their own exceptions aside.
+ * <p>
+ * The whole calendar is rebuilt periodically (which also rolls the horizon forward); a committed
+ * {@link ScheduleChangedEvent} rebuilds just the affected doctor.
+ */
+@Slf4j
+@Component
+public class WorkingCalendar {
+
+    private static final int[] CLOSED = new int[0];
+
+    @Autowired
+    private DoctorScheduleRepository scheduleRepository;
+
+    @Autowired
+    private ScheduleExceptionRepository exceptionRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.scheduling.day-start:08:00}")
+    private LocalTime dayStart;
+
+    @Value("${app.scheduling.day-end:17:00}")
+    private LocalTime dayEnd;
+
+    @Value("${app.scheduling.slot-minutes:30}")
+    private int slotMinutes;
+
+    @Value("${app.scheduling.calendar.horizon-days:90}")
+    private int horizonDays;
+
+    private volatile Snapshot snapshot;
+    private Timer rebuildTimer;
+
+    // doctors: per doctor, one triple array per day from firstDay; fallback: templateless doctors
+    private record Snapshot(LocalDate firstDay, int days, Map<Long, int[][]> doctors, int[][] fallback) {
+    }
+
+    @PostConstruct
+    void init() {
+        rebuildTimer = Timer.builder("scheduling.calendar.rebuild").register(meterRegistry);
+        Gauge.builder("scheduling.calendar.doctors", this, calendar -> calendar.snapshot.doctors().size())
+                .register(meterRegistry);
+        refresh();
+    }
+
+    // Rebuild everything and roll the horizon forward
+    @Scheduled(fixedDelayString = "${app.scheduling.calendar.refresh-interval-ms:600000}",
+            initialDelayString = "${app.scheduling.calendar.refresh-interval-ms:600000}")
+    public synchronized void refresh() {
+        rebuildTimer.record(() -> {
+            LocalDate first = LocalDate.now().minusDays(1);
+            int days = horizonDays + 2;
+            LocalDate last = first.plusDays(days - 1L);
+
+            Map<Long, List<DoctorSchedule>> templates = new HashMap<>();
+            for (Object[] row : scheduleRepository.findAllWithDoctorId()) {
+                templates.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((DoctorSchedule) row[1]);
+            }
+            Map<LocalDate, List<ScheduleException>> global = new HashMap<>();
+            Map<Long, Map<LocalDate, List<ScheduleException>>> own = new HashMap<>();
+            for (Object[] row : exceptionRepository.findAllWithDoctorIdBetween(first, last)) {
+                ScheduleException exception = (ScheduleException) row[1];
+                Map<LocalDate, List<ScheduleException>> target = row[0] == null
+                        ? global : own.computeIfAbsent((Long) row[0], id -> new HashMap<>());
+                target.computeIfAbsent(exception.getDate(), date -> new ArrayList<>()).add(exception);
+            }
+
+            Set<Long> doctorIds = new HashSet<>(templates.keySet());
+            doctorIds.addAll(own.keySet());
+            Map<Long, int[][]> doctors = new HashMap<>();
+            for (Long doctorId : doctorIds) {
+                doctors.put(doctorId, expand(first, days, templates.getOrDefault(doctorId, List.of()),
+                        merged(global, own.getOrDefault(doctorId, Map.of()))));
+            }
+            snapshot = new Snapshot(first, days, doctors, expand(first, days, List.of(), global));
+            log.debug("Materialized working calendar for {} doctors from {} to {}", doctors.size(), first, last);
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onScheduleChanged(ScheduleChangedEvent event) {
+        if (event.doctorId() == null) {
+            refresh();
+            return;
+        }
+        Snapshot current = snapshot;
+        LocalDate last = current.firstDay().plusDays(current.days() - 1L);
+        Map<LocalDate, List<ScheduleException>> exceptions = new HashMap<>();
+        for (ScheduleException exception : exceptionRepository.findGlobalBetween(current.firstDay(), last)) {
+            exceptions.computeIfAbsent(exception.getDate(), date -> new ArrayList<>()).add(exception);
+        }
+        for (ScheduleException exception : exceptionRepository.findByDoctorIdAndDateBetween(
+                event.doctorId(), current.firstDay(), last)) {
+            exceptions.computeIfAbsent(exception.getDate(), date -> new ArrayList<>()).add(exception);
+        }
+        Map<Long, int[][]> doctors = new HashMap<>(current.doctors());
+        doctors.put(event.doctorId(), expand(current.firstDay(), current.days(),
+                scheduleRepository.findByDoctorId(event.doctorId()), exceptions));
+        snapshot = new Snapshot(current.firstDay(), current.days(), doctors, current.fallback());
+    }
+
+    // Working blocks of the day as [start, end, slot] minute triples; null outside the horizon
+    public int[] blocks(Long doctorId, LocalDate date) {
+        Snapshot current = snapshot;
+        long offset = ChronoUnit.DAYS.between(current.firstDay(), date);
+        if (offset < 0 || offset >= current.days()) {
+            return null;
+        }
+        int[][] calendar = current.doctors().getOrDefault(doctorId, current.fallback());
+        return calendar[(int) offset];
+    }
+
+    // Reject an appointment that falls outside the doctor's working hours or the booking horizon
+    public void checkWorking(Long doctorId, LocalDate date, LocalTime time, int durationMinutes) {
+        int[] blocks = blocks(doctorId, date);
+        if (blocks == null) {
+            throw new IllegalArgumentException("Bookings are open up to " + horizonDays + " days ahead");
+        }
+        int start = time.getHour() * 60 + time.getMinute();
+        int end = start + durationMinutes;
+        for (int i = 0; i < blocks.length; i += 3) {
+            if (blocks[i] <= start && end <= blocks[i + 1]) {
+                return;
+            }
+        }
+        throw new IllegalArgumentException("Doctor is not working at that time");
+    }
+
+    public LocalDate horizonEnd() {
+        Snapshot current = snapshot;
+        return current.firstDay().plusDays(current.days() - 1L);
+    }
+
+    private static Map<LocalDate, List<ScheduleException>> merged(Map<LocalDate, List<ScheduleException>> global,
+                                                                  Map<LocalDate, List<ScheduleException>> own) {
+        if (own.isEmpty()) {
+            return global;
+        }
+        Map<LocalDate, List<ScheduleException>> all = new HashMap<>(global);
+        own.forEach((date, list) -> all.merge(date, list, (a, b) -> {
+            List<ScheduleException> both = new ArrayList<>(a);
+            both.addAll(b);
+            return both;
+        }));
+        return all;
+    }
+
+    private int[][] expand(LocalDate first, int days, List<DoctorSchedule> templates,
+                           Map<LocalDate, List<ScheduleException>> exceptions) {
+        int[][] calendar = new int[days][];
+        for (int i = 0; i < days; i++) {
+            LocalDate date = first.plusDays(i);
+            List<int[]> blocks = new ArrayList<>();
+            if (templates.isEmpty()) {
+                blocks.add(new int[]{minuteOf(dayStart), minuteOf(dayEnd), slotMinutes});
+            } else {
+                for (DoctorSchedule template : templates) {
+                    if (template.appliesTo(date)) {
+                        blocks.add(new int[]{minuteOf(template.getStartTime()), minuteOf(template.getEndTime()),
+                                template.getSlotMinutes() != null ? template.getSlotMinutes() : slotMinutes});
+                    }
+                }
+            }
+            List<ScheduleException> today = exceptions.getOrDefault(date, List.of());
+            // Time off first, then extra hours, so working a holiday is expressible
+            for (ScheduleException exception : today) {
+                if (exception.getKind() == ScheduleExceptionKind.EXTRA_HOURS) {
+                    continue;
+                }
+                if (exception.isWholeDay()) {
+                    blocks.clear();
+                } else {
+                    blocks = subtract(blocks, minuteOf(exception.getStartTime()), minuteOf(exception.getEndTime()));
+                }
+            }
+            for (ScheduleException exception : today) {
+                if (exception.getKind() == ScheduleExceptionKind.EXTRA_HOURS && !exception.isWholeDay()) {
+                    blocks.add(new int[]{minuteOf(exception.getStartTime()), minuteOf(exception.getEndTime()), slotMinutes});
+                }
+            }
+            calendar[i] = flatten(blocks);
+        }
+        return calendar;
+    }
+
+    private static List<int[]> subtract(List<int[]> blocks, int start, int end) {
+        List<int[]> remaining = new ArrayList<>();
+        for (int[] block : blocks) {
+            if (end <= block[0] || start >= block[1]) {
+                remaining.add(block);
+                continue;
+            }
+            if (block[0] < start) {
+                remaining.add(new int[]{block[0], start, block[2]});
+            }
+            if (end < block[1]) {
+                remaining.add(new int[]{end, block[1], block[2]});
+            }
+        }
+        return remaining;
+    }
+
+    // Sort, merge overlapping or touching blocks (first block's slot size wins), flatten to triples
+    private static int[] flatten(List<int[]> blocks) {
+        if (blocks.isEmpty()) {
+            return CLOSED;
+        }
+        blocks.sort(Comparator.comparingInt(block -> block[0]));
+        List<int[]> merged = new ArrayList<>();
+        for (int[] block : blocks) {
+            int[] lastBlock = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (lastBlock != null && block[0] <= lastBlock[1]) {
+                lastBlock[1] = Math.max(lastBlock[1], block[1]);
+            } else {
+                merged.add(block.clone());
+            }
+        }
+        int[] flat = new int[merged.size() * 3];
+        for (int i = 0; i < merged.size(); i++) {
+            System.arraycopy(merged.get(i), 0, flat, i * 3, 3);
+        }
+        return flat;
+    }
+
+    private static int minuteOf(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+}
@@ -0,0 +1,81 @@
+package com.hospital.appointmentsystem.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token for keyset pagination: the ordering key of the last row served,
+ * tagged with the kind of list it belongs to. Clients pass it back unchanged. Malformed tokens and
+ * tokens from another list are rejected with {@link IllegalArgumentException}; the token is not
+ * signed, so an edited but well-formed one is accepted and only moves where the page starts.
+ * Parts are separated by NUL, which cannot occur in PostgreSQL text values.
+ */
+public final class Cursor {
+
+    private static final char SEPARATOR = '\0';
+
+    private final String[] keys;
+
+    private Cursor(String[] keys) {
+        this.keys = keys;
+    }
+
+    public static String encode(String kind, Object... keys) {
+        StringBuilder raw = new StringBuilder(kind);
+        for (Object key : keys) {
+            raw.append(SEPARATOR).append(key);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Cursor decode(String token, String kind, int keyCount) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw invalid();
+        }
+        String[] parts = raw.split(String.valueOf(SEPARATOR), -1);
+        if (parts.length != keyCount + 1 || !parts[0].equals(kind)) {
+            throw invalid();
+        }
+        String[] keys = new String[keyCount];
+        System.arraycopy(parts, 1, keys, 0, keyCount);
+        return new Cursor(keys);
+    }
+
+    public String text(int index) {
+        return keys[index];
+    }
+
+    public Long id(int index) {
+        try {
+            return Long.valueOf(keys[index]);
+        } catch (NumberFormatException e) {
+            throw invalid();
+        }
+    }
+
+    public LocalDate date(int index) {
+        try {
+            return LocalDate.parse(keys[index]);
+        } catch (DateTimeParseException e) {
+            throw invalid();
+        }
+    }
+
+    public LocalTime time(int index) {
+        try {
+            return LocalTime.parse(keys[index]);
+        } catch (DateTimeParseException e) {
+            throw invalid();
+        }
+    }
+
+    private static IllegalArgumentException invalid() {
+        return new IllegalArgumentException("Invalid cursor");
+    }
+}
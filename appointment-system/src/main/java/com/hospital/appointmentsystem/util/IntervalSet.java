@@ -0,0 +1,124 @@
+package com.hospital.appointmentsystem.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Half-open integer intervals {@code [start, end)} kept sorted by start, with a running maximum
+ * of the ends. {@link #overlaps} is two binary searches' worth of work: an interval overlapping
+ * {@code [s, e)} exists iff among those starting before {@code e} the largest end exceeds {@code s}.
+ * Overlapping and duplicate intervals are allowed, so the set stays truthful about bad data.
+ * Inserts and removals shift arrays, which is cheap at the size of one doctor's day.
+ * Not thread-safe.
+ */
+public class IntervalSet {
+
+    private int[] starts = new int[8];
+    private int[] ends = new int[8];
+    // maxEnds[i] = max(ends[0..i])
+    private int[] maxEnds = new int[8];
+    private int size;
+
+    public void add(int start, int end) {
+        if (end <= start) {
+            throw new IllegalArgumentException("Empty interval [" + start + ", " + end + ")");
+        }
+        if (size == starts.length) {
+            starts = Arrays.copyOf(starts, size * 2);
+            ends = Arrays.copyOf(ends, size * 2);
+            maxEnds = Arrays.copyOf(maxEnds, size * 2);
+        }
+        int at = upperBound(start);
+        System.arraycopy(starts, at, starts, at + 1, size - at);
+        System.arraycopy(ends, at, ends, at + 1, size - at);
+        starts[at] = start;
+        ends[at] = end;
+        size++;
+        recomputeMaxEnds(at);
+    }
+
+    // Remove one occurrence of exactly [start, end); false if there is none
+    public boolean remove(int start, int end) {
+        for (int i = lowerBound(start); i < size && starts[i] == start; i++) {
+            if (ends[i] == end) {
+                System.arraycopy(starts, i + 1, starts, i, size - i - 1);
+                System.arraycopy(ends, i + 1, ends, i, size - i - 1);
+                size--;
+                recomputeMaxEnds(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Does any interval intersect [start, end)?
+    public boolean overlaps(int start, int end) {
+        int before = lowerBound(end);
+        return before > 0 && maxEnds[before - 1] > start;
+    }
+
+    // Starts on the grid from..to (step apart) where [start, start + length) is free and ends by `to`
+    public List<Integer> freeStarts(int from, int to, int length, int step) {
+        List<Integer> free = new ArrayList<>();
+        int i = 0;
+        int blockedUntil = Integer.MIN_VALUE;
+        for (int start = from; start + length <= to; start += step) {
+            // Same test as overlaps(), maintained incrementally: O(size + candidates) for the whole day
+            while (i < size && starts[i] < start + length) {
+                blockedUntil = Math.max(blockedUntil, ends[i]);
+                i++;
+            }
+            if (blockedUntil <= start) {
+                free.add(start);
+            }
+        }
+        return free;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // First index with starts[i] >= value
+    private int lowerBound(int value) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // First index with starts[i] > value
+    private int upperBound(int value) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void recomputeMaxEnds(int from) {
+        int max = from > 0 ? maxEnds[from - 1] : Integer.MIN_VALUE;
+        for (int i = from; i < size; i++) {
+            max = Math.max(max, ends[i]);
+            maxEnds[i] = max;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.hospital.appointmentsystem.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Hierarchical timing wheel: three levels of 64 slots, each slot of a level spanning 64 slots
+ * of the level below, so deadlines up to 64^3 ticks ahead are placed in O(1) and anything further
+ * waits in an overflow list until the top level wraps. Entries cascade down a level when the
+ * lower levels wrap, and expire from level 0 on the tick of their deadline.
+ * <p>
+ * Entries are keyed: scheduling a key again replaces its entry and {@link #cancel} is O(1). The
+ * replaced or cancelled entry stays in its slot and is dropped when that slot is next visited.
+ * Not thread-safe.
+ */
+public class TimingWheel<K, V> {
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 3;
+
+    private final List<List<Entry<K, V>>> slots = new ArrayList<>(LEVELS * SLOTS);
+    private final List<Entry<K, V>> overflow = new ArrayList<>();
+    // Deadline already reached when scheduled or cascaded; returned by the next advance
+    private final List<Entry<K, V>> ready = new ArrayList<>();
+    private final Map<K, Entry<K, V>> live = new HashMap<>();
+    private long currentTick;
+
+    private record Entry<K, V>(K key, long deadline, V value) {
+    }
+
+    public TimingWheel(long startTick) {
+        this.currentTick = startTick;
+        for (int i = 0; i < LEVELS * SLOTS; i++) {
+            slots.add(new ArrayList<>());
+        }
+    }
+
+    // Schedule (or reschedule) key to expire at the given tick
+    public void schedule(K key, long deadline, V value) {
+        Entry<K, V> entry = new Entry<>(key, deadline, value);
+        live.put(key, entry);
+        place(entry);
+    }
+
+    public boolean cancel(K key) {
+        return live.remove(key) != null;
+    }
+
+    // Cancel every entry whose value matches; O(size)
+    public int cancelIf(Predicate<V> matches) {
+        int before = live.size();
+        live.values().removeIf(entry -> matches.test(entry.value()));
+        return before - live.size();
+    }
+
+    public boolean contains(K key) {
+        return live.containsKey(key);
+    }
+
+    public int size() {
+        return live.size();
+    }
+
+    public long currentTick() {
+        return currentTick;
+    }
+
+    // Move the wheel forward to `tick`; values whose deadline is reached, earliest first
+    public List<V> advance(long tick) {
+        List<Entry<K, V>> expired = new ArrayList<>();
+        while (currentTick < tick) {
+            currentTick++;
+            if ((currentTick & MASK) == 0) {
+                cascade(1);
+            }
+            List<Entry<K, V>> slot = slots.get((int) (currentTick & MASK));
+            expired.addAll(slot);
+            slot.clear();
+        }
+        expired.addAll(ready);
+        ready.clear();
+
+        expired.sort(Comparator.comparingLong(Entry::deadline));
+        List<V> due = new ArrayList<>();
+        for (Entry<K, V> entry : expired) {
+            // Skip entries replaced or cancelled since they were placed
+            if (live.get(entry.key()) == entry) {
+                live.remove(entry.key());
+                due.add(entry.value());
+            }
+        }
+        return due;
+    }
+
+    // Called when every level below `level` has wrapped at currentTick
+    private void cascade(int level) {
+        int index = (int) ((currentTick >>> (BITS * level)) & MASK);
+        if (index == 0) {
+            if (level + 1 < LEVELS) {
+                cascade(level + 1);
+            } else {
+                List<Entry<K, V>> waiting = new ArrayList<>(overflow);
+                overflow.clear();
+                waiting.forEach(this::place);
+            }
+        }
+        List<Entry<K, V>> slot = slots.get(level * SLOTS + index);
+        List<Entry<K, V>> moved = new ArrayList<>(slot);
+        slot.clear();
+        moved.forEach(this::place);
+    }
+
+    private void place(Entry<K, V> entry) {
+        if (live.get(entry.key()) != entry) {
+            return;
+        }
+        long delta = entry.deadline() - currentTick;
+        if (delta <= 0) {
+            ready.add(entry);
+            return;
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            if (delta < 1L << (BITS * (level + 1))) {
+                int index = (int) ((entry.deadline() >>> (BITS * level)) & MASK);
+                slots.get(level * SLOTS + index).add(entry);
+                return;
+            }
+        }
+        overflow.add(entry);
+    }
+}
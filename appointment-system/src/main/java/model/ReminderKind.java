@@ -0,0 +1,16 @@
+package model;
+
+public enum ReminderKind {
+    DAY_BEFORE(24 * 60),
+    HOUR_BEFORE(60);
+
+    private final int leadMinutes;
+
+    ReminderKind(int leadMinutes) {
+        this.leadMinutes = leadMinutes;
+    }
+
+    public int getLeadMinutes() {
+        return leadMinutes;
+    }
+}
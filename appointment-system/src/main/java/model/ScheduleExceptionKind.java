@@ -0,0 +1,7 @@
+package model;
+
+public enum ScheduleExceptionKind {
+    LEAVE,
+    HOLIDAY,
+    EXTRA_HOURS
+}
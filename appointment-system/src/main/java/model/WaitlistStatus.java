@@ -0,0 +1,8 @@
+package model;
+
+public enum WaitlistStatus {
+    WAITING,
+    BOOKED,
+    CANCELLED,
+    EXPIRED
+}
@@ -0,0 +1,154 @@
+-- Tables as mapped by the entities (ddl-auto=validate checks them at startup).
+-- Databases created earlier by ddl-auto=update already have the first release's tables, which
+-- IF NOT EXISTS leaves alone; V2 then brings those up to the current mapping.
+
+CREATE TABLE IF NOT EXISTS users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username VARCHAR(50) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    role VARCHAR(255) NOT NULL CHECK (role IN ('PATIENT', 'DOCTOR', 'ADMIN')),
+    active BOOLEAN NOT NULL,
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE IF NOT EXISTS patients (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id BIGINT UNIQUE REFERENCES users,
+    first_name VARCHAR(255) NOT NULL,
+    last_name VARCHAR(255) NOT NULL,
+    date_of_birth DATE,
+    phone VARCHAR(15),
+    address VARCHAR(500),
+    blood_group VARCHAR(5),
+    emergency_contact VARCHAR(255),
+    emergency_phone VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS doctors (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id BIGINT UNIQUE REFERENCES users,
+    first_name VARCHAR(255) NOT NULL,
+    last_name VARCHAR(255) NOT NULL,
+    specialization VARCHAR(255) NOT NULL,
+    phone VARCHAR(15),
+    consultation_fee FLOAT(53),
+    qualifications VARCHAR(1000),
+    years_of_experience INTEGER,
+    available BOOLEAN NOT NULL
+);
+
+CREATE SEQUENCE IF NOT EXISTS appointments_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS appointments (
+    id BIGINT PRIMARY KEY,
+    patient_id BIGINT NOT NULL REFERENCES patients,
+    doctor_id BIGINT NOT NULL REFERENCES doctors,
+    appointment_date DATE NOT NULL,
+    appointment_time TIME(6) NOT NULL,
+    duration_minutes INTEGER DEFAULT 30 NOT NULL,
+    status VARCHAR(255) NOT NULL CHECK (status IN ('SCHEDULED', 'COMPLETED', 'CANCELLED', 'NO_SHOW')),
+    reason VARCHAR(500),
+    notes VARCHAR(1000),
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS medical_records (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    patient_id BIGINT NOT NULL REFERENCES patients,
+    doctor_id BIGINT NOT NULL REFERENCES doctors,
+    diagnosis VARCHAR(1000) NOT NULL,
+    prescription VARCHAR(2000),
+    record_date DATE NOT NULL,
+    notes VARCHAR(2000),
+    symptoms VARCHAR(1000),
+    test_results VARCHAR(2000),
+    follow_up_date DATE,
+    created_at TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS clinic_resources (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(100) NOT NULL UNIQUE,
+    type VARCHAR(15) NOT NULL CHECK (type IN ('ROOM', 'EQUIPMENT')),
+    category VARCHAR(50) NOT NULL,
+    location VARCHAR(255),
+    active BOOLEAN NOT NULL
+);
+CREATE INDEX IF NOT EXISTS ix_clinic_resources_category ON clinic_resources (category);
+
+CREATE TABLE IF NOT EXISTS resource_bookings (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    appointment_id BIGINT NOT NULL REFERENCES appointments ON DELETE CASCADE,
+    resource_id BIGINT NOT NULL REFERENCES clinic_resources,
+    CONSTRAINT uk_resource_bookings UNIQUE (appointment_id, resource_id)
+);
+CREATE INDEX IF NOT EXISTS ix_resource_bookings_resource ON resource_bookings (resource_id);
+
+CREATE TABLE IF NOT EXISTS doctor_schedules (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    doctor_id BIGINT NOT NULL REFERENCES doctors,
+    day_of_week VARCHAR(10) NOT NULL
+        CHECK (day_of_week IN ('MONDAY', 'TUESDAY', 'WEDNESDAY', 'THURSDAY', 'FRIDAY', 'SATURDAY', 'SUNDAY')),
+    start_time TIME(6) NOT NULL,
+    end_time TIME(6) NOT NULL,
+    slot_minutes INTEGER,
+    valid_from DATE,
+    valid_until DATE
+);
+CREATE INDEX IF NOT EXISTS ix_doctor_schedules_doctor ON doctor_schedules (doctor_id);
+
+CREATE TABLE IF NOT EXISTS schedule_exceptions (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    doctor_id BIGINT REFERENCES doctors,
+    exception_date DATE NOT NULL,
+    kind VARCHAR(15) NOT NULL CHECK (kind IN ('LEAVE', 'HOLIDAY', 'EXTRA_HOURS')),
+    start_time TIME(6),
+    end_time TIME(6),
+    reason VARCHAR(255)
+);
+CREATE INDEX IF NOT EXISTS ix_schedule_exceptions_date ON schedule_exceptions (exception_date);
+
+CREATE TABLE IF NOT EXISTS waitlist_entries (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    patient_id BIGINT NOT NULL REFERENCES patients,
+    doctor_id BIGINT NOT NULL REFERENCES doctors,
+    waitlist_date DATE NOT NULL,
+    duration_minutes INTEGER NOT NULL,
+    priority INTEGER NOT NULL,
+    status VARCHAR(20) NOT NULL CHECK (status IN ('WAITING', 'BOOKED', 'CANCELLED', 'EXPIRED')),
+    appointment_id BIGINT,
+    created_at TIMESTAMP(6) NOT NULL
+);
+CREATE INDEX IF NOT EXISTS ix_waitlist_doctor_date ON waitlist_entries (doctor_id, waitlist_date);
+CREATE INDEX IF NOT EXISTS ix_waitlist_patient ON waitlist_entries (patient_id);
+
+CREATE TABLE IF NOT EXISTS reminder_deliveries (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    appointment_id BIGINT NOT NULL,
+    kind VARCHAR(20) NOT NULL CHECK (kind IN ('DAY_BEFORE', 'HOUR_BEFORE')),
+    appointment_start TIMESTAMP(6) NOT NULL,
+    claimed_at TIMESTAMP(6) NOT NULL,
+    sent_at TIMESTAMP(6),
+    attempts INTEGER NOT NULL,
+    CONSTRAINT uk_reminder_deliveries UNIQUE (appointment_id, kind, appointment_start)
+);
+
+CREATE TABLE IF NOT EXISTS token_revocations (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    kind VARCHAR(10) NOT NULL CHECK (kind IN ('TOKEN', 'USER')),
+    subject VARCHAR(100) NOT NULL,
+    expires_at TIMESTAMP(6) NOT NULL,
+    revoked_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS job_checkpoints (
+    name VARCHAR(100) PRIMARY KEY,
+    position VARCHAR(500),
+    processed BIGINT NOT NULL,
+    updated_at TIMESTAMP(6) NOT NULL
+);
@@ -0,0 +1,33 @@
+-- Databases created by the first release (ddl-auto=update, before migrations) kept their tables
+-- through V1 unchanged; this brings them to the current mapping. Must run before V3, whose
+-- overlap constraint reads duration_minutes. Every statement is a no-op on a schema V1 created.
+
+-- Appointment length; every appointment of the first release was a 30-minute slot
+ALTER TABLE appointments ADD COLUMN IF NOT EXISTS duration_minutes INTEGER NOT NULL DEFAULT 30;
+
+-- Appointment ids come from the pooled appointments_seq (moved past the existing ids in V3)
+ALTER TABLE appointments ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+-- Registration tells username and e-mail clashes apart by constraint name. ddl-auto left
+-- Postgres-generated names (users_username_key, ...): rename them, or add the constraint if missing.
+DO $$
+DECLARE
+    col TEXT;
+    existing TEXT;
+BEGIN
+    FOREACH col IN ARRAY ARRAY['username', 'email'] LOOP
+        SELECT c.conname INTO existing
+        FROM pg_constraint c
+        JOIN pg_attribute a ON a.attrelid = c.conrelid AND a.attnum = c.conkey[1]
+        WHERE c.conrelid = 'users'::regclass AND c.contype = 'u'
+          AND cardinality(c.conkey) = 1 AND a.attname = col
+        ORDER BY c.conname = 'uk_users_' || col DESC
+        LIMIT 1;
+        IF existing IS NULL THEN
+            EXECUTE format('ALTER TABLE users ADD CONSTRAINT %I UNIQUE (%I)', 'uk_users_' || col, col);
+        ELSIF existing <> 'uk_users_' || col THEN
+            EXECUTE format('ALTER TABLE users RENAME CONSTRAINT %I TO %I', existing, 'uk_users_' || col);
+        END IF;
+    END LOOP;
+END
+$$;
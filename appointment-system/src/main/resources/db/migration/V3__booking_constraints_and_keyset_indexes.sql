@@ -0,0 +1,70 @@
+-- Booking guarantees and keyset indexes (formerly schema.sql).
+-- Each DO block is self-contained, so the script runs as one statement.
+
+-- At most one live (non-cancelled) appointment per doctor and start time.
+-- If legacy duplicates exist the index is skipped with a warning instead of blocking startup;
+-- resolve them and add the index in a later migration to get the guarantee.
+DO $$
+BEGIN
+    CREATE UNIQUE INDEX IF NOT EXISTS ux_appointments_doctor_slot
+        ON appointments (doctor_id, appointment_date, appointment_time)
+        WHERE status <> 'CANCELLED';
+EXCEPTION WHEN unique_violation THEN
+    RAISE WARNING 'ux_appointments_doctor_slot not created: duplicate live bookings exist';
+END
+$$;
+
+-- No two live appointments of a doctor may overlap in time. Needs btree_gist for the "=" on
+-- doctor_id inside a GiST index; if the extension is unavailable or existing rows overlap, the
+-- constraint is skipped with a warning and the in-memory check plus the index above still apply.
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'ex_appointments_doctor_overlap') THEN
+        CREATE EXTENSION IF NOT EXISTS btree_gist;
+        ALTER TABLE appointments ADD CONSTRAINT ex_appointments_doctor_overlap EXCLUDE USING gist (
+            doctor_id WITH =,
+            tsrange(appointment_date + appointment_time,
+                    appointment_date + appointment_time + make_interval(mins => duration_minutes)) WITH &&
+        ) WHERE (status <> 'CANCELLED');
+    END IF;
+EXCEPTION
+    WHEN exclusion_violation THEN
+        RAISE WARNING 'ex_appointments_doctor_overlap not created: overlapping live bookings exist';
+    WHEN insufficient_privilege OR undefined_file OR feature_not_supported THEN
+        RAISE WARNING 'ex_appointments_doctor_overlap not created: btree_gist unavailable (%)', SQLERRM;
+END
+$$;
+
+-- Appointment ids used to come from an identity column; move the pooled sequence past them.
+-- Only ever moves forward, so restarts and other nodes' reserved blocks are never reissued.
+DO $$
+DECLARE
+    next_free BIGINT;
+BEGIN
+    CREATE SEQUENCE IF NOT EXISTS appointments_seq INCREMENT BY 50;
+    SELECT COALESCE(MAX(id), 0) + 50 INTO next_free FROM appointments;
+    IF next_free > (SELECT last_value FROM appointments_seq) THEN
+        PERFORM setval('appointments_seq', next_free);
+    END IF;
+END
+$$;
+
+-- Keyset scan of the NO_SHOW sweeper; only rows still SCHEDULED are indexed
+CREATE INDEX IF NOT EXISTS ix_appointments_scheduled_start
+    ON appointments (appointment_date, appointment_time, id)
+    WHERE status = 'SCHEDULED';
+
+-- Keyset pagination of the list endpoints: each page is an index range scan starting at the cursor
+CREATE INDEX IF NOT EXISTS ix_appointments_start
+    ON appointments (appointment_date, appointment_time, id);
+CREATE INDEX IF NOT EXISTS ix_appointments_status_start
+    ON appointments (status, appointment_date, appointment_time, id);
+CREATE INDEX IF NOT EXISTS ix_medical_records_date
+    ON medical_records (record_date, id);
+CREATE INDEX IF NOT EXISTS ix_medical_records_doctor_date
+    ON medical_records (doctor_id, record_date, id);
+CREATE INDEX IF NOT EXISTS ix_medical_records_follow_up
+    ON medical_records (follow_up_date, id)
+    WHERE follow_up_date IS NOT NULL;
+CREATE INDEX IF NOT EXISTS ix_patients_name
+    ON patients (last_name, first_name, id);
@@ -0,0 +1,43 @@
+-- Secondary indexes for the hot repository queries, leading with the equality columns and
+-- followed by the range/sort columns. Partial where the query only ever reads a subset.
+-- SchemaMigrationsTest maps each query to the index it relies on.
+
+-- Day sheets, slot checks, booked intervals and upcoming lists of a doctor. The unique slot
+-- index from V3 is partial and may have been skipped, so it does not serve these.
+CREATE INDEX IF NOT EXISTS ix_appointments_doctor_date
+    ON appointments (doctor_id, appointment_date, appointment_time);
+
+-- A patient's appointments and upcoming appointments, in date order
+CREATE INDEX IF NOT EXISTS ix_appointments_patient_date
+    ON appointments (patient_id, appointment_date, appointment_time);
+
+-- A patient's history, newest first (scanned backwards)
+CREATE INDEX IF NOT EXISTS ix_medical_records_patient_date
+    ON medical_records (patient_id, record_date);
+
+-- Caller lookup by phone; most imported patients have none
+CREATE INDEX IF NOT EXISTS ix_patients_phone
+    ON patients (phone)
+    WHERE phone IS NOT NULL;
+
+-- Doctors by specialization, optionally only the available ones
+CREATE INDEX IF NOT EXISTS ix_doctors_specialization
+    ON doctors (specialization, available);
+
+-- Same doctor's leave and extra hours in a date range
+CREATE INDEX IF NOT EXISTS ix_schedule_exceptions_doctor_date
+    ON schedule_exceptions (doctor_id, exception_date);
+
+-- Reminder retries look only at claimed, unsent deliveries
+CREATE INDEX IF NOT EXISTS ix_reminder_deliveries_unsent
+    ON reminder_deliveries (claimed_at)
+    WHERE sent_at IS NULL;
+
+-- Waitlist matcher and expiry look only at entries still waiting
+CREATE INDEX IF NOT EXISTS ix_waitlist_waiting
+    ON waitlist_entries (waitlist_date)
+    WHERE status = 'WAITING';
+
+-- Live revocations at startup and the expiry purge
+CREATE INDEX IF NOT EXISTS ix_token_revocations_expires
+    ON token_revocations (expires_at);
@@ -0,0 +1,259 @@
+package com.hospital.appointmentsystem.config;
+
+import com.hospital.appointmentsystem.repository.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Replays the migrations into a list of indexes (explicit ones, primary keys and unique
+ * constraints) and checks that every hot repository query still has one whose leading columns
+ * match its equality and range/sort columns. Dropping or reshaping such an index, or renaming the
+ * query, fails here; a new hot query should be added to {@link #REQUIRED}.
+ * <p>
+ * Also replays the table columns, once from an empty database and once from the first release's
+ * schema (ddl-auto=update, before migrations), and checks that both end up the same.
+ */
+class SchemaMigrationsTest {
+
+    private record Index(String name, String table, List<String> columns, String where) {
+    }
+
+    // The query, and the index shape it relies on; where is the partial-index predicate it implies
+    private record Required(Class<?> repository, String method, String table, List<String> columns, String where) {
+    }
+
+    private static final List<Required> REQUIRED = List.of(
+            require(AppointmentRepository.class, "findByDoctorIdAndAppointmentDate", "appointments", "doctor_id, appointment_date"),
+            require(AppointmentRepository.class, "isTimeSlotAvailable", "appointments", "doctor_id, appointment_date, appointment_time"),
+            require(AppointmentRepository.class, "findBookedIntervals", "appointments", "doctor_id, appointment_date"),
+            require(AppointmentRepository.class, "findDaySheet", "appointments", "doctor_id, appointment_date"),
+            require(AppointmentRepository.class, "findUpcomingSheet", "appointments", "doctor_id, appointment_date"),
+            require(AppointmentRepository.class, "findUpcomingAppointmentsByPatient", "appointments", "patient_id, appointment_date, appointment_time"),
+            require(AppointmentRepository.class, "findUpcomingViewsByPatient", "appointments", "patient_id, appointment_date, appointment_time"),
+            require(AppointmentRepository.class, "findViewPageAfter", "appointments", "appointment_date, appointment_time, id"),
+            require(AppointmentRepository.class, "findViewPageByStatusAfter", "appointments", "status, appointment_date, appointment_time, id"),
+            require(AppointmentRepository.class, "findScheduledAfter", "appointments", "appointment_date, appointment_time, id", "status = 'scheduled'"),
+            require(MedicalRecordRepository.class, "findByPatientIdOrderByRecordDateDesc", "medical_records", "patient_id, record_date"),
+            require(MedicalRecordRepository.class, "findPatientRecordsBetweenDates", "medical_records", "patient_id, record_date"),
+            require(MedicalRecordRepository.class, "findRecordsWithUpcomingFollowUp", "medical_records", "follow_up_date", "follow_up_date is not null"),
+            require(MedicalRecordRepository.class, "findViewPageBefore", "medical_records", "record_date, id"),
+            require(MedicalRecordRepository.class, "findViewPageByDoctorIdBefore", "medical_records", "doctor_id, record_date, id"),
+            require(PatientRepository.class, "findByPhone", "patients", "phone", "phone is not null"),
+            require(PatientRepository.class, "findByUserId", "patients", "user_id"),
+            require(PatientRepository.class, "findViewPageAfter", "patients", "last_name, first_name, id"),
+            require(DoctorRepository.class, "findByUserId", "doctors", "user_id"),
+            require(DoctorRepository.class, "findBySpecializationAndAvailableTrue", "doctors", "specialization, available"),
+            require(UserRepository.class, "findByUsername", "users", "username"),
+            require(UserRepository.class, "findByEmail", "users", "email"),
+            require(ResourceBookingRepository.class, "findByAppointmentId", "resource_bookings", "appointment_id"),
+            require(ResourceBookingRepository.class, "findBookedIntervals", "resource_bookings", "resource_id"),
+            require(DoctorScheduleRepository.class, "findByDoctorId", "doctor_schedules", "doctor_id"),
+            require(ScheduleExceptionRepository.class, "findByDoctorIdAndDateBetween", "schedule_exceptions", "doctor_id, exception_date"),
+            require(ScheduleExceptionRepository.class, "findGlobalBetween", "schedule_exceptions", "exception_date"),
+            require(WaitlistEntryRepository.class, "findByDoctorIdAndDateAndStatusOrderByPriorityDescCreatedAtAsc", "waitlist_entries", "doctor_id, waitlist_date"),
+            require(WaitlistEntryRepository.class, "findByPatientIdOrderByDateAsc", "waitlist_entries", "patient_id"),
+            require(WaitlistEntryRepository.class, "findWaitingFrom", "waitlist_entries", "waitlist_date", "status = 'waiting'"),
+            require(WaitlistEntryRepository.class, "findWaitingOn", "waitlist_entries", "doctor_id, waitlist_date"),
+            require(WaitlistEntryRepository.class, "findWaitingDays", "waitlist_entries", "waitlist_date", "status = 'waiting'"),
+            require(ReminderDeliveryRepository.class, "markSent", "reminder_deliveries", "appointment_id, kind, appointment_start"),
+            require(ReminderDeliveryRepository.class, "findStale", "reminder_deliveries", "claimed_at", "sent_at is null"),
+            require(TokenRevocationRepository.class, "findByExpiresAtAfter", "token_revocations", "expires_at"),
+            require(TokenRevocationRepository.class, "deleteExpired", "token_revocations", "expires_at"));
+
+    private static final Pattern CREATE_TABLE = Pattern.compile(
+            "CREATE TABLE IF NOT EXISTS (\\w+) \\((.*?)\\n\\);", Pattern.DOTALL);
+    private static final Pattern COLUMN_KEY = Pattern.compile(
+            "^\\s*(\\w+) [^,\\n]*\\b(PRIMARY KEY|UNIQUE)\\b", Pattern.MULTILINE);
+    private static final Pattern UNIQUE_CONSTRAINT = Pattern.compile("CONSTRAINT (\\w+) UNIQUE \\(([^)]*)\\)");
+    private static final Pattern CREATE_INDEX = Pattern.compile(
+            "CREATE (?:UNIQUE )?INDEX (?:IF NOT EXISTS )?(\\w+)\\s+ON (\\w+)\\s*\\(([^)]*)\\)(?:\\s+WHERE\\s+([^;]+?))?\\s*;");
+    private static final Pattern DROP_INDEX = Pattern.compile("DROP INDEX (?:IF EXISTS )?(\\w+)");
+
+    // Column type, nullability and whether the database generates its values
+    private record Column(String type, boolean notNull, boolean identity) {
+    }
+
+    private static final String FIRST_RELEASE = "db/first-release-schema.sql";
+    private static final Pattern ANY_CREATE_TABLE = Pattern.compile(
+            "CREATE TABLE (?:IF NOT EXISTS )?(\\w+) \\((.*?)\\n\\);", Pattern.DOTALL | Pattern.CASE_INSENSITIVE);
+    private static final Pattern COLUMN = Pattern.compile("^\\s*(\\w+) (\\w+(?:\\(\\d+\\))?)(.*)$", Pattern.MULTILINE);
+    private static final Pattern PRIMARY_KEY = Pattern.compile("PRIMARY KEY \\((\\w+)\\)", Pattern.CASE_INSENSITIVE);
+    private static final Set<String> NOT_COLUMNS = Set.of("primary", "constraint", "unique", "foreign", "check");
+    private static final Pattern ADD_COLUMN = Pattern.compile(
+            "ALTER TABLE (\\w+) ADD COLUMN IF NOT EXISTS (\\w+) (\\w+(?:\\(\\d+\\))?)([^;]*);", Pattern.CASE_INSENSITIVE);
+    private static final Pattern DROP_IDENTITY = Pattern.compile(
+            "ALTER TABLE (\\w+) ALTER COLUMN (\\w+) DROP IDENTITY", Pattern.CASE_INSENSITIVE);
+
+    @Test
+    void migrationsAreNumberedFromOneWithoutGaps() throws Exception {
+        List<SchemaMigrator.Migration> migrations = SchemaMigrator.load(new PathMatchingResourcePatternResolver());
+
+        assertFalse(migrations.isEmpty());
+        for (int i = 0; i < migrations.size(); i++) {
+            assertEquals(i + 1, migrations.get(i).version());
+        }
+    }
+
+    @Test
+    void everyHotQueryHasASupportingIndex() throws Exception {
+        List<Index> indexes = indexes();
+        List<String> problems = new ArrayList<>();
+        for (Required required : REQUIRED) {
+            String query = required.repository().getSimpleName() + "." + required.method();
+            if (Arrays.stream(required.repository().getDeclaredMethods())
+                    .noneMatch(method -> method.getName().equals(required.method()))) {
+                problems.add(query + " no longer exists; update the list");
+            } else if (indexes.stream().noneMatch(index -> supports(index, required))) {
+                problems.add(query + " has no index on " + required.table() + " " + required.columns() +
+                        (required.where() != null ? " (or partial WHERE " + required.where() + ")" : ""));
+            }
+        }
+        assertTrue(problems.isEmpty(), String.join("\n", problems));
+    }
+
+    @Test
+    void firstReleaseSchemaIsUpgradedToTheFreshOne() throws Exception {
+        List<String> problems = new ArrayList<>();
+        Map<String, Map<String, Column>> fresh = replay("", problems);
+        String firstRelease = new ClassPathResource(FIRST_RELEASE).getContentAsString(StandardCharsets.UTF_8);
+        Map<String, Map<String, Column>> upgraded = replay(firstRelease, problems);
+
+        assertTrue(problems.isEmpty(), String.join("\n", problems));
+        assertEquals(fresh, upgraded);
+    }
+
+    private static boolean supports(Index index, Required required) {
+        return index.table().equals(required.table())
+                && index.columns().size() >= required.columns().size()
+                && index.columns().subList(0, required.columns().size()).equals(required.columns())
+                && (index.where() == null || index.where().equals(required.where()));
+    }
+
+    private static List<Index> indexes() throws Exception {
+        List<Index> indexes = new ArrayList<>();
+        for (SchemaMigrator.Migration migration : SchemaMigrator.load(new PathMatchingResourcePatternResolver())) {
+            String sql = migration.sql().replaceAll("--[^\\n]*", "");
+            Matcher table = CREATE_TABLE.matcher(sql);
+            while (table.find()) {
+                String name = table.group(1);
+                Matcher key = COLUMN_KEY.matcher(table.group(2));
+                while (key.find()) {
+                    indexes.add(new Index(name + "." + key.group(1), name, List.of(key.group(1)), null));
+                }
+                Matcher unique = UNIQUE_CONSTRAINT.matcher(table.group(2));
+                while (unique.find()) {
+                    indexes.add(new Index(unique.group(1), name, columns(unique.group(2)), null));
+                }
+            }
+            Matcher index = CREATE_INDEX.matcher(sql);
+            while (index.find()) {
+                indexes.add(new Index(index.group(1), index.group(2), columns(index.group(3)),
+                        index.group(4) == null ? null : normalize(index.group(4))));
+            }
+            Matcher drop = DROP_INDEX.matcher(sql);
+            while (drop.find()) {
+                String name = drop.group(1);
+                indexes.removeIf(existing -> existing.name().equals(name));
+            }
+        }
+        return indexes;
+    }
+
+    // Tables and columns after applying the migrations on top of `initial`; an index on a column
+    // that does not exist yet at that point is reported
+    private static Map<String, Map<String, Column>> replay(String initial, List<String> problems) throws Exception {
+        Map<String, Map<String, Column>> tables = new TreeMap<>();
+        createTables(initial.replaceAll("--[^\\n]*", ""), tables);
+        for (SchemaMigrator.Migration migration : SchemaMigrator.load(new PathMatchingResourcePatternResolver())) {
+            String sql = migration.sql().replaceAll("--[^\\n]*", "");
+            createTables(sql, tables);
+            Matcher add = ADD_COLUMN.matcher(sql);
+            while (add.find()) {
+                tables.get(add.group(1)).putIfAbsent(add.group(2), column(add.group(3), add.group(4)));
+            }
+            Matcher identity = DROP_IDENTITY.matcher(sql);
+            while (identity.find()) {
+                Map<String, Column> table = tables.get(identity.group(1));
+                Column column = table.get(identity.group(2));
+                table.put(identity.group(2), new Column(column.type(), column.notNull(), false));
+            }
+            Matcher index = CREATE_INDEX.matcher(sql);
+            while (index.find()) {
+                Map<String, Column> table = tables.getOrDefault(index.group(2), Map.of());
+                for (String column : columns(index.group(3))) {
+                    if (!table.containsKey(column)) {
+                        problems.add("V" + migration.version() + " indexes " + index.group(2) + "." + column +
+                                " before it exists" + (initial.isEmpty() ? "" : " (upgrading " + FIRST_RELEASE + ")"));
+                    }
+                }
+            }
+        }
+        return tables;
+    }
+
+    // Adds the tables that do not exist yet, like CREATE TABLE IF NOT EXISTS
+    private static void createTables(String sql, Map<String, Map<String, Column>> tables) {
+        Matcher table = ANY_CREATE_TABLE.matcher(sql);
+        while (table.find()) {
+            if (tables.containsKey(table.group(1))) {
+                continue;
+            }
+            Map<String, Column> columns = new LinkedHashMap<>();
+            Matcher column = COLUMN.matcher(table.group(2));
+            while (column.find()) {
+                String name = column.group(1).toLowerCase(Locale.ROOT);
+                if (!NOT_COLUMNS.contains(name)) {
+                    columns.put(name, column(column.group(2), column.group(3)));
+                }
+            }
+            // Primary key declared after the columns
+            Matcher key = PRIMARY_KEY.matcher(table.group(2));
+            while (key.find()) {
+                Column keyColumn = columns.get(key.group(1));
+                columns.put(key.group(1), new Column(keyColumn.type(), true, keyColumn.identity()));
+            }
+            tables.put(table.group(1), columns);
+        }
+    }
+
+    private static Column column(String type, String rest) {
+        String attributes = rest.toLowerCase(Locale.ROOT);
+        return new Column(type.toLowerCase(Locale.ROOT),
+                attributes.contains("not null") || attributes.contains("primary key"), attributes.contains("as identity"));
+    }
+
+    private static List<String> columns(String list) {
+        return Arrays.stream(list.split(","))
+                .map(column -> column.trim().replaceAll("(?i)\\s+(ASC|DESC)$", "").toLowerCase(Locale.ROOT))
+                .toList();
+    }
+
+    private static String normalize(String predicate) {
+        String normalized = predicate.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return normalized.startsWith("(") && normalized.endsWith(")")
+                ? normalized.substring(1, normalized.length() - 1) : normalized;
+    }
+
+    private static Required require(Class<?> repository, String method, String table, String columns) {
+        return require(repository, method, table, columns, null);
+    }
+
+    private static Required require(Class<?> repository, String method, String table, String columns, String where) {
+        return new Required(repository, method, table, columns(columns), where);
+    }
+}
@@ -0,0 +1,83 @@
+package com.hospital.appointmentsystem.controller;
+
+import com.hospital.appointmentsystem.dto.BulkMutationResult;
+import com.hospital.appointmentsystem.security.JwtPrincipal;
+import com.hospital.appointmentsystem.service.AppointmentService;
+import model.AppointmentStatus;
+import model.Role;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.method.annotation.AuthenticationPrincipalArgumentResolver;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDate;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AppointmentControllerRoutingTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 10);
+
+    private AppointmentService appointmentService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        appointmentService = mock(AppointmentService.class);
+        when(appointmentService.bulkUpdateStatus(any(), any(), any(), any(), any()))
+                .thenAnswer(call -> new BulkMutationResult(call.getArgument(4).toString(), 1));
+        AppointmentController controller = new AppointmentController();
+        ReflectionTestUtils.setField(controller, "appointmentService", appointmentService);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setCustomArgumentResolvers(new AuthenticationPrincipalArgumentResolver())
+                .build();
+
+        JwtPrincipal doctor = new JwtPrincipal(7L, "dr.smith", Role.DOCTOR, null, 3L);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(doctor, null, doctor.authorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void everyBulkActionReachesBulkUpdateStatus() throws Exception {
+        bulk("cancel");
+        bulk("complete");
+        bulk("no-show");
+
+        verify(appointmentService).bulkUpdateStatus(eq(3L), eq(DAY), eq(DAY), isNull(), eq(AppointmentStatus.CANCELLED));
+        verify(appointmentService).bulkUpdateStatus(eq(3L), eq(DAY), eq(DAY), isNull(), eq(AppointmentStatus.COMPLETED));
+        verify(appointmentService).bulkUpdateStatus(eq(3L), eq(DAY), eq(DAY), isNull(), eq(AppointmentStatus.NO_SHOW));
+        verify(appointmentService, never()).cancelAppointment(any());
+        verify(appointmentService, never()).completeAppointment(any());
+    }
+
+    @Test
+    void singleAppointmentRoutesStillTakeNumericIds() throws Exception {
+        mockMvc.perform(patch("/api/appointments/42/cancel")).andExpect(status().isOk());
+        mockMvc.perform(patch("/api/appointments/42/complete")).andExpect(status().isOk());
+
+        verify(appointmentService).cancelAppointment(42L);
+        verify(appointmentService).completeAppointment(42L);
+        verify(appointmentService, never()).bulkUpdateStatus(any(), any(), any(), any(), any());
+    }
+
+    private void bulk(String action) throws Exception {
+        mockMvc.perform(patch("/api/appointments/bulk/" + action)
+                        .param("doctorId", "3")
+                        .param("from", DAY.toString())
+                        .param("to", DAY.toString()))
+                .andExpect(status().isOk());
+    }
+}
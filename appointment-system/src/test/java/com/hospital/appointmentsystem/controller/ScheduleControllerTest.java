@@ -0,0 +1,54 @@
+package com.hospital.appointmentsystem.controller;
+
+import com.hospital.appointmentsystem.model.ScheduleException;
+import com.hospital.appointmentsystem.security.JwtPrincipal;
+import com.hospital.appointmentsystem.service.DoctorScheduleService;
+import model.Role;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ScheduleControllerTest {
+
+    private static final JwtPrincipal DOCTOR_3 = new JwtPrincipal(7L, "dr.smith", Role.DOCTOR, null, 3L);
+    private static final JwtPrincipal ADMIN = new JwtPrincipal(1L, "admin", Role.ADMIN, null, null);
+
+    private DoctorScheduleService scheduleService;
+    private ScheduleController controller;
+
+    @BeforeEach
+    void setUp() {
+        scheduleService = mock(DoctorScheduleService.class);
+        controller = new ScheduleController();
+        ReflectionTestUtils.setField(controller, "scheduleService", scheduleService);
+    }
+
+    @Test
+    void doctorCannotChangeAColleaguesCalendar() {
+        assertEquals(HttpStatus.FORBIDDEN, controller.replaceSchedule(4L, List.of(), DOCTOR_3).getStatusCode());
+        assertEquals(HttpStatus.FORBIDDEN,
+                controller.addException(4L, new ScheduleException(), DOCTOR_3).getStatusCode());
+        assertEquals(HttpStatus.FORBIDDEN, controller.deleteException(4L, 9L, DOCTOR_3).getStatusCode());
+
+        verifyNoInteractions(scheduleService);
+    }
+
+    @Test
+    void doctorManagesOwnCalendarAndAdminAnyone() {
+        assertEquals(HttpStatus.OK, controller.replaceSchedule(3L, List.of(), DOCTOR_3).getStatusCode());
+        assertEquals(HttpStatus.CREATED,
+                controller.addException(3L, new ScheduleException(), DOCTOR_3).getStatusCode());
+        assertEquals(HttpStatus.NO_CONTENT, controller.deleteException(4L, 9L, ADMIN).getStatusCode());
+
+        verify(scheduleService).replaceSchedule(eq(3L), anyList());
+        verify(scheduleService).addException(eq(3L), any());
+        verify(scheduleService).deleteException(4L, 9L);
+    }
+}
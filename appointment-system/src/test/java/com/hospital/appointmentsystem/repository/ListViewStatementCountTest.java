@@ -0,0 +1,216 @@
+package com.hospital.appointmentsystem.repository;
+
+import com.hospital.appointmentsystem.dto.AppointmentView;
+import com.hospital.appointmentsystem.dto.MedicalRecordView;
+import com.hospital.appointmentsystem.model.*;
+import jakarta.persistence.EntityManagerFactory;
+import model.AppointmentStatus;
+import model.Role;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Every list endpoint's query must cost one statement however many rows it returns. Runs on an
+ * in-memory H2 database with the schema generated from the mappings; the migrations are
+ * Postgres-only and not needed for these queries.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.sql.init.mode=never",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN"})
+class ListViewStatementCountTest {
+
+    // The application class scans every component, which would pull services into the JPA slice
+    @SpringBootConfiguration
+    @EntityScan("com.hospital.appointmentsystem.model")
+    @EnableJpaRepositories("com.hospital.appointmentsystem.repository")
+    static class JpaOnly {
+    }
+
+    private static final int ROWS = 6;
+    private static final LocalDate TOMORROW = LocalDate.now().plusDays(1);
+    private static final PageRequest PAGE = PageRequest.of(0, 50);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private MedicalRecordRepository medicalRecordRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    private final List<Long> doctorIds = new ArrayList<>();
+    private Long doctorId;
+    private Long patientId;
+
+    @BeforeEach
+    void seed() {
+        for (int i = 0; i < ROWS; i++) {
+            Doctor doctor = new Doctor();
+            doctor.setUser(user("doctor" + i, Role.DOCTOR));
+            doctor.setFirstName("Doc" + i);
+            doctor.setLastName("Tor");
+            doctor.setSpecialization("Cardiology");
+            doctor.setAvailable(true);
+            entityManager.persist(doctor);
+
+            Patient patient = new Patient();
+            patient.setUser(user("patient" + i, Role.PATIENT));
+            patient.setFirstName("Pat" + i);
+            patient.setLastName("Ient");
+            entityManager.persist(patient);
+
+            Appointment appointment = new Appointment();
+            appointment.setDoctor(doctor);
+            appointment.setPatient(patient);
+            appointment.setAppointmentDate(TOMORROW);
+            appointment.setAppointmentTime(LocalTime.of(9, 0).plusMinutes(30L * i));
+            entityManager.persist(appointment);
+
+            MedicalRecord record = new MedicalRecord();
+            record.setDoctor(doctor);
+            record.setPatient(patient);
+            record.setDiagnosis("Hypertension stage " + i);
+            record.setFollowUpDate(TOMORROW);
+            entityManager.persist(record);
+
+            doctorIds.add(doctor.getId());
+            doctorId = doctor.getId();
+            patientId = patient.getId();
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void appointmentListsTakeOneStatement() {
+        assertOneStatement(ROWS, () -> appointmentRepository.findViewPage(PAGE));
+        assertOneStatement(ROWS, () -> appointmentRepository.findViewPageByStatus(AppointmentStatus.SCHEDULED, PAGE));
+        assertOneStatement(1, () -> {
+            try (Stream<AppointmentView> rows = appointmentRepository.streamViews(null, null, doctorId,
+                    EnumSet.allOf(AppointmentStatus.class))) {
+                return rows.toList();
+            }
+        });
+        assertOneStatement(1, () -> appointmentRepository.findViewsByPatientId(patientId));
+        assertOneStatement(1, () -> appointmentRepository.findViewsByDoctorId(doctorId));
+        assertOneStatement(1, () -> appointmentRepository.findUpcomingViewsByPatient(patientId, LocalDate.now()));
+        assertOneStatement(1, () -> appointmentRepository.findDaySheet(doctorId, TOMORROW));
+        assertOneStatement(1, () -> appointmentRepository.findUpcomingSheet(doctorId, LocalDate.now()));
+    }
+
+    @Test
+    void medicalRecordListsTakeOneStatement() {
+        assertOneStatement(ROWS, () -> medicalRecordRepository.findViewPage(PAGE));
+        assertOneStatement(1, () -> medicalRecordRepository.findViewPageByDoctorIdBefore(doctorId,
+                TOMORROW.plusDays(1), Long.MAX_VALUE, PAGE));
+        assertOneStatement(1, () -> medicalRecordRepository.findViewsByPatientId(patientId));
+        assertOneStatement(1, () -> medicalRecordRepository.findViewsByDoctorId(doctorId));
+        assertOneStatement(ROWS, () -> medicalRecordRepository.findViewsByDiagnosisContaining("hypertension"));
+        assertOneStatement(ROWS, () -> medicalRecordRepository.findFollowUpViewPage(LocalDate.now(), PAGE));
+        assertOneStatement(ROWS, () -> {
+            try (Stream<MedicalRecordView> rows = medicalRecordRepository.streamViews(LocalDate.now(), null, null)) {
+                return rows.toList();
+            }
+        });
+    }
+
+    @Test
+    void doctorAndPatientListsTakeOneStatement() {
+        assertOneStatement(ROWS, () -> doctorRepository.findAllViews());
+        assertOneStatement(ROWS, () -> doctorRepository.findAvailableViews());
+        assertOneStatement(ROWS, () -> doctorRepository.findViewsBySpecialization("Cardiology"));
+        assertOneStatement(1, () -> doctorRepository.searchViewsByName("doc0"));
+        assertOneStatement(ROWS, () -> patientRepository.findViewPage(PAGE));
+        assertEquals("doctor0@example.com", doctorRepository.searchViewsByName("doc0").get(0).getEmail());
+    }
+
+    @Test
+    void keysetPagesWalkEveryRowOnceWithoutCounting() {
+        // Same start time for every doctor on another day, so only the id breaks the tie
+        for (Long id : doctorIds) {
+            Appointment appointment = new Appointment();
+            appointment.setDoctor(entityManager.find(Doctor.class, id));
+            appointment.setPatient(entityManager.find(Patient.class, patientId));
+            appointment.setAppointmentDate(TOMORROW.plusDays(1));
+            appointment.setAppointmentTime(LocalTime.of(9, 0));
+            entityManager.persist(appointment);
+        }
+        entityManager.flush();
+
+        List<Long> seen = new ArrayList<>();
+        List<AppointmentView> page = appointmentRepository.findViewPage(PageRequest.of(0, 5));
+        while (!page.isEmpty()) {
+            page.forEach(view -> seen.add(view.getId()));
+            AppointmentView last = page.get(page.size() - 1);
+            assertEquals(1, statements(() -> appointmentRepository.findViewPageAfter(last.getAppointmentDate(),
+                    last.getAppointmentTime(), last.getId(), PageRequest.of(0, 5))));
+            page = appointmentRepository.findViewPageAfter(last.getAppointmentDate(), last.getAppointmentTime(),
+                    last.getId(), PageRequest.of(0, 5));
+        }
+
+        assertEquals(2 * ROWS, seen.size());
+        assertEquals(2 * ROWS, new HashSet<>(seen).size());
+    }
+
+    @Test
+    void entityListsFanOutWhichIsWhyTheViewsExist() {
+        assertTrue(statements(() -> appointmentRepository.findAll()) > 1);
+    }
+
+    private void assertOneStatement(int expectedRows, Supplier<List<?>> query) {
+        List<?>[] result = new List<?>[1];
+        assertEquals(1, statements(() -> result[0] = query.get()));
+        assertEquals(expectedRows, result[0].size());
+    }
+
+    private long statements(Supplier<?> query) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManager.clear();
+        statistics.clear();
+        query.get();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private static User user(String username, Role role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("{noop}secret");
+        user.setEmail(username + "@example.com");
+        user.setRole(role);
+        return user;
+    }
+}
@@ -0,0 +1,85 @@
+package com.hospital.appointmentsystem.security;
+
+import io.jsonwebtoken.JwtException;
+import model.Role;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtKeyringTest {
+
+    @TempDir
+    Path dir;
+
+    private final JwtPrincipal principal = new JwtPrincipal(7L, "alice", Role.DOCTOR, null, 3L);
+
+    @Test
+    void nodesSharingKeyringAcceptEachOthersTokens() {
+        Path file = dir.resolve("keyring.properties");
+        JwtUtil nodeA = jwtUtil(keyring(file));
+        JwtUtil nodeB = jwtUtil(keyring(file));
+
+        VerifiedToken fromA = nodeB.verify(nodeA.generateToken(principal));
+        VerifiedToken fromB = nodeA.verify(nodeB.generateToken(principal));
+
+        assertEquals("alice", fromA.subject());
+        assertEquals(Role.DOCTOR, fromB.role());
+        assertEquals(3L, fromB.doctorId());
+    }
+
+    @Test
+    void tokensSurviveRestart() {
+        Path file = dir.resolve("keyring.properties");
+        String token = jwtUtil(keyring(file)).generateToken(principal);
+
+        JwtUtil restarted = jwtUtil(keyring(file));
+
+        assertEquals(7L, restarted.verify(token).userId());
+    }
+
+    @Test
+    void rotationKeepsOldTokensValidAndOtherNodesFollow() {
+        Path file = dir.resolve("keyring.properties");
+        JwtKeyring keyringA = keyring(file);
+        JwtUtil nodeA = jwtUtil(keyringA);
+        JwtUtil nodeB = jwtUtil(keyring(file));
+        String beforeRotation = nodeA.generateToken(principal);
+        String oldKid = keyringA.active().kid();
+
+        String newKid = keyringA.rotate().kid();
+        String afterRotation = nodeA.generateToken(principal);
+
+        assertNotEquals(oldKid, newKid);
+        assertEquals("alice", nodeA.verify(beforeRotation).subject());
+        // node B has not reloaded yet; the unknown kid makes it pick up the new file
+        assertEquals("alice", nodeB.verify(afterRotation).subject());
+        assertEquals("alice", nodeB.verify(beforeRotation).subject());
+    }
+
+    @Test
+    void tokenFromForeignKeyringIsRejected() {
+        JwtUtil nodeA = jwtUtil(keyring(dir.resolve("a.properties")));
+        JwtUtil stranger = jwtUtil(keyring(dir.resolve("b.properties")));
+
+        String token = stranger.generateToken(principal);
+
+        assertThrows(JwtException.class, () -> nodeA.verify(token));
+    }
+
+    private JwtKeyring keyring(Path file) {
+        JwtKeyring keyring = new JwtKeyring();
+        ReflectionTestUtils.setField(keyring, "keyringPath", file.toString());
+        keyring.init();
+        return keyring;
+    }
+
+    private JwtUtil jwtUtil(JwtKeyring keyring) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "keyring", keyring);
+        return jwtUtil;
+    }
+}
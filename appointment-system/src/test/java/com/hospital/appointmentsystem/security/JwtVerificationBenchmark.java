@@ -0,0 +1,84 @@
+package com.hospital.appointmentsystem.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import model.Role;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.Key;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of JWT handling in JwtRequestFilter.
+ * <p>
+ * {@code legacyFilterPath} reproduces the old flow: extractUsername in the filter, then validateToken
+ * (extractUsername + extractExpiration), each building a new parser. {@code verifyOnce} is the current
+ * {@link JwtUtil#verify(String)} path.
+ * <p>
+ * Run with: {@code mvn test-compile} and then
+ * {@code java -cp target/test-classes:target/classes:<test classpath> com.hospital.appointmentsystem.security.JwtVerificationBenchmark}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtVerificationBenchmark {
+
+    private JwtUtil jwtUtil;
+    private Key key;
+    private String token;
+
+    @Setup
+    public void setUp() throws IOException {
+        Path keyringFile = Files.createTempDirectory("jwt-bench").resolve("keyring.properties");
+        JwtKeyring keyring = new JwtKeyring();
+        ReflectionTestUtils.setField(keyring, "keyringPath", keyringFile.toString());
+        keyring.init();
+
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "keyring", keyring);
+        key = keyring.active().key();
+        token = jwtUtil.generateToken(new JwtPrincipal(1L, "benchmark.user", Role.PATIENT, 1L, null));
+    }
+
+    @Benchmark
+    public boolean legacyFilterPath() {
+        String username = legacyClaims(token).getSubject();
+        String extracted = legacyClaims(token).getSubject();
+        Date expiration = legacyClaims(token).getExpiration();
+        return extracted.equals(username) && !expiration.before(new Date());
+    }
+
+    @Benchmark
+    public VerifiedToken verifyOnce() {
+        return jwtUtil.verify(token);
+    }
+
+    private Claims legacyClaims(String jwt) {
+        return Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(jwt)
+                .getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
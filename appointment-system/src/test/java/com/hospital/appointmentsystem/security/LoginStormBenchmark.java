@@ -0,0 +1,100 @@
+package com.hospital.appointmentsystem.security;
+
+import com.hospital.appointmentsystem.exception.OverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Login storm against a simulated request pool: a burst of BCrypt logins arrives together with a
+ * steady stream of light API requests, and we report the light requests' p50/p99 latency with the
+ * hashing done inline on request threads versus offloaded to {@link PasswordHashingExecutor}.
+ * <p>
+ * Run with {@code java -cp target/test-classes:target/classes:<test classpath> ...LoginStormBenchmark}.
+ */
+public class LoginStormBenchmark {
+
+    private static final int REQUEST_THREADS = 32;
+    private static final int LOGINS = 400;
+    private static final int LIGHT_REQUESTS = 400;
+
+    public static void main(String[] args) throws Exception {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+        String hash = encoder.encode("password");
+
+        run("inline   ", encoder, hash, null);
+        run("offloaded", encoder, hash, newHashingExecutor());
+    }
+
+    private static void run(String label, BCryptPasswordEncoder encoder, String hash,
+                            PasswordHashingExecutor hashing) throws Exception {
+        ThreadPoolExecutor requestPool = new ThreadPoolExecutor(REQUEST_THREADS, REQUEST_THREADS,
+                0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> logins = new ArrayList<>();
+
+        for (int i = 0; i < LOGINS; i++) {
+            logins.add(requestPool.submit(() -> {
+                if (hashing == null) {
+                    return encoder.matches("password", hash);
+                }
+                try {
+                    // Request thread is released; the async response completes on the hashing pool
+                    return hashing.submit(() -> encoder.matches("password", hash));
+                } catch (OverloadedException e) {
+                    rejected.incrementAndGet();
+                    return false;
+                }
+            }));
+        }
+
+        long[] latencies = new long[LIGHT_REQUESTS];
+        CountDownLatch done = new CountDownLatch(LIGHT_REQUESTS);
+        for (int i = 0; i < LIGHT_REQUESTS; i++) {
+            int index = i;
+            long submitted = System.nanoTime();
+            requestPool.execute(() -> {
+                // Stand-in for a cheap read endpoint
+                Math.sqrt(index);
+                latencies[index] = System.nanoTime() - submitted;
+                done.countDown();
+            });
+            Thread.sleep(1);
+        }
+        done.await();
+        for (Future<?> login : logins) {
+            Object result = login.get();
+            if (result instanceof CompletableFuture<?> pending) {
+                try {
+                    pending.join();
+                } catch (CompletionException e) {
+                    rejected.incrementAndGet();
+                }
+            }
+        }
+        requestPool.shutdown();
+
+        Arrays.sort(latencies);
+        System.out.printf("%s light requests p50=%6.1f ms p99=%7.1f ms, logins rejected with 503: %d/%d%n",
+                label,
+                latencies[LIGHT_REQUESTS / 2] / 1e6,
+                latencies[(int) (LIGHT_REQUESTS * 0.99)] / 1e6,
+                rejected.get(), LOGINS);
+    }
+
+    private static PasswordHashingExecutor newHashingExecutor() {
+        PasswordHashingExecutor executor = new PasswordHashingExecutor();
+        ReflectionTestUtils.setField(executor, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(executor, "threads", 0);
+        ReflectionTestUtils.setField(executor, "queueCapacity", 64);
+        ReflectionTestUtils.setField(executor, "maxQueueWaitMs", 2000L);
+        ReflectionTestUtils.invokeMethod(executor, "start");
+        return executor;
+    }
+}
@@ -0,0 +1,50 @@
+package com.hospital.appointmentsystem.security;
+
+import com.hospital.appointmentsystem.repository.TokenRevocationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import model.Role;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TokenRevocationServiceTest {
+
+    private TokenRevocationService service;
+
+    @BeforeEach
+    void setUp() {
+        TokenRevocationRepository repository = mock(TokenRevocationRepository.class);
+        when(repository.findByExpiresAtAfter(any())).thenReturn(List.of());
+        service = new TokenRevocationService();
+        ReflectionTestUtils.setField(service, "revocationRepository", repository);
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "expectedEntries", 1000L);
+        ReflectionTestUtils.invokeMethod(service, "load");
+    }
+
+    @Test
+    void userRevocationCatchesTokensIssuedEarlierInTheSameSecond() {
+        long now = System.currentTimeMillis();
+        // iat as a JWT carries it: whole seconds
+        long issuedThisSecond = now - now % 1000;
+        VerifiedToken token = token(issuedThisSecond);
+        assertFalse(service.isRevoked(token));
+
+        service.revokeUser("alice");
+
+        assertTrue(service.isRevoked(token));
+        assertTrue(service.isRevoked(token(issuedThisSecond - 60_000)));
+        assertFalse(service.isRevoked(token(issuedThisSecond + 2000)));
+    }
+
+    private static VerifiedToken token(long issuedAt) {
+        return new VerifiedToken("jti-" + issuedAt, "alice", issuedAt, issuedAt + JwtUtil.JWT_TOKEN_VALIDITY,
+                Role.PATIENT, 1L, 1L, null);
+    }
+}
@@ -0,0 +1,231 @@
+package com.hospital.appointmentsystem.service;
+
+import com.hospital.appointmentsystem.dto.BookingResult;
+import com.hospital.appointmentsystem.event.AppointmentChangedEvent;
+import com.hospital.appointmentsystem.exception.SlotConflictException;
+import com.hospital.appointmentsystem.model.Appointment;
+import com.hospital.appointmentsystem.model.Doctor;
+import com.hospital.appointmentsystem.model.Patient;
+import com.hospital.appointmentsystem.repository.AppointmentRepository;
+import com.hospital.appointmentsystem.repository.DoctorRepository;
+import com.hospital.appointmentsystem.repository.DoctorScheduleRepository;
+import com.hospital.appointmentsystem.repository.PatientRepository;
+import com.hospital.appointmentsystem.repository.ScheduleExceptionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Hammers one doctor slot from many threads against an in-memory stand-in for the appointments
+ * table that enforces the same uniqueness as {@link BookingEngine#SLOT_INDEX}.
+ */
+class BookingEngineConcurrencyTest {
+
+    private static final int THREADS = 400;
+    private static final LocalDate DATE = LocalDate.now().plusDays(1);
+    private static final LocalTime TIME = LocalTime.of(10, 30);
+    private static final long MISSING_PATIENT = 999L;
+
+    // (doctorId, date, time) -> appointment id
+    private final Map<List<Object>, Long> table = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+    private final AtomicInteger constraintViolations = new AtomicInteger();
+
+    private PatientRepository patients;
+    private BookingEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        AppointmentRepository appointments = mock(AppointmentRepository.class);
+        when(appointments.findBookedIntervals(anyLong(), any())).thenAnswer(call -> table.keySet().stream()
+                .filter(key -> key.get(0).equals(call.getArgument(0)) && key.get(1).equals(call.getArgument(1)))
+                .map(key -> new Object[]{key.get(2), 30})
+                .toList());
+        when(appointments.saveAndFlush(any())).thenAnswer(call -> {
+            Appointment appointment = call.getArgument(0);
+            List<Object> key = List.of(appointment.getDoctor().getId(), appointment.getAppointmentDate(),
+                    appointment.getAppointmentTime());
+            if (appointment.getPatient().getId() == MISSING_PATIENT) {
+                throw new DataIntegrityViolationException("fk", new ConstraintViolationException("fk",
+                        new SQLException("ERROR: insert or update on table \"appointments\" violates foreign key " +
+                                "constraint \"appointments_patient_id_fkey\"\n  Detail: Key (patient_id)=(" +
+                                MISSING_PATIENT + ") is not present in table \"patients\".", "23503"),
+                        "appointments_patient_id_fkey"));
+            }
+            long id = ids.incrementAndGet();
+            if (table.putIfAbsent(key, id) != null) {
+                constraintViolations.incrementAndGet();
+                throw new DataIntegrityViolationException("duplicate key", new ConstraintViolationException(
+                        "duplicate key", new SQLException("duplicate key", "23505"), BookingEngine.SLOT_INDEX));
+            }
+            appointment.setId(id);
+            return appointment;
+        });
+
+        when(appointments.saveAll(anyList())).thenAnswer(call -> {
+            List<Appointment> batch = call.getArgument(0);
+            batch.forEach(appointments::saveAndFlush);
+            return batch;
+        });
+
+        DoctorRepository doctors = mock(DoctorRepository.class);
+        when(doctors.getReferenceById(anyLong())).thenAnswer(call -> doctor(call.getArgument(0)));
+        patients = mock(PatientRepository.class);
+        when(patients.getReferenceById(anyLong())).thenAnswer(call -> patient(call.getArgument(0)));
+
+        // No templates: every doctor works the default 08:00-17:00 day
+        WorkingCalendar workingCalendar = new WorkingCalendar();
+        ReflectionTestUtils.setField(workingCalendar, "scheduleRepository", mock(DoctorScheduleRepository.class));
+        ReflectionTestUtils.setField(workingCalendar, "exceptionRepository", mock(ScheduleExceptionRepository.class));
+        ReflectionTestUtils.setField(workingCalendar, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(workingCalendar, "dayStart", LocalTime.of(8, 0));
+        ReflectionTestUtils.setField(workingCalendar, "dayEnd", LocalTime.of(17, 0));
+        ReflectionTestUtils.setField(workingCalendar, "slotMinutes", 30);
+        ReflectionTestUtils.setField(workingCalendar, "horizonDays", 30);
+        ReflectionTestUtils.invokeMethod(workingCalendar, "init");
+
+        SlotIndex slotIndex = new SlotIndex();
+        ReflectionTestUtils.setField(slotIndex, "appointmentRepository", appointments);
+        ReflectionTestUtils.setField(slotIndex, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(slotIndex, "workingCalendar", workingCalendar);
+        ReflectionTestUtils.setField(slotIndex, "maxDays", 1000);
+        ReflectionTestUtils.setField(slotIndex, "ttlMs", 60_000L);
+        ReflectionTestUtils.invokeMethod(slotIndex, "init");
+
+        // No real transaction: deliver the event straight away, as after commit
+        ApplicationEventPublisher publisher = event -> slotIndex.onAppointmentChanged((AppointmentChangedEvent) event);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        engine = new BookingEngine();
+        ReflectionTestUtils.setField(engine, "appointmentRepository", appointments);
+        ReflectionTestUtils.setField(engine, "doctorRepository", doctors);
+        ReflectionTestUtils.setField(engine, "patientRepository", patients);
+        ReflectionTestUtils.setField(engine, "slotIndex", slotIndex);
+        ReflectionTestUtils.setField(engine, "workingCalendar", workingCalendar);
+        ReflectionTestUtils.setField(engine, "eventPublisher", publisher);
+        ReflectionTestUtils.setField(engine, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(engine, "lockStripes", 64);
+        ReflectionTestUtils.setField(engine, "maxDurationMinutes", 480);
+        ReflectionTestUtils.setField(engine, "maxBulkSize", 1000);
+        ReflectionTestUtils.invokeMethod(engine, "init");
+    }
+
+    @Test
+    void exactlyOneOfManyConcurrentBookingsForOneSlotWins() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger winners = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+
+        for (int i = 0; i < THREADS; i++) {
+            long patientId = i + 1;
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    engine.book(request(7L, patientId, TIME));
+                    winners.incrementAndGet();
+                } catch (SlotConflictException e) {
+                    conflicts.incrementAndGet();
+                } catch (Exception e) {
+                    failures.incrementAndGet();
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        pool.awaitTermination(30, TimeUnit.SECONDS);
+
+        assertEquals(1, winners.get());
+        assertEquals(THREADS - 1, conflicts.get());
+        assertEquals(0, failures.get());
+        assertEquals(1, table.size());
+        // Losers were turned away under the stripe lock, never by the database
+        assertEquals(0, constraintViolations.get());
+    }
+
+    @Test
+    void lostRaceAtTheUniqueIndexIsReportedAsConflict() {
+        // Another node booked the slot after this node loaded the day
+        engine.book(request(9L, 1L, TIME));
+        table.put(List.of(9L, DATE, LocalTime.of(11, 0)), -1L);
+
+        try {
+            engine.book(request(9L, 2L, LocalTime.of(11, 0)));
+        } catch (SlotConflictException e) {
+            assertEquals(1, constraintViolations.get());
+            return;
+        }
+        throw new AssertionError("Expected SlotConflictException");
+    }
+
+    @Test
+    void missingPatientIsReportedFromTheForeignKeyViolationAlone() {
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> engine.book(request(4L, MISSING_PATIENT, TIME)));
+
+        assertEquals("Patient not found with id: " + MISSING_PATIENT, e.getMessage());
+        // The failed INSERT aborted the transaction; nothing more may run on it
+        verify(patients, never()).existsById(anyLong());
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    void bulkBookingReportsEachItem() {
+        engine.book(request(5L, 1L, LocalTime.of(9, 0)));
+
+        List<BookingResult> results = engine.bookAll(List.of(
+                request(5L, 2L, LocalTime.of(9, 0)),    // taken before the batch
+                request(5L, 3L, LocalTime.of(10, 0)),
+                request(5L, 4L, LocalTime.of(10, 0)),   // taken earlier in the batch
+                request(5L, 5L, LocalTime.of(7, 0)),    // before the working day
+                request(6L, 6L, LocalTime.of(10, 0))));
+
+        assertEquals(List.of("CONFLICT", "CREATED", "CONFLICT", "INVALID", "CREATED"),
+                results.stream().map(BookingResult::getStatus).toList());
+        assertEquals(3, table.size());
+        assertEquals(0, constraintViolations.get());
+    }
+
+    private static Appointment request(Long doctorId, Long patientId, LocalTime time) {
+        Appointment appointment = new Appointment();
+        appointment.setDoctor(doctor(doctorId));
+        appointment.setPatient(patient(patientId));
+        appointment.setAppointmentDate(DATE);
+        appointment.setAppointmentTime(time);
+        return appointment;
+    }
+
+    private static Doctor doctor(Long id) {
+        Doctor doctor = new Doctor();
+        doctor.setId(id);
+        return doctor;
+    }
+
+    private static Patient patient(Long id) {
+        Patient patient = new Patient();
+        patient.setId(id);
+        return patient;
+    }
+}
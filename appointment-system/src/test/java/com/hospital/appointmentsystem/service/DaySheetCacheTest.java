@@ -0,0 +1,106 @@
+package com.hospital.appointmentsystem.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.hospital.appointmentsystem.dto.AppointmentView;
+import com.hospital.appointmentsystem.event.AppointmentChangedEvent;
+import com.hospital.appointmentsystem.event.AppointmentChangedEvent.Slot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DaySheetCacheTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+    private static final LocalDate TOMORROW = TODAY.plusDays(1);
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private DaySheetCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new DaySheetCache();
+        ReflectionTestUtils.setField(cache, "objectMapper", new ObjectMapper().registerModule(new JavaTimeModule()));
+        ReflectionTestUtils.setField(cache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "maxEntries", 100);
+        ReflectionTestUtils.setField(cache, "ttlMs", 60_000L);
+        ReflectionTestUtils.invokeMethod(cache, "registerMetrics");
+    }
+
+    @Test
+    void changeEvictsOnlyThatDoctorsDayAndUpcomingSheet() {
+        load(DaySheetCache.Key.day(1L, TODAY), 10L);
+        load(DaySheetCache.Key.day(1L, TOMORROW), 11L);
+        load(DaySheetCache.Key.day(2L, TODAY), 12L);
+        load(DaySheetCache.Key.upcoming(1L, TODAY), 10L, 11L);
+        assertEquals(4, loads.get());
+
+        cache.onAppointmentChanged(new AppointmentChangedEvent(11L,
+                new Slot(1L, TOMORROW, LocalTime.of(9, 0), 30), new Slot(1L, TOMORROW, LocalTime.of(10, 0), 30)));
+
+        assertEquals(2, cache.size());
+        load(DaySheetCache.Key.day(1L, TODAY), 10L);
+        load(DaySheetCache.Key.day(2L, TODAY), 12L);
+        assertEquals(4, loads.get());
+        load(DaySheetCache.Key.day(1L, TOMORROW), 11L);
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void loadRacingAChangeIsServedButNotKept() {
+        DaySheetCache.Key key = DaySheetCache.Key.day(1L, TODAY);
+        byte[] json = cache.get(key, () -> {
+            // The change commits while the old rows are being read
+            cache.evict(1L, TODAY);
+            return List.of(appointment(10L));
+        });
+
+        assertTrue(new String(json).contains("\"id\":10"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void editingACancelledAppointmentEvictsTheSheetsListingIt() {
+        load(DaySheetCache.Key.day(1L, TODAY), 10L, 13L);
+        load(DaySheetCache.Key.day(1L, TOMORROW), 11L);
+
+        cache.onAppointmentChanged(new AppointmentChangedEvent(13L, null, null));
+
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void sheetIsTheFlatViewWithoutProfilesOrAccounts() {
+        String json = new String(cache.get(DaySheetCache.Key.day(1L, TODAY), () -> List.of(appointment(10L))));
+
+        assertTrue(json.contains("\"patientName\":\"Pat 10\""), json);
+        assertFalse(json.contains("\"user\""), json);
+        assertFalse(json.contains("password"), json);
+    }
+
+    private void load(DaySheetCache.Key key, Long... ids) {
+        cache.get(key, () -> {
+            loads.incrementAndGet();
+            return Arrays.stream(ids).map(DaySheetCacheTest::appointment).toList();
+        });
+    }
+
+    private static AppointmentView appointment(Long id) {
+        AppointmentView appointment = new AppointmentView();
+        appointment.setId(id);
+        appointment.setPatientId(100 + id);
+        appointment.setPatientName("Pat " + id);
+        appointment.setDoctorId(1L);
+        appointment.setDoctorName("Dr. Ann Smith");
+        return appointment;
+    }
+}
@@ -0,0 +1,86 @@
+package com.hospital.appointmentsystem.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.hospital.appointmentsystem.dto.AppointmentView;
+import com.hospital.appointmentsystem.repository.AppointmentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import model.AppointmentStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ExportServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 10);
+
+    private final AtomicBoolean streamClosed = new AtomicBoolean();
+    private AppointmentRepository appointmentRepository;
+    private ExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        appointmentRepository = mock(AppointmentRepository.class);
+        when(appointmentRepository.streamViews(any(), any(), any(), anyCollection())).thenAnswer(call ->
+                LongStream.rangeClosed(1, 3).mapToObj(ExportServiceTest::view)
+                        .onClose(() -> streamClosed.set(true)));
+
+        exportService = new ExportService();
+        ReflectionTestUtils.setField(exportService, "appointmentRepository", appointmentRepository);
+        ReflectionTestUtils.setField(exportService, "objectMapper", new ObjectMapper()
+                .registerModule(new JavaTimeModule()).disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+        ReflectionTestUtils.setField(exportService, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(exportService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(exportService, "init");
+    }
+
+    @Test
+    void writesOneJsonObjectPerLineAndClosesTheCursor() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportAppointments(DAY, DAY, 7L, null, false).writeTo(out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(0).startsWith("{\"id\":1,"));
+        assertTrue(lines.get(2).contains("\"appointmentDate\":\"2025-03-10\""));
+        assertTrue(out.toString(StandardCharsets.UTF_8).endsWith("}\n"));
+        assertTrue(streamClosed.get());
+        verify(appointmentRepository).streamViews(DAY, DAY, 7L, EnumSet.allOf(AppointmentStatus.class));
+    }
+
+    @Test
+    void gzipOutputDecompressesToTheSameLines() throws Exception {
+        ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        exportService.exportAppointments(null, null, null, List.of(AppointmentStatus.COMPLETED), false).writeTo(plain);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        exportService.exportAppointments(null, null, null, List.of(AppointmentStatus.COMPLETED), true).writeTo(compressed);
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray()))) {
+            assertArrayEquals(plain.toByteArray(), in.readAllBytes());
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> exportService.exportAppointments(DAY, DAY.minusDays(1), null, null, false));
+    }
+
+    private static AppointmentView view(long id) {
+        return new AppointmentView(id, 2L, "Pat Ient", 7L, "Dr. Doc Tor", "Cardiology", DAY,
+                LocalTime.of(9, 0).plusMinutes(30 * id), 30, AppointmentStatus.COMPLETED, null, null, null, null);
+    }
+}
@@ -0,0 +1,161 @@
+package com.hospital.appointmentsystem.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospital.appointmentsystem.dto.ImportError;
+import com.hospital.appointmentsystem.dto.ImportReport;
+import com.hospital.appointmentsystem.model.Doctor;
+import com.hospital.appointmentsystem.model.JobCheckpoint;
+import com.hospital.appointmentsystem.model.Patient;
+import com.hospital.appointmentsystem.repository.JobCheckpointRepository;
+import com.hospital.appointmentsystem.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import model.Role;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ImportServiceTest {
+
+    private final List<Patient> insertedPatients = new ArrayList<>();
+    private final List<Doctor> insertedDoctors = new ArrayList<>();
+    private JobCheckpoint checkpoint;
+    private ProfileBulkWriter writer;
+    private PasswordEncoder passwordEncoder;
+    private ImportService importService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findExistingUsernames(anyCollection())).thenReturn(List.of());
+        when(userRepository.findExistingEmails(anyCollection())).thenAnswer(call ->
+                ((Collection<String>) call.getArgument(0)).stream().filter(Set.of("taken@example.org")::contains).toList());
+
+        JobCheckpointRepository checkpointRepository = mock(JobCheckpointRepository.class);
+        when(checkpointRepository.findById(anyString())).thenAnswer(call -> Optional.ofNullable(checkpoint));
+        when(checkpointRepository.saveAndFlush(any())).thenAnswer(call -> checkpoint = call.getArgument(0));
+        when(checkpointRepository.findForUpdate(anyString())).thenAnswer(call -> Optional.ofNullable(checkpoint));
+
+        writer = mock(ProfileBulkWriter.class);
+        doAnswer(call -> insertedPatients.addAll(call.getArgument(0))).when(writer).insertPatients(anyList());
+        doAnswer(call -> insertedDoctors.addAll(call.getArgument(0))).when(writer).insertDoctors(anyList());
+
+        passwordEncoder = mock(PasswordEncoder.class);
+        when(passwordEncoder.encode(anyString())).thenAnswer(call -> "hashed:" + call.getArgument(0));
+
+        importService = new ImportService();
+        ReflectionTestUtils.setField(importService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(importService, "checkpointRepository", checkpointRepository);
+        ReflectionTestUtils.setField(importService, "writer", writer);
+        ReflectionTestUtils.setField(importService, "passwordEncoder", passwordEncoder);
+        ReflectionTestUtils.setField(importService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(importService, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(importService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(importService, "batchSize", 2);
+        ReflectionTestUtils.setField(importService, "parallelism", 2);
+        ReflectionTestUtils.setField(importService, "maxReportedErrors", 100);
+        ReflectionTestUtils.invokeMethod(importService, "init");
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(importService, "stop");
+    }
+
+    @Test
+    void reportsBadRecordsAndImportsTheRest() throws Exception {
+        String csv = """
+                username,email,password,First Name,last_name,address
+                alice,alice@example.org,pw1,Alice,Adams,"1 Main St, Springfield"
+                bob,not-an-email,pw2,Bob,Brown,
+
+                carol,carol@example.org,pw3,Carol,Clark,
+                alice,alice2@example.org,pw4,Alicia,Adams,
+                dave,taken@example.org,pw5,Dave,Davis,
+                """;
+
+        ImportReport report = importService.importProfiles(Role.PATIENT, "onboarding", "csv", body(csv));
+
+        assertEquals(5, report.getRead());
+        assertEquals(2, report.getImported());
+        assertEquals(3, report.getFailed());
+        assertEquals(List.of(2L, 4L, 5L), report.getErrors().stream().map(ImportError::getRecord).toList());
+        assertEquals("Email already exists", report.getErrors().get(2).getMessage());
+        assertEquals(List.of("alice", "carol"),
+                insertedPatients.stream().map(patient -> patient.getUser().getUsername()).toList());
+        assertEquals("1 Main St, Springfield", insertedPatients.get(0).getAddress());
+        assertEquals("hashed:pw1", insertedPatients.get(0).getUser().getPassword());
+        assertEquals(Role.PATIENT, insertedPatients.get(0).getUser().getRole());
+        assertEquals("PATIENT:5", checkpoint.getPosition());
+        assertEquals(2L, checkpoint.getProcessed());
+    }
+
+    @Test
+    void resumesAfterTheLastCommittedBatch() throws Exception {
+        checkpoint = new JobCheckpoint("import:doctors-2025", "DOCTOR:2", 2L, LocalDateTime.now());
+        String ndjson = """
+                {"username":"d1","email":"d1@example.org","password":"pw1","firstName":"A","lastName":"One","specialization":"Cardiology"}
+                {"username":"d2","email":"d2@example.org","password":"pw2","firstName":"B","lastName":"Two","specialization":"Neurology"}
+                {"username":"d3","email":"d3@example.org","password":"pw3","firstName":"C","lastName":"Three"}
+                {"username":"d4","email":"d4@example.org","password":"pw4","first_name":"D","last_name":"Four","specialization":"Oncology","consultationFee":120.5,"available":false}
+                """;
+
+        ImportReport report = importService.importProfiles(Role.DOCTOR, "doctors-2025", "ndjson", body(ndjson));
+
+        assertEquals(2, report.getResumedAfter());
+        assertEquals(2, report.getRead());
+        assertEquals(1, report.getImported());
+        assertEquals(3L, report.getErrors().get(0).getRecord());
+        assertEquals(1, insertedDoctors.size());
+        assertEquals(120.5, insertedDoctors.get(0).getConsultationFee());
+        assertFalse(insertedDoctors.get(0).getAvailable());
+        verify(passwordEncoder, never()).encode("pw1");
+        assertEquals("DOCTOR:4", checkpoint.getPosition());
+        assertEquals(3L, checkpoint.getProcessed());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> importService.importProfiles(Role.PATIENT, "doctors-2025", "csv", body("username\n")));
+    }
+
+    @Test
+    void failedBatchFallsBackToSingleRows() throws Exception {
+        doThrow(new DataIntegrityViolationException("batch")).when(writer).insertPatients(argThat(rows -> rows.size() > 1));
+        doThrow(new DataIntegrityViolationException("row")).doAnswer(call -> insertedPatients.addAll(call.getArgument(0)))
+                .when(writer).insertPatients(argThat(rows -> rows.size() == 1));
+        String csv = """
+                username,email,password,firstName,lastName
+                erin,erin@example.org,pw1,Erin,Evans
+                frank,frank@example.org,pw2,Frank,Fox
+                """;
+
+        ImportReport report = importService.importProfiles(Role.PATIENT, "retry", "csv", body(csv));
+
+        assertEquals(1, report.getImported());
+        assertEquals(1L, report.getErrors().get(0).getRecord());
+        assertEquals("frank", insertedPatients.get(0).getUser().getUsername());
+        assertEquals("PATIENT:2", checkpoint.getPosition());
+        assertEquals(1L, checkpoint.getProcessed());
+    }
+
+    private static InputStream body(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,123 @@
+package com.hospital.appointmentsystem.service;
+
+import com.hospital.appointmentsystem.model.JobCheckpoint;
+import com.hospital.appointmentsystem.repository.AppointmentRepository;
+import com.hospital.appointmentsystem.repository.JobCheckpointRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import model.AppointmentStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class NoShowSweeperTest {
+
+    private static final LocalDate YESTERDAY = LocalDate.of(2025, 3, 9);
+    private static final LocalDate TODAY = LocalDate.of(2025, 3, 10);
+    // Grace is 60 minutes, so everything that ended before 14:00 today is due
+    private static final LocalDateTime NOW = TODAY.atTime(15, 0);
+
+    // SCHEDULED rows as findScheduledAfter returns them: [id, doctorId, date, time, duration]
+    private final List<Object[]> scheduled = new ArrayList<>(List.of(
+            row(1, YESTERDAY, "09:00"),
+            row(2, YESTERDAY, "10:00"),
+            row(3, TODAY, "09:00"),
+            row(4, TODAY, "13:45")));      // ends 14:15: not due yet
+    // Checkpoint position at each commit
+    private final List<String> committedPositions = new ArrayList<>();
+    private final List<List<Long>> markedChunks = new ArrayList<>();
+    private final JobCheckpoint checkpoint = new JobCheckpoint(NoShowSweeper.JOB_NAME, null, 0L, NOW.minusDays(1));
+    private NoShowSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        AppointmentRepository appointmentRepository = mock(AppointmentRepository.class);
+        when(appointmentRepository.findScheduledAfter(any(), any(), any(), any(), any())).thenAnswer(call -> {
+            NoShowSweeper.Position after = new NoShowSweeper.Position(
+                    call.getArgument(0), call.getArgument(1), call.<Long>getArgument(2));
+            LocalDate lastDate = call.getArgument(3);
+            Pageable page = call.getArgument(4);
+            return scheduled.stream()
+                    .filter(row -> isAfter(row, after) && !((LocalDate) row[2]).isAfter(lastDate))
+                    .limit(page.getPageSize())
+                    .toList();
+        });
+        when(appointmentRepository.updateStatusByIds(anyCollection(), eq(AppointmentStatus.SCHEDULED),
+                eq(AppointmentStatus.NO_SHOW), eq(NOW))).thenAnswer(call -> {
+            Collection<Long> ids = call.getArgument(0);
+            markedChunks.add(List.copyOf(ids));
+            scheduled.removeIf(row -> ids.contains((Long) row[0]));
+            return ids.size();
+        });
+        JobCheckpointRepository checkpointRepository = mock(JobCheckpointRepository.class);
+        when(checkpointRepository.findForUpdate(NoShowSweeper.JOB_NAME)).thenReturn(Optional.of(checkpoint));
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        doAnswer(call -> committedPositions.add(checkpoint.getPosition())).when(transactionManager).commit(any());
+
+        sweeper = new NoShowSweeper();
+        ReflectionTestUtils.setField(sweeper, "appointmentRepository", appointmentRepository);
+        ReflectionTestUtils.setField(sweeper, "checkpointRepository", checkpointRepository);
+        ReflectionTestUtils.setField(sweeper, "eventPublisher", mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(sweeper, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(sweeper, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(sweeper, "enabled", true);
+        ReflectionTestUtils.setField(sweeper, "chunkSize", 3);
+        ReflectionTestUtils.setField(sweeper, "graceMinutes", 60);
+        ReflectionTestUtils.invokeMethod(sweeper, "init");
+    }
+
+    @Test
+    void fullChunkAdvancesTheCheckpointAndThePartialOneClearsIt() {
+        long marked = sweeper.run(NOW);
+
+        assertEquals(3, marked);
+        assertEquals(List.of(List.of(1L, 2L, 3L)), markedChunks);
+        // After the full chunk: its last row; after the partial one: cleared for the next run
+        assertEquals(Arrays.asList("2025-03-10|09:00|3", null), committedPositions);
+        assertEquals(3L, checkpoint.getProcessed());
+        // Today's 13:45 has not ended an hour ago: still SCHEDULED
+        assertEquals(List.of(4L), scheduled.stream().map(row -> (Long) row[0]).toList());
+    }
+
+    @Test
+    void restartResumesAfterTheStoredPosition() {
+        // A crashed run had committed the chunk ending at appointment 2. Rows 1 and 2 are left
+        // SCHEDULED here to show that nothing at or before the position is read again
+        checkpoint.setPosition("2025-03-09|10:00|2");
+        checkpoint.setProcessed(2L);
+
+        long marked = sweeper.run(NOW);
+
+        assertEquals(1, marked);
+        assertEquals(List.of(List.of(3L)), markedChunks);
+        assertEquals(Arrays.asList((String) null), committedPositions);
+        assertEquals(3L, checkpoint.getProcessed());
+    }
+
+    private static boolean isAfter(Object[] row, NoShowSweeper.Position after) {
+        int byDate = ((LocalDate) row[2]).compareTo(after.date());
+        int byTime = ((LocalTime) row[3]).compareTo(after.time());
+        return byDate > 0 || byDate == 0 && (byTime > 0 || byTime == 0 && (Long) row[0] > after.id());
+    }
+
+    private static Object[] row(long id, LocalDate date, String time) {
+        return new Object[]{id, 7L, date, LocalTime.parse(time), 30};
+    }
+}
@@ -0,0 +1,101 @@
+package com.hospital.appointmentsystem.service;
+
+import com.hospital.appointmentsystem.dto.RegisterRequest;
+import com.hospital.appointmentsystem.dto.RegistrationResult;
+import com.hospital.appointmentsystem.model.User;
+import com.hospital.appointmentsystem.repository.UserRepository;
+import com.hospital.appointmentsystem.security.PasswordHashingExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RegistrationServiceTest {
+
+    // Threads that touched the database
+    private final Set<String> writerThreads = ConcurrentHashMap.newKeySet();
+    private final AtomicLong ids = new AtomicLong();
+    private UserRepository userRepository;
+    private ProfileBulkWriter bulkWriter;
+    private PasswordHashingExecutor hashingExecutor;
+    private RegistrationService service;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        when(userRepository.saveAndFlush(any())).thenAnswer(call -> {
+            writerThreads.add(Thread.currentThread().getName());
+            User user = call.getArgument(0);
+            user.setId(ids.incrementAndGet());
+            return user;
+        });
+        bulkWriter = mock(ProfileBulkWriter.class);
+        doAnswer(call -> {
+            writerThreads.add(Thread.currentThread().getName());
+            List<User> users = call.getArgument(0);
+            users.forEach(user -> user.setId(ids.incrementAndGet()));
+            return null;
+        }).when(bulkWriter).insertUsers(anyList());
+        PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+        when(passwordEncoder.encode(anyString())).thenAnswer(call -> "hashed:" + call.getArgument(0));
+
+        hashingExecutor = new PasswordHashingExecutor();
+        ReflectionTestUtils.setField(hashingExecutor, "threads", 2);
+        ReflectionTestUtils.setField(hashingExecutor, "queueCapacity", 64);
+        ReflectionTestUtils.setField(hashingExecutor, "maxQueueWaitMs", 2000L);
+        ReflectionTestUtils.setField(hashingExecutor, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(hashingExecutor, "start");
+
+        service = new RegistrationService();
+        ReflectionTestUtils.setField(service, "userRepository", userRepository);
+        ReflectionTestUtils.setField(service, "passwordEncoder", passwordEncoder);
+        ReflectionTestUtils.setField(service, "hashingExecutor", hashingExecutor);
+        ReflectionTestUtils.setField(service, "bulkWriter", bulkWriter);
+        ReflectionTestUtils.setField(service, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "expectedAccounts", 1000L);
+        ReflectionTestUtils.setField(service, "maxBatchSize", 1000);
+        ReflectionTestUtils.setField(service, "writeThreads", 2);
+        ReflectionTestUtils.invokeMethod(service, "init");
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(service, "stop");
+        ReflectionTestUtils.invokeMethod(hashingExecutor, "stop");
+    }
+
+    @Test
+    void batchIsOneBulkInsertOffTheHashingPool() throws Exception {
+        List<RegisterRequest> requests = List.of(
+                new RegisterRequest("ann", "pw1", "ann@example.org", "PATIENT"),
+                new RegisterRequest("ben", "pw2", "ben@example.org", "doctor"),
+                new RegisterRequest("ann", "pw3", "ann2@example.org", "PATIENT"),
+                new RegisterRequest("cat", "pw4", "cat@example.org", "NURSE"));
+
+        List<RegistrationResult> results = service.registerBatch(requests).get();
+
+        assertEquals(List.of("CREATED", "CREATED", "DUPLICATE_USERNAME", "INVALID"),
+                results.stream().map(RegistrationResult::getStatus).toList());
+        assertNotNull(results.get(1).getUserId());
+        verify(bulkWriter, times(1)).insertUsers(argThat(users -> users.size() == 2));
+        verify(userRepository, never()).saveAndFlush(any());
+
+        service.register(new RegisterRequest("dan", "pw5", "dan@example.org", "PATIENT")).get();
+
+        assertFalse(writerThreads.isEmpty());
+        assertTrue(writerThreads.stream().allMatch(name -> name.startsWith("registration-write-")), writerThreads::toString);
+    }
+}
@@ -0,0 +1,115 @@
+package com.hospital.appointmentsystem.service;
+
+import com.hospital.appointmentsystem.dto.DoctorSummary;
+import com.hospital.appointmentsystem.dto.RescheduleItem;
+import com.hospital.appointmentsystem.dto.RescheduleReport;
+import com.hospital.appointmentsystem.repository.AppointmentRepository;
+import com.hospital.appointmentsystem.repository.DoctorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RescheduleServiceTest {
+
+    private static final LocalDate DATE = LocalDate.now().plusDays(3);
+
+    private AppointmentRepository appointmentRepository;
+    private SlotIndex slotIndex;
+    private JdbcTemplate jdbcTemplate;
+    private RescheduleService service;
+
+    @BeforeEach
+    void setUp() {
+        appointmentRepository = mock(AppointmentRepository.class);
+        DoctorRepository doctorRepository = mock(DoctorRepository.class);
+        when(doctorRepository.findSummaryById(1L))
+                .thenReturn(Optional.of(new DoctorSummary(1L, "Ada", "Sick", "Cardiology")));
+        when(doctorRepository.findAvailableSummariesBySpecialization("Cardiology")).thenReturn(List.of(
+                new DoctorSummary(1L, "Ada", "Sick", "Cardiology"),
+                new DoctorSummary(2L, "Bo", "Busy", "Cardiology"),
+                new DoctorSummary(3L, "Cy", "Free", "Cardiology")));
+        slotIndex = mock(SlotIndex.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any()))
+                .thenAnswer(call -> new int[][]{new int[((Collection<?>) call.getArgument(1)).size()]});
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        service = new RescheduleService();
+        ReflectionTestUtils.setField(service, "appointmentRepository", appointmentRepository);
+        ReflectionTestUtils.setField(service, "doctorRepository", doctorRepository);
+        ReflectionTestUtils.setField(service, "scheduleService", mock(DoctorScheduleService.class));
+        ReflectionTestUtils.setField(service, "slotIndex", slotIndex);
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(service, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(service, "eventPublisher", mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(service, "parallelism", 2);
+        ReflectionTestUtils.setField(service, "batchSize", 200);
+        ReflectionTestUtils.setField(service, "maxWindowDays", 62);
+        ReflectionTestUtils.invokeMethod(service, "init");
+    }
+
+    @Test
+    void appointmentsGoToTheClosestFreeSlotsWithoutDoubleBooking() {
+        when(appointmentRepository.findScheduledForDoctor(1L, DATE, DATE)).thenReturn(List.of(
+                row(10, "10:00"), row(11, "10:00"), row(12, "10:00"), row(13, "16:00")));
+        when(slotIndex.freeSlots(eq(2L), eq(DATE), anyInt())).thenReturn(List.of(time("10:00")));
+        when(slotIndex.freeSlots(eq(3L), eq(DATE), anyInt()))
+                .thenReturn(List.of(time("09:00"), time("10:00"), time("10:30")));
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any()))
+                .thenAnswer(call -> {
+                    int[] counts = new int[((Collection<?>) call.getArgument(1)).size()];
+                    Arrays.fill(counts, 1);
+                    return new int[][]{counts};
+                });
+
+        RescheduleReport report = service.rescheduleAway(1L, DATE, DATE, null);
+
+        // Three at 10:00 take both 10:00 slots and the nearest other one; 16:00 gets what is left
+        assertEquals(4, report.getAffected());
+        assertEquals(4, report.getMoved());
+        List<String> placed = report.getItems().stream()
+                .map(item -> item.getNewDoctorId() + "@" + item.getNewTime()).sorted().toList();
+        assertEquals(4, placed.stream().distinct().count());
+        assertTrue(placed.containsAll(List.of("2@10:00", "3@10:00")));
+        verify(slotIndex).ensureLoaded(List.of(2L, 3L), DATE, DATE);
+    }
+
+    @Test
+    void rowsChangedSincePlanningAreReportedUnresolved() {
+        when(appointmentRepository.findScheduledForDoctor(1L, DATE, DATE)).thenReturn(List.of(
+                row(10, "10:00"), row(11, "11:00")));
+        when(slotIndex.freeSlots(eq(2L), eq(DATE), anyInt())).thenReturn(List.of(time("10:00")));
+        when(slotIndex.freeSlots(eq(3L), eq(DATE), anyInt())).thenReturn(List.of());
+        // Update counts stay 0: the appointment was cancelled or moved meanwhile
+
+        RescheduleReport report = service.rescheduleAway(1L, DATE, DATE, "Sick");
+
+        assertEquals(0, report.getMoved());
+        assertEquals(List.of("Changed while rescheduling", "No free slot with a colleague that day"),
+                report.getItems().stream().map(RescheduleItem::getReason).toList());
+    }
+
+    private static Object[] row(long id, String time) {
+        return new Object[]{id, 100 + id, DATE, time(time), 30};
+    }
+
+    private static LocalTime time(String time) {
+        return LocalTime.parse(time);
+    }
+}
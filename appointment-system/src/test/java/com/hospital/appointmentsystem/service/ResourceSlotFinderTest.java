@@ -0,0 +1,109 @@
+package com.hospital.appointmentsystem.service;
+
+import com.hospital.appointmentsystem.dto.ResourceSlot;
+import com.hospital.appointmentsystem.model.ClinicResource;
+import com.hospital.appointmentsystem.repository.ClinicResourceRepository;
+import com.hospital.appointmentsystem.repository.ResourceBookingRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import model.ResourceType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ResourceSlotFinderTest {
+
+    private static final LocalDate MONDAY = LocalDate.now().plusDays(7);
+
+    private final List<ClinicResource> resources = new ArrayList<>();
+    private final List<Object[]> booked = new ArrayList<>();
+    private SlotIndex slotIndex;
+    private ResourceSlotFinder finder;
+
+    @BeforeEach
+    void setUp() {
+        ClinicResourceRepository resourceRepository = mock(ClinicResourceRepository.class);
+        when(resourceRepository.findByActiveTrueAndCategoryIn(anyCollection())).thenAnswer(call -> resources.stream()
+                .filter(resource -> call.<Collection<String>>getArgument(0).contains(resource.getCategory()))
+                .toList());
+        ResourceBookingRepository bookingRepository = mock(ResourceBookingRepository.class);
+        when(bookingRepository.findBookedIntervals(anyCollection(), any(), any())).thenAnswer(call -> booked);
+        slotIndex = mock(SlotIndex.class);
+        // Doctor works 09:00-17:00 on a 30-minute grid every day
+        List<LocalTime> grid = new ArrayList<>();
+        for (LocalTime time = LocalTime.of(9, 0); time.isBefore(LocalTime.of(17, 0)); time = time.plusMinutes(30)) {
+            grid.add(time);
+        }
+        when(slotIndex.freeSlots(eq(1L), any(), anyInt())).thenReturn(grid);
+
+        finder = new ResourceSlotFinder();
+        ReflectionTestUtils.setField(finder, "resourceRepository", resourceRepository);
+        ReflectionTestUtils.setField(finder, "bookingRepository", bookingRepository);
+        ReflectionTestUtils.setField(finder, "slotIndex", slotIndex);
+        ReflectionTestUtils.setField(finder, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(finder, "maxWindowDays", 62);
+        ReflectionTestUtils.setField(finder, "maxResults", 100);
+        ReflectionTestUtils.invokeMethod(finder, "init");
+    }
+
+    @Test
+    void everyRequiredCategoryMustHaveADistinctFreeResource() {
+        resources.add(resource(10, ResourceType.ROOM, "ULTRASOUND_ROOM"));
+        resources.add(resource(11, ResourceType.ROOM, "ULTRASOUND_ROOM"));
+        resources.add(resource(20, ResourceType.EQUIPMENT, "PROBE"));
+        // Both rooms busy 09:00-10:00, the probe busy 10:00-10:30
+        booked.add(new Object[]{10L, MONDAY, LocalTime.of(9, 0), 60});
+        booked.add(new Object[]{11L, MONDAY, LocalTime.of(9, 0), 60});
+        booked.add(new Object[]{20L, MONDAY, LocalTime.of(10, 0), 30});
+
+        List<ResourceSlot> slots = finder.findSlots(1L, List.of("ULTRASOUND_ROOM", "PROBE"), MONDAY, MONDAY, 30, 2);
+
+        assertEquals(List.of(LocalTime.of(10, 30), LocalTime.of(11, 0)),
+                slots.stream().map(ResourceSlot::getTime).toList());
+        assertEquals(List.of(10L, 20L), slots.get(0).getResourceIds());
+        // Two rooms of a category that only has two: the 09:00 bookings rule out 09:00 and 09:30
+        List<ResourceSlot> pairs = finder.findSlots(1L, List.of("ULTRASOUND_ROOM", "ULTRASOUND_ROOM"),
+                MONDAY, MONDAY, 30, 1);
+        assertEquals(LocalTime.of(10, 0), pairs.get(0).getTime());
+        assertEquals(List.of(10L, 11L), pairs.get(0).getResourceIds());
+        assertEquals(List.of(), finder.findSlots(1L, List.of("ULTRASOUND_ROOM", "ULTRASOUND_ROOM",
+                "ULTRASOUND_ROOM"), MONDAY, MONDAY, 30, 1));
+    }
+
+    @Test
+    void weekAcrossTwentyRoomsFindsOnlyTheSlotsLeftOpen() {
+        for (long id = 1; id <= 20; id++) {
+            resources.add(resource(id, ResourceType.ROOM, "EXAM_ROOM"));
+        }
+        // Every room taken all day, except room 20 at 15:00-16:00 on the last day
+        for (int day = 0; day < 7; day++) {
+            for (long id = 1; id <= 20; id++) {
+                booked.add(new Object[]{id, MONDAY.plusDays(day), LocalTime.of(9, 0), 480});
+            }
+        }
+        booked.removeIf(row -> row[0].equals(20L) && row[1].equals(MONDAY.plusDays(6)));
+        booked.add(new Object[]{20L, MONDAY.plusDays(6), LocalTime.of(9, 0), 360});
+        booked.add(new Object[]{20L, MONDAY.plusDays(6), LocalTime.of(16, 0), 60});
+
+        List<ResourceSlot> slots = finder.findSlots(1L, List.of("EXAM_ROOM"), MONDAY, MONDAY.plusDays(6), 30, 10);
+
+        assertEquals(List.of(LocalTime.of(15, 0), LocalTime.of(15, 30)),
+                slots.stream().map(ResourceSlot::getTime).toList());
+        assertTrue(slots.stream().allMatch(slot -> slot.getDate().equals(MONDAY.plusDays(6))
+                && slot.getResourceIds().equals(List.of(20L))));
+        verify(slotIndex).ensureLoaded(List.of(1L), MONDAY, MONDAY.plusDays(6));
+    }
+
+    private static ClinicResource resource(long id, ResourceType type, String category) {
+        return new ClinicResource(id, category + "-" + id, type, category, null, true);
+    }
+}
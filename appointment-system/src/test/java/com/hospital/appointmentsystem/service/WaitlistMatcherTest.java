@@ -0,0 +1,118 @@
+package com.hospital.appointmentsystem.service;
+
+import com.hospital.appointmentsystem.exception.SlotConflictException;
+import com.hospital.appointmentsystem.model.Appointment;
+import com.hospital.appointmentsystem.repository.WaitlistEntryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import model.WaitlistStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class WaitlistMatcherTest {
+
+    private static final LocalDate DATE = LocalDate.now().plusDays(1);
+    private static final LocalDateTime SIGNED_UP = LocalDateTime.now().minusDays(1);
+
+    private final List<Long> bookedPatients = new ArrayList<>();
+    private boolean slotTaken;
+    private WaitlistEntryRepository repository;
+    private BookingEngine bookingEngine;
+    private WaitlistMatcher matcher;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(WaitlistEntryRepository.class);
+        when(repository.transition(anyLong(), any(), any(), any())).thenReturn(1);
+        bookingEngine = mock(BookingEngine.class);
+        when(bookingEngine.book(any())).thenAnswer(call -> {
+            if (slotTaken) {
+                throw new SlotConflictException("Time slot is not available");
+            }
+            Appointment appointment = call.getArgument(0);
+            bookedPatients.add(appointment.getPatient().getId());
+            appointment.setId((long) bookedPatients.size());
+            return appointment;
+        });
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        matcher = new WaitlistMatcher();
+        ReflectionTestUtils.setField(matcher, "waitlistRepository", repository);
+        ReflectionTestUtils.setField(matcher, "bookingEngine", bookingEngine);
+        ReflectionTestUtils.setField(matcher, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(matcher, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(matcher, "matcherThreads", 1);
+        ReflectionTestUtils.invokeMethod(matcher, "init");
+    }
+
+    @Test
+    void freedGapGoesToHighestPriorityEntriesThatFit() {
+        matcher.add(waiting(1, 60, 0, SIGNED_UP));
+        matcher.add(waiting(2, 30, 0, SIGNED_UP.plusMinutes(5)));
+        matcher.add(waiting(3, 30, 5, SIGNED_UP.plusMinutes(10)));   // highest priority
+        matcher.add(waiting(4, 45, 9, SIGNED_UP));                   // too long for the gap
+        matcher.add(waiting(5, 30, 0, SIGNED_UP));                   // earlier than patient 2
+
+        // 10:00-11:00 freed: the priority-9 entry takes 45 minutes, the 15 left fit nobody
+        matcher.fillGap(7L, DATE, LocalTime.of(10, 0), 60, System.nanoTime());
+
+        assertEquals(List.of(4L), bookedPatients);
+        // 14:00-15:00 freed: priority 5 first, then the earlier of the two 30-minute sign-ups
+        matcher.fillGap(7L, DATE, LocalTime.of(14, 0), 60, System.nanoTime());
+        assertEquals(List.of(4L, 3L, 5L), bookedPatients);
+    }
+
+    @Test
+    void lostSlotPutsTheEntryBackInLine() {
+        matcher.add(waiting(1, 30, 0, SIGNED_UP));
+        slotTaken = true;
+
+        matcher.fillGap(7L, DATE, LocalTime.of(10, 0), 30, System.nanoTime());
+
+        verify(repository).transition(1L, WaitlistStatus.BOOKED, WaitlistStatus.WAITING, null);
+        slotTaken = false;
+        matcher.fillGap(7L, DATE, LocalTime.of(11, 0), 30, System.nanoTime());
+        assertEquals(List.of(1L), bookedPatients);
+    }
+
+    @Test
+    void freedGapReachesEntriesThatJoinedOnAnotherNode() {
+        // Patient 8 joined on another node: in the database only
+        when(repository.findWaitingOn(7L, DATE)).thenReturn(List.<Object[]>of(
+                new Object[]{8L, 7L, 8L, DATE, 30, 0, SIGNED_UP}));
+
+        matcher.reload(new WaitlistMatcher.DayKey(7L, DATE));
+        matcher.fillGap(7L, DATE, LocalTime.of(10, 0), 30, System.nanoTime());
+
+        assertEquals(List.of(8L), bookedPatients);
+    }
+
+    @Test
+    void entriesClaimedElsewhereAreDroppedOnReload() {
+        matcher.add(waiting(1, 30, 0, SIGNED_UP));
+        when(repository.findWaitingOn(7L, DATE)).thenReturn(List.of());
+
+        matcher.reload(new WaitlistMatcher.DayKey(7L, DATE));
+        matcher.fillGap(7L, DATE, LocalTime.of(10, 0), 30, System.nanoTime());
+
+        assertEquals(List.of(), bookedPatients);
+        verify(repository, never()).transition(anyLong(), any(), any(), any());
+    }
+
+    private static WaitlistMatcher.Waiting waiting(long patientId, int minutes, int priority, LocalDateTime at) {
+        return new WaitlistMatcher.Waiting(patientId, 7L, patientId, DATE, minutes, priority, at);
+    }
+}
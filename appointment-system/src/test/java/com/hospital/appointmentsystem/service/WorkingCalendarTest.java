@@ -0,0 +1,91 @@
+package com.hospital.appointmentsystem.service;
+
+import com.hospital.appointmentsystem.model.Doctor;
+import com.hospital.appointmentsystem.model.DoctorSchedule;
+import com.hospital.appointmentsystem.model.ScheduleException;
+import com.hospital.appointmentsystem.repository.DoctorScheduleRepository;
+import com.hospital.appointmentsystem.repository.ScheduleExceptionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import model.ScheduleExceptionKind;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WorkingCalendarTest {
+
+    private static final LocalDate DAY = LocalDate.now().plusDays(3);
+
+    private final List<Object[]> templates = new ArrayList<>();
+    private final List<Object[]> exceptions = new ArrayList<>();
+    private WorkingCalendar calendar;
+
+    @BeforeEach
+    void setUp() {
+        DoctorScheduleRepository scheduleRepository = mock(DoctorScheduleRepository.class);
+        when(scheduleRepository.findAllWithDoctorId()).thenReturn(templates);
+        ScheduleExceptionRepository exceptionRepository = mock(ScheduleExceptionRepository.class);
+        when(exceptionRepository.findAllWithDoctorIdBetween(any(), any())).thenReturn(exceptions);
+
+        calendar = new WorkingCalendar();
+        ReflectionTestUtils.setField(calendar, "scheduleRepository", scheduleRepository);
+        ReflectionTestUtils.setField(calendar, "exceptionRepository", exceptionRepository);
+        ReflectionTestUtils.setField(calendar, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(calendar, "dayStart", LocalTime.of(8, 0));
+        ReflectionTestUtils.setField(calendar, "dayEnd", LocalTime.of(17, 0));
+        ReflectionTestUtils.setField(calendar, "slotMinutes", 30);
+        ReflectionTestUtils.setField(calendar, "horizonDays", 30);
+        ReflectionTestUtils.invokeMethod(calendar, "init");
+    }
+
+    @Test
+    void templateBlocksAreMergedAndLeaveCutsAHole() {
+        templates.add(new Object[]{1L, block(8, 12, 20)});
+        templates.add(new Object[]{1L, block(12, 16, 30)});
+        exceptions.add(new Object[]{1L, exception(ScheduleExceptionKind.LEAVE, 10, 11)});
+        calendar.refresh();
+
+        assertArrayEquals(new int[]{480, 600, 20, 660, 960, 20}, calendar.blocks(1L, DAY));
+        calendar.checkWorking(1L, DAY, LocalTime.of(11, 30), 60);
+        assertThrows(IllegalArgumentException.class, () -> calendar.checkWorking(1L, DAY, LocalTime.of(9, 45), 30));
+        assertThrows(IllegalArgumentException.class, () -> calendar.checkWorking(1L, DAY, LocalTime.of(3, 0), 30));
+    }
+
+    @Test
+    void holidayClosesEveryoneButExtraHoursStillApply() {
+        exceptions.add(new Object[]{null, exception(ScheduleExceptionKind.HOLIDAY, null, null)});
+        exceptions.add(new Object[]{2L, exception(ScheduleExceptionKind.EXTRA_HOURS, 9, 12)});
+        calendar.refresh();
+
+        assertEquals(0, calendar.blocks(99L, DAY).length);
+        assertArrayEquals(new int[]{540, 720, 30}, calendar.blocks(2L, DAY));
+        assertArrayEquals(new int[]{480, 1020, 30}, calendar.blocks(99L, DAY.plusDays(1)));
+    }
+
+    @Test
+    void datesBeyondTheHorizonAreNotBookable() {
+        assertNull(calendar.blocks(1L, DAY.plusDays(60)));
+        assertThrows(IllegalArgumentException.class,
+                () -> calendar.checkWorking(1L, DAY.plusDays(60), LocalTime.of(9, 0), 30));
+    }
+
+    private static DoctorSchedule block(int fromHour, int toHour, Integer slotMinutes) {
+        return new DoctorSchedule(null, new Doctor(), DAY.getDayOfWeek(),
+                LocalTime.of(fromHour, 0), LocalTime.of(toHour, 0), slotMinutes, null, null);
+    }
+
+    private static ScheduleException exception(ScheduleExceptionKind kind, Integer fromHour, Integer toHour) {
+        return new ScheduleException(null, null, DAY, kind,
+                fromHour != null ? LocalTime.of(fromHour, 0) : null,
+                toHour != null ? LocalTime.of(toHour, 0) : null, null);
+    }
+}
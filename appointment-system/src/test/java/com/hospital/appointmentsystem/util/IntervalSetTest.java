@@ -0,0 +1,57 @@
+package com.hospital.appointmentsystem.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntervalSetTest {
+
+    @Test
+    void longConsultBlocksLaterStartInsideIt() {
+        IntervalSet day = new IntervalSet();
+        day.add(540, 600); // 09:00-10:00
+
+        assertTrue(day.overlaps(570, 600)); // 09:30
+        assertTrue(day.overlaps(510, 541)); // 08:30 for 31 minutes
+        assertFalse(day.overlaps(600, 630)); // back-to-back is fine
+        assertFalse(day.overlaps(510, 540));
+    }
+
+    @Test
+    void shortIntervalAfterLongOneDoesNotHideIt() {
+        IntervalSet day = new IntervalSet();
+        day.add(480, 720); // 08:00-12:00
+        day.add(500, 510);
+
+        // Only the running maximum of the ends catches this one
+        assertTrue(day.overlaps(700, 710));
+        day.remove(480, 720);
+        assertFalse(day.overlaps(700, 710));
+        assertTrue(day.overlaps(505, 506));
+    }
+
+    @Test
+    void freeStartsSkipEverythingAnIntervalCovers() {
+        IntervalSet day = new IntervalSet();
+        day.add(540, 600);
+        day.add(630, 645);
+
+        assertEquals(List.of(480, 510, 600, 660), day.freeStarts(480, 690, 30, 30));
+        assertEquals(List.of(480, 495, 510, 525, 600, 615, 645, 660, 675), day.freeStarts(480, 690, 15, 15));
+    }
+
+    @Test
+    void removeTakesOutOneExactOccurrence() {
+        IntervalSet day = new IntervalSet();
+        day.add(540, 570);
+        day.add(540, 570);
+
+        assertFalse(day.remove(540, 600));
+        assertTrue(day.remove(540, 570));
+        assertTrue(day.overlaps(550, 551));
+        assertTrue(day.remove(540, 570));
+        assertTrue(day.isEmpty());
+    }
+}
@@ -0,0 +1,67 @@
+package com.hospital.appointmentsystem.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    @Test
+    void everyEntryExpiresOnTheFirstAdvanceThatReachesItsDeadline() {
+        Random random = new Random(42);
+        long start = 1_000_003;
+        TimingWheel<Integer, Integer> wheel = new TimingWheel<>(start);
+        Map<Integer, Long> deadlines = new HashMap<>();
+        for (int key = 0; key < 5000; key++) {
+            // Spread over every level and the overflow list
+            long deadline = start + 1 + switch (key % 4) {
+                case 0 -> random.nextInt(64);
+                case 1 -> random.nextInt(4096);
+                case 2 -> random.nextInt(262_144);
+                default -> random.nextInt(2_000_000);
+            };
+            wheel.schedule(key, deadline, key);
+            deadlines.put(key, deadline);
+        }
+
+        long now = start;
+        List<Integer> fired = new ArrayList<>();
+        while (now < start + 2_000_000) {
+            long previous = now;
+            now += 1 + random.nextInt(5000);
+            for (int key : wheel.advance(now)) {
+                long deadline = deadlines.get(key);
+                assertTrue(deadline > previous && deadline <= now, "key " + key + " fired late or early");
+                fired.add(key);
+            }
+        }
+        assertEquals(5000, fired.size());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void rescheduledAndCancelledEntriesFireOnlyAsCurrentlyScheduled() {
+        TimingWheel<String, String> wheel = new TimingWheel<>(0);
+        wheel.schedule("a", 100, "a@100");
+        wheel.schedule("b", 100, "b");
+        wheel.schedule("a", 5000, "a@5000");
+        wheel.cancel("b");
+
+        assertEquals(List.of(), wheel.advance(4999));
+        assertEquals(List.of("a@5000"), wheel.advance(5000));
+    }
+
+    @Test
+    void pastDeadlinesFireOnTheNextAdvance() {
+        TimingWheel<String, String> wheel = new TimingWheel<>(50);
+        wheel.schedule("late", 10, "late");
+
+        assertEquals(List.of("late"), wheel.advance(50));
+    }
+}
@@ -0,0 +1,71 @@
+-- Tables of the first release, as ddl-auto=update created them from that release's entities
+-- before db/migration existed (foreign keys left out). SchemaMigrationsTest upgrades them.
+
+create table users (
+    active boolean not null,
+    created_at timestamp(6),
+    id bigint generated by default as identity,
+    updated_at timestamp(6),
+    username varchar(50) not null unique,
+    email varchar(255) not null unique,
+    password varchar(255) not null,
+    role varchar(255) not null check (role in ('PATIENT','DOCTOR','ADMIN')),
+    primary key (id)
+);
+
+create table patients (
+    date_of_birth date,
+    blood_group varchar(5),
+    id bigint generated by default as identity,
+    user_id bigint unique,
+    phone varchar(15),
+    address varchar(500),
+    emergency_contact varchar(255),
+    emergency_phone varchar(255),
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    primary key (id)
+);
+
+create table doctors (
+    available boolean not null,
+    consultation_fee float(53),
+    years_of_experience integer,
+    id bigint generated by default as identity,
+    user_id bigint unique,
+    phone varchar(15),
+    qualifications varchar(1000),
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    specialization varchar(255) not null,
+    primary key (id)
+);
+
+create table appointments (
+    appointment_date date not null,
+    appointment_time time(6) not null,
+    created_at timestamp(6),
+    doctor_id bigint not null,
+    id bigint generated by default as identity,
+    patient_id bigint not null,
+    updated_at timestamp(6),
+    reason varchar(500),
+    notes varchar(1000),
+    status varchar(255) not null check (status in ('SCHEDULED','COMPLETED','CANCELLED','NO_SHOW')),
+    primary key (id)
+);
+
+create table medical_records (
+    follow_up_date date,
+    record_date date not null,
+    created_at timestamp(6),
+    doctor_id bigint not null,
+    id bigint generated by default as identity,
+    patient_id bigint not null,
+    diagnosis varchar(1000) not null,
+    symptoms varchar(1000),
+    notes varchar(2000),
+    prescription varchar(2000),
+    test_results varchar(2000),
+    primary key (id)
+);